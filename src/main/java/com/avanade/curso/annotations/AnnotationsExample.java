@@ -2,9 +2,13 @@ package com.avanade.curso.annotations;
 
 import java.lang.annotation.*;
 import java.lang.reflect.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.ServiceLoader;
 
 /**
  * ANNOTATIONS EM JAVA
@@ -67,6 +71,17 @@ import java.util.HashMap;
     String regex() default "";
 }
 
+/**
+ * Pede ao ProcessadorValidar que gere, em tempo de compilação, a classe
+ * {@code <Tipo>Validador} com as regras de @Validar em Java puro (sem
+ * reflexão). Os campos anotados não podem ser private, a menos que
+ * tenham getter não privado; em records são lidos pelos acessores.
+ * Ver {@link Validadores}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+@interface GerarValidador {}
+
 /**
  * Anotação repetível (Java 8+)
  * Permite usar múltiplas vezes no mesmo elemento
@@ -112,6 +127,24 @@ class ServicoLegado {
     }
 }
 
+/**
+ * Validador gerado na compilação (ContatoValidador), sem reflexão
+ */
+@GerarValidador
+class Contato {
+    
+    @Validar(tamanhoMinimo = 5, tamanhoMaximo = 100)
+    String nome;
+    
+    @Validar(regex = "^[A-Za-z0-9+_.-]+@(.+)$")
+    String email;
+    
+    Contato(String nome, String email) {
+        this.nome = nome;
+        this.email = email;
+    }
+}
+
 // ============================================
 // PROCESSADOR DE ANOTAÇÕES (REFLECTION)
 // ============================================
@@ -183,45 +216,19 @@ class AnnotationProcessor {
     
     /**
      * Processa anotações em campos (validação)
+     * 
+     * As regras de cada classe são lidas uma vez e reaproveitadas (ver
+     * {@link PlanoValidacao}); aqui só exibimos o resultado
      */
-    public static void validarObjeto(Object obj) throws IllegalAccessException {
-        Class<?> clazz = obj.getClass();
-        System.out.println("\nValidando campos de: " + clazz.getSimpleName());
+    public static void validarObjeto(Object obj) {
+        System.out.println("\nValidando campos de: " + obj.getClass().getSimpleName());
         
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            
-            if (field.isAnnotationPresent(Validar.class)) {
-                Validar validar = field.getAnnotation(Validar.class);
-                Object valor = field.get(obj);
-                
-                System.out.println("  Campo: " + field.getName());
-                
-                // Validação obrigatória
-                if (validar.obrigatorio() && (valor == null || valor.toString().isEmpty())) {
-                    System.out.println("     Campo obrigatório está vazio");
-                    continue;
-                }
-                
-                if (valor != null) {
-                    String strValor = valor.toString();
-                    
-                    // Validação de tamanho
-                    if (strValor.length() < validar.tamanhoMinimo()) {
-                        System.out.println("     Tamanho mínimo: " + validar.tamanhoMinimo());
-                    }
-                    if (strValor.length() > validar.tamanhoMaximo()) {
-                        System.out.println("     Tamanho máximo: " + validar.tamanhoMaximo());
-                    }
-                    
-                    // Validação de regex
-                    if (!validar.regex().isEmpty() && !strValor.matches(validar.regex())) {
-                        System.out.println("     Não corresponde ao padrão");
-                    } else {
-                        System.out.println("     Válido");
-                    }
-                }
-            }
+        List<ErroValidacao> erros = PlanoValidacao.validarObjeto(obj);
+        if (erros.isEmpty()) {
+            System.out.println("  Válido");
+        }
+        for (ErroValidacao erro : erros) {
+            System.out.println("  Campo " + erro.campo() + ": " + erro.mensagem());
         }
     }
     
@@ -338,12 +345,25 @@ class ExemploBuiltInAnnotations {
 
 @Componente
 class MeuServico {
+    // Não private: o módulo gerado (ComponentesPrincipal) atribui direto
     @Injecao
-    private Repositorio repositorio;
+    Repositorio repositorio;
     
     @Transacional
     public void salvarDados(String dados) {
         System.out.println("Salvando: " + dados);
+        if (repositorio != null) {
+            repositorio.salvar(dados);
+        }
+    }
+    
+    // Chama salvarDados pela sobrescrita gerada: as unidades aninham e
+    // todas as escritas vão em um lote só
+    @Transacional
+    public void salvarTodos(List<String> dados) {
+        for (String item : dados) {
+            salvarDados(item);
+        }
     }
     
     @Get(path = "/usuarios")
@@ -355,25 +375,51 @@ class MeuServico {
     public String criarUsuario(String dados) {
         return "Usuário criado";
     }
+    
+    @Get(path = "/usuarios/{id}")
+    public String buscarUsuario(String id) {
+        return "Usuário " + id;
+    }
 }
 
+/**
+ * Dentro de um método @Transacional as escritas são adiadas e gravadas
+ * em lote no fim da unidade de trabalho
+ */
 @Componente
-class Repositorio {
+class Repositorio implements UnidadeTrabalho.Destino {
     public void salvar(Object obj) {
-        System.out.println("Salvo no banco");
+        UnidadeTrabalho.gravar(this, obj);
+    }
+    
+    @Override
+    public void gravarLote(List<Object> objetos) {
+        System.out.println(objetos.size() == 1 ? "Salvo no banco" : "Salvo no banco: lote de " + objetos.size());
     }
 }
 
 /**
  * Container de Injeção de Dependência simplificado
+ * 
+ * As rotas @Get/@Post são indexadas no registro (ver {@link Roteador});
+ * invocar uma rota não percorre os componentes.
+ * 
+ * Duas formas de registro:
+ * - {@link #registrar(Class)}: por reflexão, uma classe por vez; a
+ *   dependência só é injetada se já tiver sido registrada antes
+ * - {@link #carregarModulos()}: módulos gerados na compilação pelo
+ *   ProcessadorComponentes, já em ordem topológica e sem reflexão
  */
 class ContainerDI {
     private Map<Class<?>, Object> componentes = new HashMap<>();
+    private final Roteador roteador = new Roteador();
     
     public void registrar(Class<?> clazz) throws Exception {
         if (clazz.isAnnotationPresent(Componente.class)) {
-            Object instancia = clazz.getDeclaredConstructor().newInstance();
+            // Subclasse gerada se houver métodos @Transacional
+            Object instancia = Transacoes.criar(clazz);
             componentes.put(clazz, instancia);
+            roteador.registrar(clazz, instancia);
             
             // Injeta dependências
             for (Field field : clazz.getDeclaredFields()) {
@@ -393,20 +439,77 @@ class ContainerDI {
         return clazz.cast(componentes.get(clazz));
     }
     
-    public void invocarGet(String path) throws Exception {
-        for (Object componente : componentes.values()) {
-            for (Method method : componente.getClass().getMethods()) {
-                if (method.isAnnotationPresent(Get.class)) {
-                    Get anotacao = method.getAnnotation(Get.class);
-                    if (anotacao.path().equals(path)) {
-                        Object resultado = method.invoke(componente);
-                        System.out.println("GET " + path + " -> " + resultado);
-                        return;
-                    }
+    /**
+     * Registra todos os módulos de componentes listados no índice
+     * (META-INF/services); módulos que dependem de outros são registrados
+     * depois deles
+     * 
+     * @return quantidade de componentes registrados
+     */
+    int carregarModulos() {
+        List<ModuloComponentes> pendentes = new ArrayList<>();
+        ServiceLoader.load(ModuloComponentes.class, ContainerDI.class.getClassLoader()).forEach(pendentes::add);
+        int registrados = 0;
+        while (!pendentes.isEmpty()) {
+            boolean avancou = false;
+            for (Iterator<ModuloComponentes> it = pendentes.iterator(); it.hasNext(); ) {
+                ModuloComponentes modulo = it.next();
+                if (componentes.keySet().containsAll(modulo.externas())) {
+                    modulo.registrar(this);
+                    registrados += modulo.componentes().size();
+                    it.remove();
+                    avancou = true;
                 }
             }
+            if (!avancou) {
+                throw new IllegalStateException("Dependências entre módulos não satisfeitas: " + pendentes);
+            }
+        }
+        return registrados;
+    }
+    
+    /**
+     * Usado pelos módulos gerados: instância já construída e injetada (pode
+     * ser a subclasse @Transacional de {@code clazz}); as rotas o módulo
+     * adiciona ao roteador sem reflexão
+     */
+    void registrarInstancia(Class<?> clazz, Object instancia) {
+        if (componentes.putIfAbsent(clazz, clazz.cast(instancia)) != null) {
+            throw new IllegalStateException("Componente já registrado: " + clazz.getName());
+        }
+    }
+    
+    /**
+     * Usado pelos módulos gerados para dependências de outros módulos
+     */
+    <T> T exigir(Class<T> clazz) {
+        T componente = getComponente(clazz);
+        if (componente == null) {
+            throw new IllegalStateException("Componente não registrado: " + clazz.getName());
         }
-        System.out.println("Rota não encontrada: " + path);
+        return componente;
+    }
+    
+    Roteador getRoteador() {
+        return roteador;
+    }
+    
+    public void invocarGet(String path) throws Exception {
+        invocar(Roteador.Metodo.GET, path, null);
+    }
+    
+    public void invocarPost(String path, String corpo) throws Exception {
+        invocar(Roteador.Metodo.POST, path, corpo);
+    }
+    
+    private void invocar(Roteador.Metodo metodo, String path, String corpo) {
+        Roteador.Correspondencia correspondencia = roteador.buscar(metodo, path);
+        if (correspondencia == null) {
+            System.out.println("Rota não encontrada: " + metodo + " " + path);
+            return;
+        }
+        Object resultado = correspondencia.invocar(corpo);
+        System.out.println(metodo + " " + path + " -> " + resultado);
     }
 }
 
@@ -429,7 +532,11 @@ public class AnnotationsExample {
         
         // Simula dados válidos
         System.out.println("\n--- Com dados válidos ---");
-        // Usando reflection para setar valores (apenas demonstração)
+        // Contato tem validador gerado em tempo de compilação
+        Validador<Contato> validador = Validadores.para(Contato.class);
+        System.out.println("Validador: " + validador.getClass().getSimpleName());
+        System.out.println("Maria Souza: " + validador.validar(new Contato("Maria Souza", "maria@empresa.com")));
+        System.out.println("Ana: " + validador.validar(new Contato("Ana", "ana.empresa.com")));
         
         System.out.println("\n=== METADADOS DAS ANOTAÇÕES ===");
         AnnotationProcessor.listarAnotacoes(ServicoLegado.class);
@@ -442,11 +549,20 @@ public class AnnotationsExample {
         MeuServico meuServico = container.getComponente(MeuServico.class);
         if (meuServico != null) {
             System.out.println("Serviço injetado com sucesso!");
+            System.out.println("Instância: " + meuServico.getClass().getSimpleName());
             meuServico.salvarDados("Teste");
+            meuServico.salvarTodos(List.of("A", "B", "C"));
         }
         
         container.invocarGet("/usuarios");
+        container.invocarGet("/usuarios/42");
+        container.invocarPost("/usuarios", "{\"nome\": \"Ana\"}");
         container.invocarGet("/produtos");
+        
+        // Mesmo grafo pelo módulo gerado na compilação: sem reflexão
+        ContainerDI indexado = new ContainerDI();
+        System.out.println("Componentes do índice: " + indexado.carregarModulos());
+        indexado.invocarGet("/usuarios/7");
     }
     
     public static void main(String[] args) throws Exception {
@@ -0,0 +1,164 @@
+package com.avanade.curso.annotations;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Benchmark: inicialização do ContainerDI com N componentes - varredura
+ * do classpath + registrar por reflexão vs módulo gerado na compilação
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.annotations.BenchmarkInicializacao [componentes]
+ * </pre>
+ *
+ * Gera N classes @Componente (cada uma com até 3 @Injecao de componentes
+ * anteriores e metade com uma rota @Get), compila com o
+ * ProcessadorComponentes e mede cada modo em uma JVM nova (inicialização
+ * é custo de JVM fria: carga de classes, interpretação, sem JIT). Mostra
+ * o tempo até o container pronto, medido dentro da JVM, e o tempo total
+ * do processo; mediana de 5 execuções.
+ */
+public class BenchmarkInicializacao {
+
+    private static final int EXECUCOES = 5;
+    /**
+     * Por nome: referenciar a classe faria o javac compilar o processador
+     * implicitamente na 2ª passada do build, sem processamento de anotações
+     */
+    private static final String PROCESSADOR = "com.avanade.curso.annotations.processamento.ProcessadorComponentes";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--filho")) {
+            filho(args[1], Path.of(args[2]));
+            return;
+        }
+        int componentes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        Path base = Files.createTempDirectory("inicializacao");
+        Path fontes = base.resolve("src");
+        Path classes = base.resolve("classes");
+        String classpathPrincipal = new File(BenchmarkInicializacao.class.getProtectionDomain()
+            .getCodeSource().getLocation().toURI()).getPath();
+
+        gerarFontes(fontes, componentes);
+        compilar(fontes, classes, classpathPrincipal);
+        String classpath = classpathPrincipal + File.pathSeparator + classes;
+
+        System.out.printf("=== %,d componentes, JVM nova por execução ===%n", componentes);
+        medir("varredura + reflexão", classpath, "reflexao", classes);
+        medir("módulo gerado", classpath, "indice", classes);
+    }
+
+    // ============================================
+    // PREPARAÇÃO
+    // ============================================
+
+    private static void gerarFontes(Path fontes, int componentes) throws IOException {
+        Path pacote = fontes.resolve("com/avanade/curso/annotations");
+        Files.createDirectories(pacote);
+        Random random = new Random(42);
+        for (int i = 0; i < componentes; i++) {
+            StringBuilder fonte = new StringBuilder("package com.avanade.curso.annotations;\n\n")
+                .append("@Componente\nclass ").append(nome(i)).append(" {\n");
+            int dependencias = i == 0 ? 0 : random.nextInt(Math.min(i, 3) + 1);
+            for (int d = 0; d < dependencias; d++) {
+                fonte.append("    @Injecao ").append(nome(random.nextInt(i))).append(" d").append(d).append(";\n");
+            }
+            if (i % 2 == 0) {
+                fonte.append("    @Get(path = \"/bench/").append(i).append("/{id}\")\n")
+                    .append("    public String get(String id) { return id; }\n");
+            }
+            fonte.append("}\n");
+            Files.writeString(pacote.resolve(nome(i) + ".java"), fonte);
+        }
+    }
+
+    private static String nome(int i) {
+        return String.format("BenchComp%04d", i);
+    }
+
+    private static void compilar(Path fontes, Path classes, String classpath) throws IOException {
+        JavaCompiler compilador = ToolProvider.getSystemJavaCompiler();
+        if (compilador == null) {
+            throw new IllegalStateException("Benchmark requer um JDK (javax.tools)");
+        }
+        Files.createDirectories(classes);
+        List<String> argumentos = new ArrayList<>(List.of("-classpath", classpath, "-d", classes.toString(),
+            "-s", classes.toString(), "-processor", PROCESSADOR,
+            "-Acomponentes.modulo=Benchmark"));
+        try (Stream<Path> arquivos = Files.walk(fontes)) {
+            arquivos.filter(p -> p.toString().endsWith(".java")).forEach(p -> argumentos.add(p.toString()));
+        }
+        if (compilador.run(null, null, null, argumentos.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Falha ao compilar os componentes gerados");
+        }
+    }
+
+    // ============================================
+    // MEDIÇÃO
+    // ============================================
+
+    private static void medir(String nome, String classpath, String modo, Path classes) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        long[] dentro = new long[EXECUCOES];
+        long[] processo = new long[EXECUCOES];
+        for (int i = 0; i < EXECUCOES; i++) {
+            long inicio = System.nanoTime();
+            Process filho = new ProcessBuilder(java, "-Xshare:auto", "-cp", classpath,
+                BenchmarkInicializacao.class.getName(), "--filho", modo, classes.toString())
+                .redirectErrorStream(true).start();
+            String saida = new String(filho.getInputStream().readAllBytes()).trim();
+            if (filho.waitFor() != 0) {
+                throw new IllegalStateException("Execução falhou: " + saida);
+            }
+            processo[i] = System.nanoTime() - inicio;
+            dentro[i] = Long.parseLong(saida.substring(saida.lastIndexOf('\n') + 1));
+        }
+        Arrays.sort(dentro);
+        Arrays.sort(processo);
+        System.out.printf("%-22s container pronto em %,6.1f ms   processo %,6.1f ms%n",
+            nome, dentro[EXECUCOES / 2] / 1e6, processo[EXECUCOES / 2] / 1e6);
+    }
+
+    /**
+     * Processo filho: monta o container e imprime os nanos gastos
+     */
+    private static void filho(String modo, Path classes) throws Exception {
+        long inicio = System.nanoTime();
+        ContainerDI container = new ContainerDI();
+        if (modo.equals("indice")) {
+            container.carregarModulos();
+        } else {
+            // Varredura como um framework faria: listar .class, carregar e
+            // filtrar por @Componente; nomes ordenados = dependências antes
+            List<String> nomes;
+            try (Stream<Path> arquivos = Files.walk(classes)) {
+                nomes = arquivos.filter(p -> p.toString().endsWith(".class"))
+                    .map(p -> classes.relativize(p).toString().replace(File.separatorChar, '.'))
+                    .map(n -> n.substring(0, n.length() - ".class".length()))
+                    .sorted()
+                    .toList();
+            }
+            for (String nome : nomes) {
+                Class<?> classe = Class.forName(nome);
+                if (classe.isAnnotationPresent(Componente.class)) {
+                    container.registrar(classe);
+                }
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        if (container.getRoteador().getQuantidadeRotas() == 0) {
+            throw new IllegalStateException("Nenhuma rota registrada");
+        }
+        System.out.println(nanos);
+    }
+}
@@ -0,0 +1,117 @@
+package com.avanade.curso.annotations;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: despacho de @Get - varredura por reflexão a cada requisição
+ * (como o invocarGet fazia) vs Roteador
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.annotations.BenchmarkRoteador
+ * </pre>
+ *
+ * A rota procurada fica no último componente; antes dele há N componentes
+ * sem a rota (cada um com alguns métodos @Get), como em uma aplicação com
+ * muitos serviços. A varredura não consegue usar variáveis de caminho, então
+ * a comparação é feita com uma rota literal; o Roteador também é medido
+ * com uma rota com duas variáveis.
+ */
+public class BenchmarkRoteador {
+
+    static class Outro {
+        @Get(path = "/outro/a")
+        public String a() {
+            return "a";
+        }
+
+        @Get(path = "/outro/b")
+        public String b() {
+            return "b";
+        }
+
+        @Post(path = "/outro/c")
+        public String c(String corpo) {
+            return corpo;
+        }
+    }
+
+    static class Alvo {
+        @Get(path = "/api/clientes/ativos")
+        public String ativos() {
+            return "ativos";
+        }
+
+        @Get(path = "/api/clientes/{id}/pedidos/{pedido}")
+        public String pedido(String id, String pedido) {
+            return pedido;
+        }
+    }
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        for (int componentes : new int[] {1, 10, 100}) {
+            List<Object> instancias = new ArrayList<>();
+            for (int i = 0; i < componentes; i++) {
+                instancias.add(new Outro());
+            }
+            instancias.add(new Alvo());
+            Roteador roteador = new Roteador();
+            roteador.registrar(new Outro());
+            roteador.registrar(new Alvo());
+
+            System.out.printf("=== %d componentes antes da rota ===%n", componentes);
+            cronometrar("varredura por reflexão", () -> varrer(instancias, "/api/clientes/ativos"));
+            cronometrar("Roteador (literal)", () ->
+                roteador.buscar(Roteador.Metodo.GET, "/api/clientes/ativos").invocar(null));
+            cronometrar("Roteador (2 variáveis)", () ->
+                roteador.buscar(Roteador.Metodo.GET, "/api/clientes/7/pedidos/123").invocar(null));
+        }
+    }
+
+    /** O invocarGet como era, devolvendo em vez de imprimir */
+    private static Object varrer(List<Object> componentes, String path) {
+        try {
+            for (Object componente : componentes) {
+                for (Method method : componente.getClass().getMethods()) {
+                    if (method.isAnnotationPresent(Get.class)) {
+                        Get anotacao = method.getAnnotation(Get.class);
+                        if (anotacao.path().equals(path)) {
+                            return method.invoke(componente);
+                        }
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return null;
+    }
+
+    /**
+     * Aquecimento por tempo (1 s) e depois 200 ms medidos
+     */
+    private static void cronometrar(String nome, Supplier<Object> despacho) {
+        long soma = 0;
+        long aquecimento = System.nanoTime();
+        while (System.nanoTime() - aquecimento < 1_000_000_000L) {
+            soma += despacho.get().hashCode();
+        }
+        long chamadas = 0;
+        long inicio = System.nanoTime();
+        long nanos;
+        do {
+            for (int i = 0; i < 1_000; i++) {
+                soma += despacho.get().hashCode();
+            }
+            chamadas += 1_000;
+            nanos = System.nanoTime() - inicio;
+        } while (nanos < 200_000_000L);
+        sumidouro = soma;
+        System.out.printf("%-26s %,10.0f ns/requisição%n", nome, (double) nanos / chamadas);
+    }
+}
@@ -0,0 +1,132 @@
+package com.avanade.curso.annotations;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Benchmark: custo do @Transacional por chamada - chamada direta vs
+ * subclasse gerada pelo ProcessadorTransacional vs java.lang.reflect.Proxy
+ * fazendo o mesmo trabalho - e o ganho de gravar em lote
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.annotations.BenchmarkTransacional [chamadas]
+ * </pre>
+ *
+ * No lote, o destino simula um round trip ao banco de 20 µs por lote
+ * (espera ativa) mais 100 ns por objeto; cada pedido grava 10 objetos.
+ */
+public class BenchmarkTransacional {
+
+    interface Conta {
+        long depositar(long valor);
+    }
+
+    static class Contas implements Conta {
+        long saldo;
+
+        @Override
+        @Transacional
+        public long depositar(long valor) {
+            saldo += valor;
+            return saldo;
+        }
+    }
+
+    static class Pedidos {
+        @Transacional
+        public void gravar(UnidadeTrabalho.Destino banco, int itens) {
+            for (int i = 0; i < itens; i++) {
+                UnidadeTrabalho.gravar(banco, i);
+            }
+        }
+    }
+
+    /** Latência fixa por lote, como um INSERT em lote por rede */
+    static final class BancoSimulado implements UnidadeTrabalho.Destino {
+        long objetos;
+
+        @Override
+        public void gravarLote(List<Object> lote) {
+            objetos += lote.size();
+            long fim = System.nanoTime() + 20_000 + 100L * lote.size();
+            while (System.nanoTime() < fim) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) throws Exception {
+        int chamadas = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+
+        Contas direta = new Contas();
+        Conta gerada = Transacoes.criar(Contas.class);
+        Contas alvo = new Contas();
+        Conta proxy = (Conta) Proxy.newProxyInstance(Conta.class.getClassLoader(), new Class<?>[] {Conta.class},
+            (p, metodo, argumentos) -> {
+                UnidadeTrabalho unidade = UnidadeTrabalho.abrir();
+                boolean concluida = false;
+                try {
+                    Object resultado = metodo.invoke(alvo, argumentos);
+                    concluida = true;
+                    return resultado;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    unidade.fechar(concluida);
+                }
+            });
+
+        System.out.printf("=== %,d chamadas, unidade sem escritas ===%n", chamadas);
+        cronometrar("chamada direta", chamadas, direta::depositar);
+        cronometrar("subclasse gerada", chamadas, gerada::depositar);
+        cronometrar("java.lang.reflect.Proxy", chamadas, proxy::depositar);
+        UnidadeTrabalho externa = UnidadeTrabalho.abrir();
+        try {
+            cronometrar("gerada, aninhada", chamadas, gerada::depositar);
+        } finally {
+            externa.fechar(true);
+        }
+
+        int pedidos = 2_000;
+        System.out.printf("%n=== %,d pedidos x 10 escritas ===%n", pedidos);
+        Pedidos semUnidade = new Pedidos();
+        Pedidos comUnidade = Transacoes.criar(Pedidos.class);
+        cronometrarEscritas("escrita a escrita", pedidos, semUnidade);
+        cronometrarEscritas("lote por unidade", pedidos, comUnidade);
+    }
+
+    private static void cronometrar(String nome, int chamadas, LongUnaryOperator chamada) {
+        long soma = 0;
+        for (int r = 0; r < 3; r++) {
+            for (int i = 0; i < chamadas / 10; i++) {
+                soma += chamada.applyAsLong(i);
+            }
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < chamadas; i++) {
+            soma += chamada.applyAsLong(i);
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = soma;
+        System.out.printf("%-26s %,8.2f ns/chamada%n", nome, (double) nanos / chamadas);
+    }
+
+    private static void cronometrarEscritas(String nome, int pedidos, Pedidos servico) {
+        BancoSimulado banco = new BancoSimulado();
+        for (int i = 0; i < pedidos / 10; i++) {
+            servico.gravar(banco, 10);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < pedidos; i++) {
+            servico.gravar(banco, 10);
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = banco.objetos;
+        System.out.printf("%-26s %,8.0f ns/pedido%n", nome, (double) nanos / pedidos);
+    }
+}
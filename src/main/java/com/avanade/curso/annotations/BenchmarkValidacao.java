@@ -0,0 +1,120 @@
+package com.avanade.curso.annotations;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Benchmark: validação por @Validar - reflexão a cada objeto (como o
+ * AnnotationProcessor fazia) vs PlanoValidacao vs validador gerado na
+ * compilação (@GerarValidador)
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.annotations.BenchmarkValidacao [objetos]
+ * </pre>
+ *
+ * Um objeto em cada dez é inválido. A versão reflexiva coleta as
+ * mensagens em lista em vez de imprimir, para comparar só a validação.
+ */
+public class BenchmarkValidacao {
+
+    @GerarValidador
+    static class Cadastro {
+        @Validar(tamanhoMinimo = 3, tamanhoMaximo = 60)
+        String nome;
+
+        @Validar(regex = "^[A-Za-z0-9+_.-]+@(.+)$")
+        String email;
+
+        @Validar(obrigatorio = false, regex = "\\d{5}-\\d{3}")
+        String cep;
+
+        @Validar(tamanhoMaximo = 200)
+        String endereco;
+
+        Cadastro(int i) {
+            this.nome = i % 10 == 0 ? "X" : "Cliente " + i;
+            this.email = "cliente" + i + "@empresa.com";
+            this.cep = String.format("%05d-%03d", i % 100_000, i % 1_000);
+            this.endereco = "Rua " + i;
+        }
+    }
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        List<Cadastro> cadastros = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            cadastros.add(new Cadastro(i));
+        }
+
+        System.out.printf("=== %,d objetos, 4 campos anotados ===%n", quantidade);
+        cronometrar("reflexão por objeto", cadastros, c -> validarPorReflexao(c).size());
+        cronometrar("PlanoValidacao", cadastros, c -> PlanoValidacao.validarObjeto(c).size());
+        Validador<Cadastro> gerado = Validadores.para(Cadastro.class);
+        cronometrar("validador gerado", cadastros, c -> gerado.validar(c).size());
+        cronometrarLote("validarTodos sequencial", cadastros, Integer.MAX_VALUE);
+        cronometrarLote("validarTodos paralelo", cadastros, 10_000);
+    }
+
+    private static void cronometrar(String nome, List<Cadastro> cadastros, ToIntFunction<Cadastro> validacao) {
+        long soma = 0;
+        for (int r = 0; r < 3; r++) {
+            for (Cadastro c : cadastros) {
+                soma += validacao.applyAsInt(c);
+            }
+        }
+        long inicio = System.nanoTime();
+        for (Cadastro c : cadastros) {
+            soma += validacao.applyAsInt(c);
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = soma;
+        System.out.printf("%-26s %,8.0f ns/objeto%n", nome, (double) nanos / cadastros.size());
+    }
+
+    private static void cronometrarLote(String nome, List<Cadastro> cadastros, int limiar) {
+        long soma = 0;
+        for (int r = 0; r < 3; r++) {
+            soma += PlanoValidacao.validarTodos(cadastros, limiar).size();
+        }
+        long inicio = System.nanoTime();
+        soma += PlanoValidacao.validarTodos(cadastros, limiar).size();
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = soma;
+        System.out.printf("%-26s %,8.0f ns/objeto%n", nome, (double) nanos / cadastros.size());
+    }
+
+    /** O validarObjeto como era, coletando em vez de imprimir */
+    private static List<String> validarPorReflexao(Object obj) {
+        List<String> erros = new ArrayList<>();
+        try {
+            for (Field field : obj.getClass().getDeclaredFields()) {
+                field.setAccessible(true);
+                if (field.isAnnotationPresent(Validar.class)) {
+                    Validar validar = field.getAnnotation(Validar.class);
+                    Object valor = field.get(obj);
+                    if (validar.obrigatorio() && (valor == null || valor.toString().isEmpty())) {
+                        erros.add(field.getName());
+                        continue;
+                    }
+                    if (valor != null) {
+                        String strValor = valor.toString();
+                        if (strValor.length() < validar.tamanhoMinimo() || strValor.length() > validar.tamanhoMaximo()) {
+                            erros.add(field.getName());
+                        }
+                        if (!validar.regex().isEmpty() && !strValor.matches(validar.regex())) {
+                            erros.add(field.getName());
+                        }
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return erros;
+    }
+}
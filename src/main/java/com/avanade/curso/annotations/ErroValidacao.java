@@ -0,0 +1,54 @@
+package com.avanade.curso.annotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uma violação de {@link Validar} em um campo
+ *
+ * @param campo    nome do campo
+ * @param violacao regra violada
+ * @param mensagem descrição para exibir ao usuário
+ */
+record ErroValidacao(String campo, Violacao violacao, String mensagem) {
+
+    enum Violacao {
+        OBRIGATORIO,
+        TAMANHO_MINIMO,
+        TAMANHO_MAXIMO,
+        PADRAO
+    }
+
+    // Mensagens em um só lugar: usadas pelo PlanoValidacao e pelos
+    // validadores gerados em tempo de compilação
+
+    static ErroValidacao obrigatorio(String campo) {
+        return new ErroValidacao(campo, Violacao.OBRIGATORIO, "campo obrigatório está vazio");
+    }
+
+    static ErroValidacao tamanhoMinimo(String campo, int minimo) {
+        return new ErroValidacao(campo, Violacao.TAMANHO_MINIMO, "tamanho mínimo: " + minimo);
+    }
+
+    static ErroValidacao tamanhoMaximo(String campo, int maximo) {
+        return new ErroValidacao(campo, Violacao.TAMANHO_MAXIMO, "tamanho máximo: " + maximo);
+    }
+
+    static ErroValidacao padrao(String campo, String regex) {
+        return new ErroValidacao(campo, Violacao.PADRAO, "não corresponde ao padrão " + regex);
+    }
+
+    /**
+     * Acrescenta o erro, criando a lista só no primeiro (objeto válido não aloca)
+     */
+    static List<ErroValidacao> adicionar(List<ErroValidacao> erros, ErroValidacao erro) {
+        List<ErroValidacao> lista = erros == null ? new ArrayList<>(2) : erros;
+        lista.add(erro);
+        return lista;
+    }
+
+    @Override
+    public String toString() {
+        return campo + ": " + mensagem;
+    }
+}
@@ -0,0 +1,152 @@
+package com.avanade.curso.annotations;
+
+import com.avanade.curso.carga.MedicaoCarga;
+import com.avanade.curso.carga.MedicaoCarga.ResultadoCarga;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gerador de carga para o {@link ServidorHttp}
+ *
+ * Abre N conexões HTTP/1.1 keep-alive, cada uma em uma virtual thread, e
+ * envia requisições em sequência (uma de cada vez por conexão). A cada
+ * quatro requisições uma é POST com corpo; as demais são GET com variável
+ * de caminho. A latência é medida do envio até o fim do corpo da resposta;
+ * largada, percentis e relatório ficam em {@link MedicaoCarga}.
+ *
+ * Uso: {@code java ... GeradorCargaHttp [host porta] [conexoes] [reqPorConexao]}
+ * Sem host/porta, sobe um servidor local com MeuServico registrado.
+ */
+public class GeradorCargaHttp {
+
+    private final InetSocketAddress endereco;
+    private final int conexoes;
+    private final int requisicoesPorConexao;
+
+    public GeradorCargaHttp(InetSocketAddress endereco, int conexoes, int requisicoesPorConexao) {
+        this.endereco = endereco;
+        this.conexoes = conexoes;
+        this.requisicoesPorConexao = requisicoesPorConexao;
+    }
+
+    public ResultadoCarga executar() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return MedicaoCarga.medir(executor, conexoes, this::executarConexao);
+        }
+    }
+
+    private long[] executarConexao(int indice, long[] sucessosPorConexao) throws IOException {
+        long[] latencias = new long[requisicoesPorConexao];
+        String host = endereco.getHostString() + ":" + endereco.getPort();
+        byte[] get = ("GET /usuarios/" + indice + " HTTP/1.1\r\nHost: " + host + "\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+        byte[] corpo = ("{\"nome\": \"cliente " + indice + "\"}").getBytes(StandardCharsets.UTF_8);
+        byte[] post = ("POST /usuarios HTTP/1.1\r\nHost: " + host + "\r\nContent-Type: application/json\r\n"
+            + "Content-Length: " + corpo.length + "\r\n\r\n" + new String(corpo, StandardCharsets.UTF_8))
+            .getBytes(StandardCharsets.UTF_8);
+        long sucessos = 0;
+
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(endereco);
+            InputStream entrada = new BufferedInputStream(socket.getInputStream(), 8 * 1024);
+            OutputStream saida = new BufferedOutputStream(socket.getOutputStream(), 8 * 1024);
+            for (int i = 0; i < requisicoesPorConexao; i++) {
+                long enviadoEm = System.nanoTime();
+                saida.write(i % 4 == 3 ? post : get);
+                saida.flush();
+                int status = lerResposta(entrada);
+                latencias[i] = System.nanoTime() - enviadoEm;
+                if (status == 200) {
+                    sucessos++;
+                }
+            }
+        }
+        sucessosPorConexao[indice] = sucessos;
+        return latencias;
+    }
+
+    /**
+     * Lê linha de status, cabeçalhos e corpo (Content-Length)
+     *
+     * @return o código de status
+     */
+    static int lerResposta(InputStream entrada) throws IOException {
+        StringBuilder linha = new StringBuilder(64);
+        int status = -1;
+        long tamanho = 0;
+        while (true) {
+            linha.setLength(0);
+            int c;
+            while ((c = entrada.read()) != '\n') {
+                if (c < 0) {
+                    throw new IOException("Servidor encerrou a conexão");
+                }
+                if (c != '\r') {
+                    linha.append((char) c);
+                }
+            }
+            if (linha.isEmpty()) {
+                break;
+            }
+            if (status < 0) {
+                status = Integer.parseInt(linha.substring(9, 12));
+            } else if (linha.length() > 15 && linha.substring(0, 15).equalsIgnoreCase("content-length:")) {
+                tamanho = Long.parseLong(linha.substring(15).trim());
+            }
+        }
+        while (tamanho > 0) {
+            long pulados = entrada.skip(tamanho);
+            if (pulados <= 0) {
+                if (entrada.read() < 0) {
+                    throw new IOException("Resposta truncada");
+                }
+                pulados = 1;
+            }
+            tamanho -= pulados;
+        }
+        return status;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int conexoes = MedicaoCarga.parametro(args, 0, 64);
+        int requisicoes = MedicaoCarga.parametro(args, 1, 5_000);
+
+        ServidorHttp servidorLocal = null;
+        InetSocketAddress endereco = MedicaoCarga.enderecoInformado(args);
+        if (endereco == null) {
+            ContainerDI container = new ContainerDI();
+            container.registrar(Repositorio.class);
+            container.registrar(MeuServico.class);
+            servidorLocal = new ServidorHttp(container, new InetSocketAddress("127.0.0.1", 0));
+            servidorLocal.iniciar();
+            endereco = new InetSocketAddress("127.0.0.1", servidorLocal.getPorta());
+        }
+
+        try {
+            GeradorCargaHttp gerador = new GeradorCargaHttp(endereco, conexoes, 1_000);
+            System.err.println("Aquecimento: " + gerador.executar());
+
+            gerador = new GeradorCargaHttp(endereco, conexoes, requisicoes);
+            System.err.printf("Conexões=%d, req/conexão=%,d%n", conexoes, requisicoes);
+            System.err.println("Resultado:   " + gerador.executar());
+            if (servidorLocal != null) {
+                System.err.printf("Áreas de buffer: %,d alocadas, %,d reutilizadas%n",
+                    servidorLocal.getAreasAlocadas(), servidorLocal.getAreasReutilizadas());
+            }
+        } finally {
+            if (servidorLocal != null) {
+                servidorLocal.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.avanade.curso.annotations;
+
+import java.util.List;
+
+/**
+ * Módulo de componentes gerado em tempo de compilação pelo
+ * ProcessadorComponentes: registra os @Componente de uma compilação em
+ * ordem topológica, com {@code new} e atribuições diretas, sem varrer o
+ * classpath nem usar reflexão
+ *
+ * Os módulos são listados em {@code META-INF/services} (o índice de
+ * componentes) e carregados por {@link ContainerDI#carregarModulos()}.
+ */
+interface ModuloComponentes {
+
+    /**
+     * @return componentes do módulo, dependências antes de dependentes
+     */
+    List<Class<?>> componentes();
+
+    /**
+     * @return componentes de outros módulos injetados neste; precisam
+     *         estar no container antes do {@link #registrar}
+     */
+    List<Class<?>> externas();
+
+    void registrar(ContainerDI container);
+}
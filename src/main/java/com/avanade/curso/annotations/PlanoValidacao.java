@@ -0,0 +1,191 @@
+package com.avanade.curso.annotations;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Regras de {@link Validar} de uma classe, montadas uma única vez
+ *
+ * A versão reflexiva ({@code getDeclaredFields + setAccessible +
+ * getAnnotation + String.matches}) refaz a inspeção e compila a regex a
+ * cada objeto. O plano guarda, por campo anotado:
+ * - um {@link VarHandle} para ler o campo (sem verificação de acesso
+ *   por chamada), adaptado para invocação exata
+ * - o {@link Pattern} já compilado
+ * - os limites de tamanho
+ *
+ * Os planos ficam em cache por {@link ClassValue}. Campos herdados também
+ * são validados, das superclasses para a subclasse. Erros são devolvidos
+ * como {@link ErroValidacao}; um objeto válido não aloca nada.
+ *
+ * Thread-safe: o plano é imutável.
+ */
+final class PlanoValidacao {
+
+    private static final ClassValue<PlanoValidacao> PLANOS = new ClassValue<>() {
+        @Override
+        protected PlanoValidacao computeValue(Class<?> classe) {
+            return new PlanoValidacao(classe);
+        }
+    };
+
+    private final Class<?> classe;
+    private final Regra[] regras;
+
+    private PlanoValidacao(Class<?> classe) {
+        this.classe = classe;
+        List<Regra> encontradas = new ArrayList<>();
+        if (classe.getSuperclass() != null) {
+            encontradas.addAll(List.of(de(classe.getSuperclass()).regras));
+        }
+        for (Field campo : classe.getDeclaredFields()) {
+            Validar validar = campo.getAnnotation(Validar.class);
+            if (validar != null) {
+                encontradas.add(new Regra(campo.getName(), acessar(campo), validar.obrigatorio(),
+                    validar.tamanhoMinimo(), validar.tamanhoMaximo(),
+                    validar.regex().isEmpty() ? null : Pattern.compile(validar.regex())));
+            }
+        }
+        this.regras = encontradas.toArray(new Regra[0]);
+    }
+
+    static PlanoValidacao de(Class<?> classe) {
+        return PLANOS.get(classe);
+    }
+
+    int getQuantidadeRegras() {
+        return regras.length;
+    }
+
+    /**
+     * @return erros na ordem dos campos; lista vazia se o objeto é válido
+     */
+    List<ErroValidacao> validar(Object objeto) {
+        if (!classe.isInstance(objeto)) {
+            throw new IllegalArgumentException("Plano de " + classe.getSimpleName() + " não valida "
+                + (objeto == null ? "null" : objeto.getClass().getSimpleName()));
+        }
+        List<ErroValidacao> erros = null;
+        for (Regra regra : regras) {
+            erros = regra.validar(objeto, erros);
+        }
+        return erros == null ? List.of() : erros;
+    }
+
+    boolean valido(Object objeto) {
+        return validar(objeto).isEmpty();
+    }
+
+    /**
+     * Valida pelo plano da classe do objeto
+     */
+    static List<ErroValidacao> validarObjeto(Object objeto) {
+        Objects.requireNonNull(objeto, "objeto");
+        return de(objeto.getClass()).validar(objeto);
+    }
+
+    /**
+     * Valida todos, reaproveitando o plano de cada classe; em paralelo a
+     * partir de {@code limiarParalelo} objetos
+     *
+     * @return só os inválidos, na ordem da lista
+     */
+    static <T> List<ObjetoInvalido<T>> validarTodos(List<? extends T> objetos, int limiarParalelo) {
+        int n = objetos.size();
+        if (n < limiarParalelo) {
+            List<ObjetoInvalido<T>> invalidos = new ArrayList<>();
+            int indice = 0;
+            for (T objeto : objetos) {
+                List<ErroValidacao> erros = validarObjeto(objeto);
+                if (!erros.isEmpty()) {
+                    invalidos.add(new ObjetoInvalido<>(indice, objeto, erros));
+                }
+                indice++;
+            }
+            return invalidos;
+        }
+        List<? extends T> origem = objetos instanceof RandomAccess ? objetos : new ArrayList<>(objetos);
+        return IntStream.range(0, n).parallel()
+            .mapToObj(i -> {
+                T objeto = origem.get(i);
+                List<ErroValidacao> erros = validarObjeto(objeto);
+                return erros.isEmpty() ? null : new ObjetoInvalido<T>(i, objeto, erros);
+            })
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * @param indice posição na lista validada
+     */
+    record ObjetoInvalido<T>(int indice, T objeto, List<ErroValidacao> erros) {
+    }
+
+    // ============================================
+    // REGRAS
+    // ============================================
+
+    /**
+     * VarHandle do campo convertido em MethodHandle (Object) → Object, para
+     * {@code invokeExact}: chamar {@code VarHandle.get} com tipos genéricos
+     * passaria pela adaptação de tipos a cada leitura
+     */
+    private static MethodHandle acessar(Field campo) {
+        try {
+            VarHandle handle = MethodHandles.privateLookupIn(campo.getDeclaringClass(), MethodHandles.lookup())
+                .unreflectVarHandle(campo);
+            MethodHandle leitor = handle.toMethodHandle(VarHandle.AccessMode.GET);
+            if (Modifier.isStatic(campo.getModifiers())) {
+                // Campo estático não tem receptor: ignora o objeto recebido
+                leitor = MethodHandles.dropArguments(leitor, 0, Object.class);
+            }
+            return leitor.asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Campo inacessível: " + campo, e);
+        }
+    }
+
+    private record Regra(String campo, MethodHandle leitor, boolean obrigatorio,
+                         int tamanhoMinimo, int tamanhoMaximo, Pattern padrao) {
+
+        /**
+         * Mesmas regras de AnnotationProcessor: obrigatório vazio encerra o
+         * campo; nulo opcional não é verificado
+         */
+        List<ErroValidacao> validar(Object objeto, List<ErroValidacao> erros) {
+            Object valor;
+            try {
+                valor = (Object) leitor.invokeExact(objeto);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Falha ao ler " + campo, t);
+            }
+            if (valor == null) {
+                return obrigatorio ? ErroValidacao.adicionar(erros, ErroValidacao.obrigatorio(campo)) : erros;
+            }
+            String texto = valor.toString();
+            if (obrigatorio && texto.isEmpty()) {
+                return ErroValidacao.adicionar(erros, ErroValidacao.obrigatorio(campo));
+            }
+            if (texto.length() < tamanhoMinimo) {
+                erros = ErroValidacao.adicionar(erros, ErroValidacao.tamanhoMinimo(campo, tamanhoMinimo));
+            }
+            if (texto.length() > tamanhoMaximo) {
+                erros = ErroValidacao.adicionar(erros, ErroValidacao.tamanhoMaximo(campo, tamanhoMaximo));
+            }
+            if (padrao != null && !padrao.matcher(texto).matches()) {
+                erros = ErroValidacao.adicionar(erros, ErroValidacao.padrao(campo, padrao.pattern()));
+            }
+            return erros;
+        }
+    }
+}
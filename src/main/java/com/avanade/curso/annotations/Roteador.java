@@ -0,0 +1,327 @@
+package com.avanade.curso.annotations;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tabela de rotas de @Get/@Post montada no registro dos componentes
+ *
+ * O {@code invocarGet} original percorria todos os componentes e todos os
+ * {@code getMethods()} a cada requisição, lendo anotações e chamando
+ * {@code Method.invoke}. Aqui as rotas ficam em uma trie de segmentos:
+ * a busca percorre o caminho uma vez, segmento a segmento, e o custo não
+ * depende de quantos componentes existem.
+ *
+ * Modelos de caminho aceitam variáveis entre chaves:
+ * <pre>
+ * &#64;Get(path = "/usuarios/{id}/pedidos/{pedido}")
+ * public String pedido(String id, String pedido) { ... }
+ *
+ * &#64;Post(path = "/usuarios/{id}/notas")
+ * public String anotar(String id, String corpo) { ... }
+ * </pre>
+ * Os parâmetros do método recebem as variáveis na ordem do modelo e, no
+ * POST, opcionalmente o corpo como último parâmetro. Todos são String.
+ *
+ * Segmento literal tem prioridade sobre variável no mesmo nível; se o
+ * ramo literal não chegar a uma rota, a busca tenta o da variável.
+ *
+ * O handler de cada rota registrada por reflexão é um {@link MethodHandle}
+ * já ligado ao componente e adaptado para {@code (String[]) → Object},
+ * chamado com {@code invokeExact}. Módulos gerados na compilação
+ * (ModuloComponentes) registram um {@link Manipulador} que chama o método
+ * diretamente, sem reflexão na inicialização.
+ *
+ * Registro NÃO é thread-safe; depois de registradas as rotas, buscas
+ * concorrentes são seguras (a trie não muda mais).
+ */
+final class Roteador {
+
+    enum Metodo {
+        GET,
+        POST
+    }
+
+    private final No raiz = new No();
+    private int quantidadeRotas;
+
+    /**
+     * Indexa os métodos @Get e @Post do componente
+     *
+     * @throws IllegalArgumentException se a assinatura não combina com o modelo
+     * @throws IllegalStateException    se a rota já existe
+     */
+    void registrar(Object componente) {
+        registrar(componente.getClass(), componente);
+    }
+
+    /**
+     * Lê as anotações de {@code tipo}, não da classe da instância: a
+     * subclasse @Transacional gerada sobrescreve métodos sem repetir @Get
+     * e @Post; a chamada continua virtual e passa pela sobrescrita
+     */
+    void registrar(Class<?> tipo, Object componente) {
+        for (Method method : tipo.getMethods()) {
+            Get get = method.getAnnotation(Get.class);
+            if (get != null) {
+                adicionar(Metodo.GET, get.path(), componente, method);
+            }
+            Post post = method.getAnnotation(Post.class);
+            if (post != null) {
+                adicionar(Metodo.POST, post.path(), componente, method);
+            }
+        }
+    }
+
+    int getQuantidadeRotas() {
+        return quantidadeRotas;
+    }
+
+    /**
+     * @return a rota e os valores das variáveis, ou null se não há rota
+     *         para o método neste caminho
+     */
+    Correspondencia buscar(Metodo metodo, String caminho) {
+        return buscar(raiz, caminho, inicioSegmento(caminho, 0), metodo, new String[4], 0);
+    }
+
+    /**
+     * Métodos com rota neste caminho, para distinguir 404 de 405
+     */
+    Set<Metodo> metodosPermitidos(String caminho) {
+        Set<Metodo> permitidos = EnumSet.noneOf(Metodo.class);
+        for (Metodo metodo : Metodo.values()) {
+            if (buscar(metodo, caminho) != null) {
+                permitidos.add(metodo);
+            }
+        }
+        return permitidos;
+    }
+
+    // ============================================
+    // TRIE
+    // ============================================
+
+    private static final class No {
+        private Map<String, No> literais;
+        private No variavel;
+        private final Map<Metodo, Rota> rotas = new EnumMap<>(Metodo.class);
+
+        No literal(String segmento) {
+            if (literais == null) {
+                literais = new HashMap<>(4);
+            }
+            return literais.computeIfAbsent(segmento, s -> new No());
+        }
+
+        No variavel() {
+            if (variavel == null) {
+                variavel = new No();
+            }
+            return variavel;
+        }
+    }
+
+    private void adicionar(Metodo metodo, String modelo, Object componente, Method method) {
+        adicionar(metodo, modelo, method.getParameterCount(), new ManipuladorHandle(compilar(componente, method)));
+    }
+
+    /**
+     * Adiciona uma rota já compilada (usado pelos módulos gerados na
+     * compilação, que chamam o método do componente diretamente)
+     *
+     * @param parametros quantidade de parâmetros String do método
+     */
+    void adicionar(Metodo metodo, String modelo, int parametros, Manipulador manipulador) {
+        if (!modelo.startsWith("/")) {
+            throw new IllegalArgumentException("Caminho deve começar com '/': " + modelo);
+        }
+        No no = raiz;
+        List<String> variaveis = new ArrayList<>();
+        for (String segmento : modelo.split("/")) {
+            if (segmento.isEmpty()) {
+                continue;
+            }
+            if (segmento.startsWith("{") && segmento.endsWith("}")) {
+                variaveis.add(segmento.substring(1, segmento.length() - 1));
+                no = no.variavel();
+            } else {
+                no = no.literal(segmento);
+            }
+        }
+        boolean recebeCorpo = metodo == Metodo.POST && parametros == variaveis.size() + 1;
+        if (parametros != variaveis.size() && !recebeCorpo) {
+            throw new IllegalArgumentException(metodo + " " + modelo + ": o método deve receber " + variaveis.size()
+                + (metodo == Metodo.POST ? " ou " + (variaveis.size() + 1) + " (com o corpo)" : "")
+                + " parâmetros String, não " + parametros);
+        }
+        Rota rota = new Rota(metodo, modelo, List.copyOf(variaveis), recebeCorpo, manipulador);
+        Rota anterior = no.rotas.putIfAbsent(metodo, rota);
+        if (anterior != null) {
+            throw new IllegalStateException("Rota duplicada: " + metodo + " " + modelo
+                + " (" + anterior.modelo() + ")");
+        }
+        quantidadeRotas++;
+    }
+
+    /**
+     * Percorre os segmentos a partir de {@code inicio}; literal antes de
+     * variável, voltando para a variável só se o ramo literal falhar
+     */
+    private static Correspondencia buscar(No no, String caminho, int inicio, Metodo metodo,
+                                          String[] valores, int quantidade) {
+        if (inicio >= caminho.length()) {
+            Rota rota = no.rotas.get(metodo);
+            return rota == null ? null : new Correspondencia(rota, quantidade == 0 ? SEM_VALORES
+                : Arrays.copyOf(valores, quantidade));
+        }
+        int fim = caminho.indexOf('/', inicio);
+        if (fim < 0) {
+            fim = caminho.length();
+        }
+        int proximo = inicioSegmento(caminho, fim);
+        if (no.literais != null) {
+            No filho = no.literais.get(caminho.substring(inicio, fim));
+            if (filho != null) {
+                Correspondencia encontrada = buscar(filho, caminho, proximo, metodo, valores, quantidade);
+                if (encontrada != null) {
+                    return encontrada;
+                }
+            }
+        }
+        if (no.variavel != null) {
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade * 2);
+            }
+            valores[quantidade] = caminho.substring(inicio, fim);
+            return buscar(no.variavel, caminho, proximo, metodo, valores, quantidade + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Pula barras repetidas e a final: "/a//b/" tem os segmentos a e b
+     */
+    private static int inicioSegmento(String caminho, int posicao) {
+        while (posicao < caminho.length() && caminho.charAt(posicao) == '/') {
+            posicao++;
+        }
+        return posicao;
+    }
+
+    private static final String[] SEM_VALORES = new String[0];
+
+    // ============================================
+    // HANDLERS
+    // ============================================
+
+    private static final MethodType TIPO_HANDLER = MethodType.methodType(Object.class, String[].class);
+
+    /**
+     * Liga o método ao componente e adapta para (String[]) → Object; o
+     * array traz as variáveis e, se a rota recebe corpo, o corpo por último
+     */
+    private static MethodHandle compilar(Object componente, Method method) {
+        for (Class<?> tipo : method.getParameterTypes()) {
+            if (tipo != String.class) {
+                throw new IllegalArgumentException(method.getName() + ": parâmetros de rota devem ser String");
+            }
+        }
+        MethodHandle handle = lookup(method).bindTo(componente);
+        if (method.getReturnType() == void.class) {
+            handle = MethodHandles.filterReturnValue(handle, MethodHandles.constant(Object.class, null));
+        }
+        return handle.asSpreader(String[].class, method.getParameterCount()).asType(TIPO_HANDLER);
+    }
+
+    /**
+     * Componentes costumam ser package-private do mesmo pacote: o lookup
+     * do próprio Roteador já tem acesso; privateLookupIn fica para classes
+     * aninhadas privadas. Tentar primeiro o publicLookup lançaria (e
+     * custaria) uma exceção por rota na inicialização.
+     */
+    private static MethodHandle lookup(Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            try {
+                return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflect(method);
+            } catch (IllegalAccessException e2) {
+                throw new IllegalStateException("Método inacessível: " + method, e2);
+            }
+        }
+    }
+
+    /**
+     * Chamada de uma rota: recebe as variáveis e, se for o caso, o corpo
+     */
+    @FunctionalInterface
+    interface Manipulador {
+        Object invocar(String[] argumentos) throws Throwable;
+    }
+
+    /**
+     * Manipulador das rotas registradas por reflexão
+     */
+    private record ManipuladorHandle(MethodHandle handle) implements Manipulador {
+        @Override
+        public Object invocar(String[] argumentos) throws Throwable {
+            return (Object) handle.invokeExact(argumentos);
+        }
+    }
+
+    /**
+     * @param variaveis   nomes das variáveis do modelo, na ordem
+     * @param recebeCorpo POST cujo último parâmetro é o corpo
+     */
+    record Rota(Metodo metodo, String modelo, List<String> variaveis, boolean recebeCorpo, Manipulador manipulador) {
+
+        /**
+         * Exceções do método são propagadas como estão; checadas são
+         * embrulhadas em IllegalStateException
+         */
+        Object invocar(String[] argumentos) {
+            try {
+                return manipulador.invocar(argumentos);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Falha em " + metodo + " " + modelo, t);
+            }
+        }
+    }
+
+    /**
+     * Rota encontrada e os valores das variáveis do caminho
+     */
+    record Correspondencia(Rota rota, String[] valores) {
+
+        String valor(String variavel) {
+            int indice = rota.variaveis().indexOf(variavel);
+            return indice < 0 ? null : valores[indice];
+        }
+
+        /**
+         * @param corpo corpo do POST; ignorado se a rota não o recebe
+         */
+        Object invocar(String corpo) {
+            if (!rota.recebeCorpo()) {
+                return rota.invocar(valores);
+            }
+            String[] argumentos = Arrays.copyOf(valores, valores.length + 1);
+            argumentos[valores.length] = corpo;
+            return rota.invocar(argumentos);
+        }
+    }
+}
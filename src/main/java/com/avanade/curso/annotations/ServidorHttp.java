@@ -0,0 +1,263 @@
+package com.avanade.curso.annotations;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SERVIDOR HTTP EMBUTIDO para as rotas @Get/@Post do {@link ContainerDI}
+ *
+ * Arquitetura:
+ * - {@link HttpServer} do JDK: uma thread despachante aceita conexões e
+ *   lê os cabeçalhos; cada requisição roda em uma virtual thread
+ *   (thread-per-request sem pool de threads de plataforma)
+ * - Rotas resolvidas pelo {@link Roteador} do container, já montado no
+ *   registro dos componentes
+ * - Corpo da requisição e da resposta passam por áreas de trabalho
+ *   recicladas (array de bytes + CharsetEncoder): com virtual threads um
+ *   ThreadLocal não reaproveitaria nada, pois cada requisição tem a sua
+ *   thread, então as áreas ficam em um pool compartilhado
+ *
+ * TCP_NODELAY: o HttpServer escreve cabeçalhos e corpo em chamadas
+ * separadas e, com Nagle ligado (padrão do JDK), cada resposta espera o
+ * ACK atrasado do cliente (~40 ms em loopback). A propriedade
+ * {@code sun.net.httpserver.nodelay} é lida uma vez, quando o primeiro
+ * servidor da JVM é criado; se não foi definida na linha de comando,
+ * {@link #iniciar()} a liga logo antes de criar o servidor.
+ *
+ * Respostas: 200 com o retorno do método como texto (204 se void ou
+ * null), 404 sem rota, 405 com {@code Allow} se a rota existe para outro
+ * método, 413 acima de {@link #LIMITE_CORPO}, 500 se o método falhar
+ * (corpo genérico; a exceção vai para o log, não para o cliente).
+ *
+ * Uso: {@code new ServidorHttp(container, new InetSocketAddress(8080)).iniciar()}
+ */
+final class ServidorHttp implements AutoCloseable {
+
+    static final int LIMITE_CORPO = 1024 * 1024;
+    static final int TAMANHO_AREA = 8 * 1024;
+    private static final int AREAS_RETIDAS = 256;
+    private static final String TIPO_TEXTO = "text/plain; charset=utf-8";
+
+    private static final System.Logger LOG = System.getLogger(ServidorHttp.class.getName());
+
+    private final Roteador roteador;
+    private final InetSocketAddress endereco;
+    private final BlockingQueue<Area> areasLivres = new ArrayBlockingQueue<>(AREAS_RETIDAS);
+    private final LongAdder requisicoes = new LongAdder();
+    private final LongAdder areasAlocadas = new LongAdder();
+    private final LongAdder areasReutilizadas = new LongAdder();
+
+    private HttpServer servidor;
+    private ExecutorService executor;
+
+    ServidorHttp(ContainerDI container, InetSocketAddress endereco) {
+        this.roteador = container.getRoteador();
+        this.endereco = endereco;
+    }
+
+    /**
+     * Abre o socket de escuta; as requisições passam a ser atendidas
+     */
+    synchronized void iniciar() throws IOException {
+        if (servidor != null) {
+            throw new IllegalStateException("Servidor já iniciado");
+        }
+        // Propriedade global da JVM, lida pelo HttpServer só na criação do
+        // primeiro servidor: sem efeito se outro já foi criado antes
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory());
+        servidor = HttpServer.create(endereco, 1024);
+        servidor.createContext("/", this::atender);
+        servidor.setExecutor(executor);
+        servidor.start();
+    }
+
+    /**
+     * Porta efetiva (útil quando o servidor é aberto na porta 0)
+     */
+    int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    long getRequisicoes() {
+        return requisicoes.sum();
+    }
+
+    long getAreasAlocadas() {
+        return areasAlocadas.sum();
+    }
+
+    long getAreasReutilizadas() {
+        return areasReutilizadas.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (servidor == null) {
+            return;
+        }
+        servidor.stop(0);
+        executor.close();
+        servidor = null;
+    }
+
+    // ============================================
+    // ATENDIMENTO
+    // ============================================
+
+    private void atender(HttpExchange troca) throws IOException {
+        requisicoes.increment();
+        Area area = adquirir();
+        try (troca) {
+            String caminho = troca.getRequestURI().getPath();
+            Roteador.Metodo metodo = metodo(troca.getRequestMethod());
+            Roteador.Correspondencia correspondencia = metodo == null ? null : roteador.buscar(metodo, caminho);
+            if (correspondencia == null) {
+                Set<Roteador.Metodo> permitidos = roteador.metodosPermitidos(caminho);
+                if (permitidos.isEmpty()) {
+                    responder(troca, area, 404, "Rota não encontrada: " + caminho);
+                } else {
+                    troca.getResponseHeaders().set("Allow",
+                        permitidos.stream().map(Enum::name).collect(Collectors.joining(", ")));
+                    responder(troca, area, 405, "Método não permitido: " + troca.getRequestMethod());
+                }
+                return;
+            }
+            String corpo = null;
+            if (correspondencia.rota().recebeCorpo()) {
+                corpo = lerCorpo(troca.getRequestBody(), area);
+                if (corpo == null) {
+                    responder(troca, area, 413, "Corpo acima de " + LIMITE_CORPO + " bytes");
+                    return;
+                }
+            }
+            Object resultado;
+            try {
+                resultado = correspondencia.invocar(corpo);
+            } catch (RuntimeException e) {
+                // Mensagens de exceção podem expor detalhes internos: ficam no log
+                LOG.log(System.Logger.Level.ERROR, "Falha em " + troca.getRequestMethod() + " " + caminho, e);
+                responder(troca, area, 500, "Erro interno");
+                return;
+            }
+            if (resultado == null) {
+                troca.sendResponseHeaders(204, -1);
+            } else {
+                responder(troca, area, 200, resultado.toString());
+            }
+        } finally {
+            liberar(area);
+        }
+    }
+
+    private static Roteador.Metodo metodo(String nome) {
+        return switch (nome) {
+            case "GET" -> Roteador.Metodo.GET;
+            case "POST" -> Roteador.Metodo.POST;
+            default -> null;
+        };
+    }
+
+    /**
+     * Lê o corpo inteiro no array da área, crescendo até o limite
+     *
+     * @return o corpo em UTF-8, ou null se passar de {@link #LIMITE_CORPO}
+     */
+    private static String lerCorpo(InputStream entrada, Area area) throws IOException {
+        byte[] bytes = area.bytes;
+        int lidos = 0;
+        int n;
+        while ((n = entrada.read(bytes, lidos, bytes.length - lidos)) > 0) {
+            lidos += n;
+            if (lidos == bytes.length) {
+                if (bytes.length >= LIMITE_CORPO) {
+                    if (entrada.read() >= 0) {
+                        return null;
+                    }
+                    break;
+                }
+                bytes = Arrays.copyOf(bytes, Math.min(bytes.length * 2, LIMITE_CORPO));
+                area.bytes = bytes;
+            }
+        }
+        return new String(bytes, 0, lidos, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Codifica o texto direto no array da área; só aloca se não couber
+     */
+    private static void responder(HttpExchange troca, Area area, int status, String texto) throws IOException {
+        troca.getResponseHeaders().set("Content-Type", TIPO_TEXTO);
+        byte[] bytes = area.bytes;
+        int tamanho;
+        ByteBuffer destino = ByteBuffer.wrap(bytes);
+        CharsetEncoder codificador = area.codificador.reset();
+        CoderResult resultado = codificador.encode(CharBuffer.wrap(texto), destino, true);
+        if (resultado.isUnderflow() && codificador.flush(destino).isUnderflow()) {
+            tamanho = destino.position();
+        } else {
+            bytes = texto.getBytes(StandardCharsets.UTF_8);
+            tamanho = bytes.length;
+        }
+        troca.sendResponseHeaders(status, tamanho);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes, 0, tamanho);
+        }
+    }
+
+    // ============================================
+    // ÁREAS DE TRABALHO RECICLADAS
+    // ============================================
+
+    /**
+     * Buffer de corpo e codificador; usada por uma requisição por vez
+     */
+    private static final class Area {
+        byte[] bytes = new byte[TAMANHO_AREA];
+        final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private Area adquirir() {
+        Area area = areasLivres.poll();
+        if (area == null) {
+            areasAlocadas.increment();
+            return new Area();
+        }
+        areasReutilizadas.increment();
+        return area;
+    }
+
+    /**
+     * Áreas que cresceram por causa de um corpo grande voltam ao tamanho
+     * padrão, para o pool não reter megabytes; o excedente vai para o GC
+     */
+    private void liberar(Area area) {
+        if (area.bytes.length != TAMANHO_AREA) {
+            area.bytes = new byte[TAMANHO_AREA];
+        }
+        areasLivres.offer(area);
+    }
+}
@@ -0,0 +1,47 @@
+package com.avanade.curso.annotations;
+
+/**
+ * Ponto de entrada para instanciar classes com métodos {@link Transacional}
+ *
+ * O ProcessadorTransacional gera, na compilação, uma subclasse
+ * {@code pacote.Externa_InternaTransacional} que sobrescreve cada método
+ * anotado abrindo e fechando a {@link UnidadeTrabalho} em volta do
+ * {@code super}. Sem java.lang.reflect.Proxy: a chamada é virtual comum,
+ * que o JIT inlina. Classes sem métodos anotados são instanciadas como
+ * estão. A busca pela subclasse é feita uma vez por classe (cache por
+ * {@link ClassValue}).
+ */
+final class Transacoes {
+
+    static final String SUFIXO = "Transacional";
+
+    private static final ClassValue<Class<?>> INTERCEPTADAS = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> classe) {
+            try {
+                Class<?> gerada = Class.forName(Validadores.nomeGerado(classe, SUFIXO), false, classe.getClassLoader());
+                if (gerada.getSuperclass() != classe) {
+                    throw new IllegalStateException("Interceptador gerado inválido para " + classe.getName());
+                }
+                return gerada;
+            } catch (ClassNotFoundException e) {
+                return classe;
+            }
+        }
+    };
+
+    private Transacoes() {}
+
+    /**
+     * @return a subclasse gerada, ou a própria classe se não há métodos
+     *         {@link Transacional}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Class<? extends T> interceptada(Class<T> classe) {
+        return (Class<? extends T>) INTERCEPTADAS.get(classe);
+    }
+
+    static <T> T criar(Class<T> classe) throws ReflectiveOperationException {
+        return interceptada(classe).getDeclaredConstructor().newInstance();
+    }
+}
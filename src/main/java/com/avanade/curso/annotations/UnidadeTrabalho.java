@@ -0,0 +1,128 @@
+package com.avanade.curso.annotations;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UNIDADE DE TRABALHO aberta em volta dos métodos {@link Transacional}
+ *
+ * - Uma por thread, reaproveitada entre chamadas
+ * - Chamadas aninhadas entram na unidade já aberta (só a profundidade
+ *   aumenta); quem grava é o fechamento da mais externa
+ * - Escritas feitas dentro da unidade ({@link #gravar}) ficam em buffer;
+ *   no fechamento, cada {@link Destino} recebe as suas em um único lote,
+ *   na ordem em que foram feitas
+ * - Falha em qualquer nível marca a unidade para desfazer: nada é gravado
+ * - Não há atomicidade entre destinos: se o lote de um destino falha, os
+ *   dos demais são gravados mesmo assim e a falha é lançada no fim
+ *
+ * Quem abre e fecha é o código gerado pelo ProcessadorTransacional, em
+ * uma subclasse que sobrescreve os métodos anotados (ver
+ * {@link Transacoes}); fora de escritas, o custo por chamada é um
+ * ThreadLocal.get e o contador de profundidade.
+ */
+final class UnidadeTrabalho {
+
+    /**
+     * Backend que recebe as escritas em lote (ex.: {@link Repositorio})
+     */
+    interface Destino {
+        void gravarLote(List<Object> objetos);
+    }
+
+    private static final ThreadLocal<UnidadeTrabalho> UNIDADES = new ThreadLocal<>();
+
+    private int profundidade;
+    private boolean desfazer;
+    private Map<Destino, List<Object>> pendentes = new LinkedHashMap<>();
+
+    private UnidadeTrabalho() {}
+
+    /**
+     * Abre uma unidade na thread atual, ou entra na que já está aberta;
+     * todo abrir precisa de um {@link #fechar}
+     */
+    static UnidadeTrabalho abrir() {
+        UnidadeTrabalho unidade = UNIDADES.get();
+        if (unidade == null) {
+            unidade = new UnidadeTrabalho();
+            UNIDADES.set(unidade);
+        }
+        unidade.profundidade++;
+        return unidade;
+    }
+
+    /**
+     * @return a unidade aberta na thread atual, ou null
+     */
+    static UnidadeTrabalho atual() {
+        UnidadeTrabalho unidade = UNIDADES.get();
+        return unidade != null && unidade.profundidade > 0 ? unidade : null;
+    }
+
+    /**
+     * Dentro de uma unidade, adia a escrita para o lote do destino; fora,
+     * grava na hora (lote de um)
+     */
+    static void gravar(Destino destino, Object objeto) {
+        UnidadeTrabalho unidade = atual();
+        if (unidade == null) {
+            destino.gravarLote(List.of(objeto));
+        } else {
+            unidade.pendentes.computeIfAbsent(destino, d -> new ArrayList<>()).add(objeto);
+        }
+    }
+
+    int getProfundidade() {
+        return profundidade;
+    }
+
+    /**
+     * Sai de um nível; no mais externo grava os lotes ou os descarta
+     *
+     * @param concluida false se o método terminou com exceção
+     * @throws IllegalStateException se o método externo concluiu, mas uma
+     *         chamada aninhada falhou (e a exceção foi engolida): as
+     *         escritas são descartadas mesmo assim
+     * @throws RuntimeException a primeira falha de {@code gravarLote},
+     *         depois de tentar todos os destinos; as falhas seguintes vão
+     *         em {@link Throwable#getSuppressed()}
+     */
+    void fechar(boolean concluida) {
+        desfazer |= !concluida;
+        if (--profundidade > 0) {
+            return;
+        }
+        boolean descartar = desfazer;
+        desfazer = false;
+        Map<Destino, List<Object>> lotes = pendentes;
+        if (!lotes.isEmpty()) {
+            // Buffer novo antes de gravar: um destino pode abrir outra unidade
+            pendentes = new LinkedHashMap<>();
+        }
+        if (descartar) {
+            if (concluida) {
+                throw new IllegalStateException("Unidade de trabalho desfeita por uma chamada aninhada que falhou; "
+                    + lotes.values().stream().mapToInt(List::size).sum() + " escrita(s) descartada(s)");
+            }
+            return;
+        }
+        RuntimeException falha = null;
+        for (Map.Entry<Destino, List<Object>> lote : lotes.entrySet()) {
+            try {
+                lote.getKey().gravarLote(lote.getValue());
+            } catch (RuntimeException e) {
+                if (falha == null) {
+                    falha = e;
+                } else {
+                    falha.addSuppressed(e);
+                }
+            }
+        }
+        if (falha != null) {
+            throw falha;
+        }
+    }
+}
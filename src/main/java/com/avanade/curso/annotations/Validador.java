@@ -0,0 +1,23 @@
+package com.avanade.curso.annotations;
+
+import java.util.List;
+
+/**
+ * Valida as regras de {@link Validar} de um tipo
+ *
+ * Implementado pelas classes geradas para tipos com
+ * {@link GerarValidador} e, na falta delas, pelo {@link PlanoValidacao}.
+ *
+ * @param <T> tipo validado
+ */
+interface Validador<T> {
+
+    /**
+     * @return erros na ordem dos campos; lista vazia se o objeto é válido
+     */
+    List<ErroValidacao> validar(T objeto);
+
+    default boolean valido(T objeto) {
+        return validar(objeto).isEmpty();
+    }
+}
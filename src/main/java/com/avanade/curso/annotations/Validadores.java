@@ -0,0 +1,54 @@
+package com.avanade.curso.annotations;
+
+/**
+ * Ponto de entrada para obter o validador de uma classe
+ *
+ * Se a classe tem {@link GerarValidador}, devolve a classe gerada na
+ * compilação ({@code pacote.Externa_InternaValidador}); senão, o
+ * {@link PlanoValidacao} por reflexão. A busca pela classe gerada é feita
+ * uma vez por classe (cache por {@link ClassValue}); o validador gerado
+ * não usa reflexão nas chamadas.
+ */
+final class Validadores {
+
+    static final String SUFIXO = "Validador";
+
+    private static final ClassValue<Validador<?>> VALIDADORES = new ClassValue<>() {
+        @Override
+        protected Validador<?> computeValue(Class<?> classe) {
+            try {
+                Class<?> gerado = Class.forName(nomeGerado(classe), true, classe.getClassLoader());
+                return (Validador<?>) gerado.getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                PlanoValidacao plano = PlanoValidacao.de(classe);
+                return plano::validar;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Validador gerado inválido para " + classe.getName(), e);
+            }
+        }
+    };
+
+    private Validadores() {}
+
+    @SuppressWarnings("unchecked")
+    static <T> Validador<T> para(Class<T> classe) {
+        return (Validador<T>) VALIDADORES.get(classe);
+    }
+
+    /**
+     * Nome da classe gerada: classes aninhadas viram Externa_Interna
+     */
+    static String nomeGerado(Class<?> classe) {
+        return nomeGerado(classe, SUFIXO);
+    }
+
+    /**
+     * Mesma convenção para outras classes geradas (ex.: interceptadores
+     * de {@link Transacoes})
+     */
+    static String nomeGerado(Class<?> classe, String sufixo) {
+        String pacote = classe.getPackageName();
+        String simples = classe.getName().substring(pacote.isEmpty() ? 0 : pacote.length() + 1).replace('$', '_');
+        return (pacote.isEmpty() ? "" : pacote + ".") + simples + sufixo;
+    }
+}
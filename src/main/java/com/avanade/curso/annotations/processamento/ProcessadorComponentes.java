@@ -0,0 +1,571 @@
+package com.avanade.curso.annotations.processamento;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Processador de anotações: monta em tempo de compilação o grafo de
+ * {@code @Componente}/{@code @Injecao} e gera a classe que o registra
+ *
+ * Cada compilação gera um módulo {@code Componentes<Modulo>} (opção
+ * {@code -Acomponentes.modulo=Nome}, padrão {@code Principal}) que:
+ * - instancia os componentes com {@code new}, dependências antes de
+ *   dependentes (ordem topológica calculada aqui); componentes com
+ *   métodos @Transacional são criados pela subclasse gerada pelo
+ *   ProcessadorTransacional
+ * - injeta com atribuição direta ao campo, ou pelo setter se o campo for
+ *   private
+ * - busca no container as dependências que são componentes de outra
+ *   compilação (ex.: testes que usam componentes do main)
+ *
+ * - registra as rotas @Get/@Post no Roteador com um despacho por switch
+ *   que chama o método do componente diretamente
+ *
+ * O índice é o arquivo {@code META-INF/services/...ModuloComponentes},
+ * com o nome do módulo gerado; o ContainerDI o lê com ServiceLoader. Na
+ * inicialização não há varredura de classpath, nem
+ * {@code getDeclaredFields}/{@code setAccessible}, nem leitura de
+ * anotações ou criação de MethodHandles.
+ *
+ * Erros de compilação: ciclo de dependências (com o caminho), campo
+ * injetado que não é componente, campo private sem setter, componente
+ * sem construtor sem argumentos acessível, rota cuja assinatura não
+ * combina com o caminho.
+ *
+ * O módulo é gerado em {@link #PACOTE}: tudo que ele referencia precisa
+ * ser acessível de lá - nada dentro de classe private e, fora do pacote
+ * (hoje as anotações são package-private, então só se elas forem
+ * abertas), classe, construtor e campos @Injecao public ou setter public.
+ * O que o módulo não enxerga é erro de compilação no próprio componente,
+ * não no código gerado.
+ */
+@SupportedAnnotationTypes(ProcessadorComponentes.COMPONENTE)
+@SupportedOptions(ProcessadorComponentes.OPCAO_MODULO)
+public class ProcessadorComponentes extends AbstractProcessor {
+
+    static final String PACOTE = ProcessadorValidar.PACOTE;
+    static final String COMPONENTE = PACOTE + ".Componente";
+    static final String INJECAO = PACOTE + ".Injecao";
+    static final String GET = PACOTE + ".Get";
+    static final String POST = PACOTE + ".Post";
+    static final String MODULO = PACOTE + ".ModuloComponentes";
+    static final String OPCAO_MODULO = "componentes.modulo";
+
+    private Elements elements;
+    private Messager messager;
+    private Filer filer;
+    private String nomeModulo;
+    private boolean gerado;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment ambiente) {
+        super.init(ambiente);
+        this.elements = ambiente.getElementUtils();
+        this.messager = ambiente.getMessager();
+        this.filer = ambiente.getFiler();
+        this.nomeModulo = "Componentes" + ambiente.getOptions().getOrDefault(OPCAO_MODULO, "Principal");
+        if (!SourceVersion.isName(nomeModulo)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "-A" + OPCAO_MODULO + " inválido: " + nomeModulo);
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Gera na primeira rodada com componentes; rodadas seguintes só veem
+     * o próprio código gerado
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> anotacoes, RoundEnvironment rodada) {
+        if (gerado || anotacoes.isEmpty()) {
+            return true;
+        }
+        List<TypeElement> componentes = new ArrayList<>();
+        for (TypeElement anotacao : anotacoes) {
+            for (Element elemento : rodada.getElementsAnnotatedWith(anotacao)) {
+                if (elemento.getKind() != ElementKind.CLASS) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "@Componente só se aplica a classes", elemento);
+                } else {
+                    componentes.add((TypeElement) elemento);
+                }
+            }
+        }
+        // Ordem estável entre compilações
+        componentes.sort(Comparator.comparing(tipo -> tipo.getQualifiedName().toString()));
+        gerado = true;
+        Grafo grafo = new Grafo(componentes);
+        if (grafo.montar()) {
+            List<TypeElement> ordem = grafo.ordenar();
+            if (ordem != null) {
+                escrever(ordem, grafo);
+            }
+        }
+        return true;
+    }
+
+    // ============================================
+    // GRAFO DE DEPENDÊNCIAS
+    // ============================================
+
+    /**
+     * @param setter null para atribuição direta ao campo
+     */
+    private record Dependencia(VariableElement campo, TypeElement tipo, String setter) {
+    }
+
+    /**
+     * @param verbo GET ou POST
+     */
+    private record Rota(TypeElement componente, ExecutableElement metodo, String verbo, String caminho) {
+    }
+
+    private final class Grafo {
+        private final List<TypeElement> componentes;
+        private final Set<TypeElement> doModulo;
+        private final Map<TypeElement, List<Dependencia>> dependencias = new HashMap<>();
+        private final Set<TypeElement> externas = new LinkedHashSet<>();
+        private final Map<TypeElement, List<Rota>> rotas = new HashMap<>();
+
+        Grafo(List<TypeElement> componentes) {
+            this.componentes = componentes;
+            this.doModulo = new LinkedHashSet<>(componentes);
+        }
+
+        /**
+         * @return false se algum erro foi reportado
+         */
+        boolean montar() {
+            boolean ok = true;
+            for (TypeElement componente : componentes) {
+                ok &= verificarConstrutor(componente);
+                ok &= coletarRotas(componente);
+                List<Dependencia> lista = new ArrayList<>();
+                for (VariableElement campo : ElementFilter.fieldsIn(componente.getEnclosedElements())) {
+                    if (ProcessadorValidar.anotacao(campo, INJECAO) == null) {
+                        continue;
+                    }
+                    TypeMirror tipoCampo = campo.asType();
+                    TypeElement tipo = tipoCampo.getKind() == TypeKind.DECLARED
+                        ? (TypeElement) ((DeclaredType) tipoCampo).asElement() : null;
+                    if (tipo == null || ProcessadorValidar.anotacao(tipo, COMPONENTE) == null) {
+                        messager.printMessage(Diagnostic.Kind.ERROR,
+                            "@Injecao: " + tipoCampo + " não é um @Componente", campo);
+                        ok = false;
+                        continue;
+                    }
+                    if (!doModulo.contains(tipo) && !visivel(tipo)) {
+                        messager.printMessage(Diagnostic.Kind.ERROR,
+                            "@Injecao: " + tipo.getQualifiedName() + " não é visível de " + PACOTE + ", onde o módulo é gerado",
+                            campo);
+                        ok = false;
+                        continue;
+                    }
+                    String setter = null;
+                    if (!visivel(campo)) {
+                        setter = setter(componente, campo);
+                        if (setter == null) {
+                            messager.printMessage(Diagnostic.Kind.ERROR, "@Injecao: o campo " + campo.getSimpleName()
+                                + (campo.getModifiers().contains(Modifier.PRIVATE)
+                                    ? " é private; deixe-o não private ou crie um setter"
+                                    : " não é visível de " + PACOTE + ", onde o módulo é gerado; deixe-o public ou crie um setter public"),
+                                campo);
+                            ok = false;
+                            continue;
+                        }
+                    }
+                    if (campo.getModifiers().contains(Modifier.FINAL) || campo.getModifiers().contains(Modifier.STATIC)) {
+                        messager.printMessage(Diagnostic.Kind.ERROR,
+                            "@Injecao: o campo não pode ser final nem static", campo);
+                        ok = false;
+                        continue;
+                    }
+                    lista.add(new Dependencia(campo, tipo, setter));
+                    if (!doModulo.contains(tipo)) {
+                        externas.add(tipo);
+                    }
+                }
+                dependencias.put(componente, lista);
+            }
+            return ok;
+        }
+
+        private boolean verificarConstrutor(TypeElement componente) {
+            if (componente.getModifiers().contains(Modifier.PRIVATE)
+                    || componente.getModifiers().contains(Modifier.ABSTRACT)
+                    || (componente.getNestingKind().isNested() && !componente.getModifiers().contains(Modifier.STATIC))) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@Componente deve ser uma classe concreta, não private e não interna (static se aninhada)", componente);
+                return false;
+            }
+            boolean mesmoPacote = doPacote(componente);
+            if (!visivel(componente)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, mesmoPacote
+                    ? "@Componente não pode estar dentro de uma classe private"
+                    : "@Componente fora de " + PACOTE + " deve ser public (e suas classes externas também):"
+                        + " o módulo é gerado nesse pacote", componente);
+                return false;
+            }
+            for (ExecutableElement construtor : ElementFilter.constructorsIn(componente.getEnclosedElements())) {
+                if (construtor.getParameters().isEmpty() && visivel(construtor)) {
+                    return true;
+                }
+            }
+            messager.printMessage(Diagnostic.Kind.ERROR, "@Componente precisa de um construtor sem argumentos "
+                + (mesmoPacote ? "não private" : "public (a classe está fora de " + PACOTE + ")"), componente);
+            return false;
+        }
+
+        private boolean doPacote(Element elemento) {
+            return elements.getPackageOf(elemento).getQualifiedName().contentEquals(PACOTE);
+        }
+
+        /**
+         * Acessível do módulo gerado em PACOTE: no mesmo pacote basta não
+         * ser private; fora dele o elemento e as classes que o contêm
+         * precisam ser public
+         */
+        private boolean visivel(Element elemento) {
+            boolean mesmoPacote = doPacote(elemento);
+            for (Element e = elemento; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+                if (mesmoPacote ? e.getModifiers().contains(Modifier.PRIVATE) : !e.getModifiers().contains(Modifier.PUBLIC)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Mesmas regras do Roteador: métodos públicos (também herdados), só
+         * parâmetros String, um por variável e, no POST, mais o corpo
+         */
+        private boolean coletarRotas(TypeElement componente) {
+            boolean ok = true;
+            List<Rota> lista = new ArrayList<>();
+            for (ExecutableElement metodo : ElementFilter.methodsIn(elements.getAllMembers(componente))) {
+                for (String verbo : List.of("GET", "POST")) {
+                    AnnotationMirror anotacao = ProcessadorValidar.anotacao(metodo, verbo.equals("GET") ? GET : POST);
+                    if (anotacao == null) {
+                        continue;
+                    }
+                    String caminho = null;
+                    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> valor
+                            : anotacao.getElementValues().entrySet()) {
+                        if (valor.getKey().getSimpleName().contentEquals("path")) {
+                            caminho = (String) valor.getValue().getValue();
+                        }
+                    }
+                    String erro = verificarRota(metodo, verbo, caminho);
+                    if (erro != null) {
+                        messager.printMessage(Diagnostic.Kind.ERROR, "@" + (verbo.equals("GET") ? "Get" : "Post")
+                            + "(\"" + caminho + "\"): " + erro, metodo, anotacao);
+                        ok = false;
+                    } else {
+                        lista.add(new Rota(componente, metodo, verbo, caminho));
+                    }
+                }
+            }
+            rotas.put(componente, lista);
+            return ok;
+        }
+
+        /**
+         * @return a mensagem de erro, ou null se a rota é válida
+         */
+        private String verificarRota(ExecutableElement metodo, String verbo, String caminho) {
+            if (caminho == null || !caminho.startsWith("/")) {
+                return "caminho deve começar com '/'";
+            }
+            if (!metodo.getModifiers().contains(Modifier.PUBLIC) || metodo.getModifiers().contains(Modifier.STATIC)) {
+                return "o método deve ser public e não static";
+            }
+            int variaveis = 0;
+            for (String segmento : caminho.split("/")) {
+                if (segmento.startsWith("{") && segmento.endsWith("}")) {
+                    variaveis++;
+                }
+            }
+            int parametros = metodo.getParameters().size();
+            if (parametros != variaveis && !(verbo.equals("POST") && parametros == variaveis + 1)) {
+                return "o método deve receber " + variaveis
+                    + (verbo.equals("POST") ? " ou " + (variaveis + 1) + " (com o corpo)" : "") + " parâmetros";
+            }
+            for (VariableElement parametro : metodo.getParameters()) {
+                if (!parametro.asType().toString().equals("java.lang.String")) {
+                    return "parâmetros de rota devem ser String";
+                }
+            }
+            return null;
+        }
+
+        private String setter(TypeElement componente, VariableElement campo) {
+            String nome = campo.getSimpleName().toString();
+            String setter = "set" + Character.toUpperCase(nome.charAt(0)) + nome.substring(1);
+            for (ExecutableElement metodo : ElementFilter.methodsIn(componente.getEnclosedElements())) {
+                if (metodo.getSimpleName().contentEquals(setter) && metodo.getParameters().size() == 1
+                        && visivel(metodo)
+                        && !metodo.getModifiers().contains(Modifier.STATIC)) {
+                    return setter;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Ordem topológica por busca em profundidade
+         *
+         * @return null se há ciclo (reportado com o caminho)
+         */
+        List<TypeElement> ordenar() {
+            List<TypeElement> ordem = new ArrayList<>(componentes.size());
+            Map<TypeElement, Boolean> visitados = new HashMap<>(); // false = em andamento
+            for (TypeElement componente : componentes) {
+                if (!visitar(componente, visitados, new LinkedHashMap<>(), ordem)) {
+                    return null;
+                }
+            }
+            return ordem;
+        }
+
+        private boolean visitar(TypeElement componente, Map<TypeElement, Boolean> visitados,
+                                LinkedHashMap<TypeElement, Boolean> caminho, List<TypeElement> ordem) {
+            Boolean estado = visitados.get(componente);
+            if (estado != null) {
+                if (!estado) {
+                    StringBuilder ciclo = new StringBuilder();
+                    boolean dentro = false;
+                    for (TypeElement passo : caminho.keySet()) {
+                        dentro |= passo.equals(componente);
+                        if (dentro) {
+                            ciclo.append(passo.getSimpleName()).append(" -> ");
+                        }
+                    }
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Ciclo de @Injecao: " + ciclo + componente.getSimpleName(), componente);
+                    return false;
+                }
+                return true;
+            }
+            visitados.put(componente, false);
+            caminho.put(componente, true);
+            for (Dependencia dependencia : dependencias.get(componente)) {
+                if (doModulo.contains(dependencia.tipo())
+                        && !visitar(dependencia.tipo(), visitados, caminho, ordem)) {
+                    return false;
+                }
+            }
+            caminho.remove(componente);
+            visitados.put(componente, true);
+            ordem.add(componente);
+            return true;
+        }
+    }
+
+    // ============================================
+    // GERAÇÃO DO CÓDIGO
+    // ============================================
+
+    /**
+     * Componentes por método {@code criarN} e rotas por método
+     * {@code rotasN}/{@code despacharN}: mantém cada método longe do limite
+     * de 64 KB de bytecode e, no despacho, abaixo do tamanho que o JIT
+     * aceita compilar
+     */
+    private static final int POR_METODO = 64;
+
+    private void escrever(List<TypeElement> ordem, Grafo grafo) {
+        Map<TypeElement, Integer> indices = new HashMap<>();
+        for (TypeElement componente : ordem) {
+            indices.put(componente, indices.size());
+        }
+        for (TypeElement externa : grafo.externas) {
+            indices.put(externa, indices.size());
+        }
+        List<Rota> rotas = new ArrayList<>();
+        for (TypeElement componente : ordem) {
+            rotas.addAll(grafo.rotas.get(componente));
+        }
+
+        StringBuilder fonte = new StringBuilder(1024 + ordem.size() * 200);
+        fonte.append("package ").append(PACOTE).append(";\n\n")
+            .append("import java.util.List;\n\n")
+            .append("/**\n")
+            .append(" * Módulo de componentes gerado por ProcessadorComponentes. Não editar.\n")
+            .append(" */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("public final class ").append(nomeModulo).append(" implements ModuloComponentes {\n\n")
+            .append("    public ").append(nomeModulo).append("() {\n    }\n\n");
+
+        fonte.append("    @Override\n    public List<Class<?>> componentes() {\n        return List.of(");
+        lista(fonte, ordem);
+        fonte.append(");\n    }\n\n");
+        fonte.append("    @Override\n    public List<Class<?>> externas() {\n        return List.of(");
+        lista(fonte, new ArrayList<>(grafo.externas));
+        fonte.append(");\n    }\n\n");
+
+        // registrar: externas, criação em ordem topológica, registro, rotas
+        fonte.append("    @Override\n    public void registrar(ContainerDI container) {\n")
+            .append("        Object[] c = new Object[").append(indices.size()).append("];\n");
+        for (TypeElement externa : grafo.externas) {
+            fonte.append("        c[").append(indices.get(externa)).append("] = container.exigir(")
+                .append(externa.getQualifiedName()).append(".class);\n");
+        }
+        for (int bloco = 0; bloco * POR_METODO < ordem.size(); bloco++) {
+            fonte.append("        criar").append(bloco).append("(c);\n");
+        }
+        fonte.append("        List<Class<?>> tipos = componentes();\n")
+            .append("        for (int i = 0; i < ").append(ordem.size()).append("; i++) {\n")
+            .append("            container.registrarInstancia(tipos.get(i), c[i]);\n        }\n");
+        if (!rotas.isEmpty()) {
+            fonte.append("        Roteador roteador = container.getRoteador();\n");
+            for (int bloco = 0; bloco * POR_METODO < rotas.size(); bloco++) {
+                fonte.append("        rotas").append(bloco).append("(roteador, c);\n");
+            }
+        }
+        fonte.append("    }\n");
+
+        for (int bloco = 0; bloco * POR_METODO < ordem.size(); bloco++) {
+            fonte.append("\n    private static void criar").append(bloco).append("(Object[] c) {\n");
+            for (int i = bloco * POR_METODO; i < Math.min(ordem.size(), (bloco + 1) * POR_METODO); i++) {
+                TypeElement componente = ordem.get(i);
+                String nome = componente.getQualifiedName().toString();
+                String criado = ProcessadorTransacional.interceptada(componente)
+                    ? PACOTE + "." + ProcessadorValidar.nomeGerado(componente, PACOTE, ProcessadorTransacional.SUFIXO)
+                    : nome;
+                List<Dependencia> dependencias = grafo.dependencias.get(componente);
+                if (dependencias.isEmpty()) {
+                    fonte.append("        c[").append(i).append("] = new ").append(criado).append("();\n");
+                    continue;
+                }
+                String variavel = "c" + i;
+                fonte.append("        ").append(nome).append(' ').append(variavel)
+                    .append(" = new ").append(criado).append("();\n");
+                for (Dependencia dependencia : dependencias) {
+                    String valor = "(" + dependencia.tipo().getQualifiedName() + ") c[" + indices.get(dependencia.tipo()) + "]";
+                    fonte.append("        ").append(variavel).append('.');
+                    if (dependencia.setter() == null) {
+                        fonte.append(dependencia.campo().getSimpleName()).append(" = ").append(valor).append(";\n");
+                    } else {
+                        fonte.append(dependencia.setter()).append('(').append(valor).append(");\n");
+                    }
+                }
+                fonte.append("        c[").append(i).append("] = ").append(variavel).append(";\n");
+            }
+            fonte.append("    }\n");
+        }
+        if (!rotas.isEmpty()) {
+            escreverRotas(fonte, rotas, indices);
+        }
+        fonte.append("}\n");
+
+        String qualificado = PACOTE + "." + nomeModulo;
+        Element[] origens = ordem.toArray(new Element[0]);
+        try (Writer escritor = filer.createSourceFile(qualificado, origens).openWriter()) {
+            escritor.write(fonte.toString());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Falha ao gerar " + qualificado + ": " + e.getMessage());
+            return;
+        }
+        try (Writer indiceServicos = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                "META-INF/services/" + MODULO, origens).openWriter()) {
+            indiceServicos.write(qualificado + "\n");
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Falha ao gerar o índice de componentes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cada rota vira um {@code Despacho(indice, c)}; o despacho é um switch
+     * pelo índice que chama o método do componente diretamente
+     */
+    private void escreverRotas(StringBuilder fonte, List<Rota> rotas, Map<TypeElement, Integer> indices) {
+        for (int bloco = 0; bloco * POR_METODO < rotas.size(); bloco++) {
+            fonte.append("\n    private static void rotas").append(bloco).append("(Roteador roteador, Object[] c) {\n");
+            for (int i = bloco * POR_METODO; i < Math.min(rotas.size(), (bloco + 1) * POR_METODO); i++) {
+                Rota rota = rotas.get(i);
+                fonte.append("        roteador.adicionar(Roteador.Metodo.").append(rota.verbo()).append(", ")
+                    .append(elements.getConstantExpression(rota.caminho())).append(", ")
+                    .append(rota.metodo().getParameters().size()).append(", new Despacho(").append(i).append(", c));\n");
+            }
+            fonte.append("    }\n");
+        }
+
+        fonte.append("\n    private record Despacho(int rota, Object[] c) implements Roteador.Manipulador {\n")
+            .append("        @Override\n")
+            .append("        public Object invocar(String[] a) throws Throwable {\n")
+            .append("            return despachar(rota, c, a);\n")
+            .append("        }\n    }\n");
+
+        fonte.append("\n    private static Object despachar(int rota, Object[] c, String[] a) throws Throwable {\n")
+            .append("        switch (rota / ").append(POR_METODO).append(") {\n");
+        for (int bloco = 0; bloco * POR_METODO < rotas.size(); bloco++) {
+            fonte.append("            case ").append(bloco).append(": return despachar").append(bloco).append("(rota, c, a);\n");
+        }
+        fonte.append("            default: throw new IllegalArgumentException(\"Rota inexistente: \" + rota);\n")
+            .append("        }\n    }\n");
+
+        for (int bloco = 0; bloco * POR_METODO < rotas.size(); bloco++) {
+            fonte.append("\n    private static Object despachar").append(bloco)
+                .append("(int rota, Object[] c, String[] a) throws Throwable {\n")
+                .append("        switch (rota) {\n");
+            for (int i = bloco * POR_METODO; i < Math.min(rotas.size(), (bloco + 1) * POR_METODO); i++) {
+                Rota rota = rotas.get(i);
+                StringBuilder chamada = new StringBuilder("((").append(rota.componente().getQualifiedName())
+                    .append(") c[").append(indices.get(rota.componente())).append("]).")
+                    .append(rota.metodo().getSimpleName()).append('(');
+                for (int p = 0; p < rota.metodo().getParameters().size(); p++) {
+                    chamada.append(p == 0 ? "" : ", ").append("a[").append(p).append(']');
+                }
+                chamada.append(')');
+                fonte.append("            case ").append(i).append(": ");
+                if (rota.metodo().getReturnType().getKind() == TypeKind.VOID) {
+                    fonte.append(chamada).append("; return null;\n");
+                } else {
+                    fonte.append("return ").append(chamada).append(";\n");
+                }
+            }
+            fonte.append("            default: throw new IllegalArgumentException(\"Rota inexistente: \" + rota);\n")
+                .append("        }\n    }\n");
+        }
+    }
+
+    private static void lista(StringBuilder fonte, List<TypeElement> tipos) {
+        for (int i = 0; i < tipos.size(); i++) {
+            fonte.append(i == 0 ? "\n            " : ",\n            ")
+                .append(tipos.get(i).getQualifiedName()).append(".class");
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.avanade.curso.annotations.processamento;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+
+/**
+ * Processador de anotações: gera, em tempo de compilação, o interceptador
+ * dos métodos {@code @Transacional}
+ *
+ * Para a classe {@code Servico} gera {@code ServicoTransacional extends
+ * Servico} (aninhadas: {@code Externa_InternaTransacional}) sobrescrevendo
+ * cada método anotado:
+ * <pre>
+ * UnidadeTrabalho unidade$ = UnidadeTrabalho.abrir();
+ * boolean concluida$ = false;
+ * try {
+ *     var r$ = super.metodo(a, b);
+ *     concluida$ = true;
+ *     return r$;
+ * } finally {
+ *     unidade$.fechar(concluida$);
+ * }
+ * </pre>
+ * O ContainerDI instancia a subclasse (pelo módulo gerado ou por
+ * Transacoes.criar); chamadas entre métodos do próprio componente também
+ * passam pela sobrescrita, e assim aninham.
+ *
+ * Erros de compilação: método private, static ou final; classe final,
+ * private, interna não static, fora do pacote do framework ou sem
+ * construtor sem argumentos não private.
+ */
+@SupportedAnnotationTypes(ProcessadorTransacional.TRANSACIONAL)
+public class ProcessadorTransacional extends AbstractProcessor {
+
+    static final String PACOTE = ProcessadorValidar.PACOTE;
+    static final String TRANSACIONAL = PACOTE + ".Transacional";
+    static final String SUFIXO = "Transacional";
+
+    private Elements elements;
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment ambiente) {
+        super.init(ambiente);
+        this.elements = ambiente.getElementUtils();
+        this.messager = ambiente.getMessager();
+        this.filer = ambiente.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> anotacoes, RoundEnvironment rodada) {
+        Map<TypeElement, List<ExecutableElement>> porClasse = new LinkedHashMap<>();
+        for (TypeElement anotacao : anotacoes) {
+            for (ExecutableElement metodo : ElementFilter.methodsIn(rodada.getElementsAnnotatedWith(anotacao))) {
+                porClasse.computeIfAbsent((TypeElement) metodo.getEnclosingElement(), c -> new ArrayList<>()).add(metodo);
+            }
+        }
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entrada : porClasse.entrySet()) {
+            TypeElement classe = entrada.getKey();
+            boolean ok = verificarClasse(classe);
+            for (ExecutableElement metodo : entrada.getValue()) {
+                ok &= verificarMetodo(metodo);
+            }
+            if (ok) {
+                gerar(classe, entrada.getValue());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Usado pelo ProcessadorComponentes para instanciar a subclasse
+     *
+     * @return true se a classe declara algum método {@code @Transacional}
+     */
+    static boolean interceptada(TypeElement classe) {
+        for (ExecutableElement metodo : ElementFilter.methodsIn(classe.getEnclosedElements())) {
+            if (ProcessadorValidar.anotacao(metodo, TRANSACIONAL) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ============================================
+    // VERIFICAÇÃO
+    // ============================================
+
+    private boolean verificarClasse(TypeElement classe) {
+        Set<Modifier> modificadores = classe.getModifiers();
+        if (classe.getKind() != ElementKind.CLASS || modificadores.contains(Modifier.FINAL)
+                || modificadores.contains(Modifier.PRIVATE)
+                || (classe.getNestingKind().isNested() && !modificadores.contains(Modifier.STATIC))) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                "@Transacional: a classe é estendida pelo interceptador; não pode ser final, private nem interna"
+                    + " (static se aninhada)", classe);
+            return false;
+        }
+        if (!elements.getPackageOf(classe).getQualifiedName().contentEquals(PACOTE)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@Transacional: a classe deve estar no pacote " + PACOTE, classe);
+            return false;
+        }
+        for (ExecutableElement construtor : ElementFilter.constructorsIn(classe.getEnclosedElements())) {
+            if (construtor.getParameters().isEmpty() && !construtor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        messager.printMessage(Diagnostic.Kind.ERROR,
+            "@Transacional: a classe precisa de um construtor sem argumentos não private", classe);
+        return false;
+    }
+
+    private boolean verificarMetodo(ExecutableElement metodo) {
+        Set<Modifier> modificadores = metodo.getModifiers();
+        if (modificadores.contains(Modifier.PRIVATE) || modificadores.contains(Modifier.STATIC)
+                || modificadores.contains(Modifier.FINAL)) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                "@Transacional: o método é sobrescrito pelo interceptador; não pode ser private, static nem final", metodo);
+            return false;
+        }
+        return true;
+    }
+
+    // ============================================
+    // GERAÇÃO DO CÓDIGO
+    // ============================================
+
+    private void gerar(TypeElement classe, List<ExecutableElement> metodos) {
+        String nome = ProcessadorValidar.nomeGerado(classe, PACOTE, SUFIXO);
+        String parametrosTipo = parametrosTipo(classe.getTypeParameters());
+        StringBuilder argumentosTipo = new StringBuilder();
+        for (TypeParameterElement parametro : classe.getTypeParameters()) {
+            argumentosTipo.append(argumentosTipo.isEmpty() ? "<" : ", ").append(parametro.getSimpleName());
+        }
+        if (!argumentosTipo.isEmpty()) {
+            argumentosTipo.append('>');
+        }
+
+        StringBuilder fonte = new StringBuilder(512 + metodos.size() * 400);
+        fonte.append("package ").append(PACOTE).append(";\n\n")
+            .append("/**\n")
+            .append(" * Interceptador @Transacional de {@link ").append(classe.getQualifiedName())
+            .append("} gerado por ProcessadorTransacional. Não editar.\n")
+            .append(" */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("final class ").append(nome).append(parametrosTipo).append(" extends ")
+            .append(classe.getQualifiedName()).append(argumentosTipo).append(" {\n");
+        for (ExecutableElement metodo : metodos) {
+            sobrescrever(fonte, metodo);
+        }
+        fonte.append("}\n");
+
+        String qualificado = PACOTE + "." + nome;
+        try (Writer escritor = filer.createSourceFile(qualificado, classe).openWriter()) {
+            escritor.write(fonte.toString());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Falha ao gerar " + qualificado + ": " + e.getMessage(), classe);
+        }
+    }
+
+    private void sobrescrever(StringBuilder fonte, ExecutableElement metodo) {
+        Set<Modifier> modificadores = metodo.getModifiers();
+        String visibilidade = modificadores.contains(Modifier.PUBLIC) ? "public "
+            : modificadores.contains(Modifier.PROTECTED) ? "protected " : "";
+        StringBuilder assinatura = new StringBuilder();
+        StringBuilder argumentos = new StringBuilder();
+        List<? extends VariableElement> parametros = metodo.getParameters();
+        for (int i = 0; i < parametros.size(); i++) {
+            String tipo = parametros.get(i).asType().toString();
+            if (metodo.isVarArgs() && i == parametros.size() - 1) {
+                tipo = tipo.substring(0, tipo.length() - 2) + "...";
+            }
+            assinatura.append(i == 0 ? "" : ", ").append(tipo).append(' ').append(parametros.get(i).getSimpleName());
+            argumentos.append(i == 0 ? "" : ", ").append(parametros.get(i).getSimpleName());
+        }
+        StringBuilder lancadas = new StringBuilder();
+        for (TypeMirror lancada : metodo.getThrownTypes()) {
+            lancadas.append(lancadas.isEmpty() ? " throws " : ", ").append(lancada);
+        }
+        boolean semRetorno = metodo.getReturnType().getKind() == TypeKind.VOID;
+        String chamada = "super." + metodo.getSimpleName() + "(" + argumentos + ");";
+
+        fonte.append("\n    @Override\n    ").append(visibilidade);
+        String parametrosTipo = parametrosTipo(metodo.getTypeParameters());
+        if (!parametrosTipo.isEmpty()) {
+            fonte.append(parametrosTipo).append(' ');
+        }
+        fonte.append(metodo.getReturnType()).append(' ').append(metodo.getSimpleName())
+            .append('(').append(assinatura).append(')').append(lancadas).append(" {\n")
+            .append("        UnidadeTrabalho unidade$ = UnidadeTrabalho.abrir();\n")
+            .append("        boolean concluida$ = false;\n")
+            .append("        try {\n");
+        if (semRetorno) {
+            fonte.append("            ").append(chamada).append('\n')
+                .append("            concluida$ = true;\n");
+        } else {
+            fonte.append("            var r$ = ").append(chamada).append('\n')
+                .append("            concluida$ = true;\n")
+                .append("            return r$;\n");
+        }
+        fonte.append("        } finally {\n")
+            .append("            unidade$.fechar(concluida$);\n")
+            .append("        }\n")
+            .append("    }\n");
+    }
+
+    /**
+     * {@code <T extends A & B, U>} ou vazio
+     */
+    private static String parametrosTipo(List<? extends TypeParameterElement> parametros) {
+        StringBuilder texto = new StringBuilder();
+        for (TypeParameterElement parametro : parametros) {
+            texto.append(texto.isEmpty() ? "<" : ", ").append(parametro.getSimpleName());
+            List<? extends TypeMirror> limites = parametro.getBounds();
+            if (!(limites.size() == 1 && limites.get(0).toString().equals("java.lang.Object"))) {
+                for (int i = 0; i < limites.size(); i++) {
+                    texto.append(i == 0 ? " extends " : " & ").append(limites.get(i));
+                }
+            }
+        }
+        return texto.isEmpty() ? "" : texto.append('>').toString();
+    }
+}
@@ -0,0 +1,367 @@
+package com.avanade.curso.annotations.processamento;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+
+/**
+ * Processador de anotações: gera, em tempo de compilação, um validador em
+ * Java puro para cada classe anotada com {@code @GerarValidador}
+ *
+ * Para {@code Cadastro} no pacote {@code p} gera {@code p.CadastroValidador}
+ * (aninhadas: {@code Externa_InternaValidador}), implementando
+ * {@code Validador<Cadastro>}. Cada campo com {@code @Validar} (também os
+ * herdados, das superclasses para a subclasse) vira um bloco de ifs com
+ * acesso direto ao campo ou ao getter, e cada regex vira uma constante
+ * {@code Pattern} compilada uma vez. As regras e as mensagens são as
+ * mesmas do PlanoValidacao, sem reflexão e sem varredura na inicialização.
+ *
+ * Erros de compilação (via {@link Messager}):
+ * - regex inválida
+ * - campo private sem getter não privado
+ * - classe anotada private ou que não é classe
+ *
+ * Registrado no pom.xml (compilado antes do restante do código, sem
+ * processamento, e depois usado na compilação principal e de testes).
+ */
+@SupportedAnnotationTypes(ProcessadorValidar.GERAR_VALIDADOR)
+public class ProcessadorValidar extends AbstractProcessor {
+
+    static final String PACOTE = "com.avanade.curso.annotations";
+    static final String GERAR_VALIDADOR = PACOTE + ".GerarValidador";
+    static final String VALIDAR = PACOTE + ".Validar";
+    static final String SUFIXO = "Validador";
+
+    private Elements elements;
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment ambiente) {
+        super.init(ambiente);
+        this.elements = ambiente.getElementUtils();
+        this.messager = ambiente.getMessager();
+        this.filer = ambiente.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> anotacoes, RoundEnvironment rodada) {
+        for (TypeElement anotacao : anotacoes) {
+            for (Element elemento : rodada.getElementsAnnotatedWith(anotacao)) {
+                if (elemento.getKind() != ElementKind.CLASS && elemento.getKind() != ElementKind.RECORD) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "@GerarValidador só se aplica a classes", elemento);
+                } else if (elemento.getModifiers().contains(Modifier.PRIVATE)) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                        "@GerarValidador: a classe não pode ser private", elemento);
+                } else {
+                    gerar((TypeElement) elemento);
+                }
+            }
+        }
+        return true;
+    }
+
+    // ============================================
+    // LEITURA DAS REGRAS
+    // ============================================
+
+    /**
+     * Valores de um @Validar, já com os defaults
+     */
+    private record Regra(VariableElement campo, String acesso, boolean texto, boolean primitivo,
+                         boolean obrigatorio, int tamanhoMinimo, int tamanhoMaximo, String regex) {
+    }
+
+    private void gerar(TypeElement tipo) {
+        String pacote = elements.getPackageOf(tipo).getQualifiedName().toString();
+        List<Regra> regras = new ArrayList<>();
+        boolean ok = coletar(tipo, tipo, pacote, regras);
+        if (!ok) {
+            return;
+        }
+        String nomeGerado = nomeGerado(tipo, pacote);
+        String fonte = new Gerador(tipo, pacote, nomeGerado, regras).gerar();
+        String qualificado = pacote.isEmpty() ? nomeGerado : pacote + "." + nomeGerado;
+        try (Writer escritor = filer.createSourceFile(qualificado, tipo).openWriter()) {
+            escritor.write(fonte);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Falha ao gerar " + qualificado + ": " + e.getMessage(), tipo);
+        }
+    }
+
+    /**
+     * Coleta as regras das superclasses e depois as do próprio tipo, na
+     * ordem de declaração
+     *
+     * @return false se algum erro foi reportado
+     */
+    private boolean coletar(TypeElement tipo, TypeElement anotado, String pacote, List<Regra> regras) {
+        boolean ok = true;
+        TypeMirror superclasse = tipo.getSuperclass();
+        if (superclasse.getKind() == TypeKind.DECLARED) {
+            ok = coletar((TypeElement) ((DeclaredType) superclasse).asElement(), anotado, pacote, regras);
+        }
+        for (VariableElement campo : ElementFilter.fieldsIn(tipo.getEnclosedElements())) {
+            AnnotationMirror validar = anotacao(campo, VALIDAR);
+            if (validar == null) {
+                continue;
+            }
+            Map<String, Object> valores = valores(validar);
+            String regex = (String) valores.get("regex");
+            if (!regex.isEmpty()) {
+                try {
+                    Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                        "@Validar: regex inválida \"" + regex + "\": " + e.getDescription(), campo, validar);
+                    ok = false;
+                    continue;
+                }
+            }
+            String acesso = acesso(tipo, campo, anotado, pacote);
+            if (acesso == null) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@GerarValidador: o campo " + campo.getSimpleName()
+                    + " não é acessível de " + anotado.getSimpleName()
+                    + "Validador; deixe-o não private ou crie um getter"
+                    + (tipo.getKind() == ElementKind.RECORD ? " (ou torne o acessor do componente acessível)" : ""), campo);
+                ok = false;
+                continue;
+            }
+            TypeMirror tipoCampo = campo.asType();
+            regras.add(new Regra(campo, acesso,
+                tipoCampo.toString().equals("java.lang.String"), tipoCampo.getKind().isPrimitive(),
+                (Boolean) valores.get("obrigatorio"), (Integer) valores.get("tamanhoMinimo"),
+                (Integer) valores.get("tamanhoMaximo"), regex));
+        }
+        return ok;
+    }
+
+    static AnnotationMirror anotacao(Element elemento, String nome) {
+        for (AnnotationMirror mirror : elemento.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(nome)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Object> valores(AnnotationMirror mirror) {
+        Map<String, Object> valores = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entrada
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            valores.put(entrada.getKey().getSimpleName().toString(), entrada.getValue().getValue());
+        }
+        return valores;
+    }
+
+    /**
+     * Expressão que lê o campo a partir de {@code objeto}: o próprio campo
+     * se acessível do pacote gerado, senão o acessor do componente (em
+     * records) ou um getter sem parâmetros
+     *
+     * @return null se não há acesso possível
+     */
+    private String acesso(TypeElement declarante, VariableElement campo, TypeElement anotado, String pacote) {
+        boolean estatico = campo.getModifiers().contains(Modifier.STATIC);
+        String receptor = estatico ? declarante.getQualifiedName().toString() : "objeto";
+        if (acessivel(campo, pacote)) {
+            // Campo ocultado por um homônimo na subclasse: cast para o declarante
+            if (!estatico && !declarante.equals(anotado)) {
+                receptor = "((" + declarante.getQualifiedName() + ") objeto)";
+            }
+            return receptor + "." + campo.getSimpleName();
+        }
+        String nome = campo.getSimpleName().toString();
+        if (declarante.getKind() == ElementKind.RECORD && !estatico) {
+            for (RecordComponentElement componente : declarante.getRecordComponents()) {
+                ExecutableElement acessor = componente.getAccessor();
+                if (componente.getSimpleName().contentEquals(nome) && acessivel(acessor, pacote)) {
+                    return receptor + "." + acessor.getSimpleName() + "()";
+                }
+            }
+        }
+        String sufixo = Character.toUpperCase(nome.charAt(0)) + nome.substring(1);
+        for (ExecutableElement metodo : ElementFilter.methodsIn(declarante.getEnclosedElements())) {
+            String nomeMetodo = metodo.getSimpleName().toString();
+            boolean getter = nomeMetodo.equals("get" + sufixo)
+                || (nomeMetodo.equals("is" + sufixo) && metodo.getReturnType().getKind() == TypeKind.BOOLEAN);
+            if (getter && metodo.getParameters().isEmpty() && acessivel(metodo, pacote)
+                    && metodo.getModifiers().contains(Modifier.STATIC) == estatico) {
+                return receptor + "." + nomeMetodo + "()";
+            }
+        }
+        return null;
+    }
+
+    private boolean acessivel(Element membro, String pacote) {
+        Set<Modifier> modificadores = membro.getModifiers();
+        if (modificadores.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        TypeElement declarante = (TypeElement) membro.getEnclosingElement();
+        return (modificadores.contains(Modifier.PUBLIC) && declarante.getModifiers().contains(Modifier.PUBLIC))
+            || elements.getPackageOf(declarante).getQualifiedName().contentEquals(pacote);
+    }
+
+    /**
+     * Mesma convenção de Validadores.nomeGerado: Externa_InternaValidador
+     */
+    private static String nomeGerado(TypeElement tipo, String pacote) {
+        return nomeGerado(tipo, pacote, SUFIXO);
+    }
+
+    /**
+     * Nome simples de uma classe gerada para o tipo: aninhadas viram
+     * Externa_Interna, seguido do sufixo
+     */
+    static String nomeGerado(TypeElement tipo, String pacote, String sufixo) {
+        String qualificado = tipo.getQualifiedName().toString();
+        String simples = pacote.isEmpty() ? qualificado : qualificado.substring(pacote.length() + 1);
+        return simples.replace('.', '_') + sufixo;
+    }
+
+    // ============================================
+    // GERAÇÃO DO CÓDIGO
+    // ============================================
+
+    private final class Gerador {
+        private final TypeElement tipo;
+        private final String pacote;
+        private final String nome;
+        private final List<Regra> regras;
+        private final StringBuilder fonte = new StringBuilder(1024);
+
+        Gerador(TypeElement tipo, String pacote, String nome, List<Regra> regras) {
+            this.tipo = tipo;
+            this.pacote = pacote;
+            this.nome = nome;
+            this.regras = regras;
+        }
+
+        String gerar() {
+            String tipoValidado = tipoValidado();
+            if (!pacote.isEmpty()) {
+                linha(0, "package " + pacote + ";");
+                linha(0, "");
+            }
+            linha(0, "import java.util.List;");
+            linha(0, "import java.util.regex.Pattern;");
+            linha(0, "");
+            linha(0, "/**");
+            linha(0, " * Validador de {@link " + tipo.getQualifiedName() + "} gerado por ProcessadorValidar. Não editar.");
+            linha(0, " */");
+            linha(0, "@javax.annotation.processing.Generated(\"" + ProcessadorValidar.class.getName() + "\")");
+            linha(0, "final class " + nome + " implements Validador<" + tipoValidado + "> {");
+            for (int i = 0; i < regras.size(); i++) {
+                Regra regra = regras.get(i);
+                if (!regra.regex().isEmpty()) {
+                    linha(1, "private static final Pattern PADRAO_" + i + " = Pattern.compile("
+                        + elements.getConstantExpression(regra.regex()) + ");");
+                }
+            }
+            linha(0, "");
+            linha(1, "@Override");
+            linha(1, "public List<ErroValidacao> validar(" + tipoValidado + " objeto) {");
+            linha(2, "List<ErroValidacao> erros = null;");
+            for (int i = 0; i < regras.size(); i++) {
+                regra(i, regras.get(i));
+            }
+            linha(2, "return erros == null ? List.of() : erros;");
+            linha(1, "}");
+            linha(0, "}");
+            return fonte.toString();
+        }
+
+        private String tipoValidado() {
+            String nomeTipo = tipo.getQualifiedName().toString();
+            int parametros = tipo.getTypeParameters().size();
+            return parametros == 0 ? nomeTipo : nomeTipo + "<" + String.join(", ", Collections.nCopies(parametros, "?")) + ">";
+        }
+
+        /**
+         * Obrigatório nulo/vazio encerra o campo; opcional nulo não é verificado
+         */
+        private void regra(int i, Regra regra) {
+            String campo = elements.getConstantExpression(regra.campo().getSimpleName().toString());
+            String valor = "valor" + i;
+            String leitura = regra.primitivo() ? "String.valueOf(" + regra.acesso() + ")"
+                : regra.texto() ? regra.acesso()
+                : "java.util.Objects.toString(" + regra.acesso() + ", null)";
+            linha(0, "");
+            linha(2, "String " + valor + " = " + leitura + ";");
+            int nivel = 2;
+            if (regra.obrigatorio()) {
+                String vazio = regra.primitivo() ? valor + ".isEmpty()" : valor + " == null || " + valor + ".isEmpty()";
+                linha(2, "if (" + vazio + ") {");
+                linha(3, "erros = ErroValidacao.adicionar(erros, ErroValidacao.obrigatorio(" + campo + "));");
+                linha(2, "} else {");
+                nivel = 3;
+            } else if (!regra.primitivo()) {
+                linha(2, "if (" + valor + " != null) {");
+                nivel = 3;
+            }
+            if (regra.tamanhoMinimo() > 0) {
+                linha(nivel, "if (" + valor + ".length() < " + regra.tamanhoMinimo() + ") {");
+                linha(nivel + 1, "erros = ErroValidacao.adicionar(erros, ErroValidacao.tamanhoMinimo("
+                    + campo + ", " + regra.tamanhoMinimo() + "));");
+                linha(nivel, "}");
+            }
+            if (regra.tamanhoMaximo() < Integer.MAX_VALUE) {
+                linha(nivel, "if (" + valor + ".length() > " + regra.tamanhoMaximo() + ") {");
+                linha(nivel + 1, "erros = ErroValidacao.adicionar(erros, ErroValidacao.tamanhoMaximo("
+                    + campo + ", " + regra.tamanhoMaximo() + "));");
+                linha(nivel, "}");
+            }
+            if (!regra.regex().isEmpty()) {
+                linha(nivel, "if (!PADRAO_" + i + ".matcher(" + valor + ").matches()) {");
+                linha(nivel + 1, "erros = ErroValidacao.adicionar(erros, ErroValidacao.padrao("
+                    + campo + ", PADRAO_" + i + ".pattern()));");
+                linha(nivel, "}");
+            }
+            if (nivel == 3) {
+                linha(2, "}");
+            }
+        }
+
+        private void linha(int nivel, String texto) {
+            if (!texto.isEmpty()) {
+                fonte.append("    ".repeat(nivel)).append(texto);
+            }
+            fonte.append('\n');
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.avanade.curso.carga;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Medição e relatório comuns aos geradores de carga
+ *
+ * Cada gerador implementa apenas o protocolo de uma conexão
+ * ({@link Conexao}); aqui ficam a largada simultânea, a coleta das
+ * latências, os percentis e a leitura dos argumentos de linha de comando
+ * no formato {@code [host porta] [parametros...]}.
+ */
+public final class MedicaoCarga {
+
+    /**
+     * Resultado agregado de uma execução
+     */
+    public record ResultadoCarga(long requisicoes, long sucessos, long duracaoNanos,
+                                 long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+
+        public double requisicoesPorSegundo() {
+            return requisicoes * 1_000_000_000.0 / duracaoNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d req em %.2f s -> %,.0f req/s | latência p50=%dµs p99=%dµs p99.9=%dµs max=%dµs",
+                requisicoes, duracaoNanos / 1e9, requisicoesPorSegundo(),
+                p50Micros, p99Micros, p999Micros, maxMicros);
+        }
+    }
+
+    /**
+     * Trabalho de uma conexão: devolve a latência (ns) de cada requisição
+     * e grava em {@code sucessosPorConexao[indice]} quantas tiveram sucesso
+     */
+    @FunctionalInterface
+    public interface Conexao {
+        long[] executar(int indice, long[] sucessosPorConexao) throws Exception;
+    }
+
+    private MedicaoCarga() {
+    }
+
+    /**
+     * Dispara {@code conexoes} tarefas no executor, libera todas ao mesmo
+     * tempo e agrega as latências quando a última termina.
+     * O executor não é encerrado aqui.
+     */
+    @SuppressWarnings("unchecked")
+    public static ResultadoCarga medir(ExecutorService executor, int conexoes, Conexao conexao)
+            throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        Future<long[]>[] futuros = new Future[conexoes];
+        long[] sucessosPorConexao = new long[conexoes];
+        for (int i = 0; i < conexoes; i++) {
+            int indice = i;
+            futuros[i] = executor.submit(() -> {
+                largada.await();
+                return conexao.executar(indice, sucessosPorConexao);
+            });
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        long[][] latencias = new long[conexoes][];
+        int total = 0;
+        for (int i = 0; i < conexoes; i++) {
+            latencias[i] = futuros[i].get();
+            total += latencias[i].length;
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        long[] todas = new long[total];
+        int posicao = 0;
+        for (long[] daConexao : latencias) {
+            System.arraycopy(daConexao, 0, todas, posicao, daConexao.length);
+            posicao += daConexao.length;
+        }
+        Arrays.sort(todas);
+        long sucessos = Arrays.stream(sucessosPorConexao).sum();
+        return new ResultadoCarga(todas.length, sucessos, duracao,
+            percentil(todas, 0.50), percentil(todas, 0.99), percentil(todas, 0.999),
+            todas.length == 0 ? 0 : todas[todas.length - 1] / 1_000);
+    }
+
+    static long percentil(long[] ordenado, double p) {
+        if (ordenado.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.min(ordenado.length - 1, Math.ceil(p * ordenado.length) - 1);
+        return ordenado[Math.max(indice, 0)] / 1_000;
+    }
+
+    // ==================== LINHA DE COMANDO ====================
+
+    /**
+     * Endereço informado em {@code args[0..1]}, ou null quando os
+     * argumentos começam direto pelos parâmetros numéricos
+     */
+    public static InetSocketAddress enderecoInformado(String[] args) {
+        return temEndereco(args) ? new InetSocketAddress(args[0], Integer.parseInt(args[1])) : null;
+    }
+
+    /**
+     * Parâmetro numérico na posição indicada, contada após o host/porta
+     * opcional
+     */
+    public static int parametro(String[] args, int posicao, int padrao) {
+        int indice = (temEndereco(args) ? 2 : 0) + posicao;
+        return args.length > indice ? Integer.parseInt(args[indice]) : padrao;
+    }
+
+    private static boolean temEndereco(String[] args) {
+        return args.length >= 2 && !args[0].matches("\\d+");
+    }
+}
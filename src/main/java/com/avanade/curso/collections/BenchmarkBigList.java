@@ -0,0 +1,64 @@
+package com.avanade.curso.collections;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark: latência de inserção em ArrayList vs listas segmentadas
+ *
+ * Execução:
+ * <pre>
+ * java -Xmx8g -cp target/classes com.avanade.curso.collections.BenchmarkBigList [elementos]
+ * </pre>
+ *
+ * Mede o tempo de cada bloco de 1M inserções: o pior bloco mostra a
+ * pausa causada pela cópia do array inteiro quando o ArrayList cresce.
+ */
+public class BenchmarkBigList {
+
+    private static final int BLOCO = 1_000_000;
+
+    public static void main(String[] args) {
+        int elementos = args.length > 0 ? Integer.parseInt(args[0]) : 200_000_000;
+        // Objetos criados antes: mede-se só a lista, não a alocação dos Integer
+        Integer[] valores = new Integer[BLOCO];
+        for (int i = 0; i < BLOCO; i++) {
+            valores[i] = i;
+        }
+
+        System.out.printf("=== %,d inserções ===%n", elementos);
+        medir("ArrayList<Integer>", elementos, n -> {
+            List<Integer> lista = new ArrayList<>();
+            return i -> lista.add(valores[i % BLOCO]);
+        });
+        medir("BigList<Integer>", elementos, n -> {
+            BigList<Integer> lista = new BigList<>();
+            return i -> lista.add(valores[i % BLOCO]);
+        });
+        medir("IntBigList", elementos, n -> {
+            IntBigList lista = new IntBigList();
+            return lista::add;
+        });
+    }
+
+    private static void medir(String nome, int elementos, IntFunction<IntConsumer> criar) {
+        System.gc();
+        IntConsumer adicionar = criar.apply(elementos);
+        long pior = 0;
+        long inicio = System.nanoTime();
+        for (int bloco = 0; bloco < elementos; bloco += BLOCO) {
+            long inicioBloco = System.nanoTime();
+            for (int i = bloco, fim = Math.min(elementos, bloco + BLOCO); i < fim; i++) {
+                adicionar.accept(i);
+            }
+            pior = Math.max(pior, System.nanoTime() - inicioBloco);
+        }
+        long total = System.nanoTime() - inicio;
+        System.out.printf("%-20s total %,7d ms   pior bloco de 1M %,6d ms%n",
+            nome, total / 1_000_000, pior / 1_000_000);
+        Reference.reachabilityFence(adicionar);
+    }
+}
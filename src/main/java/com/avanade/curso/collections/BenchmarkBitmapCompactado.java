@@ -0,0 +1,128 @@
+package com.avanade.curso.collections;
+
+import java.lang.ref.Reference;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: BitmapCompactado vs HashSet&lt;Integer&gt; (memória e operações)
+ *
+ * Execução (10M elementos por conjunto exige heap grande para o HashSet):
+ * <pre>
+ * java -Xmx8g -cp target/classes com.avanade.curso.collections.BenchmarkBitmapCompactado [elementos]
+ * </pre>
+ *
+ * Os dois conjuntos sorteiam valores em [0, 4 * elementos): densidade
+ * ~22%, o que gera containers de bitmap. Valores em faixa contígua
+ * (ids sequenciais) ficariam ainda menores com otimizarRuns().
+ */
+public class BenchmarkBitmapCompactado {
+
+    private static volatile long sumidouro; // evita eliminação de código morto
+
+    public static void main(String[] args) {
+        int elementos = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] valoresA = gerar(elementos, 1);
+        int[] valoresB = gerar(elementos, 2);
+
+        System.out.printf("=== Construção (%,d elementos por conjunto) ===%n", elementos);
+        Set<Integer> hashA = medir("HashSet<Integer>", () -> preencher(new HashSet<>(), valoresA));
+        Set<Integer> hashB = preencher(new HashSet<>(), valoresB);
+        BitmapCompactado bitmapA = medir("BitmapCompactado", () -> preencher(valoresA));
+        BitmapCompactado bitmapB = preencher(valoresB);
+        System.out.printf("BitmapCompactado serializado: %,d KB%n", bitmapA.tamanhoSerializado() / 1024);
+
+        System.out.printf("%n=== Operações (média de 5 execuções) ===%n");
+        cronometrar("HashSet interseção", () -> {
+            Set<Integer> r = new HashSet<>(hashA);
+            r.retainAll(hashB);
+            return r.size();
+        });
+        cronometrar("Bitmap  and", () -> BitmapCompactado.and(bitmapA, bitmapB).cardinalidade());
+        cronometrar("HashSet união", () -> {
+            Set<Integer> r = new HashSet<>(hashA);
+            r.addAll(hashB);
+            return r.size();
+        });
+        cronometrar("Bitmap  or", () -> BitmapCompactado.or(bitmapA, bitmapB).cardinalidade());
+        cronometrar("HashSet diferença", () -> {
+            Set<Integer> r = new HashSet<>(hashA);
+            r.removeAll(hashB);
+            return r.size();
+        });
+        cronometrar("Bitmap  andNot", () -> BitmapCompactado.andNot(bitmapA, bitmapB).cardinalidade());
+        cronometrar("Bitmap  xor", () -> BitmapCompactado.xor(bitmapA, bitmapB).cardinalidade());
+        cronometrar("HashSet contains x1M", () -> {
+            long achados = 0;
+            for (int i = 0; i < 1_000_000; i++) {
+                achados += hashA.contains(valoresB[i]) ? 1 : 0;
+            }
+            return achados;
+        });
+        cronometrar("Bitmap  contains x1M", () -> {
+            long achados = 0;
+            for (int i = 0; i < 1_000_000; i++) {
+                achados += bitmapA.contains(valoresB[i]) ? 1 : 0;
+            }
+            return achados;
+        });
+    }
+
+    private static int[] gerar(int quantidade, long semente) {
+        SplittableRandom random = new SplittableRandom(semente);
+        int limite = (int) Math.min(Integer.MAX_VALUE, 4L * quantidade);
+        int[] valores = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            valores[i] = random.nextInt(limite);
+        }
+        return valores;
+    }
+
+    private static Set<Integer> preencher(Set<Integer> conjunto, int[] valores) {
+        for (int v : valores) {
+            conjunto.add(v);
+        }
+        return conjunto;
+    }
+
+    private static BitmapCompactado preencher(int[] valores) {
+        BitmapCompactado bitmap = new BitmapCompactado();
+        for (int v : valores) {
+            bitmap.add(v);
+        }
+        return bitmap;
+    }
+
+    private static <T> T medir(String nome, Supplier<T> construcao) {
+        long antes = heapUsado();
+        long inicio = System.nanoTime();
+        T conjunto = construcao.get();
+        long nanos = System.nanoTime() - inicio;
+        long depois = heapUsado();
+
+        System.out.printf("%-22s %,8d ms   heap retido ~%,6d MB%n",
+            nome, nanos / 1_000_000, (depois - antes) / (1024 * 1024));
+        Reference.reachabilityFence(conjunto);
+        return conjunto;
+    }
+
+    private static void cronometrar(String nome, Supplier<Number> operacao) {
+        sumidouro += operacao.get().longValue(); // aquecimento
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            sumidouro += operacao.get().longValue();
+        }
+        long nanos = (System.nanoTime() - inicio) / 5;
+        System.out.printf("%-22s %,10.2f ms%n", nome, nanos / 1e6);
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
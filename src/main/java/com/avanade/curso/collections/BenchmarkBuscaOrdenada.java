@@ -0,0 +1,102 @@
+package com.avanade.curso.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmark: buscas em int[] ordenado maior que o cache L3
+ *
+ * Execução (o padrão de 32M ints = 128 MB, mais 32M Integer na lista):
+ * <pre>
+ * java -Xmx4g -cp target/classes com.avanade.curso.collections.BenchmarkBuscaOrdenada [elementos] [consultas]
+ * </pre>
+ *
+ * As consultas são aleatórias, então quase todo passo nos níveis baixos
+ * da busca é um cache miss: o que se mede é latência de memória.
+ */
+public class BenchmarkBuscaOrdenada {
+
+    private static volatile long sumidouro; // evita eliminação de código morto
+
+    public static void main(String[] args) {
+        int elementos = args.length > 0 ? Integer.parseInt(args[0]) : 32_000_000;
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        SplittableRandom random = new SplittableRandom(42);
+        int[] ordenado = new int[elementos];
+        for (int i = 0; i < elementos; i++) {
+            ordenado[i] = random.nextInt();
+        }
+        Arrays.sort(ordenado);
+        int[] chaves = new int[consultas];
+        for (int i = 0; i < consultas; i++) {
+            chaves[i] = random.nextInt();
+        }
+
+        System.out.printf("=== %,d elementos (%,d MB), %,d consultas ===%n",
+            elementos, elementos * 4L / (1024 * 1024), consultas);
+
+        medirListaBoxed(ordenado, chaves); // os Integer ficam livres antes dos demais
+
+        medir("Arrays.binarySearch", consultas, () -> {
+            long soma = 0;
+            for (int chave : chaves) {
+                soma += Arrays.binarySearch(ordenado, chave);
+            }
+            return soma;
+        });
+        medir("Sem desvio", consultas, () -> {
+            long soma = 0;
+            for (int chave : chaves) {
+                soma += BuscaOrdenada.limiteInferior(ordenado, chave);
+            }
+            return soma;
+        });
+        int[] saida = new int[consultas];
+        medir("Sem desvio em lote", consultas, () -> {
+            BuscaOrdenada.limitesInferiores(ordenado, chaves, saida);
+            return saida[consultas - 1];
+        });
+
+        BuscaOrdenada.EytzingerInt eytzinger = BuscaOrdenada.EytzingerInt.de(ordenado);
+        medir("Eytzinger", consultas, () -> {
+            long soma = 0;
+            for (int chave : chaves) {
+                soma += eytzinger.limiteInferior(chave);
+            }
+            return soma;
+        });
+        medir("Eytzinger em lote", consultas, () -> {
+            eytzinger.limitesInferiores(chaves, saida);
+            return saida[consultas - 1];
+        });
+    }
+
+    private static void medirListaBoxed(int[] ordenado, int[] chaves) {
+        List<Integer> lista = new ArrayList<>(ordenado.length);
+        for (int v : ordenado) {
+            lista.add(v);
+        }
+        medir("Collections.binarySearch", chaves.length, () -> {
+            long soma = 0;
+            for (int chave : chaves) {
+                soma += Collections.binarySearch(lista, chave);
+            }
+            return soma;
+        });
+    }
+
+    private static void medir(String nome, int consultas, LongSupplier busca) {
+        sumidouro += busca.getAsLong(); // aquecimento
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            sumidouro += busca.getAsLong();
+        }
+        double nanosPorConsulta = (System.nanoTime() - inicio) / (3.0 * consultas);
+        System.out.printf("%-26s %8.1f ns/consulta%n", nome, nanosPorConsulta);
+    }
+}
@@ -0,0 +1,166 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: taxa de acerto e vazão de CacheLimitado / CacheConcorrente vs
+ * LRU feito à mão sobre LinkedHashMap
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.collections.BenchmarkCache [requisicoes]
+ * </pre>
+ *
+ * Carga: chaves com distribuição Zipf (s = 0.9) sobre 1M chaves, com
+ * varreduras periódicas de chaves nunca repetidas (10% das requisições).
+ * Falhas "carregam" o valor com computeIfAbsent.
+ */
+public class BenchmarkCache {
+
+    private static final int CAPACIDADE = 10_000;
+    private static final int UNIVERSO = 1_000_000;
+
+    private static volatile long sumidouro;
+
+    /** LRU clássico: LinkedHashMap em ordem de acesso + removeEldestEntry */
+    static final class LruLinkedHashMap<K, V> extends LinkedHashMap<K, V> {
+        private final int capacidade;
+
+        LruLinkedHashMap(int capacidade) {
+            super(capacidade * 2, 0.75f, true);
+            this.capacidade = capacidade;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+            return size() > capacidade;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requisicoes = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int[] chaves = gerarCarga(requisicoes, new SplittableRandom(42));
+
+        System.out.printf("=== Uma thread: %,d requisições, capacidade %,d ===%n", requisicoes, CAPACIDADE);
+        System.out.printf("%-24s %10s %10s%n", "", "acerto", "ns/req");
+
+        medirLinkedHashMap(chaves);
+        for (PoliticaDespejo politica : PoliticaDespejo.values()) {
+            CacheLimitado<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+                .capacidade(CAPACIDADE).politica(politica).build();
+            medir("CacheLimitado " + politica, chaves,
+                k -> cache.computeIfAbsent(k, BenchmarkCache::carregar), cache::estatisticas);
+        }
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%n=== %d threads ===%n", threads);
+        Map<Integer, Integer> sincronizado = Collections.synchronizedMap(new LruLinkedHashMap<>(CAPACIDADE));
+        medirConcorrente("synchronized LinkedHashMap", chaves, threads,
+            k -> sincronizado.computeIfAbsent(k, BenchmarkCache::carregar));
+        CacheConcorrente<Integer, Integer> concorrente = Cache.<Integer, Integer>builder()
+            .capacidade(CAPACIDADE).buildConcorrente();
+        medirConcorrente("CacheConcorrente W_TINY_LFU", chaves, threads,
+            k -> concorrente.computeIfAbsent(k, BenchmarkCache::carregar));
+        System.out.printf("%-28s taxa de acerto %.2f%%%n", "", concorrente.estatisticas().taxaAcerto() * 100);
+    }
+
+    /**
+     * Zipf por inversão da CDF aproximada, mais varreduras de 1.000 chaves
+     * novas a cada 10.000 requisições
+     */
+    private static int[] gerarCarga(int n, SplittableRandom random) {
+        double s = 0.9;
+        double[] cdf = new double[UNIVERSO];
+        double soma = 0;
+        for (int i = 0; i < UNIVERSO; i++) {
+            soma += 1.0 / Math.pow(i + 1, s);
+            cdf[i] = soma;
+        }
+        int[] chaves = new int[n];
+        int proximaNova = UNIVERSO;
+        for (int i = 0; i < n; i++) {
+            if (i % 10_000 < 1_000) {
+                chaves[i] = proximaNova++;
+            } else {
+                double alvo = random.nextDouble() * soma;
+                int pos = Arrays.binarySearch(cdf, alvo);
+                chaves[i] = pos >= 0 ? pos : -pos - 1;
+            }
+        }
+        return chaves;
+    }
+
+    private static Integer carregar(Integer chave) {
+        return chave * 31;
+    }
+
+    private static void medirLinkedHashMap(int[] chaves) {
+        LruLinkedHashMap<Integer, Integer> lru = new LruLinkedHashMap<>(CAPACIDADE);
+        long[] contadores = new long[2]; // acertos, falhas
+        medir("LinkedHashMap LRU", chaves, k -> {
+            Integer v = lru.get(k);
+            if (v == null) {
+                contadores[1]++;
+                v = carregar(k);
+                lru.put(k, v);
+            } else {
+                contadores[0]++;
+            }
+            return v;
+        }, () -> new EstatisticasCache(contadores[0], contadores[1], 0, 0));
+    }
+
+    private static void medir(String nome, int[] chaves, IntFunction<Integer> acesso,
+                              Supplier<EstatisticasCache> estatisticas) {
+        long soma = 0;
+        for (int k : chaves) { // aquecimento: mesma carga
+            soma += acesso.apply(k);
+        }
+        EstatisticasCache antes = estatisticas.get();
+        long inicio = System.nanoTime();
+        for (int k : chaves) {
+            soma += acesso.apply(k);
+        }
+        long tempo = System.nanoTime() - inicio;
+        sumidouro = soma;
+        EstatisticasCache intervalo = estatisticas.get().menos(antes);
+        System.out.printf("%-24s %9.2f%% %10.1f%n", nome, intervalo.taxaAcerto() * 100,
+            (double) tempo / chaves.length);
+    }
+
+    private static void medirConcorrente(String nome, int[] chaves, int threads,
+                                         IntFunction<Integer> acesso) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int rodada = 0; rodada < 2; rodada++) { // 1a rodada = aquecimento
+            Future<?>[] tarefas = new Future<?>[threads];
+            long inicio = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int deslocamento = t * 7_919;
+                tarefas[t] = executor.submit(() -> {
+                    long soma = 0;
+                    for (int i = 0; i < chaves.length; i++) {
+                        soma += acesso.apply(chaves[(i + deslocamento) % chaves.length]);
+                    }
+                    sumidouro += soma;
+                });
+            }
+            for (Future<?> f : tarefas) {
+                f.get();
+            }
+            long tempo = System.nanoTime() - inicio;
+            if (rodada == 1) {
+                System.out.printf("%-28s %,12.0f req/s%n", nome, (double) chaves.length * threads * 1e9 / tempo);
+            }
+        }
+        executor.shutdown();
+    }
+}
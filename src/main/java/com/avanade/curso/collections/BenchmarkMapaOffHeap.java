@@ -0,0 +1,79 @@
+package com.avanade.curso.collections;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Benchmark: MapaOffHeap (long -> long) com 100M+ entradas
+ *
+ * Mostra que o heap e o GC ficam praticamente parados enquanto o mapa
+ * cresce fora do heap, e compara com um HashMap de tamanho menor (um
+ * HashMap com 100M entradas precisaria de ~8 GB de heap).
+ *
+ * <pre>
+ * java -Xmx2g -XX:MaxDirectMemorySize=8g -cp target/classes \
+ *     com.avanade.curso.collections.BenchmarkMapaOffHeap [entradas] [entradasHashMap]
+ * </pre>
+ */
+public class BenchmarkMapaOffHeap {
+
+    public static void main(String[] args) {
+        long entradas = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        int entradasHashMap = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+
+        System.out.printf("=== MapaOffHeap: %,d entradas ===%n", entradas);
+        long heapAntes = heapUsado();
+        long gcAntes = tempoGc(); // medido depois do System.gc() acima
+        long inicio = System.nanoTime();
+        try (MapaOffHeap mapa = MapaOffHeap.comTamanhoFixo(8, 8, entradas)) {
+            for (long i = 0; i < entradas; i++) {
+                mapa.putLong(i * 7919, i);
+            }
+            long insercao = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long soma = 0;
+            for (long i = 0; i < entradas; i++) {
+                soma += mapa.getLong(i * 7919, 0);
+            }
+            long leitura = System.nanoTime() - inicio;
+
+            System.out.printf("Inserção: %,d ms (%,.0f ops/s)%n", insercao / 1_000_000, entradas * 1e9 / insercao);
+            System.out.printf("Leitura:  %,d ms (%,.0f ops/s) [soma=%d]%n", leitura / 1_000_000, entradas * 1e9 / leitura, soma);
+            long gc = tempoGc() - gcAntes;
+            System.out.printf("Memória nativa: %,d MB | heap extra: %,d MB | tempo de GC: %,d ms%n",
+                mapa.getBytesNativos() >> 20, (heapUsado() - heapAntes) >> 20, gc);
+        }
+
+        System.out.printf("%n=== HashMap<Long, Long>: %,d entradas ===%n", entradasHashMap);
+        heapAntes = heapUsado();
+        gcAntes = tempoGc();
+        inicio = System.nanoTime();
+        Map<Long, Long> heap = new HashMap<>();
+        for (long i = 0; i < entradasHashMap; i++) {
+            heap.put(i * 7919, i);
+        }
+        long insercao = System.nanoTime() - inicio;
+        System.out.printf("Inserção: %,d ms (%,.0f ops/s)%n", insercao / 1_000_000, entradasHashMap * 1e9 / insercao);
+        long gc = tempoGc() - gcAntes;
+        System.out.printf("Heap retido: %,d MB | tempo de GC: %,d ms%n",
+            (heapUsado() - heapAntes) >> 20, gc);
+        System.out.println("Entradas: " + heap.size());
+    }
+
+    private static long tempoGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,146 @@
+package com.avanade.curso.collections;
+
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: mapas primitivos vs HashMap (memória e vazão)
+ *
+ * Execução (10M entradas exige heap grande):
+ * <pre>
+ * java -Xmx8g -cp target/classes com.avanade.curso.collections.BenchmarkMapasPrimitivos [entradas]
+ * </pre>
+ *
+ * Memória é medida como heap usado após GC antes/depois de construir o
+ * mapa; é uma aproximação, mas suficiente para comparar ordens de grandeza.
+ * Não é um substituto para JMH: serve para demonstrar a diferença.
+ */
+public class BenchmarkMapasPrimitivos {
+
+    private static volatile long sumidouro; // evita eliminação de código morto
+
+    public static void main(String[] args) {
+        int entradas = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long[] chaves = gerarChaves(entradas);
+
+        System.out.printf("=== long -> long (%,d entradas) ===%n", entradas);
+        medir("HashMap<Long, Long>", () -> {
+            Map<Long, Long> mapa = new HashMap<>();
+            for (long chave : chaves) {
+                mapa.merge(chave, 1L, Long::sum);
+            }
+            long soma = 0;
+            for (long chave : chaves) {
+                soma += mapa.getOrDefault(chave, 0L);
+            }
+            sumidouro = soma;
+            return mapa;
+        });
+        medir("Long2LongMap", () -> {
+            Long2LongMap mapa = new Long2LongMap();
+            for (long chave : chaves) {
+                mapa.addTo(chave, 1L);
+            }
+            long soma = 0;
+            for (long chave : chaves) {
+                soma += mapa.getOrDefault(chave, 0L);
+            }
+            sumidouro = soma;
+            return mapa;
+        });
+
+        System.out.printf("%n=== int -> Object (%,d entradas) ===%n", entradas);
+        String valor = "v";
+        medir("HashMap<Integer, String>", () -> {
+            Map<Integer, String> mapa = new HashMap<>();
+            for (long chave : chaves) {
+                mapa.put((int) chave, valor);
+            }
+            long soma = 0;
+            for (long chave : chaves) {
+                soma += mapa.get((int) chave).length();
+            }
+            sumidouro = soma;
+            return mapa;
+        });
+        medir("Int2ObjectMap<String>", () -> {
+            Int2ObjectMap<String> mapa = new Int2ObjectMap<>();
+            for (long chave : chaves) {
+                mapa.put((int) chave, valor);
+            }
+            long soma = 0;
+            for (long chave : chaves) {
+                soma += mapa.get((int) chave).length();
+            }
+            sumidouro = soma;
+            return mapa;
+        });
+
+        // As chaves String são criadas fora da medição para que ambos os
+        // mapas compartilhem as mesmas instâncias: mede-se só o mapa
+        String[] nomes = new String[entradas];
+        for (int i = 0; i < entradas; i++) {
+            nomes[i] = "k" + chaves[i];
+        }
+        System.out.printf("%n=== String -> int (%,d entradas) ===%n", entradas);
+        medir("HashMap<String, Integer>", () -> {
+            Map<String, Integer> mapa = new HashMap<>();
+            for (String nome : nomes) {
+                mapa.merge(nome, 1, Integer::sum);
+            }
+            long soma = 0;
+            for (String nome : nomes) {
+                soma += mapa.getOrDefault(nome, 0);
+            }
+            sumidouro = soma;
+            return mapa;
+        });
+        medir("Object2IntMap<String>", () -> {
+            Object2IntMap<String> mapa = new Object2IntMap<>();
+            for (String nome : nomes) {
+                mapa.addTo(nome, 1);
+            }
+            long soma = 0;
+            for (String nome : nomes) {
+                soma += mapa.getOrDefault(nome, 0);
+            }
+            sumidouro = soma;
+            return mapa;
+        });
+    }
+
+    private static long[] gerarChaves(int quantidade) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] chaves = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            chaves[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        return chaves;
+    }
+
+    private static void medir(String nome, Supplier<Object> construcao) {
+        // Aquecimento com a mesma carga (JIT), descartado
+        construcao.get();
+
+        long antes = heapUsado();
+        long inicio = System.nanoTime();
+        Object mapa = construcao.get();
+        long nanos = System.nanoTime() - inicio;
+        long depois = heapUsado();
+
+        System.out.printf("%-26s %,8d ms   heap retido ~%,6d MB%n",
+            nome, nanos / 1_000_000, (depois - antes) / (1024 * 1024));
+        Reference.reachabilityFence(mapa); // mantém o mapa vivo durante a medição
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
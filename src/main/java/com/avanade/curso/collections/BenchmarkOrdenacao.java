@@ -0,0 +1,80 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Benchmark: OrdenacaoRadix vs Arrays.sort / parallelSort / Comparator
+ *
+ * Execução:
+ * <pre>
+ * java -Xmx4g -cp target/classes com.avanade.curso.collections.BenchmarkOrdenacao [elementos]
+ * </pre>
+ *
+ * Cada medição ordena uma cópia nova dos mesmos dados; a cópia fica fora
+ * do tempo medido.
+ */
+public class BenchmarkOrdenacao {
+
+    record Registro(long id, int prioridade, String nome) {
+    }
+
+    public static void main(String[] args) {
+        int elementos = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+
+        int[] ints = new int[elementos];
+        long[] longs = new long[elementos];
+        for (int i = 0; i < elementos; i++) {
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+        }
+        System.out.printf("=== int[] (%,d) ===%n", elementos);
+        medir("Arrays.sort", ints, int[]::clone, Arrays::sort);
+        medir("Arrays.parallelSort", ints, int[]::clone, Arrays::parallelSort);
+        medir("Radix", ints, int[]::clone, OrdenacaoRadix::ordenar);
+        medir("Radix paralelo", ints, int[]::clone, OrdenacaoRadix::ordenarParalelo);
+
+        System.out.printf("%n=== long[] (%,d) ===%n", elementos);
+        medir("Arrays.sort", longs, long[]::clone, Arrays::sort);
+        medir("Arrays.parallelSort", longs, long[]::clone, Arrays::parallelSort);
+        medir("Radix", longs, long[]::clone, OrdenacaoRadix::ordenar);
+        medir("Radix paralelo", longs, long[]::clone, OrdenacaoRadix::ordenarParalelo);
+
+        int objetos = elementos / 4;
+        Registro[] registros = new Registro[objetos];
+        for (int i = 0; i < objetos; i++) {
+            registros[i] = new Registro(random.nextLong(), random.nextInt(1_000_000), "r" + random.nextInt());
+        }
+        System.out.printf("%n=== Objetos por chave int (%,d) ===%n", objetos);
+        medir("Arrays.sort(Comparator)", registros, Registro[]::clone,
+            r -> Arrays.sort(r, Comparator.comparingInt(Registro::prioridade)));
+        medir("Arrays.parallelSort(Comp.)", registros, Registro[]::clone,
+            r -> Arrays.parallelSort(r, Comparator.comparingInt(Registro::prioridade)));
+        medir("Radix por chave", registros, Registro[]::clone,
+            r -> OrdenacaoRadix.ordenarPorChave(r, Registro::prioridade));
+        medir("Radix por chave paralelo", registros, Registro[]::clone,
+            r -> OrdenacaoRadix.ordenarPorChaveParalelo(r, Registro::prioridade));
+
+        String[] nomes = Arrays.stream(registros).map(Registro::nome).toArray(String[]::new);
+        System.out.printf("%n=== String[] (%,d) ===%n", objetos);
+        medir("Arrays.sort", nomes, String[]::clone, Arrays::sort);
+        medir("Radix MSD", nomes, String[]::clone, OrdenacaoRadix::ordenar);
+    }
+
+    private static <A> void medir(String nome, A dados, UnaryOperator<A> copiar,
+                                  Consumer<A> ordenacao) {
+        ordenacao.accept(copiar.apply(dados)); // aquecimento
+        long total = 0;
+        for (int i = 0; i < 3; i++) {
+            A copia = copiar.apply(dados);
+            long inicio = System.nanoTime();
+            ordenacao.accept(copia);
+            total += System.nanoTime() - inicio;
+        }
+        System.out.printf("%-28s %,8d ms%n", nome, total / 3 / 1_000_000);
+    }
+}
@@ -0,0 +1,136 @@
+package com.avanade.curso.collections;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: busca por prefixo em TrieNomes / TrieNomesCongelada vs
+ * {@code stream().filter(startsWith)} (como em StreamsExample)
+ *
+ * Execução:
+ * <pre>
+ * java -Xmx4g -cp target/classes com.avanade.curso.collections.BenchmarkTrieNomes [nomes]
+ * </pre>
+ *
+ * Nomes "Primeiro Sobrenome Sobrenome N" com acentos; as consultas são
+ * prefixos de nomes existentes, sem acento e em minúsculas: curtos (1 a
+ * 8 caracteres, muitos resultados - o stream com limit para cedo) e
+ * seletivos (poucos resultados - o stream percorre quase tudo). O stream recebe a lista já normalizada (o melhor caso
+ * para ele: normalizar por consulta seria bem mais lento). Os valores
+ * são as próprias Strings da lista, então o heap medido é só o da
+ * estrutura.
+ */
+public class BenchmarkTrieNomes {
+
+    private static final String[] PRIMEIROS = {
+        "Ana", "André", "Antônio", "Beatriz", "Bruno", "Camila", "Carlos", "Cecília", "Daniel", "Débora",
+        "Eduardo", "Élida", "Fábio", "Fernanda", "Gabriel", "Helena", "Ígor", "Isabela", "João", "José",
+        "Júlia", "Larissa", "Lucas", "Márcia", "Mateus", "Natália", "Otávio", "Paula", "Rafael", "Sérgio",
+        "Tânia", "Vinícius"
+    };
+    private static final String[] SOBRENOMES = {
+        "Almeida", "Araújo", "Barbosa", "Cardoso", "Carvalho", "Conceição", "Costa", "Dias", "Fernandes",
+        "Ferreira", "Gomes", "Gonçalves", "Lima", "Lopes", "Martins", "Melo", "Mendes", "Nascimento",
+        "Oliveira", "Pereira", "Ribeiro", "Rocha", "Rodrigues", "Santos", "Silva", "Sousa", "Teixeira"
+    };
+    private static final int LIMITE = 10;
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        NormalizadorChave normalizador = NormalizadorChave.SEM_ACENTOS;
+
+        List<String> nomes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            nomes.add(PRIMEIROS[random.nextInt(PRIMEIROS.length)] + " "
+                + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + i);
+        }
+        List<String> normalizados = nomes.stream().map(normalizador::normalizar).toList();
+        String[] prefixos = new String[2_000];
+        String[] seletivos = new String[2_000];
+        for (int i = 0; i < prefixos.length; i++) {
+            String n = normalizados.get(random.nextInt(quantidade));
+            prefixos[i] = n.substring(0, 1 + random.nextInt(Math.min(8, n.length())));
+            String m = normalizados.get(random.nextInt(quantidade));
+            seletivos[i] = m.substring(0, m.lastIndexOf(' ') + 2); // nome completo + 1º dígito
+        }
+
+        System.out.printf("=== Construção (%,d nomes) ===%n", quantidade);
+        TrieNomes<String> trie = medir("TrieNomes", () -> {
+            TrieNomes<String> t = new TrieNomes<>(normalizador);
+            for (String nome : nomes) {
+                t.put(nome, nome);
+            }
+            return t;
+        });
+        TrieNomesCongelada<String> congelada = medir("TrieNomesCongelada", trie::congelar);
+        System.out.printf("Bytes estimados: mutável %,d MB, congelada %,d MB%n",
+            trie.getBytesEstimados() >> 20, congelada.getBytesEstimados() >> 20);
+
+        System.out.printf("%n=== %,d consultas de prefixo, até %d resultados ===%n", prefixos.length, LIMITE);
+        cronometrar("stream filter + limit", prefixos, p -> normalizados.stream()
+            .filter(n -> n.startsWith(p)).limit(LIMITE).toList().size());
+        cronometrar("TrieNomes", prefixos, p -> trie.buscarPorPrefixo(p, LIMITE).size());
+        cronometrar("TrieNomesCongelada", prefixos, p -> congelada.buscarPorPrefixo(p, LIMITE).size());
+
+        System.out.printf("%n=== %,d consultas de prefixo seletivo, até %d resultados ===%n",
+            seletivos.length, LIMITE);
+        cronometrar("stream filter + limit", seletivos, p -> normalizados.stream()
+            .filter(n -> n.startsWith(p)).limit(LIMITE).toList().size());
+        cronometrar("TrieNomes", seletivos, p -> trie.buscarPorPrefixo(p, LIMITE).size());
+        cronometrar("TrieNomesCongelada", seletivos, p -> congelada.buscarPorPrefixo(p, LIMITE).size());
+
+        System.out.printf("%n=== Contagem por prefixo ===%n");
+        cronometrar("stream filter + count", prefixos, p -> (int) normalizados.stream()
+            .filter(n -> n.startsWith(p)).count());
+        cronometrar("TrieNomes", prefixos, trie::contarPrefixo);
+        cronometrar("TrieNomesCongelada", prefixos, congelada::contarPrefixo);
+    }
+
+    private static <T> T medir(String nome, Supplier<T> construcao) {
+        long antes = heapUsado();
+        long inicio = System.nanoTime();
+        T estrutura = construcao.get();
+        long nanos = System.nanoTime() - inicio;
+        long depois = heapUsado();
+        System.out.printf("%-22s %,8d ms   heap retido ~%,6d MB%n",
+            nome, nanos / 1_000_000, (depois - antes) / (1024 * 1024));
+        Reference.reachabilityFence(estrutura);
+        return estrutura;
+    }
+
+    /**
+     * Tempo médio por consulta; as lentas (stream) rodam sobre uma amostra
+     * menor para o benchmark terminar em tempo razoável
+     */
+    private static void cronometrar(String nome, String[] prefixos, Function<String, Integer> consulta) {
+        long soma = 0;
+        long aquecimento = System.nanoTime();
+        for (int i = 0; i < prefixos.length && System.nanoTime() - aquecimento < 1_000_000_000L; i++) {
+            soma += consulta.apply(prefixos[i]);
+        }
+        long inicio = System.nanoTime();
+        int feitas = 0;
+        while (feitas < prefixos.length && (feitas < 50 || System.nanoTime() - inicio < 2_000_000_000L)) {
+            soma += consulta.apply(prefixos[feitas++]);
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = soma;
+        System.out.printf("%-22s %,12.1f µs/consulta (%,d consultas)%n", nome, nanos / 1e3 / feitas, feitas);
+    }
+
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
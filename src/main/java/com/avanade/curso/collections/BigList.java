@@ -0,0 +1,265 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lista segmentada em chunks de tamanho fixo, com índices long
+ *
+ * {@code ArrayList} cresce copiando o array inteiro (1,5x): com centenas
+ * de milhões de elementos cada crescimento é uma pausa longa e exige
+ * memória para o array velho e o novo ao mesmo tempo. Além disso o
+ * índice é int, limitado a ~2^31 elementos.
+ *
+ * Aqui os elementos ficam em chunks de 2^14 posições:
+ * - add: O(1) sem cópia de elementos (só o array de chunks, pequeno,
+ *   dobra de vez em quando)
+ * - get/set: índice long, um deslocamento e uma máscara
+ * - {@link #spliterator()}: divide em fronteiras de chunk, bom para
+ *   {@link #parallelStream()}
+ *
+ * Variantes sem boxing: {@link IntBigList}, {@link LongBigList}.
+ *
+ * NÃO é thread-safe.
+ */
+public class BigList<E> implements Iterable<E> {
+
+    static final int BITS_CHUNK_PADRAO = 14;
+
+    private final int bitsChunk;
+    private final int tamanhoChunk;
+    private final long mascara;
+    private Object[][] chunks;
+    private int chunksAlocados;
+    private long tamanho;
+
+    public BigList() {
+        this(BITS_CHUNK_PADRAO);
+    }
+
+    /** Chunks de 2^bitsChunk elementos (testes usam chunks pequenos) */
+    BigList(int bitsChunk) {
+        if (bitsChunk < 1 || bitsChunk > 30) {
+            throw new IllegalArgumentException("bitsChunk fora de [1, 30]: " + bitsChunk);
+        }
+        this.bitsChunk = bitsChunk;
+        this.tamanhoChunk = 1 << bitsChunk;
+        this.mascara = tamanhoChunk - 1;
+        this.chunks = new Object[8][];
+    }
+
+    public void add(E elemento) {
+        int chunk = (int) (tamanho >>> bitsChunk);
+        if (chunk == chunksAlocados) {
+            alocarChunk();
+        }
+        chunks[chunk][(int) (tamanho & mascara)] = elemento;
+        tamanho++;
+    }
+
+    private void alocarChunk() {
+        if (chunksAlocados == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[chunksAlocados++] = new Object[tamanhoChunk];
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long indice) {
+        validarIndice(indice);
+        return (E) chunks[(int) (indice >>> bitsChunk)][(int) (indice & mascara)];
+    }
+
+    /**
+     * @return o elemento anterior
+     */
+    public E set(long indice, E elemento) {
+        E anterior = get(indice);
+        chunks[(int) (indice >>> bitsChunk)][(int) (indice & mascara)] = elemento;
+        return anterior;
+    }
+
+    /**
+     * Remove e devolve o último elemento
+     */
+    public E removeLast() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Lista vazia");
+        }
+        E ultimo = get(tamanho - 1);
+        tamanho--;
+        chunks[(int) (tamanho >>> bitsChunk)][(int) (tamanho & mascara)] = null; // libera para o GC
+        return ultimo;
+    }
+
+    /** Número de elementos (pode passar de Integer.MAX_VALUE) */
+    public long size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Esvazia e devolve os chunks ao GC
+     */
+    public void clear() {
+        chunks = new Object[8][];
+        chunksAlocados = 0;
+        tamanho = 0;
+    }
+
+    private void validarIndice(long indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice fora do intervalo [0, " + tamanho + "): " + indice);
+        }
+    }
+
+    // ============================================
+    // Iteração
+    // ============================================
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            long proximo;
+
+            @Override
+            public boolean hasNext() {
+                return proximo < tamanho;
+            }
+
+            @Override
+            public E next() {
+                if (proximo >= tamanho) {
+                    throw new NoSuchElementException();
+                }
+                return get(proximo++);
+            }
+        };
+    }
+
+    /**
+     * Percorre chunk a chunk, sem validar índice por elemento
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> acao) {
+        long restante = tamanho;
+        for (int c = 0; restante > 0; c++) {
+            Object[] chunk = chunks[c];
+            int n = (int) Math.min(restante, tamanhoChunk);
+            for (int i = 0; i < n; i++) {
+                acao.accept((E) chunk[i]);
+            }
+            restante -= n;
+        }
+    }
+
+    /**
+     * Spliterator sobre os elementos atuais; divide em fronteiras de chunk
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new Divisor(0, tamanho);
+    }
+
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private final class Divisor implements Spliterator<E> {
+
+        private long atual;
+        private final long fim;
+
+        Divisor(long inicio, long fim) {
+            this.atual = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super E> acao) {
+            if (atual >= fim) {
+                return false;
+            }
+            acao.accept((E) chunks[(int) (atual >>> bitsChunk)][(int) (atual & mascara)]);
+            atual++;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> acao) {
+            while (atual < fim) {
+                Object[] chunk = chunks[(int) (atual >>> bitsChunk)];
+                int i = (int) (atual & mascara);
+                int n = (int) Math.min(fim - atual, tamanhoChunk - i);
+                for (int k = i; k < i + n; k++) {
+                    acao.accept((E) chunk[k]);
+                }
+                atual += n;
+            }
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            long meio = metadeAlinhada(atual, fim, mascara);
+            if (meio < 0) {
+                return null;
+            }
+            Divisor prefixo = new Divisor(atual, meio);
+            atual = meio;
+            return prefixo;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fim - atual;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Ponto de divisão de [inicio, fim) alinhado a um chunk, ou -1 se a
+     * faixa não tem uma fronteira de chunk no meio
+     */
+    static long metadeAlinhada(long inicio, long fim, long mascara) {
+        long meio = ((inicio + fim) >>> 1) & ~mascara;
+        if (meio <= inicio) {
+            meio = (inicio | mascara) + 1; // próxima fronteira
+        }
+        return meio < fim ? meio : -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        long mostrar = Math.min(tamanho, 20);
+        for (long i = 0; i < mostrar; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        if (tamanho > mostrar) {
+            sb.append(", ... (").append(tamanho).append(" elementos)");
+        }
+        return sb.append(']').toString();
+    }
+}
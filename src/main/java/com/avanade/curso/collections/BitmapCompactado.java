@@ -0,0 +1,603 @@
+package com.avanade.curso.collections;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto de int compactado no estilo Roaring Bitmap
+ *
+ * {@code HashSet<Integer>} gasta ~50 bytes por elemento (Integer + nó +
+ * slot da tabela) e união/interseção percorrem elemento a elemento.
+ * Aqui o int é dividido em 16 bits altos (chave) e 16 bits baixos
+ * (guardados em um {@link ContainerRoaring} por chave):
+ *
+ * - esparso (até 4096 por chave): char[] ordenado, 2 bytes por valor
+ * - denso: bitmap de 8 KB, união/interseção palavra a palavra (64 por vez)
+ * - faixas contíguas: pares (início, comprimento) após {@link #otimizarRuns()}
+ *
+ * Valores são tratados como 32 bits SEM sinal: a iteração visita
+ * 0..Integer.MAX_VALUE e depois os negativos.
+ *
+ * Operações:
+ * - {@link #and}, {@link #or}, {@link #andNot}, {@link #xor}: novo bitmap
+ * - {@link #andNoLugar} etc.: alteram este bitmap (sem cópia dos containers de bitmap)
+ * - {@link #uniao(BitmapCompactado...)}: união preguiçosa de N bitmaps,
+ *   a cardinalidade só é calculada uma vez por container no final
+ * - {@link #serializar}/{@link #desserializar}: formato binário em ByteBuffer
+ *
+ * NÃO é thread-safe.
+ */
+public class BitmapCompactado implements Iterable<Integer> {
+
+    private char[] chaves;
+    private ContainerRoaring[] containers;
+    private int tamanho;
+
+    public BitmapCompactado() {
+        this.chaves = new char[4];
+        this.containers = new ContainerRoaring[4];
+    }
+
+    private BitmapCompactado(char[] chaves, ContainerRoaring[] containers, int tamanho) {
+        this.chaves = chaves;
+        this.containers = containers;
+        this.tamanho = tamanho;
+    }
+
+    public static BitmapCompactado de(int... valores) {
+        BitmapCompactado bitmap = new BitmapCompactado();
+        for (int v : valores) {
+            bitmap.add(v);
+        }
+        return bitmap;
+    }
+
+    private static char alto(int valor) {
+        return (char) (valor >>> 16);
+    }
+
+    private static char baixo(int valor) {
+        return (char) valor;
+    }
+
+    private int indiceChave(char chave) {
+        // Acesso sequencial é o caso comum: testa o último antes da busca binária
+        if (tamanho > 0 && chaves[tamanho - 1] == chave) {
+            return tamanho - 1;
+        }
+        return Arrays.binarySearch(chaves, 0, tamanho, chave);
+    }
+
+    // ============================================
+    // Elementos
+    // ============================================
+
+    /**
+     * @return true se o valor não estava presente
+     */
+    public boolean add(int valor) {
+        char chave = alto(valor);
+        int i = indiceChave(chave);
+        if (i < 0) {
+            ContainerArray novo = new ContainerArray(4);
+            novo.adicionar(baixo(valor));
+            inserirContainer(-i - 1, chave, novo);
+            return true;
+        }
+        ContainerRoaring c = containers[i];
+        int antes = c.cardinalidade();
+        containers[i] = c.adicionar(baixo(valor));
+        return containers[i].cardinalidade() != antes;
+    }
+
+    /**
+     * @return true se o valor estava presente
+     */
+    public boolean remove(int valor) {
+        int i = indiceChave(alto(valor));
+        if (i < 0) {
+            return false;
+        }
+        ContainerRoaring c = containers[i];
+        int antes = c.cardinalidade();
+        ContainerRoaring depois = c.remover(baixo(valor));
+        if (depois.cardinalidade() == 0) {
+            removerContainer(i);
+        } else {
+            containers[i] = depois;
+        }
+        return depois.cardinalidade() != antes;
+    }
+
+    public boolean contains(int valor) {
+        int i = indiceChave(alto(valor));
+        return i >= 0 && containers[i].contem(baixo(valor));
+    }
+
+    /**
+     * Soma das cardinalidades dos containers: O(número de containers)
+     */
+    public long cardinalidade() {
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += containers[i].cardinalidade();
+        }
+        return soma;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(containers, 0, tamanho, null);
+        tamanho = 0;
+    }
+
+    public BitmapCompactado copiar() {
+        ContainerRoaring[] copia = new ContainerRoaring[Math.max(tamanho, 4)];
+        for (int i = 0; i < tamanho; i++) {
+            copia[i] = containers[i].copiar();
+        }
+        return new BitmapCompactado(Arrays.copyOf(chaves, copia.length), copia, tamanho);
+    }
+
+    /**
+     * Converte cada container para a representação mais compacta,
+     * incluindo faixas contíguas (runs)
+     */
+    public void otimizarRuns() {
+        for (int i = 0; i < tamanho; i++) {
+            containers[i] = containers[i].otimizar();
+        }
+    }
+
+    /**
+     * Estimativa dos bytes ocupados pelos containers (formato serializado)
+     */
+    public long getBytesEstimados() {
+        return tamanhoSerializado();
+    }
+
+    // ============================================
+    // Iteração
+    // ============================================
+
+    /**
+     * Percorre os valores em ordem sem sinal, sem boxing
+     */
+    public void paraCada(IntConsumer acao) {
+        for (int i = 0; i < tamanho; i++) {
+            containers[i].paraCada(chaves[i] << 16, acao);
+        }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            int indice;
+            PrimitiveIterator.OfInt atual = tamanho > 0 ? containers[0].iterador(chaves[0] << 16) : null;
+
+            @Override
+            public boolean hasNext() {
+                while (atual != null && !atual.hasNext()) {
+                    indice++;
+                    atual = indice < tamanho ? containers[indice].iterador(chaves[indice] << 16) : null;
+                }
+                return atual != null;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return atual.nextInt();
+            }
+        };
+    }
+
+    public int[] toArray() {
+        long card = cardinalidade();
+        if (card > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Bitmap grande demais para um array: " + card);
+        }
+        int[] saida = new int[(int) card];
+        int[] pos = {0};
+        paraCada(v -> saida[pos[0]++] = v);
+        return saida;
+    }
+
+    // ============================================
+    // Operações de conjunto (novo bitmap)
+    // ============================================
+
+    public static BitmapCompactado and(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado r = new BitmapCompactado();
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            char ca = a.chaves[i];
+            char cb = b.chaves[j];
+            if (ca < cb) {
+                i++;
+            } else if (ca > cb) {
+                j++;
+            } else {
+                r.anexarSeNaoVazio(ca, ContainerRoaring.and(a.containers[i++], b.containers[j++]));
+            }
+        }
+        return r;
+    }
+
+    public static BitmapCompactado or(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado r = new BitmapCompactado();
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            char ca = a.chaves[i];
+            char cb = b.chaves[j];
+            if (ca < cb) {
+                r.anexar(ca, a.containers[i++].copiar());
+            } else if (ca > cb) {
+                r.anexar(cb, b.containers[j++].copiar());
+            } else {
+                r.anexar(ca, ContainerRoaring.or(a.containers[i++], b.containers[j++]));
+            }
+        }
+        for (; i < a.tamanho; i++) {
+            r.anexar(a.chaves[i], a.containers[i].copiar());
+        }
+        for (; j < b.tamanho; j++) {
+            r.anexar(b.chaves[j], b.containers[j].copiar());
+        }
+        return r;
+    }
+
+    /**
+     * Elementos de {@code a} que não estão em {@code b}
+     */
+    public static BitmapCompactado andNot(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado r = new BitmapCompactado();
+        int j = 0;
+        for (int i = 0; i < a.tamanho; i++) {
+            char ca = a.chaves[i];
+            while (j < b.tamanho && b.chaves[j] < ca) {
+                j++;
+            }
+            if (j < b.tamanho && b.chaves[j] == ca) {
+                r.anexarSeNaoVazio(ca, ContainerRoaring.andNot(a.containers[i], b.containers[j]));
+            } else {
+                r.anexar(ca, a.containers[i].copiar());
+            }
+        }
+        return r;
+    }
+
+    public static BitmapCompactado xor(BitmapCompactado a, BitmapCompactado b) {
+        BitmapCompactado r = new BitmapCompactado();
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            char ca = a.chaves[i];
+            char cb = b.chaves[j];
+            if (ca < cb) {
+                r.anexar(ca, a.containers[i++].copiar());
+            } else if (ca > cb) {
+                r.anexar(cb, b.containers[j++].copiar());
+            } else {
+                r.anexarSeNaoVazio(ca, ContainerRoaring.xor(a.containers[i++], b.containers[j++]));
+            }
+        }
+        for (; i < a.tamanho; i++) {
+            r.anexar(a.chaves[i], a.containers[i].copiar());
+        }
+        for (; j < b.tamanho; j++) {
+            r.anexar(b.chaves[j], b.containers[j].copiar());
+        }
+        return r;
+    }
+
+    /**
+     * União preguiçosa de vários bitmaps
+     *
+     * Unir N bitmaps dois a dois recalcula a cardinalidade (bitCount das
+     * 1024 palavras) a cada passo. Aqui cada chave acumula em um único
+     * container de bitmap sem manter a cardinalidade, que é reparada uma
+     * vez no final, junto com a escolha da representação.
+     */
+    public static BitmapCompactado uniao(BitmapCompactado... bitmaps) {
+        BitmapCompactado r = new BitmapCompactado();
+        int[] posicoes = new int[bitmaps.length];
+        while (true) {
+            // Menor chave ainda não consumida entre todos os bitmaps
+            int menor = Integer.MAX_VALUE;
+            for (int k = 0; k < bitmaps.length; k++) {
+                if (posicoes[k] < bitmaps[k].tamanho) {
+                    menor = Math.min(menor, bitmaps[k].chaves[posicoes[k]]);
+                }
+            }
+            if (menor == Integer.MAX_VALUE) {
+                return r;
+            }
+
+            ContainerRoaring primeiro = null;
+            ContainerBitmap acumulado = null;
+            for (int k = 0; k < bitmaps.length; k++) {
+                BitmapCompactado b = bitmaps[k];
+                if (posicoes[k] < b.tamanho && b.chaves[posicoes[k]] == menor) {
+                    ContainerRoaring c = b.containers[posicoes[k]++];
+                    if (primeiro == null) {
+                        primeiro = c;
+                    } else {
+                        if (acumulado == null) {
+                            acumulado = primeiro.paraBitmap();
+                        }
+                        acumulado.orNoLugar(c, true);
+                    }
+                }
+            }
+            r.anexar((char) menor, acumulado == null ? primeiro.copiar() : acumulado.normalizar());
+        }
+    }
+
+    // ============================================
+    // Operações de conjunto (no lugar)
+    // ============================================
+    // O próprio bitmap como operando: os laços percorrem os arrays de
+    // outro enquanto alteram os deste, então o caso é tratado à parte
+
+    public void andNoLugar(BitmapCompactado outro) {
+        if (outro == this) {
+            return; // A ∩ A = A
+        }
+        int escrita = 0;
+        int j = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char ca = chaves[i];
+            while (j < outro.tamanho && outro.chaves[j] < ca) {
+                j++;
+            }
+            if (j < outro.tamanho && outro.chaves[j] == ca) {
+                ContainerRoaring c = containers[i];
+                ContainerRoaring o = outro.containers[j];
+                if (c instanceof ContainerBitmap cb && o instanceof ContainerBitmap ob) {
+                    cb.andNoLugar(ob);
+                    c = cb.normalizar();
+                } else {
+                    c = ContainerRoaring.and(c, o);
+                }
+                if (c.cardinalidade() > 0) {
+                    chaves[escrita] = ca;
+                    containers[escrita++] = c;
+                }
+            }
+        }
+        Arrays.fill(containers, escrita, tamanho, null);
+        tamanho = escrita;
+    }
+
+    public void orNoLugar(BitmapCompactado outro) {
+        if (outro == this) {
+            return; // A ∪ A = A
+        }
+        for (int j = 0; j < outro.tamanho; j++) {
+            char chave = outro.chaves[j];
+            int i = Arrays.binarySearch(chaves, 0, tamanho, chave);
+            if (i < 0) {
+                inserirContainer(-i - 1, chave, outro.containers[j].copiar());
+            } else if (containers[i] instanceof ContainerBitmap cb) {
+                cb.orNoLugar(outro.containers[j], false);
+            } else {
+                containers[i] = ContainerRoaring.or(containers[i], outro.containers[j]);
+            }
+        }
+    }
+
+    public void andNotNoLugar(BitmapCompactado outro) {
+        if (outro == this) {
+            clear(); // A \ A = ∅
+            return;
+        }
+        int escrita = 0;
+        int j = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char ca = chaves[i];
+            ContainerRoaring c = containers[i];
+            while (j < outro.tamanho && outro.chaves[j] < ca) {
+                j++;
+            }
+            if (j < outro.tamanho && outro.chaves[j] == ca) {
+                if (c instanceof ContainerBitmap cb) {
+                    cb.andNotNoLugar(outro.containers[j]);
+                    c = cb.normalizar();
+                } else {
+                    c = ContainerRoaring.andNot(c, outro.containers[j]);
+                }
+            }
+            if (c.cardinalidade() > 0) {
+                chaves[escrita] = ca;
+                containers[escrita++] = c;
+            }
+        }
+        Arrays.fill(containers, escrita, tamanho, null);
+        tamanho = escrita;
+    }
+
+    public void xorNoLugar(BitmapCompactado outro) {
+        if (outro == this) {
+            clear(); // A ⊕ A = ∅
+            return;
+        }
+        for (int j = 0; j < outro.tamanho; j++) {
+            char chave = outro.chaves[j];
+            int i = Arrays.binarySearch(chaves, 0, tamanho, chave);
+            if (i < 0) {
+                inserirContainer(-i - 1, chave, outro.containers[j].copiar());
+                continue;
+            }
+            ContainerRoaring c = containers[i];
+            if (c instanceof ContainerBitmap cb) {
+                cb.xorNoLugar(outro.containers[j]);
+                c = cb.normalizar();
+            } else {
+                c = ContainerRoaring.xor(c, outro.containers[j]);
+            }
+            if (c.cardinalidade() == 0) {
+                removerContainer(i);
+            } else {
+                containers[i] = c;
+            }
+        }
+    }
+
+    // ============================================
+    // Serialização
+    // ============================================
+
+    public int tamanhoSerializado() {
+        int bytes = 4;
+        for (int i = 0; i < tamanho; i++) {
+            bytes += 2 + containers[i].bytesSerializados();
+        }
+        return bytes;
+    }
+
+    /**
+     * Escreve o bitmap a partir da posição atual de {@code destino}
+     *
+     * Formato: int número de containers; para cada um, char chave, byte
+     * tipo e o conteúdo do container. Usa a ordem de bytes do buffer.
+     *
+     * @throws java.nio.BufferOverflowException se não couber
+     */
+    public void serializar(ByteBuffer destino) {
+        destino.putInt(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            destino.putChar(chaves[i]);
+            containers[i].serializar(destino);
+        }
+    }
+
+    public ByteBuffer serializar() {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanhoSerializado());
+        serializar(buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Lê um bitmap escrito por {@link #serializar(ByteBuffer)}
+     *
+     * @throws IllegalArgumentException se os dados estiverem corrompidos
+     */
+    public static BitmapCompactado desserializar(ByteBuffer origem) {
+        try {
+            int quantidade = origem.getInt();
+            if (quantidade < 0 || quantidade > 65536) {
+                throw new IllegalArgumentException("Número de containers inválido: " + quantidade);
+            }
+            BitmapCompactado bitmap = new BitmapCompactado(
+                new char[Math.max(quantidade, 4)], new ContainerRoaring[Math.max(quantidade, 4)], 0);
+            for (int i = 0; i < quantidade; i++) {
+                char chave = origem.getChar();
+                if (i > 0 && chave <= bitmap.chaves[i - 1]) {
+                    throw new IllegalArgumentException("Chaves fora de ordem no container " + i);
+                }
+                bitmap.anexar(chave, ContainerRoaring.desserializar(origem));
+            }
+            return bitmap;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Bitmap serializado truncado", e);
+        }
+    }
+
+    // ============================================
+    // Manutenção dos arrays de chaves/containers
+    // ============================================
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo > chaves.length) {
+            int nova = Math.min(65536, Math.max(minimo, chaves.length * 2));
+            chaves = Arrays.copyOf(chaves, nova);
+            containers = Arrays.copyOf(containers, nova);
+        }
+    }
+
+    /** Acrescenta no final (chaves chegam em ordem crescente) */
+    private void anexar(char chave, ContainerRoaring container) {
+        garantirCapacidade(tamanho + 1);
+        chaves[tamanho] = chave;
+        containers[tamanho++] = container;
+    }
+
+    private void anexarSeNaoVazio(char chave, ContainerRoaring container) {
+        if (container.cardinalidade() > 0) {
+            anexar(chave, container);
+        }
+    }
+
+    private void inserirContainer(int pos, char chave, ContainerRoaring container) {
+        garantirCapacidade(tamanho + 1);
+        System.arraycopy(chaves, pos, chaves, pos + 1, tamanho - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, tamanho - pos);
+        chaves[pos] = chave;
+        containers[pos] = container;
+        tamanho++;
+    }
+
+    private void removerContainer(int pos) {
+        System.arraycopy(chaves, pos + 1, chaves, pos, tamanho - pos - 1);
+        System.arraycopy(containers, pos + 1, containers, pos, tamanho - pos - 1);
+        containers[--tamanho] = null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BitmapCompactado outro) || tamanho != outro.tamanho) {
+            return false;
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (chaves[i] != outro.chaves[i]) {
+                return false;
+            }
+            ContainerRoaring a = containers[i];
+            ContainerRoaring b = outro.containers[i];
+            if (a.cardinalidade() != b.cardinalidade()
+                    || ContainerRoaring.xor(a, b).cardinalidade() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] h = {1};
+        paraCada(v -> h[0] = 31 * h[0] + v);
+        return h[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        PrimitiveIterator.OfInt it = iterator();
+        int mostrados = 0;
+        while (it.hasNext() && mostrados < 20) {
+            if (mostrados++ > 0) {
+                sb.append(", ");
+            }
+            sb.append(Integer.toUnsignedString(it.nextInt()));
+        }
+        if (it.hasNext()) {
+            sb.append(", ... (").append(cardinalidade()).append(" valores)");
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,404 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+
+/**
+ * Busca em arrays ordenados grandes de int/long
+ *
+ * {@code Collections.binarySearch} em {@code List<Integer>} desreferencia
+ * um Integer a cada passo (cache miss extra por comparação).
+ * {@code Arrays.binarySearch} já é primitivo, mas o desvio "esquerda ou
+ * direita" é imprevisível: metade das comparações erra a predição.
+ *
+ * Alternativas aqui:
+ * - {@link #limiteInferior}: busca binária sem desvio. O laço tem número
+ *   fixo de passos (log2 n) e o JIT gera move condicional (cmov)
+ * - {@link #limitesInferiores}: lote de chaves buscadas juntas, passo a
+ *   passo. Os acessos de chaves diferentes são independentes, então a
+ *   CPU mantém vários cache misses em voo ao mesmo tempo
+ * - {@link EytzingerInt}/{@link EytzingerLong}: cópia do array em layout
+ *   de árvore (BFS). Os primeiros níveis ficam juntos no início do array
+ *   e os 4 níveis abaixo de um nó caem em uma mesma linha de cache, o que
+ *   favorece o prefetch de hardware
+ *
+ * Todas exigem o array em ordem crescente (não verificado).
+ */
+public final class BuscaOrdenada {
+
+    /** Chaves processadas juntas nas buscas em lote */
+    static final int LOTE = 8;
+
+    private BuscaOrdenada() {
+    }
+
+    // ============================================
+    // int[]
+    // ============================================
+
+    /**
+     * Primeiro índice com {@code a[i] >= chave}; {@code a.length} se não houver
+     */
+    public static int limiteInferior(int[] a, int chave) {
+        int n = a.length;
+        if (n == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (n > 1) {
+            int metade = n >>> 1;
+            base = a[base + metade] < chave ? base + metade : base;
+            n -= metade;
+        }
+        return base + (a[base] < chave ? 1 : 0);
+    }
+
+    /**
+     * Primeiro índice com {@code a[i] > chave}; {@code a.length} se não houver
+     */
+    public static int limiteSuperior(int[] a, int chave) {
+        int n = a.length;
+        if (n == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (n > 1) {
+            int metade = n >>> 1;
+            base = a[base + metade] <= chave ? base + metade : base;
+            n -= metade;
+        }
+        return base + (a[base] <= chave ? 1 : 0);
+    }
+
+    /**
+     * Mesmo contrato de {@link java.util.Arrays#binarySearch(int[], int)}:
+     * índice da chave ou {@code -(ponto de inserção) - 1}
+     */
+    public static int buscar(int[] a, int chave) {
+        int i = limiteInferior(a, chave);
+        return i < a.length && a[i] == chave ? i : -i - 1;
+    }
+
+    /**
+     * {@link #limiteInferior} para várias chaves, em lotes intercalados
+     *
+     * @param saida recebe em {@code saida[i]} o resultado de {@code chaves[i]}
+     */
+    public static void limitesInferiores(int[] a, int[] chaves, int[] saida) {
+        validarSaida(chaves.length, saida.length);
+        int[] bases = new int[LOTE];
+        for (int inicio = 0; inicio < chaves.length; inicio += LOTE) {
+            int m = Math.min(LOTE, chaves.length - inicio);
+            if (a.length == 0) {
+                Arrays.fill(saida, inicio, inicio + m, 0);
+                continue;
+            }
+            Arrays.fill(bases, 0);
+            // Todas as chaves dão o mesmo número de passos (depende só de n)
+            int n = a.length;
+            while (n > 1) {
+                int metade = n >>> 1;
+                for (int j = 0; j < m; j++) {
+                    int b = bases[j];
+                    bases[j] = a[b + metade] < chaves[inicio + j] ? b + metade : b;
+                }
+                n -= metade;
+            }
+            for (int j = 0; j < m; j++) {
+                int b = bases[j];
+                saida[inicio + j] = b + (a[b] < chaves[inicio + j] ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Cópia de um int[] ordenado em layout Eytzinger
+     *
+     * Ocupa 2x o array original: a árvore e o índice ordenado de cada nó.
+     * Imutável; o array de origem pode ser descartado ou alterado depois.
+     */
+    public static final class EytzingerInt {
+
+        private final int[] arvore; // 1-based: filhos de k em 2k e 2k + 1
+        private final int[] ordem;  // posição no array ordenado de cada nó
+        private final int n;
+
+        private EytzingerInt(int[] ordenado) {
+            this.n = ordenado.length;
+            validarTamanhoEytzinger(n);
+            this.arvore = new int[n + 1];
+            this.ordem = new int[n + 1];
+            // Percurso em ordem simétrica: começa no nó mais à esquerda
+            int k = 1;
+            while (2 * k <= n) {
+                k *= 2;
+            }
+            for (int i = 0; i < n; i++) {
+                arvore[k] = ordenado[i];
+                ordem[k] = i;
+                k = proximoEmOrdem(k, n);
+            }
+        }
+
+        public static EytzingerInt de(int[] ordenado) {
+            return new EytzingerInt(ordenado);
+        }
+
+        public int size() {
+            return n;
+        }
+
+        /**
+         * Primeiro índice (no array ordenado original) com valor {@code >= chave}
+         */
+        public int limiteInferior(int chave) {
+            int k = no(chave);
+            return k == 0 ? n : ordem[k];
+        }
+
+        /** Nó da árvore com o limite inferior, ou 0 se todas as chaves forem menores */
+        private int no(int chave) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (arvore[k] < chave ? 1 : 0);
+            }
+            return decodificar(k);
+        }
+
+        /** Mesmo contrato de {@link BuscaOrdenada#buscar(int[], int)} */
+        public int buscar(int chave) {
+            int k = no(chave);
+            if (k == 0) {
+                return -n - 1;
+            }
+            return arvore[k] == chave ? ordem[k] : -ordem[k] - 1;
+        }
+
+        public boolean contem(int chave) {
+            return buscar(chave) >= 0;
+        }
+
+        /**
+         * {@link #limiteInferior} para várias chaves, em lotes intercalados
+         */
+        public void limitesInferiores(int[] chaves, int[] saida) {
+            validarSaida(chaves.length, saida.length);
+            int[] nos = new int[LOTE];
+            for (int inicio = 0; inicio < chaves.length; inicio += LOTE) {
+                int m = Math.min(LOTE, chaves.length - inicio);
+                Arrays.fill(nos, 1);
+                for (int nivel = 32 - Integer.numberOfLeadingZeros(n); nivel > 0; nivel--) {
+                    for (int j = 0; j < m; j++) {
+                        int k = nos[j];
+                        if (k <= n) {
+                            nos[j] = 2 * k + (arvore[k] < chaves[inicio + j] ? 1 : 0);
+                        }
+                    }
+                }
+                for (int j = 0; j < m; j++) {
+                    int k = decodificar(nos[j]);
+                    saida[inicio + j] = k == 0 ? n : ordem[k];
+                }
+            }
+        }
+    }
+
+    // ============================================
+    // long[]
+    // ============================================
+
+    /**
+     * Primeiro índice com {@code a[i] >= chave}; {@code a.length} se não houver
+     */
+    public static int limiteInferior(long[] a, long chave) {
+        int n = a.length;
+        if (n == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (n > 1) {
+            int metade = n >>> 1;
+            base = a[base + metade] < chave ? base + metade : base;
+            n -= metade;
+        }
+        return base + (a[base] < chave ? 1 : 0);
+    }
+
+    /**
+     * Primeiro índice com {@code a[i] > chave}; {@code a.length} se não houver
+     */
+    public static int limiteSuperior(long[] a, long chave) {
+        int n = a.length;
+        if (n == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (n > 1) {
+            int metade = n >>> 1;
+            base = a[base + metade] <= chave ? base + metade : base;
+            n -= metade;
+        }
+        return base + (a[base] <= chave ? 1 : 0);
+    }
+
+    /**
+     * Mesmo contrato de {@link java.util.Arrays#binarySearch(long[], long)}
+     */
+    public static int buscar(long[] a, long chave) {
+        int i = limiteInferior(a, chave);
+        return i < a.length && a[i] == chave ? i : -i - 1;
+    }
+
+    /**
+     * {@link #limiteInferior(long[], long)} para várias chaves, em lotes intercalados
+     */
+    public static void limitesInferiores(long[] a, long[] chaves, int[] saida) {
+        validarSaida(chaves.length, saida.length);
+        int[] bases = new int[LOTE];
+        for (int inicio = 0; inicio < chaves.length; inicio += LOTE) {
+            int m = Math.min(LOTE, chaves.length - inicio);
+            if (a.length == 0) {
+                Arrays.fill(saida, inicio, inicio + m, 0);
+                continue;
+            }
+            Arrays.fill(bases, 0);
+            int n = a.length;
+            while (n > 1) {
+                int metade = n >>> 1;
+                for (int j = 0; j < m; j++) {
+                    int b = bases[j];
+                    bases[j] = a[b + metade] < chaves[inicio + j] ? b + metade : b;
+                }
+                n -= metade;
+            }
+            for (int j = 0; j < m; j++) {
+                int b = bases[j];
+                saida[inicio + j] = b + (a[b] < chaves[inicio + j] ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Cópia de um long[] ordenado em layout Eytzinger (ver {@link EytzingerInt})
+     */
+    public static final class EytzingerLong {
+
+        private final long[] arvore;
+        private final int[] ordem;
+        private final int n;
+
+        private EytzingerLong(long[] ordenado) {
+            this.n = ordenado.length;
+            validarTamanhoEytzinger(n);
+            this.arvore = new long[n + 1];
+            this.ordem = new int[n + 1];
+            // Percurso em ordem simétrica: começa no nó mais à esquerda
+            int k = 1;
+            while (2 * k <= n) {
+                k *= 2;
+            }
+            for (int i = 0; i < n; i++) {
+                arvore[k] = ordenado[i];
+                ordem[k] = i;
+                k = proximoEmOrdem(k, n);
+            }
+        }
+
+        public static EytzingerLong de(long[] ordenado) {
+            return new EytzingerLong(ordenado);
+        }
+
+        public int size() {
+            return n;
+        }
+
+        public int limiteInferior(long chave) {
+            int k = no(chave);
+            return k == 0 ? n : ordem[k];
+        }
+
+        /** Nó da árvore com o limite inferior, ou 0 se todas as chaves forem menores */
+        private int no(long chave) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (arvore[k] < chave ? 1 : 0);
+            }
+            return decodificar(k);
+        }
+
+        public int buscar(long chave) {
+            int k = no(chave);
+            if (k == 0) {
+                return -n - 1;
+            }
+            return arvore[k] == chave ? ordem[k] : -ordem[k] - 1;
+        }
+
+        public boolean contem(long chave) {
+            return buscar(chave) >= 0;
+        }
+
+
+        public void limitesInferiores(long[] chaves, int[] saida) {
+            validarSaida(chaves.length, saida.length);
+            int[] nos = new int[LOTE];
+            for (int inicio = 0; inicio < chaves.length; inicio += LOTE) {
+                int m = Math.min(LOTE, chaves.length - inicio);
+                Arrays.fill(nos, 1);
+                for (int nivel = 32 - Integer.numberOfLeadingZeros(n); nivel > 0; nivel--) {
+                    for (int j = 0; j < m; j++) {
+                        int k = nos[j];
+                        if (k <= n) {
+                            nos[j] = 2 * k + (arvore[k] < chaves[inicio + j] ? 1 : 0);
+                        }
+                    }
+                }
+                for (int j = 0; j < m; j++) {
+                    int k = decodificar(nos[j]);
+                    saida[inicio + j] = k == 0 ? n : ordem[k];
+                }
+            }
+        }
+    }
+
+    // ============================================
+    // Auxiliares
+    // ============================================
+
+    /**
+     * Converte o nó além da folha, onde a descida Eytzinger parou, no nó
+     * do limite inferior: desfaz as descidas à direita finais; o último
+     * "esquerda" é a resposta (0 = nenhum)
+     */
+    private static int decodificar(int k) {
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private static void validarTamanhoEytzinger(int n) {
+        // 2k + 1 precisa caber em int durante a descida
+        if (n >= 1 << 30) {
+            throw new IllegalArgumentException("Array grande demais para o layout Eytzinger: " + n);
+        }
+    }
+
+    /** Sucessor de k no percurso em ordem simétrica da árvore implícita */
+    private static int proximoEmOrdem(int k, int n) {
+        if (2 * k + 1 <= n) {
+            k = 2 * k + 1;
+            while (2 * k <= n) {
+                k *= 2;
+            }
+            return k;
+        }
+        // Sobe enquanto for filho direito
+        while ((k & 1) == 1) {
+            k >>>= 1;
+        }
+        return k >>> 1;
+    }
+
+    private static void validarSaida(int chaves, int saida) {
+        if (saida < chaves) {
+            throw new IllegalArgumentException("Array de saída menor que o de chaves: " + saida + " < " + chaves);
+        }
+    }
+}
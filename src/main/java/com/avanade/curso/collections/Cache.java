@@ -0,0 +1,151 @@
+package com.avanade.curso.collections;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Cache limitado por número de entradas ou por peso
+ *
+ * Alternativa a {@code HashMap} sem limite (vazamento de memória, ver
+ * {@code JVMInternalsExample.CacheProblematico}) e a caches feitos à mão
+ * sobre {@code LinkedHashMap} com {@code removeEldestEntry}.
+ *
+ * Implementações:
+ * - {@link CacheLimitado}: uma thread, sem sincronização
+ * - {@link CacheConcorrente}: segmentos {@link CacheLimitado} com lock
+ *   por segmento (lock striping)
+ *
+ * <pre>
+ * Cache&lt;String, Usuario&gt; cache = Cache.&lt;String, Usuario&gt;builder()
+ *     .capacidade(10_000)
+ *     .politica(PoliticaDespejo.W_TINY_LFU)
+ *     .build();
+ * </pre>
+ */
+public interface Cache<K, V> {
+
+    /**
+     * Valor associado à chave ou null; conta acerto/falha nas estatísticas
+     * e atualiza a recência/frequência da entrada
+     */
+    V get(K chave);
+
+    /**
+     * Associa o valor à chave, despejando entradas se o limite for excedido
+     *
+     * @return o valor anterior, ou null
+     */
+    V put(K chave, V valor);
+
+    /**
+     * Valor da chave, calculando e guardando com a função em caso de falha.
+     * Se a função devolver null nada é guardado.
+     */
+    V computeIfAbsent(K chave, Function<? super K, ? extends V> funcao);
+
+    /**
+     * Remove a entrada (não conta como despejo)
+     *
+     * @return o valor removido, ou null
+     */
+    V remove(K chave);
+
+    /** Verifica a presença sem afetar estatísticas nem a ordem de despejo */
+    boolean containsKey(K chave);
+
+    long size();
+
+    /** Soma dos pesos das entradas (igual a size() sem pesador) */
+    long pesoTotal();
+
+    void clear();
+
+    /** Fotografia dos contadores de acertos, falhas e despejos */
+    EstatisticasCache estatisticas();
+
+    static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Peso de uma entrada (ex.: bytes aproximados do valor)
+     */
+    @FunctionalInterface
+    interface Pesador<K, V> {
+        int peso(K chave, V valor);
+    }
+
+    /**
+     * Configuração do cache; exige {@link #capacidade} ou {@link #pesoMaximo}
+     */
+    final class Builder<K, V> {
+
+        private long pesoMaximo = -1;
+        private Pesador<? super K, ? super V> pesador = (k, v) -> 1;
+        private PoliticaDespejo politica = PoliticaDespejo.W_TINY_LFU;
+        private BiConsumer<? super K, ? super V> aoDespejar;
+        private int listras = (int) HashPrimitivo.proximaPotenciaDe2(Runtime.getRuntime().availableProcessors() * 4L);
+
+        private Builder() {
+        }
+
+        /** Limite pelo número de entradas */
+        public Builder<K, V> capacidade(long entradas) {
+            return pesoMaximo(entradas, (k, v) -> 1);
+        }
+
+        /** Limite pela soma dos pesos calculados pelo pesador */
+        public Builder<K, V> pesoMaximo(long pesoMaximo, Pesador<? super K, ? super V> pesador) {
+            if (pesoMaximo <= 0) {
+                throw new IllegalArgumentException("Peso máximo deve ser positivo: " + pesoMaximo);
+            }
+            this.pesoMaximo = pesoMaximo;
+            this.pesador = Objects.requireNonNull(pesador, "pesador");
+            return this;
+        }
+
+        public Builder<K, V> politica(PoliticaDespejo politica) {
+            this.politica = Objects.requireNonNull(politica, "politica");
+            return this;
+        }
+
+        /** Chamado para cada entrada despejada por limite (não por remove) */
+        public Builder<K, V> aoDespejar(BiConsumer<? super K, ? super V> ouvinte) {
+            this.aoDespejar = ouvinte;
+            return this;
+        }
+
+        /** Número de segmentos do {@link CacheConcorrente} (arredondado para potência de 2) */
+        public Builder<K, V> listras(int listras) {
+            if (listras <= 0) {
+                throw new IllegalArgumentException("Número de listras deve ser positivo: " + listras);
+            }
+            this.listras = (int) HashPrimitivo.proximaPotenciaDe2(listras);
+            return this;
+        }
+
+        /** Cache para uso por uma única thread */
+        public CacheLimitado<K, V> build() {
+            validar();
+            return new CacheLimitado<>(pesoMaximo, pesador, politica, aoDespejar);
+        }
+
+        /** Cache thread-safe com lock por segmento */
+        public CacheConcorrente<K, V> buildConcorrente() {
+            validar();
+            // Cada segmento precisa de pelo menos 1 de peso
+            int n = listras;
+            while (n > 1 && n > pesoMaximo) {
+                n >>>= 1;
+            }
+            return new CacheConcorrente<>(pesoMaximo, pesador, politica, aoDespejar, n);
+        }
+
+        private void validar() {
+            if (pesoMaximo <= 0) {
+                throw new IllegalStateException("Defina capacidade(...) ou pesoMaximo(...)");
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.avanade.curso.collections;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Cache limitado thread-safe por lock striping
+ *
+ * A chave escolhe um entre N segmentos (N potência de 2) pelos bits altos
+ * do hash; cada segmento é um {@link CacheLimitado} com 1/N do peso
+ * máximo, protegido pelo seu próprio monitor. Threads que usam chaves de
+ * segmentos diferentes não disputam lock.
+ *
+ * A política é aplicada por segmento: o despejo é aproximado em relação a
+ * um único cache global (o segmento cheio despeja mesmo que outro tenha
+ * folga), a troca usual de lock striping.
+ *
+ * {@link #computeIfAbsent} calcula o valor segurando o lock do segmento:
+ * chamadas concorrentes para a mesma chave calculam uma única vez, mas a
+ * função deve ser rápida.
+ */
+public class CacheConcorrente<K, V> implements Cache<K, V> {
+
+    private final CacheLimitado<K, V>[] segmentos;
+    private final int deslocamento;
+    private final long pesoMaximo;
+
+    CacheConcorrente(long pesoMaximo, Pesador<? super K, ? super V> pesador, PoliticaDespejo politica,
+                     BiConsumer<? super K, ? super V> aoDespejar, int listras) {
+        this.pesoMaximo = pesoMaximo;
+        this.segmentos = novosSegmentos(listras);
+        // O resto da divisão vai para os primeiros: a soma é exatamente pesoMaximo
+        long porSegmento = pesoMaximo / listras;
+        long resto = pesoMaximo % listras;
+        for (int i = 0; i < listras; i++) {
+            segmentos[i] = new CacheLimitado<>(porSegmento + (i < resto ? 1 : 0), pesador, politica, aoDespejar);
+        }
+        this.deslocamento = 32 - Integer.numberOfTrailingZeros(listras);
+    }
+
+    @SuppressWarnings("unchecked") // array genérico: só guarda CacheLimitado<K, V> criados no construtor
+    private static <K, V> CacheLimitado<K, V>[] novosSegmentos(int listras) {
+        return (CacheLimitado<K, V>[]) new CacheLimitado<?, ?>[listras];
+    }
+
+    private CacheLimitado<K, V> segmento(Object chave) {
+        // Bits altos: os baixos já são usados dentro do HashMap do segmento
+        return deslocamento == 32 ? segmentos[0] : segmentos[CacheLimitado.hash(chave) >>> deslocamento];
+    }
+
+    @Override
+    public V get(K chave) {
+        CacheLimitado<K, V> s = segmento(chave);
+        synchronized (s) {
+            return s.get(chave);
+        }
+    }
+
+    @Override
+    public V put(K chave, V valor) {
+        CacheLimitado<K, V> s = segmento(chave);
+        synchronized (s) {
+            return s.put(chave, valor);
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K chave, Function<? super K, ? extends V> funcao) {
+        CacheLimitado<K, V> s = segmento(chave);
+        synchronized (s) {
+            return s.computeIfAbsent(chave, funcao);
+        }
+    }
+
+    @Override
+    public V remove(K chave) {
+        CacheLimitado<K, V> s = segmento(chave);
+        synchronized (s) {
+            return s.remove(chave);
+        }
+    }
+
+    @Override
+    public boolean containsKey(K chave) {
+        CacheLimitado<K, V> s = segmento(chave);
+        synchronized (s) {
+            return s.containsKey(chave);
+        }
+    }
+
+    /** Soma dos segmentos (cada um lido sob o seu lock, não atômico no todo) */
+    @Override
+    public long size() {
+        long total = 0;
+        for (CacheLimitado<K, V> s : segmentos) {
+            synchronized (s) {
+                total += s.size();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long pesoTotal() {
+        long total = 0;
+        for (CacheLimitado<K, V> s : segmentos) {
+            synchronized (s) {
+                total += s.pesoTotal();
+            }
+        }
+        return total;
+    }
+
+    public long getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    public int getListras() {
+        return segmentos.length;
+    }
+
+    @Override
+    public void clear() {
+        for (CacheLimitado<K, V> s : segmentos) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    @Override
+    public EstatisticasCache estatisticas() {
+        EstatisticasCache total = EstatisticasCache.VAZIA;
+        for (CacheLimitado<K, V> s : segmentos) {
+            synchronized (s) {
+                total = total.somar(s.estatisticas());
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheConcorrente[" + segmentos.length + " segmentos, " + size() + " entradas, peso "
+            + pesoTotal() + "/" + pesoMaximo + "]";
+    }
+}
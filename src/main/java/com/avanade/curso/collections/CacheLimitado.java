@@ -0,0 +1,207 @@
+package com.avanade.curso.collections;
+
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Cache limitado para uma única thread
+ *
+ * Um {@code HashMap} chave → {@link NoCache} mais uma
+ * {@link PoliticaCache} que mantém os nós em listas intrusivas: get, put e
+ * remove são O(1) e o despejo é O(1) por entrada despejada.
+ *
+ * Criado por {@link Cache#builder()}. Chaves e valores não podem ser null.
+ *
+ * NÃO é thread-safe (ver {@link CacheConcorrente}).
+ */
+public class CacheLimitado<K, V> implements Cache<K, V> {
+
+    private final HashMap<K, NoCache<K, V>> mapa = new HashMap<>();
+    private final PoliticaCache<K, V> politica;
+    private final PoliticaDespejo tipoPolitica;
+    private final long pesoMaximo;
+    private final Pesador<? super K, ? super V> pesador;
+    private final BiConsumer<? super K, ? super V> aoDespejar;
+    private long pesoTotal;
+
+    private long acertos;
+    private long falhas;
+    private long despejos;
+    private long pesoDespejado;
+
+    CacheLimitado(long pesoMaximo, Pesador<? super K, ? super V> pesador,
+                  PoliticaDespejo tipoPolitica, BiConsumer<? super K, ? super V> aoDespejar) {
+        this.pesoMaximo = pesoMaximo;
+        this.pesador = pesador;
+        this.tipoPolitica = tipoPolitica;
+        this.politica = PoliticaCache.criar(tipoPolitica, pesoMaximo);
+        this.aoDespejar = aoDespejar;
+    }
+
+    @Override
+    public V get(K chave) {
+        NoCache<K, V> no = mapa.get(chave);
+        politica.registrar(hash(chave));
+        if (no == null) {
+            falhas++;
+            return null;
+        }
+        acertos++;
+        politica.acessar(no);
+        return no.valor;
+    }
+
+    @Override
+    public V put(K chave, V valor) {
+        Objects.requireNonNull(chave, "chave");
+        Objects.requireNonNull(valor, "valor");
+        int hash = hash(chave);
+        int peso = pesar(chave, valor);
+        politica.registrar(hash);
+
+        NoCache<K, V> existente = mapa.get(chave);
+        if (existente != null) {
+            V anterior = existente.valor;
+            if (peso > pesoMaximo) {
+                desligar(existente);
+                contarDespejo(chave, valor, peso);
+                return anterior;
+            }
+            existente.valor = valor;
+            int delta = peso - existente.peso;
+            existente.peso = peso;
+            existente.lista.peso += delta;
+            pesoTotal += delta;
+            politica.acessar(existente);
+            despejarExcedente();
+            return anterior;
+        }
+
+        if (peso > pesoMaximo) {
+            // Nunca caberia: despeja direto, sem tirar ninguém do cache
+            contarDespejo(chave, valor, peso);
+            return null;
+        }
+        NoCache<K, V> no = new NoCache<>(chave, hash, valor, peso);
+        mapa.put(chave, no);
+        politica.inserir(no);
+        pesoTotal += peso;
+        despejarExcedente();
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(K chave, Function<? super K, ? extends V> funcao) {
+        V valor = get(chave);
+        if (valor == null) {
+            valor = funcao.apply(chave);
+            if (valor != null) {
+                put(chave, valor);
+            }
+        }
+        return valor;
+    }
+
+    @Override
+    public V remove(K chave) {
+        NoCache<K, V> no = mapa.get(chave);
+        if (no == null) {
+            return null;
+        }
+        desligar(no);
+        return no.valor;
+    }
+
+    @Override
+    public boolean containsKey(K chave) {
+        return mapa.containsKey(chave);
+    }
+
+    @Override
+    public long size() {
+        return mapa.size();
+    }
+
+    @Override
+    public long pesoTotal() {
+        return pesoTotal;
+    }
+
+    public long getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    public PoliticaDespejo getPolitica() {
+        return tipoPolitica;
+    }
+
+    /** Esvazia o cache; as estatísticas são mantidas */
+    @Override
+    public void clear() {
+        mapa.clear();
+        politica.limpar();
+        pesoTotal = 0;
+    }
+
+    @Override
+    public EstatisticasCache estatisticas() {
+        return new EstatisticasCache(acertos, falhas, despejos, pesoDespejado);
+    }
+
+    public void zerarEstatisticas() {
+        acertos = 0;
+        falhas = 0;
+        despejos = 0;
+        pesoDespejado = 0;
+    }
+
+    // ============================================
+    // Internos
+    // ============================================
+
+    private void despejarExcedente() {
+        while (pesoTotal > pesoMaximo) {
+            NoCache<K, V> vitima = politica.escolherVitima();
+            if (vitima == null) {
+                break;
+            }
+            mapa.remove(vitima.chave);
+            pesoTotal -= vitima.peso;
+            contarDespejo(vitima.chave, vitima.valor, vitima.peso);
+        }
+    }
+
+    private void desligar(NoCache<K, V> no) {
+        mapa.remove(no.chave);
+        politica.remover(no);
+        pesoTotal -= no.peso;
+    }
+
+    private void contarDespejo(K chave, V valor, int peso) {
+        despejos++;
+        pesoDespejado += peso;
+        if (aoDespejar != null) {
+            aoDespejar.accept(chave, valor);
+        }
+    }
+
+    private int pesar(K chave, V valor) {
+        int peso = pesador.peso(chave, valor);
+        if (peso < 0) {
+            throw new IllegalArgumentException("Peso negativo para a chave " + chave + ": " + peso);
+        }
+        return peso;
+    }
+
+    static int hash(Object chave) {
+        return HashPrimitivo.misturar(chave.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "CacheLimitado[" + tipoPolitica + ", " + mapa.size() + " entradas, peso "
+            + pesoTotal + "/" + pesoMaximo + "]";
+    }
+}
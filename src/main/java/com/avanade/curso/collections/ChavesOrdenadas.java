@@ -0,0 +1,164 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Chaves únicas ordenadas de um mapa imutável, com busca binária ou
+ * layout Eytzinger
+ *
+ * Layout Eytzinger: as chaves são copiadas em ordem de árvore binária
+ * implícita (raiz em 1, filhos de k em 2k e 2k + 1). Os primeiros níveis
+ * da busca ficam juntos no início do array e permanecem em cache entre
+ * consultas, ao contrário da busca binária, que salta pelo array todo.
+ * Custa uma segunda cópia das referências e um int[] de posições.
+ */
+final class ChavesOrdenadas<K> {
+
+    final K[] chaves;
+    final Comparator<? super K> comparador;
+    private final Object[] arvore;
+    private final int[] ordem;
+
+    ChavesOrdenadas(K[] chaves, Comparator<? super K> comparador, boolean eytzinger) {
+        this.chaves = chaves;
+        this.comparador = comparador;
+        if (eytzinger) {
+            this.arvore = new Object[chaves.length + 1];
+            this.ordem = new int[chaves.length + 1];
+            preencherArvore(1, 0);
+        } else {
+            this.arvore = null;
+            this.ordem = null;
+        }
+    }
+
+    /** Preenche a árvore em ordem simétrica; devolve o próximo índice ordenado */
+    private int preencherArvore(int k, int i) {
+        if (k < arvore.length) {
+            i = preencherArvore(2 * k, i);
+            arvore[k] = chaves[i];
+            ordem[k] = i++;
+            i = preencherArvore(2 * k + 1, i);
+        }
+        return i;
+    }
+
+    int tamanho() {
+        return chaves.length;
+    }
+
+    boolean usaEytzinger() {
+        return arvore != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    int comparar(Object a, K b) {
+        return comparador.compare((K) a, b);
+    }
+
+    /**
+     * Primeiro índice em [inicio, fim) cuja chave é {@code >= chave}
+     * (ou {@code > chave} se {@code estrito}); {@code fim} se não houver
+     */
+    int limite(Object chave, boolean estrito, int inicio, int fim) {
+        if (arvore != null && inicio == 0 && fim == chaves.length) {
+            return limiteEytzinger(chave, estrito);
+        }
+        int lo = inicio;
+        int hi = fim;
+        while (lo < hi) {
+            int meio = (lo + hi) >>> 1;
+            int cmp = comparar(chave, chaves[meio]);
+            if (cmp > 0 || (estrito && cmp == 0)) {
+                lo = meio + 1;
+            } else {
+                hi = meio;
+            }
+        }
+        return lo;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int limiteEytzinger(Object chave, boolean estrito) {
+        int n = chaves.length;
+        int k = 1;
+        while (k <= n) {
+            int cmp = comparar(chave, (K) arvore[k]);
+            // Desce à direita enquanto a chave do nó é menor que a procurada
+            k = 2 * k + (cmp > 0 || (estrito && cmp == 0) ? 1 : 0);
+        }
+        // Desfaz as descidas à direita finais: o último "esquerda" é a resposta
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k == 0 ? n : ordem[k];
+    }
+
+    /**
+     * Índice exato da chave em [inicio, fim), ou -1
+     */
+    int indice(Object chave, int inicio, int fim) {
+        int i = limite(chave, false, inicio, fim);
+        return i < fim && comparar(chave, chaves[i]) == 0 ? i : -1;
+    }
+
+    // ============================================
+    // Construção em lote
+    // ============================================
+
+    /**
+     * Ordena as posições [0, n) de {@code chaves} com merge sort estável
+     * sobre um int[] (sem um objeto por entrada) e descarta duplicadas,
+     * mantendo a última inserida de cada chave
+     *
+     * @return posições originais das chaves únicas, em ordem crescente de chave
+     */
+    static <K> int[] ordenarPosicoes(K[] chaves, int n, Comparator<? super K> comparador) {
+        int[] posicoes = new int[n];
+        for (int i = 0; i < n; i++) {
+            posicoes[i] = i;
+        }
+        int[] auxiliar = new int[n];
+        for (int largura = 1; largura < n; largura *= 2) {
+            for (int inicio = 0; inicio < n - largura; inicio += 2 * largura) {
+                int meio = inicio + largura;
+                int fim = Math.min(inicio + 2 * largura, n);
+                if (comparador.compare(chaves[posicoes[meio - 1]], chaves[posicoes[meio]]) <= 0) {
+                    continue; // já em ordem: comum em dados quase ordenados
+                }
+                System.arraycopy(posicoes, inicio, auxiliar, inicio, fim - inicio);
+                int i = inicio;
+                int j = meio;
+                for (int k = inicio; k < fim; k++) {
+                    if (j >= fim || (i < meio
+                            && comparador.compare(chaves[auxiliar[i]], chaves[auxiliar[j]]) <= 0)) {
+                        posicoes[k] = auxiliar[i++];
+                    } else {
+                        posicoes[k] = auxiliar[j++];
+                    }
+                }
+            }
+        }
+
+        int unicos = 0;
+        for (int i = 0; i < n; i++) {
+            if (unicos > 0 && comparador.compare(chaves[posicoes[unicos - 1]], chaves[posicoes[i]]) == 0) {
+                posicoes[unicos - 1] = posicoes[i]; // ordenação estável: esta é a mais recente
+            } else {
+                posicoes[unicos++] = posicoes[i];
+            }
+        }
+        return Arrays.copyOf(posicoes, unicos);
+    }
+
+    /**
+     * Valida que as chaves já estão em ordem estritamente crescente
+     */
+    static <K> void validarOrdenadas(K[] chaves, Comparator<? super K> comparador) {
+        for (int i = 1; i < chaves.length; i++) {
+            if (comparador.compare(chaves[i - 1], chaves[i]) >= 0) {
+                throw new IllegalArgumentException("Chaves fora de ordem ou duplicadas na posição " + i
+                    + ": " + chaves[i - 1] + ", " + chaves[i]);
+            }
+        }
+    }
+}
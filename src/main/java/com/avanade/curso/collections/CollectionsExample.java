@@ -166,6 +166,14 @@ public class CollectionsExample {
         Set<Integer> diferenca = new HashSet<>(set1);
         diferenca.removeAll(set2);
         System.out.println("Diferença: " + diferenca);
+
+        // Conjuntos grandes de int: bitmap compactado (sem boxing,
+        // operações de conjunto palavra a palavra)
+        BitmapCompactado bitmap1 = BitmapCompactado.de(1, 2, 3, 4);
+        BitmapCompactado bitmap2 = BitmapCompactado.de(3, 4, 5, 6);
+        System.out.println("Bitmap união: " + BitmapCompactado.or(bitmap1, bitmap2));
+        System.out.println("Bitmap interseção: " + BitmapCompactado.and(bitmap1, bitmap2));
+        System.out.println("Bitmap diferença: " + BitmapCompactado.andNot(bitmap1, bitmap2));
     }
     
     // ============================================
@@ -209,6 +217,15 @@ public class CollectionsExample {
         capitais.put("Chile", "Santiago");
         
         System.out.println("LinkedHashMap: " + capitais);
+
+        // Cache limitado: em vez de LinkedHashMap + removeEldestEntry
+        Cache<String, String> cacheCapitais = Cache.<String, String>builder()
+            .capacidade(2)
+            .politica(PoliticaDespejo.LRU)
+            .build();
+        capitais.forEach(cacheCapitais::put);
+        System.out.println("Cache LRU (capacidade 2) tem Brasil? " + cacheCapitais.containsKey("Brasil")
+            + " " + cacheCapitais.estatisticas());
         
         // TreeMap - ordenado por chave
         Map<String, Double> precos = new TreeMap<>();
@@ -217,7 +234,12 @@ public class CollectionsExample {
         precos.put("Laranja", 2.00);
         
         System.out.println("TreeMap (ordenado): " + precos);
-        
+
+        // Tabela que não muda após a carga: arrays ordenados, sem nós nem Double
+        MapaOrdenadoDouble<String> tabelaPrecos = MapaOrdenadoDouble.copiaDe(precos);
+        System.out.println("MapaOrdenadoDouble: " + tabelaPrecos);
+        System.out.println("Primeira chave >= 'C': " + tabelaPrecos.chaveTeto("C"));
+
         // Iteração
         System.out.println("\nIterando sobre entries:");
         for (Map.Entry<String, Integer> entry : idades.entrySet()) {
@@ -246,6 +268,42 @@ public class CollectionsExample {
         System.out.println("Após merge: " + idades);
     }
     
+    // ============================================
+    // MAPAS PRIMITIVOS - sem boxing
+    // ============================================
+
+    /**
+     * Map<String, Integer> com merge/compute cria um Integer a cada
+     * atualização (fora do cache -128..127). Object2IntMap, Int2ObjectMap
+     * e Long2LongMap guardam os primitivos direto em arrays, com
+     * endereçamento aberto e sondagem linear.
+     */
+
+    public void demonstrarMapasPrimitivos() {
+        Object2IntMap<String> idades = new Object2IntMap<>();
+        idades.put("Alice", 25);
+        idades.put("Bob", 30);
+
+        // addTo substitui merge(k, 1, Integer::sum)
+        idades.addTo("Alice", 1);
+        idades.addTo("David", 28); // Ausente: começa em 0
+        System.out.println("Object2IntMap: " + idades);
+        System.out.println("Idade de Carol: " + idades.getOrDefault("Carol", 0));
+
+        // Iteração via cursor: nenhum Map.Entry criado
+        Object2IntMap<String>.Cursor cursor = idades.cursor();
+        int soma = 0;
+        while (cursor.proximo()) {
+            soma += cursor.valor();
+        }
+        System.out.println("Soma das idades: " + soma);
+
+        Long2LongMap acessosPorUsuario = new Long2LongMap(1_000, 0.5f);
+        acessosPorUsuario.addTo(42L, 1);
+        acessosPorUsuario.addTo(42L, 1);
+        System.out.println("Acessos do usuário 42: " + acessosPorUsuario.get(42L));
+    }
+
     // ============================================
     // QUEUE e DEQUE
     // ============================================
@@ -283,6 +341,21 @@ public class CollectionsExample {
         while (!prioridade.isEmpty()) {
             System.out.println("  " + prioridade.poll());
         }
+
+        // HeapInt - mesmo comportamento sobre int[], sem boxing
+        HeapInt heap = HeapInt.minimo(4);
+        heap.offer(5);
+        heap.offer(1);
+        heap.offer(3);
+        System.out.println("HeapInt (ordem de remoção): " + Arrays.toString(heap.drenarOrdenado()));
+
+        // FilaPrioridadeIndexada - permite alterar prioridade em O(log n)
+        FilaPrioridadeIndexada tarefas = new FilaPrioridadeIndexada(10);
+        tarefas.inserir(0, 300);
+        tarefas.inserir(1, 100);
+        tarefas.inserir(2, 200);
+        tarefas.diminuirChave(0, 50); // tarefa 0 antecipada
+        System.out.println("Próxima tarefa: " + tarefas.removerTopo());
     }
     
     // ============================================
@@ -316,6 +389,15 @@ public class CollectionsExample {
         Collections.sort(numeros);
         int index = Collections.binarySearch(numeros, 5);
         System.out.println("Índice do 5: " + index);
+
+        // Arrays primitivos grandes: sem Integer e sem desvio imprevisível
+        int[] ordenados = numeros.stream().mapToInt(Integer::intValue).toArray();
+        System.out.println("Índice do 5 (int[]): " + BuscaOrdenada.buscar(ordenados, 5));
+
+        // Ordenação por chave primitiva: extrai a chave uma vez, sem Comparator
+        List<String> palavras = new ArrayList<>(List.of("banana", "kiwi", "maçã", "abacaxi"));
+        OrdenacaoRadix.ordenarPorChave(palavras, String::length);
+        System.out.println("Por tamanho (radix): " + palavras);
         
         // Coleções imutáveis
         List<String> imutavel = Collections.unmodifiableList(new ArrayList<>(lista));
@@ -355,6 +437,11 @@ public class CollectionsExample {
         //  Definir capacidade inicial quando possível
         List<String> grandeLista = new ArrayList<>(10000);
         Map<String, String> grandeMap = new HashMap<>(1000);
+
+        //  Tamanho desconhecido e muito grande (centenas de milhões): lista
+        //  segmentada, cresce sem copiar e aceita índices long
+        LongBigList ids = new LongBigList();
+        ids.add(1L);
         
         //  Usar isEmpty() ao invés de size() == 0
         if (lista.isEmpty()) { // Melhor
@@ -376,7 +463,10 @@ public class CollectionsExample {
         
         System.out.println("\n=== MAP ===");
         example.demonstrarMap();
-        
+
+        System.out.println("\n=== MAPAS PRIMITIVOS ===");
+        example.demonstrarMapasPrimitivos();
+
         System.out.println("\n=== QUEUE ===");
         example.demonstrarQueue();
         
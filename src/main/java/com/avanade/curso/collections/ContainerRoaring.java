@@ -0,0 +1,789 @@
+package com.avanade.curso.collections;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Container de um {@link BitmapCompactado}: guarda os 16 bits baixos de
+ * todos os valores que compartilham os mesmos 16 bits altos
+ *
+ * Três representações, escolhidas pela que ocupa menos memória:
+ * - {@link ContainerArray}: char[] ordenado, até 4096 valores (2 bytes/valor)
+ * - {@link ContainerBitmap}: long[1024] fixo, 8 KB (1 bit/valor possível)
+ * - {@link ContainerRun}: pares (início, comprimento-1) para faixas contíguas
+ *
+ * Operações devolvem o container resultante, que pode ser de outro tipo
+ * (ou o próprio {@code this}, quando a alteração é feita no lugar).
+ */
+abstract class ContainerRoaring {
+
+    /** Acima disso um bitmap (8 KB) é menor que um array (2 bytes/valor) */
+    static final int LIMITE_ARRAY = 4096;
+
+    static final byte TIPO_ARRAY = 1;
+    static final byte TIPO_BITMAP = 2;
+    static final byte TIPO_RUN = 3;
+
+    abstract int cardinalidade();
+
+    abstract boolean contem(char valor);
+
+    abstract ContainerRoaring adicionar(char valor);
+
+    abstract ContainerRoaring remover(char valor);
+
+    abstract ContainerRoaring copiar();
+
+    /** Nova cópia na forma de bitmap */
+    abstract ContainerBitmap paraBitmap();
+
+    /** Número de faixas contíguas (para decidir se vale virar ContainerRun) */
+    abstract int contarRuns();
+
+    abstract void paraCada(int alto, IntConsumer acao);
+
+    abstract PrimitiveIterator.OfInt iterador(int alto);
+
+    abstract byte tipo();
+
+    abstract int bytesSerializados();
+
+    abstract void serializar(ByteBuffer destino);
+
+    /**
+     * Representação array ou bitmap equivalente (runs são convertidos
+     * antes das operações binárias)
+     */
+    ContainerRoaring semRuns() {
+        return this;
+    }
+
+    /**
+     * Escolhe a representação mais compacta para o conteúdo atual
+     */
+    ContainerRoaring otimizar() {
+        int card = cardinalidade();
+        int runs = contarRuns();
+        int bytesRun = 2 + 4 * runs;
+        int bytesArray = 2 * card;
+        int bytesBitmap = 8192;
+        if (bytesRun < Math.min(bytesArray, bytesBitmap)) {
+            return this instanceof ContainerRun ? this : ContainerRun.de(this, runs);
+        }
+        if (card <= LIMITE_ARRAY) {
+            return this instanceof ContainerArray ? this : ContainerArray.de(this, card);
+        }
+        return this instanceof ContainerBitmap ? this : paraBitmap();
+    }
+
+    static ContainerRoaring desserializar(ByteBuffer origem) {
+        byte tipo = origem.get();
+        return switch (tipo) {
+            case TIPO_ARRAY -> ContainerArray.ler(origem);
+            case TIPO_BITMAP -> ContainerBitmap.ler(origem);
+            case TIPO_RUN -> ContainerRun.ler(origem);
+            default -> throw new IllegalArgumentException("Tipo de container desconhecido: " + tipo);
+        };
+    }
+
+    // ============================================
+    // Operações binárias
+    // ============================================
+
+    static ContainerRoaring and(ContainerRoaring x, ContainerRoaring y) {
+        ContainerRoaring a = x.semRuns();
+        ContainerRoaring b = y.semRuns();
+        if (a instanceof ContainerArray aa) {
+            return b instanceof ContainerArray ba ? ContainerArray.intersecao(aa, ba) : aa.filtrar(b, true);
+        }
+        if (b instanceof ContainerArray ba) {
+            return ba.filtrar(a, true);
+        }
+        ContainerBitmap r = ((ContainerBitmap) a).copiarBitmap();
+        r.andNoLugar((ContainerBitmap) b);
+        return r.normalizar();
+    }
+
+    static ContainerRoaring or(ContainerRoaring x, ContainerRoaring y) {
+        ContainerRoaring a = x.semRuns();
+        ContainerRoaring b = y.semRuns();
+        if (a instanceof ContainerArray aa && b instanceof ContainerArray ba
+                && aa.cardinalidade() + ba.cardinalidade() <= LIMITE_ARRAY) {
+            return ContainerArray.uniao(aa, ba);
+        }
+        ContainerBitmap r = a instanceof ContainerBitmap ab ? ab.copiarBitmap() : a.paraBitmap();
+        r.orNoLugar(b, false);
+        return r.normalizar();
+    }
+
+    static ContainerRoaring andNot(ContainerRoaring x, ContainerRoaring y) {
+        ContainerRoaring a = x.semRuns();
+        ContainerRoaring b = y.semRuns();
+        if (a instanceof ContainerArray aa) {
+            return aa.filtrar(b, false);
+        }
+        ContainerBitmap r = ((ContainerBitmap) a).copiarBitmap();
+        r.andNotNoLugar(b);
+        return r.normalizar();
+    }
+
+    static ContainerRoaring xor(ContainerRoaring x, ContainerRoaring y) {
+        ContainerRoaring a = x.semRuns();
+        ContainerRoaring b = y.semRuns();
+        if (a instanceof ContainerArray aa && b instanceof ContainerArray ba
+                && aa.cardinalidade() + ba.cardinalidade() <= LIMITE_ARRAY) {
+            return ContainerArray.diferencaSimetrica(aa, ba);
+        }
+        ContainerBitmap r = a instanceof ContainerBitmap ab ? ab.copiarBitmap() : a.paraBitmap();
+        r.xorNoLugar(b);
+        return r.normalizar();
+    }
+}
+
+/**
+ * Valores esparsos: char[] ordenado, busca binária
+ */
+final class ContainerArray extends ContainerRoaring {
+
+    char[] valores;
+    int tamanho;
+
+    ContainerArray(int capacidade) {
+        this.valores = new char[Math.max(capacidade, 4)];
+    }
+
+    ContainerArray(char[] valores, int tamanho) {
+        this.valores = valores;
+        this.tamanho = tamanho;
+    }
+
+    static ContainerArray de(ContainerRoaring origem, int cardinalidade) {
+        ContainerArray array = new ContainerArray(cardinalidade);
+        origem.paraCada(0, v -> array.valores[array.tamanho++] = (char) v);
+        return array;
+    }
+
+    @Override
+    int cardinalidade() {
+        return tamanho;
+    }
+
+    @Override
+    boolean contem(char valor) {
+        return Arrays.binarySearch(valores, 0, tamanho, valor) >= 0;
+    }
+
+    @Override
+    ContainerRoaring adicionar(char valor) {
+        int pos = Arrays.binarySearch(valores, 0, tamanho, valor);
+        if (pos >= 0) {
+            return this;
+        }
+        if (tamanho >= LIMITE_ARRAY) {
+            return paraBitmap().adicionar(valor);
+        }
+        pos = -pos - 1;
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, Math.min(LIMITE_ARRAY, valores.length * 2));
+        }
+        System.arraycopy(valores, pos, valores, pos + 1, tamanho - pos);
+        valores[pos] = valor;
+        tamanho++;
+        return this;
+    }
+
+    @Override
+    ContainerRoaring remover(char valor) {
+        int pos = Arrays.binarySearch(valores, 0, tamanho, valor);
+        if (pos >= 0) {
+            System.arraycopy(valores, pos + 1, valores, pos, tamanho - pos - 1);
+            tamanho--;
+        }
+        return this;
+    }
+
+    @Override
+    ContainerRoaring copiar() {
+        return new ContainerArray(Arrays.copyOf(valores, Math.max(tamanho, 4)), tamanho);
+    }
+
+    @Override
+    ContainerBitmap paraBitmap() {
+        ContainerBitmap bitmap = new ContainerBitmap();
+        for (int i = 0; i < tamanho; i++) {
+            bitmap.palavras[valores[i] >>> 6] |= 1L << valores[i];
+        }
+        bitmap.cardinalidade = tamanho;
+        return bitmap;
+    }
+
+    @Override
+    int contarRuns() {
+        int runs = tamanho == 0 ? 0 : 1;
+        for (int i = 1; i < tamanho; i++) {
+            if (valores[i] != valores[i - 1] + 1) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    @Override
+    void paraCada(int alto, IntConsumer acao) {
+        for (int i = 0; i < tamanho; i++) {
+            acao.accept(alto | valores[i]);
+        }
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterador(int alto) {
+        return new PrimitiveIterator.OfInt() {
+            int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < tamanho;
+            }
+
+            @Override
+            public int nextInt() {
+                if (i >= tamanho) {
+                    throw new NoSuchElementException();
+                }
+                return alto | valores[i++];
+            }
+        };
+    }
+
+    /**
+     * Mantém apenas os valores presentes (ou ausentes) em {@code outro}
+     */
+    ContainerArray filtrar(ContainerRoaring outro, boolean presentes) {
+        ContainerArray r = new ContainerArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            if (outro.contem(valores[i]) == presentes) {
+                r.valores[r.tamanho++] = valores[i];
+            }
+        }
+        return r;
+    }
+
+    static ContainerArray intersecao(ContainerArray a, ContainerArray b) {
+        ContainerArray r = new ContainerArray(Math.min(a.tamanho, b.tamanho));
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            char va = a.valores[i];
+            char vb = b.valores[j];
+            if (va < vb) {
+                i++;
+            } else if (va > vb) {
+                j++;
+            } else {
+                r.valores[r.tamanho++] = va;
+                i++;
+                j++;
+            }
+        }
+        return r;
+    }
+
+    static ContainerArray uniao(ContainerArray a, ContainerArray b) {
+        ContainerArray r = new ContainerArray(a.tamanho + b.tamanho);
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            char va = a.valores[i];
+            char vb = b.valores[j];
+            if (va <= vb) {
+                r.valores[r.tamanho++] = va;
+                i++;
+                if (va == vb) {
+                    j++;
+                }
+            } else {
+                r.valores[r.tamanho++] = vb;
+                j++;
+            }
+        }
+        while (i < a.tamanho) {
+            r.valores[r.tamanho++] = a.valores[i++];
+        }
+        while (j < b.tamanho) {
+            r.valores[r.tamanho++] = b.valores[j++];
+        }
+        return r;
+    }
+
+    static ContainerArray diferencaSimetrica(ContainerArray a, ContainerArray b) {
+        ContainerArray r = new ContainerArray(a.tamanho + b.tamanho);
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanho && j < b.tamanho) {
+            char va = a.valores[i];
+            char vb = b.valores[j];
+            if (va < vb) {
+                r.valores[r.tamanho++] = va;
+                i++;
+            } else if (va > vb) {
+                r.valores[r.tamanho++] = vb;
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        while (i < a.tamanho) {
+            r.valores[r.tamanho++] = a.valores[i++];
+        }
+        while (j < b.tamanho) {
+            r.valores[r.tamanho++] = b.valores[j++];
+        }
+        return r;
+    }
+
+    @Override
+    byte tipo() {
+        return TIPO_ARRAY;
+    }
+
+    @Override
+    int bytesSerializados() {
+        return 1 + 2 + 2 * tamanho;
+    }
+
+    @Override
+    void serializar(ByteBuffer destino) {
+        destino.put(TIPO_ARRAY);
+        destino.putChar((char) tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            destino.putChar(valores[i]);
+        }
+    }
+
+    static ContainerArray ler(ByteBuffer origem) {
+        int tamanho = origem.getChar();
+        ContainerArray array = new ContainerArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            array.valores[i] = origem.getChar();
+        }
+        array.tamanho = tamanho;
+        return array;
+    }
+}
+
+/**
+ * Valores densos: 65536 bits em long[1024]
+ *
+ * {@code cardinalidade == -1} indica cardinalidade ainda não calculada
+ * (usada pela união preguiçosa de vários bitmaps).
+ */
+final class ContainerBitmap extends ContainerRoaring {
+
+    static final int PALAVRAS = 1024;
+
+    final long[] palavras;
+    int cardinalidade;
+
+    ContainerBitmap() {
+        this.palavras = new long[PALAVRAS];
+    }
+
+    private ContainerBitmap(long[] palavras, int cardinalidade) {
+        this.palavras = palavras;
+        this.cardinalidade = cardinalidade;
+    }
+
+    ContainerBitmap copiarBitmap() {
+        return new ContainerBitmap(palavras.clone(), cardinalidade);
+    }
+
+    @Override
+    int cardinalidade() {
+        if (cardinalidade < 0) {
+            repararCardinalidade();
+        }
+        return cardinalidade;
+    }
+
+    void repararCardinalidade() {
+        int soma = 0;
+        for (long palavra : palavras) {
+            soma += Long.bitCount(palavra);
+        }
+        cardinalidade = soma;
+    }
+
+    @Override
+    boolean contem(char valor) {
+        return (palavras[valor >>> 6] & (1L << valor)) != 0;
+    }
+
+    @Override
+    ContainerRoaring adicionar(char valor) {
+        long antes = palavras[valor >>> 6];
+        long depois = antes | (1L << valor);
+        palavras[valor >>> 6] = depois;
+        if (cardinalidade >= 0 && antes != depois) {
+            cardinalidade++;
+        }
+        return this;
+    }
+
+    @Override
+    ContainerRoaring remover(char valor) {
+        long antes = palavras[valor >>> 6];
+        long depois = antes & ~(1L << valor);
+        palavras[valor >>> 6] = depois;
+        if (antes != depois) {
+            if (cardinalidade >= 0) {
+                cardinalidade--;
+            }
+            if (cardinalidade() <= LIMITE_ARRAY) {
+                return ContainerArray.de(this, cardinalidade);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    ContainerRoaring copiar() {
+        return copiarBitmap();
+    }
+
+    @Override
+    ContainerBitmap paraBitmap() {
+        return copiarBitmap();
+    }
+
+    /**
+     * Converte para array se ficou esparso o suficiente
+     */
+    ContainerRoaring normalizar() {
+        return cardinalidade() <= LIMITE_ARRAY ? ContainerArray.de(this, cardinalidade) : this;
+    }
+
+    @Override
+    int contarRuns() {
+        int runs = 0;
+        for (int i = 0; i < PALAVRAS; i++) {
+            long palavra = palavras[i];
+            long proxima = i + 1 < PALAVRAS ? palavras[i + 1] : 0;
+            // Conta finais de faixa: bit 1 seguido de bit 0
+            runs += Long.bitCount(palavra & ~(palavra >>> 1 | proxima << 63));
+        }
+        return runs;
+    }
+
+    void andNoLugar(ContainerBitmap outro) {
+        for (int i = 0; i < PALAVRAS; i++) {
+            palavras[i] &= outro.palavras[i];
+        }
+        cardinalidade = -1;
+    }
+
+    /**
+     * OR no lugar; com {@code preguicoso} a cardinalidade não é mantida
+     */
+    void orNoLugar(ContainerRoaring outro, boolean preguicoso) {
+        if (outro instanceof ContainerBitmap b) {
+            for (int i = 0; i < PALAVRAS; i++) {
+                palavras[i] |= b.palavras[i];
+            }
+        } else if (outro instanceof ContainerArray a) {
+            for (int i = 0; i < a.tamanho; i++) {
+                palavras[a.valores[i] >>> 6] |= 1L << a.valores[i];
+            }
+        } else {
+            ((ContainerRun) outro).marcarEm(palavras);
+        }
+        cardinalidade = -1;
+        if (!preguicoso) {
+            repararCardinalidade();
+        }
+    }
+
+    void andNotNoLugar(ContainerRoaring outro) {
+        if (outro instanceof ContainerBitmap b) {
+            for (int i = 0; i < PALAVRAS; i++) {
+                palavras[i] &= ~b.palavras[i];
+            }
+        } else {
+            outro.paraCada(0, v -> palavras[v >>> 6] &= ~(1L << v));
+        }
+        cardinalidade = -1;
+    }
+
+    void xorNoLugar(ContainerRoaring outro) {
+        if (outro instanceof ContainerBitmap b) {
+            for (int i = 0; i < PALAVRAS; i++) {
+                palavras[i] ^= b.palavras[i];
+            }
+        } else {
+            outro.paraCada(0, v -> palavras[v >>> 6] ^= 1L << v);
+        }
+        cardinalidade = -1;
+    }
+
+    @Override
+    void paraCada(int alto, IntConsumer acao) {
+        for (int i = 0; i < PALAVRAS; i++) {
+            long palavra = palavras[i];
+            while (palavra != 0) {
+                acao.accept(alto | (i << 6) | Long.numberOfTrailingZeros(palavra));
+                palavra &= palavra - 1;
+            }
+        }
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterador(int alto) {
+        return new PrimitiveIterator.OfInt() {
+            int indice = -1;
+            long atual;
+
+            {
+                avancar();
+            }
+
+            private void avancar() {
+                while (atual == 0 && ++indice < PALAVRAS) {
+                    atual = palavras[indice];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return indice < PALAVRAS;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int valor = alto | (indice << 6) | Long.numberOfTrailingZeros(atual);
+                atual &= atual - 1;
+                avancar();
+                return valor;
+            }
+        };
+    }
+
+    @Override
+    byte tipo() {
+        return TIPO_BITMAP;
+    }
+
+    @Override
+    int bytesSerializados() {
+        return 1 + 8 * PALAVRAS;
+    }
+
+    @Override
+    void serializar(ByteBuffer destino) {
+        destino.put(TIPO_BITMAP);
+        for (long palavra : palavras) {
+            destino.putLong(palavra);
+        }
+    }
+
+    static ContainerBitmap ler(ByteBuffer origem) {
+        ContainerBitmap bitmap = new ContainerBitmap();
+        for (int i = 0; i < PALAVRAS; i++) {
+            bitmap.palavras[i] = origem.getLong();
+        }
+        bitmap.cardinalidade = -1;
+        bitmap.repararCardinalidade();
+        return bitmap;
+    }
+}
+
+/**
+ * Faixas contíguas: pares (início, comprimento - 1) ordenados
+ *
+ * Não é alterado no lugar: adicionar/remover convertem para array ou
+ * bitmap. Runs são produzidos por {@link BitmapCompactado#otimizarRuns()}.
+ */
+final class ContainerRun extends ContainerRoaring {
+
+    final char[] inicios;
+    final char[] comprimentos; // comprimento - 1, para caber 65536 em um char
+    final int runs;
+    private final int cardinalidade;
+
+    private ContainerRun(char[] inicios, char[] comprimentos, int runs) {
+        this.inicios = inicios;
+        this.comprimentos = comprimentos;
+        this.runs = runs;
+        int soma = 0;
+        for (int i = 0; i < runs; i++) {
+            soma += comprimentos[i] + 1;
+        }
+        this.cardinalidade = soma;
+    }
+
+    static ContainerRun de(ContainerRoaring origem, int runs) {
+        char[] inicios = new char[runs];
+        char[] comprimentos = new char[runs];
+        int[] estado = {-1, -2}; // índice do run atual, último valor visto
+        origem.paraCada(0, v -> {
+            if (v == estado[1] + 1) {
+                comprimentos[estado[0]]++;
+            } else {
+                estado[0]++;
+                inicios[estado[0]] = (char) v;
+                comprimentos[estado[0]] = 0;
+            }
+            estado[1] = v;
+        });
+        return new ContainerRun(inicios, comprimentos, runs);
+    }
+
+    @Override
+    int cardinalidade() {
+        return cardinalidade;
+    }
+
+    @Override
+    boolean contem(char valor) {
+        int lo = 0;
+        int hi = runs - 1;
+        while (lo <= hi) {
+            int meio = (lo + hi) >>> 1;
+            if (inicios[meio] <= valor) {
+                lo = meio + 1;
+            } else {
+                hi = meio - 1;
+            }
+        }
+        // hi = último run com início <= valor
+        return hi >= 0 && valor - inicios[hi] <= comprimentos[hi];
+    }
+
+    @Override
+    ContainerRoaring semRuns() {
+        return cardinalidade <= LIMITE_ARRAY ? ContainerArray.de(this, cardinalidade) : paraBitmap();
+    }
+
+    @Override
+    ContainerRoaring adicionar(char valor) {
+        return contem(valor) ? this : semRuns().adicionar(valor);
+    }
+
+    @Override
+    ContainerRoaring remover(char valor) {
+        return contem(valor) ? semRuns().remover(valor) : this;
+    }
+
+    @Override
+    ContainerRoaring copiar() {
+        return this; // imutável
+    }
+
+    @Override
+    ContainerBitmap paraBitmap() {
+        ContainerBitmap bitmap = new ContainerBitmap();
+        marcarEm(bitmap.palavras);
+        bitmap.cardinalidade = cardinalidade;
+        return bitmap;
+    }
+
+    /**
+     * Liga os bits de todas as faixas, palavra a palavra
+     */
+    void marcarEm(long[] palavras) {
+        for (int r = 0; r < runs; r++) {
+            int inicio = inicios[r];
+            int fim = inicio + comprimentos[r]; // inclusivo
+            int pi = inicio >>> 6;
+            int pf = fim >>> 6;
+            long mascaraInicio = -1L << inicio;
+            long mascaraFim = -1L >>> (63 - (fim & 63));
+            if (pi == pf) {
+                palavras[pi] |= mascaraInicio & mascaraFim;
+            } else {
+                palavras[pi] |= mascaraInicio;
+                for (int p = pi + 1; p < pf; p++) {
+                    palavras[p] = -1L;
+                }
+                palavras[pf] |= mascaraFim;
+            }
+        }
+    }
+
+    @Override
+    int contarRuns() {
+        return runs;
+    }
+
+    @Override
+    void paraCada(int alto, IntConsumer acao) {
+        for (int r = 0; r < runs; r++) {
+            int inicio = alto | inicios[r];
+            for (int k = 0; k <= comprimentos[r]; k++) {
+                acao.accept(inicio + k);
+            }
+        }
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterador(int alto) {
+        return new PrimitiveIterator.OfInt() {
+            int run;
+            int deslocamento;
+
+            @Override
+            public boolean hasNext() {
+                return run < runs;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int valor = alto | (inicios[run] + deslocamento);
+                if (deslocamento++ == comprimentos[run]) {
+                    run++;
+                    deslocamento = 0;
+                }
+                return valor;
+            }
+        };
+    }
+
+    @Override
+    byte tipo() {
+        return TIPO_RUN;
+    }
+
+    @Override
+    int bytesSerializados() {
+        return 1 + 2 + 4 * runs;
+    }
+
+    @Override
+    void serializar(ByteBuffer destino) {
+        destino.put(TIPO_RUN);
+        destino.putChar((char) runs);
+        for (int i = 0; i < runs; i++) {
+            destino.putChar(inicios[i]);
+            destino.putChar(comprimentos[i]);
+        }
+    }
+
+    static ContainerRun ler(ByteBuffer origem) {
+        int runs = origem.getChar();
+        char[] inicios = new char[runs];
+        char[] comprimentos = new char[runs];
+        for (int i = 0; i < runs; i++) {
+            inicios[i] = origem.getChar();
+            comprimentos[i] = origem.getChar();
+        }
+        return new ContainerRun(inicios, comprimentos, runs);
+    }
+}
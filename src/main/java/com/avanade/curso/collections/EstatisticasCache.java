@@ -0,0 +1,45 @@
+package com.avanade.curso.collections;
+
+/**
+ * Contadores de um {@link Cache} em um instante
+ *
+ * @param acertos       get/computeIfAbsent que encontraram a chave
+ * @param falhas        get/computeIfAbsent que não encontraram a chave
+ * @param despejos      entradas removidas por excesso de peso
+ * @param pesoDespejado soma dos pesos das entradas despejadas
+ */
+public record EstatisticasCache(long acertos, long falhas, long despejos, long pesoDespejado) {
+
+    public static final EstatisticasCache VAZIA = new EstatisticasCache(0, 0, 0, 0);
+
+    public long requisicoes() {
+        return acertos + falhas;
+    }
+
+    /** Acertos / requisições (1.0 sem requisições) */
+    public double taxaAcerto() {
+        long total = requisicoes();
+        return total == 0 ? 1.0 : (double) acertos / total;
+    }
+
+    public double taxaFalha() {
+        return 1.0 - taxaAcerto();
+    }
+
+    public EstatisticasCache somar(EstatisticasCache outra) {
+        return new EstatisticasCache(acertos + outra.acertos, falhas + outra.falhas,
+            despejos + outra.despejos, pesoDespejado + outra.pesoDespejado);
+    }
+
+    /** Diferença em relação a uma fotografia anterior (ex.: por intervalo) */
+    public EstatisticasCache menos(EstatisticasCache anterior) {
+        return new EstatisticasCache(acertos - anterior.acertos, falhas - anterior.falhas,
+            despejos - anterior.despejos, pesoDespejado - anterior.pesoDespejado);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EstatisticasCache[acertos=%d, falhas=%d, taxaAcerto=%.2f%%, despejos=%d]",
+            acertos, falhas, taxaAcerto() * 100, despejos);
+    }
+}
@@ -0,0 +1,238 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Fila de prioridade indexada (mínimo) para ids inteiros 0..capacidade-1
+ *
+ * {@code PriorityQueue} não permite alterar a prioridade de um elemento
+ * já inserido: remove(Object) é O(n) e a única saída é remover + inserir.
+ * Aqui cada id conhece sua posição no heap, então:
+ *
+ * - inserir, removerTopo, remover(id), alterarPrioridade: O(log n)
+ * - contem, prioridade, topo: O(1)
+ *
+ * Uso típico: agendadores (id = tarefa, prioridade = próximo disparo),
+ * Dijkstra/A* (id = vértice, prioridade = distância).
+ *
+ * Três arrays primitivos, nenhum objeto por elemento:
+ * - heap[posição] = id
+ * - posicao[id] = posição no heap (-1 se ausente)
+ * - prioridades[id] = chave
+ *
+ * NÃO é thread-safe.
+ */
+public class FilaPrioridadeIndexada {
+
+    private final int[] heap;
+    private final int[] posicao;
+    private final long[] prioridades;
+    private int tamanho;
+
+    public FilaPrioridadeIndexada(int capacidade) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidade);
+        }
+        this.heap = new int[capacidade];
+        this.posicao = new int[capacidade];
+        this.prioridades = new long[capacidade];
+        Arrays.fill(posicao, -1);
+    }
+
+    public void inserir(int id, long prioridade) {
+        validarId(id);
+        if (posicao[id] >= 0) {
+            throw new IllegalArgumentException("Id já está na fila: " + id);
+        }
+        prioridades[id] = prioridade;
+        heap[tamanho] = id;
+        posicao[id] = tamanho;
+        subir(tamanho++);
+    }
+
+    public boolean contem(int id) {
+        validarId(id);
+        return posicao[id] >= 0;
+    }
+
+    public long prioridade(int id) {
+        exigirPresente(id);
+        return prioridades[id];
+    }
+
+    /**
+     * Id com a menor prioridade
+     */
+    public int topo() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Fila vazia");
+        }
+        return heap[0];
+    }
+
+    public long prioridadeTopo() {
+        return prioridades[topo()];
+    }
+
+    /**
+     * Remove e devolve o id com a menor prioridade
+     */
+    public int removerTopo() {
+        int id = topo();
+        removerPosicao(0);
+        return id;
+    }
+
+    /**
+     * Remove um id qualquer da fila
+     *
+     * @return true se o id estava na fila
+     */
+    public boolean remover(int id) {
+        validarId(id);
+        int pos = posicao[id];
+        if (pos < 0) {
+            return false;
+        }
+        removerPosicao(pos);
+        return true;
+    }
+
+    /**
+     * Diminui a prioridade (sobe no heap)
+     *
+     * @throws IllegalArgumentException se a nova prioridade for maior
+     */
+    public void diminuirChave(int id, long prioridade) {
+        exigirPresente(id);
+        if (prioridade > prioridades[id]) {
+            throw new IllegalArgumentException("Nova prioridade " + prioridade
+                + " é maior que a atual " + prioridades[id]);
+        }
+        prioridades[id] = prioridade;
+        subir(posicao[id]);
+    }
+
+    /**
+     * Aumenta a prioridade (desce no heap)
+     *
+     * @throws IllegalArgumentException se a nova prioridade for menor
+     */
+    public void aumentarChave(int id, long prioridade) {
+        exigirPresente(id);
+        if (prioridade < prioridades[id]) {
+            throw new IllegalArgumentException("Nova prioridade " + prioridade
+                + " é menor que a atual " + prioridades[id]);
+        }
+        prioridades[id] = prioridade;
+        descer(posicao[id]);
+    }
+
+    /**
+     * Altera a prioridade em qualquer direção; insere se ausente
+     */
+    public void alterarPrioridade(int id, long prioridade) {
+        validarId(id);
+        int pos = posicao[id];
+        if (pos < 0) {
+            inserir(id, prioridade);
+            return;
+        }
+        long anterior = prioridades[id];
+        prioridades[id] = prioridade;
+        if (prioridade < anterior) {
+            subir(pos);
+        } else {
+            descer(pos);
+        }
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public int getCapacidade() {
+        return posicao.length;
+    }
+
+    public void clear() {
+        for (int i = 0; i < tamanho; i++) {
+            posicao[heap[i]] = -1;
+        }
+        tamanho = 0;
+    }
+
+    private void removerPosicao(int pos) {
+        int removido = heap[pos];
+        int ultimo = heap[--tamanho];
+        posicao[removido] = -1;
+        if (pos == tamanho) {
+            return;
+        }
+        heap[pos] = ultimo;
+        posicao[ultimo] = pos;
+        // O último pode precisar subir ou descer, dependendo da subárvore
+        if (pos > 0 && prioridades[ultimo] < prioridades[heap[(pos - 1) >>> 1]]) {
+            subir(pos);
+        } else {
+            descer(pos);
+        }
+    }
+
+    private void subir(int pos) {
+        int id = heap[pos];
+        long chave = prioridades[id];
+        while (pos > 0) {
+            int pai = (pos - 1) >>> 1;
+            int idPai = heap[pai];
+            if (chave >= prioridades[idPai]) {
+                break;
+            }
+            heap[pos] = idPai;
+            posicao[idPai] = pos;
+            pos = pai;
+        }
+        heap[pos] = id;
+        posicao[id] = pos;
+    }
+
+    private void descer(int pos) {
+        int id = heap[pos];
+        long chave = prioridades[id];
+        int metade = tamanho >>> 1;
+        while (pos < metade) {
+            int filho = 2 * pos + 1;
+            int direito = filho + 1;
+            if (direito < tamanho && prioridades[heap[direito]] < prioridades[heap[filho]]) {
+                filho = direito;
+            }
+            int idFilho = heap[filho];
+            if (chave <= prioridades[idFilho]) {
+                break;
+            }
+            heap[pos] = idFilho;
+            posicao[idFilho] = pos;
+            pos = filho;
+        }
+        heap[pos] = id;
+        posicao[id] = pos;
+    }
+
+    private void validarId(int id) {
+        if (id < 0 || id >= posicao.length) {
+            throw new IndexOutOfBoundsException("Id fora do intervalo [0, " + posicao.length + "): " + id);
+        }
+    }
+
+    private void exigirPresente(int id) {
+        validarId(id);
+        if (posicao[id] < 0) {
+            throw new NoSuchElementException("Id não está na fila: " + id);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.avanade.curso.collections;
+
+/**
+ * Funções auxiliares das tabelas hash de endereçamento aberto
+ *
+ * Com sondagem linear e tabela de tamanho potência de 2, o índice é
+ * {@code hash & mascara}: só os bits baixos importam. Por isso o hash
+ * bruto (ex.: Integer.hashCode == o próprio valor) é "espalhado" com uma
+ * multiplicação pela razão áurea antes de usar.
+ */
+final class HashPrimitivo {
+
+    /** 2^32 / φ */
+    private static final int INT_PHI = 0x9E3779B9;
+
+    /** 2^64 / φ */
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    /** Maior tabela indexável por int que ainda é potência de 2 */
+    static final int CAPACIDADE_MAXIMA = 1 << 30;
+
+    private HashPrimitivo() {}
+
+    static int misturar(int x) {
+        int h = x * INT_PHI;
+        return h ^ (h >>> 16);
+    }
+
+    static int misturar(long x) {
+        long h = x * LONG_PHI;
+        h ^= (h >>> 32);
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * Tamanho da tabela (potência de 2) para guardar {@code esperado}
+     * elementos sem ultrapassar o fator de carga
+     */
+    static int tamanhoTabela(long esperado, float fatorCarga) {
+        long necessario = Math.max(2, proximaPotenciaDe2((long) Math.ceil(esperado / (double) fatorCarga)));
+        if (necessario > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade excessiva para " + esperado
+                + " elementos com fator de carga " + fatorCarga);
+        }
+        return (int) necessario;
+    }
+
+    /**
+     * Número máximo de elementos antes de redimensionar (sempre deixa
+     * ao menos um slot livre para a sondagem terminar)
+     */
+    static int limiteOcupacao(int tamanho, float fatorCarga) {
+        return Math.min((int) Math.ceil(tamanho * fatorCarga), tamanho - 1);
+    }
+
+    static void validarFatorCarga(float fatorCarga) {
+        if (!(fatorCarga > 0 && fatorCarga < 1)) {
+            throw new IllegalArgumentException("Fator de carga deve estar em (0, 1): " + fatorCarga);
+        }
+    }
+
+    static long proximaPotenciaDe2(long x) {
+        return x <= 1 ? 1 : Long.highestOneBit(x - 1) << 1;
+    }
+
+    /**
+     * Na remoção com sondagem linear, decide se o elemento na posição
+     * {@code pos} (cujo slot ideal é {@code ideal}) pode ser movido para
+     * a lacuna {@code lacuna} sem ficar "antes" do seu slot ideal
+     */
+    static boolean podeMover(int lacuna, int ideal, int pos) {
+        return lacuna <= pos
+            ? lacuna >= ideal || ideal > pos
+            : lacuna >= ideal && ideal > pos;
+    }
+}
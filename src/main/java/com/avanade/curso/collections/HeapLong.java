@@ -0,0 +1,161 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Heap binário de long sobre um long[] (sem boxing)
+ *
+ * {@code PriorityQueue<Long>} guarda um Long por elemento e compara
+ * via Comparable/Comparator. Aqui o heap é o próprio array: pai em
+ * (i - 1) / 2, filhos em 2i + 1 e 2i + 2.
+ *
+ * - offer/poll: O(log n)
+ * - peek: O(1)
+ * - {@link #ofertarTopK}: mantém os K maiores (ou menores) em O(log K)
+ *
+ * NÃO é thread-safe.
+ */
+public class HeapLong {
+
+    private final boolean maximo;
+    private long[] elementos;
+    private int tamanho;
+
+    private HeapLong(boolean maximo, int capacidadeInicial) {
+        if (capacidadeInicial < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidadeInicial);
+        }
+        this.maximo = maximo;
+        this.elementos = new long[Math.max(capacidadeInicial, 2)];
+    }
+
+    /** Heap de mínimo: peek/poll devolvem o menor elemento */
+    public static HeapLong minimo(int capacidadeInicial) {
+        return new HeapLong(false, capacidadeInicial);
+    }
+
+    /** Heap de máximo: peek/poll devolvem o maior elemento */
+    public static HeapLong maximo(int capacidadeInicial) {
+        return new HeapLong(true, capacidadeInicial);
+    }
+
+    /** true se {@code a} deve ficar acima de {@code b} */
+    private boolean antes(long a, long b) {
+        return maximo ? a > b : a < b;
+    }
+
+    public void offer(long valor) {
+        if (tamanho == elementos.length) {
+            elementos = Arrays.copyOf(elementos, elementos.length + (elementos.length >> 1));
+        }
+        subir(tamanho++, valor);
+    }
+
+    public long peek() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Heap vazio");
+        }
+        return elementos[0];
+    }
+
+    public long poll() {
+        long topo = peek();
+        long ultimo = elementos[--tamanho];
+        if (tamanho > 0) {
+            descer(0, ultimo);
+        }
+        return topo;
+    }
+
+    /**
+     * Substitui o topo e reorganiza: equivale a poll() + offer() com uma
+     * única descida
+     *
+     * @return o topo anterior
+     */
+    public long substituirTopo(long valor) {
+        long topo = peek();
+        descer(0, valor);
+        return topo;
+    }
+
+    /**
+     * Top-K: mantém no máximo {@code k} elementos. Use um heap de MÍNIMO
+     * para guardar os K MAIORES (o topo é o "pior" dos aceitos).
+     *
+     * @return true se o valor entrou no heap
+     */
+    public boolean ofertarTopK(long valor, int k) {
+        if (tamanho < k) {
+            offer(valor);
+            return true;
+        }
+        if (k > 0 && antes(elementos[0], valor)) {
+            descer(0, valor);
+            return true;
+        }
+        return false;
+    }
+
+    private void subir(int pos, long valor) {
+        long[] e = elementos;
+        while (pos > 0) {
+            int pai = (pos - 1) >>> 1;
+            if (!antes(valor, e[pai])) {
+                break;
+            }
+            e[pos] = e[pai];
+            pos = pai;
+        }
+        e[pos] = valor;
+    }
+
+    private void descer(int pos, long valor) {
+        long[] e = elementos;
+        int metade = tamanho >>> 1;
+        while (pos < metade) {
+            int filho = 2 * pos + 1;
+            int direito = filho + 1;
+            if (direito < tamanho && antes(e[direito], e[filho])) {
+                filho = direito;
+            }
+            if (!antes(e[filho], valor)) {
+                break;
+            }
+            e[pos] = e[filho];
+            pos = filho;
+        }
+        e[pos] = valor;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        tamanho = 0;
+    }
+
+    /**
+     * Cópia dos elementos na ordem interna do heap (não ordenada)
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elementos, tamanho);
+    }
+
+    /**
+     * Esvazia o heap devolvendo os elementos em ordem de prioridade
+     */
+    public long[] drenarOrdenado() {
+        long[] saida = new long[tamanho];
+        for (int i = 0; i < saida.length; i++) {
+            saida[i] = poll();
+        }
+        return saida;
+    }
+}
@@ -0,0 +1,249 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Mapa int -> V com endereçamento aberto e sondagem linear
+ *
+ * Substitui {@code HashMap<Integer, V>} quando as chaves são ids
+ * numéricos: nenhuma chave é boxed e não existe Node por entrada.
+ * Mesma estratégia de {@link Long2LongMap}: chave 0 guardada à parte e
+ * remoção por deslocamento (sem tombstones).
+ *
+ * NÃO é thread-safe.
+ */
+public class Int2ObjectMap<V> {
+
+    public static final float FATOR_CARGA_PADRAO = 0.75f;
+
+    private final float fatorCarga;
+    private int[] chaves;
+    private Object[] valores;
+    private int mascara;
+    private int n;
+    private int limite;
+    private boolean contemZero;
+    private int tamanho;
+
+    public Int2ObjectMap() {
+        this(16, FATOR_CARGA_PADRAO);
+    }
+
+    public Int2ObjectMap(int capacidadeEsperada) {
+        this(capacidadeEsperada, FATOR_CARGA_PADRAO);
+    }
+
+    public Int2ObjectMap(int capacidadeEsperada, float fatorCarga) {
+        HashPrimitivo.validarFatorCarga(fatorCarga);
+        if (capacidadeEsperada < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidadeEsperada);
+        }
+        this.fatorCarga = fatorCarga;
+        alocar(HashPrimitivo.tamanhoTabela(capacidadeEsperada, fatorCarga));
+    }
+
+    private void alocar(int novoN) {
+        n = novoN;
+        mascara = novoN - 1;
+        limite = HashPrimitivo.limiteOcupacao(novoN, fatorCarga);
+        chaves = new int[novoN + 1];
+        valores = new Object[novoN + 1];
+    }
+
+    private int localizar(int chave) {
+        if (chave == 0) {
+            return contemZero ? n : -(n + 1);
+        }
+        int pos = HashPrimitivo.misturar(chave) & mascara;
+        int atual;
+        while ((atual = chaves[pos]) != 0) {
+            if (atual == chave) {
+                return pos;
+            }
+            pos = (pos + 1) & mascara;
+        }
+        return -(pos + 1);
+    }
+
+    public V get(int chave) {
+        return getOrDefault(chave, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int chave, V padrao) {
+        int pos = localizar(chave);
+        return pos >= 0 ? (V) valores[pos] : padrao;
+    }
+
+    public boolean containsKey(int chave) {
+        return localizar(chave) >= 0;
+    }
+
+    /**
+     * @return o valor anterior, ou null se a chave não existia
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int chave, V valor) {
+        int pos = localizar(chave);
+        if (pos >= 0) {
+            V anterior = (V) valores[pos];
+            valores[pos] = valor;
+            return anterior;
+        }
+        pos = -pos - 1;
+        if (pos == n) {
+            contemZero = true;
+        }
+        chaves[pos] = chave;
+        valores[pos] = valor;
+        if (++tamanho > limite) {
+            redimensionar(n * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Equivalente a {@code map.computeIfAbsent}, sem boxing da chave
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int chave, IntFunction<? extends V> fabrica) {
+        int pos = localizar(chave);
+        if (pos >= 0) {
+            return (V) valores[pos];
+        }
+        V novo = fabrica.apply(chave);
+        put(chave, novo);
+        return novo;
+    }
+
+    /**
+     * @return o valor removido, ou null se a chave não existia
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int chave) {
+        int pos = localizar(chave);
+        if (pos < 0) {
+            return null;
+        }
+        V anterior = (V) valores[pos];
+        tamanho--;
+        if (pos == n) {
+            contemZero = false;
+            valores[n] = null;
+        } else {
+            deslocar(pos);
+        }
+        return anterior;
+    }
+
+    private void deslocar(int lacuna) {
+        int pos = lacuna;
+        while (true) {
+            pos = (pos + 1) & mascara;
+            int atual = chaves[pos];
+            if (atual == 0) {
+                chaves[lacuna] = 0;
+                valores[lacuna] = null; // libera a referência para o GC
+                return;
+            }
+            int ideal = HashPrimitivo.misturar(atual) & mascara;
+            if (HashPrimitivo.podeMover(lacuna, ideal, pos)) {
+                chaves[lacuna] = atual;
+                valores[lacuna] = valores[pos];
+                lacuna = pos;
+            }
+        }
+    }
+
+    private void redimensionar(int novoN) {
+        if (novoN > HashPrimitivo.CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Int2ObjectMap excedeu a capacidade máxima");
+        }
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        int nAntigo = n;
+        alocar(novoN);
+        for (int i = 0; i < nAntigo; i++) {
+            int chave = chavesAntigas[i];
+            if (chave != 0) {
+                int pos = HashPrimitivo.misturar(chave) & mascara;
+                while (chaves[pos] != 0) {
+                    pos = (pos + 1) & mascara;
+                }
+                chaves[pos] = chave;
+                valores[pos] = valoresAntigos[i];
+            }
+        }
+        valores[n] = valoresAntigos[nAntigo];
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0);
+        Arrays.fill(valores, null);
+        contemZero = false;
+        tamanho = 0;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public float getFatorCarga() {
+        return fatorCarga;
+    }
+
+    /**
+     * Cursor reutilizável sobre as entradas (sem Map.Entry por elemento)
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private int pos = contemZero ? n + 1 : n;
+
+        public boolean proximo() {
+            if (pos == n + 1) {
+                pos = n;
+                return true;
+            }
+            while (--pos >= 0) {
+                if (chaves[pos] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int chave() {
+            return chaves[pos];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V valor() {
+            return (V) valores[pos];
+        }
+
+        public void setValor(V valor) {
+            valores[pos] = valor;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Cursor c = cursor();
+        while (c.proximo()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(c.chave()).append('=').append(c.valor());
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,231 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link BigList} de int: chunks int[] de tamanho fixo, índices long,
+ * sem boxing
+ *
+ * NÃO é thread-safe.
+ */
+public class IntBigList {
+
+    private final int bitsChunk;
+    private final int tamanhoChunk;
+    private final long mascara;
+    private int[][] chunks;
+    private int chunksAlocados;
+    private long tamanho;
+
+    public IntBigList() {
+        this(BigList.BITS_CHUNK_PADRAO);
+    }
+
+    /** Chunks de 2^bitsChunk elementos (testes usam chunks pequenos) */
+    IntBigList(int bitsChunk) {
+        if (bitsChunk < 1 || bitsChunk > 30) {
+            throw new IllegalArgumentException("bitsChunk fora de [1, 30]: " + bitsChunk);
+        }
+        this.bitsChunk = bitsChunk;
+        this.tamanhoChunk = 1 << bitsChunk;
+        this.mascara = tamanhoChunk - 1;
+        this.chunks = new int[8][];
+    }
+
+    public void add(int valor) {
+        int chunk = (int) (tamanho >>> bitsChunk);
+        if (chunk == chunksAlocados) {
+            alocarChunk();
+        }
+        chunks[chunk][(int) (tamanho & mascara)] = valor;
+        tamanho++;
+    }
+
+    /**
+     * Acrescenta todos os valores, copiando em blocos por chunk
+     */
+    public void addAll(int[] valores) {
+        int copiados = 0;
+        while (copiados < valores.length) {
+            int chunk = (int) (tamanho >>> bitsChunk);
+            if (chunk == chunksAlocados) {
+                alocarChunk();
+            }
+            int posicao = (int) (tamanho & mascara);
+            int n = Math.min(valores.length - copiados, tamanhoChunk - posicao);
+            System.arraycopy(valores, copiados, chunks[chunk], posicao, n);
+            copiados += n;
+            tamanho += n;
+        }
+    }
+
+    private void alocarChunk() {
+        if (chunksAlocados == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[chunksAlocados++] = new int[tamanhoChunk];
+    }
+
+    public int getInt(long indice) {
+        validarIndice(indice);
+        return chunks[(int) (indice >>> bitsChunk)][(int) (indice & mascara)];
+    }
+
+    /**
+     * @return o valor anterior
+     */
+    public int set(long indice, int valor) {
+        int anterior = getInt(indice);
+        chunks[(int) (indice >>> bitsChunk)][(int) (indice & mascara)] = valor;
+        return anterior;
+    }
+
+    /**
+     * Remove e devolve o último valor
+     */
+    public int removeLast() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Lista vazia");
+        }
+        int ultimo = getInt(tamanho - 1);
+        tamanho--;
+        return ultimo;
+    }
+
+    public long size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        chunks = new int[8][];
+        chunksAlocados = 0;
+        tamanho = 0;
+    }
+
+    /**
+     * Cópia em um único array
+     *
+     * @throws IllegalStateException se houver mais elementos que um array comporta
+     */
+    public int[] toArray() {
+        if (tamanho > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Lista grande demais para um array: " + tamanho);
+        }
+        int[] saida = new int[(int) tamanho];
+        for (int c = 0, copiados = 0; copiados < saida.length; c++) {
+            int n = Math.min(saida.length - copiados, tamanhoChunk);
+            System.arraycopy(chunks[c], 0, saida, copiados, n);
+            copiados += n;
+        }
+        return saida;
+    }
+
+    private void validarIndice(long indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice fora do intervalo [0, " + tamanho + "): " + indice);
+        }
+    }
+
+    // ============================================
+    // Iteração
+    // ============================================
+
+    public void forEach(IntConsumer acao) {
+        spliterator().forEachRemaining(acao);
+    }
+
+    /**
+     * Spliterator sobre os valores atuais; divide em fronteiras de chunk
+     */
+    public Spliterator.OfInt spliterator() {
+        return new Divisor(0, tamanho);
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    private final class Divisor implements Spliterator.OfInt {
+
+        private long atual;
+        private final long fim;
+
+        Divisor(long inicio, long fim) {
+            this.atual = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer acao) {
+            if (atual >= fim) {
+                return false;
+            }
+            acao.accept(chunks[(int) (atual >>> bitsChunk)][(int) (atual & mascara)]);
+            atual++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer acao) {
+            while (atual < fim) {
+                int[] chunk = chunks[(int) (atual >>> bitsChunk)];
+                int i = (int) (atual & mascara);
+                int n = (int) Math.min(fim - atual, tamanhoChunk - i);
+                for (int k = i; k < i + n; k++) {
+                    acao.accept(chunk[k]);
+                }
+                atual += n;
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long meio = BigList.metadeAlinhada(atual, fim, mascara);
+            if (meio < 0) {
+                return null;
+            }
+            Divisor prefixo = new Divisor(atual, meio);
+            atual = meio;
+            return prefixo;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fim - atual;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        long mostrar = Math.min(tamanho, 20);
+        for (long i = 0; i < mostrar; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(getInt(i));
+        }
+        if (tamanho > mostrar) {
+            sb.append(", ... (").append(tamanho).append(" elementos)");
+        }
+        return sb.append(']').toString();
+    }
+}
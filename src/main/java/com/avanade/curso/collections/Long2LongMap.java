@@ -0,0 +1,264 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> long com endereçamento aberto e sondagem linear
+ *
+ * Comparado a {@code HashMap<Long, Long>}:
+ * - Sem boxing: chaves e valores ficam em dois long[] paralelos
+ * - Sem objeto Node por entrada (~16 bytes/entrada vs ~80 bytes)
+ * - Sondagem linear percorre memória contígua (amigável ao cache)
+ *
+ * A chave 0 é usada como marcador de slot livre; por isso ela é guardada
+ * à parte, na posição extra {@code chaves[n]}.
+ * A remoção desloca os elementos seguintes (backward shift), sem
+ * tombstones, então a tabela não degrada com inserções/remoções.
+ *
+ * NÃO é thread-safe.
+ */
+public class Long2LongMap {
+
+    public static final float FATOR_CARGA_PADRAO = 0.75f;
+
+    private final float fatorCarga;
+    private long[] chaves;
+    private long[] valores;
+    private int mascara;
+    private int n;
+    private int limite;
+    private boolean contemZero;
+    private int tamanho;
+
+    public Long2LongMap() {
+        this(16, FATOR_CARGA_PADRAO);
+    }
+
+    public Long2LongMap(int capacidadeEsperada) {
+        this(capacidadeEsperada, FATOR_CARGA_PADRAO);
+    }
+
+    public Long2LongMap(int capacidadeEsperada, float fatorCarga) {
+        HashPrimitivo.validarFatorCarga(fatorCarga);
+        if (capacidadeEsperada < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidadeEsperada);
+        }
+        this.fatorCarga = fatorCarga;
+        alocar(HashPrimitivo.tamanhoTabela(capacidadeEsperada, fatorCarga));
+    }
+
+    private void alocar(int novoN) {
+        n = novoN;
+        mascara = novoN - 1;
+        limite = HashPrimitivo.limiteOcupacao(novoN, fatorCarga);
+        chaves = new long[novoN + 1];
+        valores = new long[novoN + 1];
+    }
+
+    /**
+     * Índice da chave ou -(ponto de inserção + 1) se ausente
+     */
+    private int localizar(long chave) {
+        if (chave == 0) {
+            return contemZero ? n : -(n + 1);
+        }
+        int pos = HashPrimitivo.misturar(chave) & mascara;
+        long atual;
+        while ((atual = chaves[pos]) != 0) {
+            if (atual == chave) {
+                return pos;
+            }
+            pos = (pos + 1) & mascara;
+        }
+        return -(pos + 1);
+    }
+
+    public long get(long chave) {
+        return getOrDefault(chave, 0L);
+    }
+
+    public long getOrDefault(long chave, long padrao) {
+        int pos = localizar(chave);
+        return pos >= 0 ? valores[pos] : padrao;
+    }
+
+    public boolean containsKey(long chave) {
+        return localizar(chave) >= 0;
+    }
+
+    /**
+     * @return o valor anterior, ou 0 se a chave não existia
+     */
+    public long put(long chave, long valor) {
+        int pos = localizar(chave);
+        if (pos >= 0) {
+            long anterior = valores[pos];
+            valores[pos] = valor;
+            return anterior;
+        }
+        inserir(-pos - 1, chave, valor);
+        return 0L;
+    }
+
+    /**
+     * Soma {@code incremento} ao valor da chave (0 se ausente), sem boxing.
+     * Equivalente a {@code map.merge(chave, incremento, Long::sum)}.
+     *
+     * @return o novo valor
+     */
+    public long addTo(long chave, long incremento) {
+        int pos = localizar(chave);
+        if (pos >= 0) {
+            return valores[pos] += incremento;
+        }
+        inserir(-pos - 1, chave, incremento);
+        return incremento;
+    }
+
+    private void inserir(int pos, long chave, long valor) {
+        if (pos == n) {
+            contemZero = true;
+        }
+        chaves[pos] = chave;
+        valores[pos] = valor;
+        if (++tamanho > limite) {
+            redimensionar(n * 2);
+        }
+    }
+
+    /**
+     * @return o valor removido, ou 0 se a chave não existia
+     */
+    public long remove(long chave) {
+        int pos = localizar(chave);
+        if (pos < 0) {
+            return 0L;
+        }
+        long anterior = valores[pos];
+        tamanho--;
+        if (pos == n) {
+            contemZero = false;
+            valores[n] = 0;
+        } else {
+            deslocar(pos);
+        }
+        return anterior;
+    }
+
+    private void deslocar(int lacuna) {
+        int pos = lacuna;
+        while (true) {
+            pos = (pos + 1) & mascara;
+            long atual = chaves[pos];
+            if (atual == 0) {
+                chaves[lacuna] = 0;
+                valores[lacuna] = 0;
+                return;
+            }
+            int ideal = HashPrimitivo.misturar(atual) & mascara;
+            if (HashPrimitivo.podeMover(lacuna, ideal, pos)) {
+                chaves[lacuna] = atual;
+                valores[lacuna] = valores[pos];
+                lacuna = pos;
+            }
+        }
+    }
+
+    private void redimensionar(int novoN) {
+        if (novoN > HashPrimitivo.CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Long2LongMap excedeu a capacidade máxima");
+        }
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        int nAntigo = n;
+        alocar(novoN);
+        for (int i = 0; i < nAntigo; i++) {
+            long chave = chavesAntigas[i];
+            if (chave != 0) {
+                int pos = HashPrimitivo.misturar(chave) & mascara;
+                while (chaves[pos] != 0) {
+                    pos = (pos + 1) & mascara;
+                }
+                chaves[pos] = chave;
+                valores[pos] = valoresAntigos[i];
+            }
+        }
+        chaves[n] = 0;
+        valores[n] = valoresAntigos[nAntigo];
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0L);
+        Arrays.fill(valores, 0L);
+        contemZero = false;
+        tamanho = 0;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public float getFatorCarga() {
+        return fatorCarga;
+    }
+
+    /**
+     * Cursor reutilizável: uma alocação por iteração, nenhuma por entrada.
+     *
+     * <pre>
+     * Long2LongMap.Cursor c = mapa.cursor();
+     * while (c.proximo()) {
+     *     soma += c.valor();
+     * }
+     * </pre>
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private int pos = contemZero ? n + 1 : n;
+
+        public boolean proximo() {
+            if (pos == n + 1) {
+                pos = n;
+                return true;
+            }
+            while (--pos >= 0) {
+                if (chaves[pos] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long chave() {
+            return chaves[pos];
+        }
+
+        public long valor() {
+            return valores[pos];
+        }
+
+        public void setValor(long valor) {
+            valores[pos] = valor;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Cursor c = cursor();
+        while (c.proximo()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(c.chave()).append('=').append(c.valor());
+        }
+        return sb.append('}').toString();
+    }
+}
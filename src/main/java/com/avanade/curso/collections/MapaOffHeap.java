@@ -0,0 +1,749 @@
+package com.avanade.curso.collections;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapa hash fora do heap (off-heap) para conjuntos de chaves muito grandes
+ *
+ * Um {@code HashMap<Long, Long>} custa ~80 bytes por entrada no heap e
+ * cada entrada é um objeto que o GC precisa percorrer. Com 100M+ entradas
+ * isso significa GBs de heap e pausas longas. Aqui tudo vive em memória
+ * nativa (ByteBuffer direto): o GC só enxerga alguns objetos de controle.
+ *
+ * Layout: tabela de endereçamento aberto (sondagem linear) dividida em
+ * segmentos de até 1 GiB. Cada slot tem um hash de 4 bytes (0 = livre) e:
+ * - Modo tamanho fixo: a chave e o valor inline no próprio slot
+ * - Modo tamanho variável: um endereço de 8 bytes para um registro
+ *   [int tamChave][int tamValor][chave][valor] numa arena append-only
+ *
+ * Como o hash completo fica no slot, o redimensionamento não precisa
+ * reler chaves e a maioria das comparações falsas é descartada sem tocar
+ * na chave.
+ *
+ * A memória é devolvida em {@link #close()}; usar o mapa depois disso
+ * lança IllegalStateException. NÃO é thread-safe.
+ */
+public class MapaOffHeap implements AutoCloseable {
+
+    public static final float FATOR_CARGA_PADRAO = 0.75f;
+
+    /** Limite de slots: o hash guarda 31 bits úteis (o bit alto marca "ocupado") */
+    public static final long CAPACIDADE_MAXIMA = 1L << 31;
+
+    private static final int BYTES_HASH = Integer.BYTES;
+    private static final int BYTES_ENDERECO = Long.BYTES;
+    private static final int BYTES_CABECALHO_REGISTRO = 2 * Integer.BYTES;
+    private static final int TAMANHO_MAXIMO_SEGMENTO = 1 << 30;
+    private static final int TAMANHO_INICIAL_ARENA = 64 * 1024;
+    private static final int TAMANHO_MAXIMO_ARENA = 64 << 20;
+
+    private static final boolean NATIVA_LE = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final long SEMENTE = 0x2545F4914F6CDD1DL;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final boolean variavel;
+    private final int bytesChave;
+    private final int bytesValor;
+    private final int tamanhoSlot;
+    private final int bitsSegmento;
+    private final float fatorCarga;
+
+    private ByteBuffer[] tabela;
+    private long capacidade;
+    private long mascara;
+    private long limite;
+    private long tamanho;
+
+    private final List<ByteBuffer> arena = new ArrayList<>();
+    private int posicaoArena;
+    private long bytesArenaMortos;
+
+    private boolean fechado;
+
+    private MapaOffHeap(boolean variavel, int bytesChave, int bytesValor,
+                        long capacidadeEsperada, float fatorCarga) {
+        HashPrimitivo.validarFatorCarga(fatorCarga);
+        if (capacidadeEsperada < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidadeEsperada);
+        }
+        this.variavel = variavel;
+        this.bytesChave = bytesChave;
+        this.bytesValor = bytesValor;
+        this.fatorCarga = fatorCarga;
+        this.tamanhoSlot = BYTES_HASH + (variavel ? BYTES_ENDERECO : bytesChave + bytesValor);
+        if (tamanhoSlot > TAMANHO_MAXIMO_SEGMENTO) {
+            throw new IllegalArgumentException("Chave + valor excedem o tamanho de segmento");
+        }
+        this.bitsSegmento = Integer.numberOfTrailingZeros(
+            Integer.highestOneBit(TAMANHO_MAXIMO_SEGMENTO / tamanhoSlot));
+
+        long necessario = HashPrimitivo.proximaPotenciaDe2(
+            Math.max(16, (long) Math.ceil(capacidadeEsperada / (double) fatorCarga)));
+        if (necessario > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade excessiva: " + capacidadeEsperada);
+        }
+        definirTabela(alocarTabela(necessario), necessario);
+    }
+
+    /**
+     * Chaves e valores de tamanho fixo, armazenados inline na tabela.
+     * Ex.: {@code comTamanhoFixo(8, 8, n)} para long -> long.
+     */
+    public static MapaOffHeap comTamanhoFixo(int bytesChave, int bytesValor, long capacidadeEsperada) {
+        return comTamanhoFixo(bytesChave, bytesValor, capacidadeEsperada, FATOR_CARGA_PADRAO);
+    }
+
+    public static MapaOffHeap comTamanhoFixo(int bytesChave, int bytesValor,
+                                             long capacidadeEsperada, float fatorCarga) {
+        if (bytesChave <= 0 || bytesValor < 0) {
+            throw new IllegalArgumentException("Tamanhos inválidos: chave=" + bytesChave + ", valor=" + bytesValor);
+        }
+        return new MapaOffHeap(false, bytesChave, bytesValor, capacidadeEsperada, fatorCarga);
+    }
+
+    /**
+     * Chaves e valores de tamanho variável (length-prefixed numa arena)
+     */
+    public static MapaOffHeap comTamanhoVariavel(long capacidadeEsperada) {
+        return comTamanhoVariavel(capacidadeEsperada, FATOR_CARGA_PADRAO);
+    }
+
+    public static MapaOffHeap comTamanhoVariavel(long capacidadeEsperada, float fatorCarga) {
+        return new MapaOffHeap(true, -1, -1, capacidadeEsperada, fatorCarga);
+    }
+
+    // ============================================
+    // API por bytes (ByteBuffer / byte[])
+    // ============================================
+
+    /**
+     * Insere ou substitui. Lê os bytes entre position e limit dos buffers,
+     * sem alterar suas posições.
+     *
+     * @return true se a chave era nova
+     */
+    public boolean put(ByteBuffer chave, ByteBuffer valor) {
+        verificarAberto();
+        int ki = chave.position();
+        int kl = chave.remaining();
+        int vi = valor.position();
+        int vl = valor.remaining();
+        validarTamanhos(kl, vl);
+
+        int hash = hashBytes(chave, ki, kl);
+        long slot = localizar(chave, ki, kl, hash);
+        if (slot >= 0) {
+            ByteBuffer seg = segmento(slot);
+            int off = offset(slot);
+            if (variavel) {
+                substituirRegistro(seg, off, chave, ki, kl, valor, vi, vl);
+            } else {
+                seg.put(off + BYTES_HASH + bytesChave, valor, vi, vl);
+            }
+            return false;
+        }
+        slot = -slot - 1;
+        ByteBuffer seg = segmento(slot);
+        int off = offset(slot);
+        if (variavel) {
+            seg.putLong(off + BYTES_HASH, anexarRegistro(chave, ki, kl, valor, vi, vl));
+        } else {
+            seg.put(off + BYTES_HASH, chave, ki, kl);
+            seg.put(off + BYTES_HASH + bytesChave, valor, vi, vl);
+        }
+        seg.putInt(off, hash);
+        aposInsercao();
+        return true;
+    }
+
+    public boolean put(byte[] chave, byte[] valor) {
+        return put(ByteBuffer.wrap(chave), ByteBuffer.wrap(valor));
+    }
+
+    /**
+     * Copia o valor da chave para {@code destino} (a partir de sua posição,
+     * avançando-a). Nenhuma alocação no heap.
+     *
+     * @return tamanho do valor, ou -1 se a chave não existe
+     * @throws BufferOverflowException se o destino não comporta o valor
+     */
+    public int copiarValor(ByteBuffer chave, ByteBuffer destino) {
+        verificarAberto();
+        int ki = chave.position();
+        int kl = chave.remaining();
+        long slot = localizar(chave, ki, kl, hashBytes(chave, ki, kl));
+        if (slot < 0) {
+            return -1;
+        }
+        return copiarValorDoSlot(segmento(slot), offset(slot), destino);
+    }
+
+    /**
+     * Conveniência: aloca um byte[] com o valor (null se ausente)
+     */
+    public byte[] get(byte[] chave) {
+        verificarAberto();
+        ByteBuffer k = ByteBuffer.wrap(chave);
+        long slot = localizar(k, 0, chave.length, hashBytes(k, 0, chave.length));
+        if (slot < 0) {
+            return null;
+        }
+        ByteBuffer seg = segmento(slot);
+        int off = offset(slot);
+        byte[] valor = new byte[tamanhoValor(seg, off)];
+        copiarValorDoSlot(seg, off, ByteBuffer.wrap(valor));
+        return valor;
+    }
+
+    public boolean containsKey(ByteBuffer chave) {
+        verificarAberto();
+        int ki = chave.position();
+        int kl = chave.remaining();
+        return localizar(chave, ki, kl, hashBytes(chave, ki, kl)) >= 0;
+    }
+
+    public boolean containsKey(byte[] chave) {
+        return containsKey(ByteBuffer.wrap(chave));
+    }
+
+    /**
+     * @return true se a chave existia
+     */
+    public boolean remove(ByteBuffer chave) {
+        verificarAberto();
+        int ki = chave.position();
+        int kl = chave.remaining();
+        long slot = localizar(chave, ki, kl, hashBytes(chave, ki, kl));
+        if (slot < 0) {
+            return false;
+        }
+        removerSlot(slot);
+        return true;
+    }
+
+    public boolean remove(byte[] chave) {
+        return remove(ByteBuffer.wrap(chave));
+    }
+
+    // ============================================
+    // API long -> long (modo fixo 8/8), sem nenhuma alocação
+    // ============================================
+
+    public boolean putLong(long chave, long valor) {
+        verificarLongLong();
+        int hash = hashLong(chave);
+        long slot = localizarLong(chave, hash);
+        if (slot >= 0) {
+            segmento(slot).putLong(offset(slot) + BYTES_HASH + Long.BYTES, valor);
+            return false;
+        }
+        inserirLong(-slot - 1, hash, chave, valor);
+        return true;
+    }
+
+    public long getLong(long chave, long padrao) {
+        verificarLongLong();
+        long slot = localizarLong(chave, hashLong(chave));
+        return slot >= 0 ? segmento(slot).getLong(offset(slot) + BYTES_HASH + Long.BYTES) : padrao;
+    }
+
+    /**
+     * Soma {@code incremento} ao valor (0 se ausente)
+     *
+     * @return o novo valor
+     */
+    public long addTo(long chave, long incremento) {
+        verificarLongLong();
+        int hash = hashLong(chave);
+        long slot = localizarLong(chave, hash);
+        if (slot >= 0) {
+            ByteBuffer seg = segmento(slot);
+            int pos = offset(slot) + BYTES_HASH + Long.BYTES;
+            long novo = seg.getLong(pos) + incremento;
+            seg.putLong(pos, novo);
+            return novo;
+        }
+        inserirLong(-slot - 1, hash, chave, incremento);
+        return incremento;
+    }
+
+    public boolean containsLong(long chave) {
+        verificarLongLong();
+        return localizarLong(chave, hashLong(chave)) >= 0;
+    }
+
+    public boolean removeLong(long chave) {
+        verificarLongLong();
+        long slot = localizarLong(chave, hashLong(chave));
+        if (slot < 0) {
+            return false;
+        }
+        removerSlot(slot);
+        return true;
+    }
+
+    private void inserirLong(long slot, int hash, long chave, long valor) {
+        ByteBuffer seg = segmento(slot);
+        int off = offset(slot);
+        seg.putLong(off + BYTES_HASH, chave);
+        seg.putLong(off + BYTES_HASH + Long.BYTES, valor);
+        seg.putInt(off, hash);
+        aposInsercao();
+    }
+
+    // ============================================
+    // Estado e estatísticas
+    // ============================================
+
+    public long size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public long getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Total de memória nativa reservada (tabela + arena)
+     */
+    public long getBytesNativos() {
+        long total = capacidade * tamanhoSlot;
+        for (ByteBuffer seg : arena) {
+            total += seg.capacity();
+        }
+        return total;
+    }
+
+    /**
+     * Bytes da arena ocupados por registros removidos/substituídos
+     */
+    public long getBytesArenaMortos() {
+        return bytesArenaMortos;
+    }
+
+    public boolean isFechado() {
+        return fechado;
+    }
+
+    /**
+     * Reescreve apenas os registros vivos numa nova arena e libera a
+     * antiga. Útil no modo variável após muitas substituições/remoções.
+     */
+    public void compactarArena() {
+        verificarAberto();
+        if (!variavel || bytesArenaMortos == 0) {
+            return;
+        }
+        List<ByteBuffer> antiga = new ArrayList<>(arena);
+        arena.clear();
+        posicaoArena = 0;
+        bytesArenaMortos = 0;
+        for (long slot = 0; slot < capacidade; slot++) {
+            ByteBuffer seg = segmento(slot);
+            int off = offset(slot);
+            if (seg.getInt(off) != 0) {
+                long endereco = seg.getLong(off + BYTES_HASH);
+                ByteBuffer reg = antiga.get((int) (endereco >>> 32));
+                int ro = (int) endereco;
+                int kl = reg.getInt(ro);
+                int vl = reg.getInt(ro + Integer.BYTES);
+                int dados = ro + BYTES_CABECALHO_REGISTRO;
+                seg.putLong(off + BYTES_HASH, anexarRegistro(reg, dados, kl, reg, dados + kl, vl));
+            }
+        }
+        antiga.forEach(MemoriaNativa::liberar);
+    }
+
+    /**
+     * Libera toda a memória nativa imediatamente
+     */
+    @Override
+    public void close() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        for (ByteBuffer seg : tabela) {
+            MemoriaNativa.liberar(seg);
+        }
+        arena.forEach(MemoriaNativa::liberar);
+        arena.clear();
+        tabela = null;
+        tamanho = 0;
+    }
+
+    // ============================================
+    // Iteração sem heap
+    // ============================================
+
+    /**
+     * Cursor sobre as entradas. Cópias vão para buffers do chamador,
+     * então a iteração não aloca nada por entrada. Não modifique o mapa
+     * durante a iteração.
+     */
+    public Cursor cursor() {
+        verificarAberto();
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private long slot = -1;
+        private ByteBuffer seg;
+        private int off;
+
+        public boolean proximo() {
+            while (++slot < capacidade) {
+                seg = segmento(slot);
+                off = offset(slot);
+                if (seg.getInt(off) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int tamanhoChave() {
+            return variavel ? registro(seg, off).getInt(enderecoRegistro(seg, off)) : bytesChave;
+        }
+
+        public int tamanhoValor() {
+            return MapaOffHeap.this.tamanhoValor(seg, off);
+        }
+
+        /**
+         * @return número de bytes copiados para {@code destino}
+         */
+        public int copiarChave(ByteBuffer destino) {
+            if (variavel) {
+                ByteBuffer reg = registro(seg, off);
+                int ro = enderecoRegistro(seg, off);
+                return copiar(reg, ro + BYTES_CABECALHO_REGISTRO, reg.getInt(ro), destino);
+            }
+            return copiar(seg, off + BYTES_HASH, bytesChave, destino);
+        }
+
+        public int copiarValor(ByteBuffer destino) {
+            return copiarValorDoSlot(seg, off, destino);
+        }
+
+        public long chaveLong() {
+            verificarLongLong();
+            return seg.getLong(off + BYTES_HASH);
+        }
+
+        public long valorLong() {
+            verificarLongLong();
+            return seg.getLong(off + BYTES_HASH + Long.BYTES);
+        }
+    }
+
+    // ============================================
+    // Internos: tabela
+    // ============================================
+
+    private ByteBuffer[] alocarTabela(long slots) {
+        long slotsPorSegmento = 1L << bitsSegmento;
+        int segmentos = (int) ((slots + slotsPorSegmento - 1) >>> bitsSegmento);
+        int bytesSegmento = (int) (Math.min(slotsPorSegmento, slots) * tamanhoSlot);
+        ByteBuffer[] novos = new ByteBuffer[segmentos];
+        for (int i = 0; i < segmentos; i++) {
+            novos[i] = MemoriaNativa.alocar(bytesSegmento); // memória direta já vem zerada
+        }
+        return novos;
+    }
+
+    private void definirTabela(ByteBuffer[] novaTabela, long novaCapacidade) {
+        tabela = novaTabela;
+        capacidade = novaCapacidade;
+        mascara = novaCapacidade - 1;
+        limite = Math.min((long) Math.ceil(novaCapacidade * (double) fatorCarga), novaCapacidade - 1);
+    }
+
+    private ByteBuffer segmento(long slot) {
+        return tabela[(int) (slot >>> bitsSegmento)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & ((1L << bitsSegmento) - 1)) * tamanhoSlot;
+    }
+
+    private long inicial(int hash) {
+        return (hash & 0xFFFF_FFFFL) & mascara;
+    }
+
+    /**
+     * Slot da chave, ou -(slot livre + 1) se ausente
+     */
+    private long localizar(ByteBuffer chave, int ki, int kl, int hash) {
+        if (!variavel && kl != bytesChave) {
+            throw new IllegalArgumentException("Chave deve ter " + bytesChave + " bytes, tem " + kl);
+        }
+        long slot = inicial(hash);
+        while (true) {
+            ByteBuffer seg = segmento(slot);
+            int off = offset(slot);
+            int h = seg.getInt(off);
+            if (h == 0) {
+                return -(slot + 1);
+            }
+            if (h == hash && chaveIgual(seg, off, chave, ki, kl)) {
+                return slot;
+            }
+            slot = (slot + 1) & mascara;
+        }
+    }
+
+    private long localizarLong(long chave, int hash) {
+        long slot = inicial(hash);
+        while (true) {
+            ByteBuffer seg = segmento(slot);
+            int off = offset(slot);
+            int h = seg.getInt(off);
+            if (h == 0) {
+                return -(slot + 1);
+            }
+            if (h == hash && seg.getLong(off + BYTES_HASH) == chave) {
+                return slot;
+            }
+            slot = (slot + 1) & mascara;
+        }
+    }
+
+    private boolean chaveIgual(ByteBuffer seg, int off, ByteBuffer chave, int ki, int kl) {
+        if (!variavel) {
+            return iguais(seg, off + BYTES_HASH, chave, ki, kl);
+        }
+        ByteBuffer reg = registro(seg, off);
+        int ro = enderecoRegistro(seg, off);
+        return reg.getInt(ro) == kl && iguais(reg, ro + BYTES_CABECALHO_REGISTRO, chave, ki, kl);
+    }
+
+    private void aposInsercao() {
+        if (++tamanho > limite) {
+            redimensionar();
+        }
+    }
+
+    private void redimensionar() {
+        long novaCapacidade = capacidade * 2;
+        if (novaCapacidade > CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("MapaOffHeap excedeu a capacidade máxima");
+        }
+        ByteBuffer[] antiga = tabela;
+        long capacidadeAntiga = capacidade;
+        definirTabela(alocarTabela(novaCapacidade), novaCapacidade);
+
+        long mascaraSegmento = (1L << bitsSegmento) - 1;
+        for (long slot = 0; slot < capacidadeAntiga; slot++) {
+            ByteBuffer origem = antiga[(int) (slot >>> bitsSegmento)];
+            int offOrigem = (int) (slot & mascaraSegmento) * tamanhoSlot;
+            int hash = origem.getInt(offOrigem);
+            if (hash != 0) {
+                long destino = inicial(hash);
+                while (segmento(destino).getInt(offset(destino)) != 0) {
+                    destino = (destino + 1) & mascara;
+                }
+                segmento(destino).put(offset(destino), origem, offOrigem, tamanhoSlot);
+            }
+        }
+        for (ByteBuffer seg : antiga) {
+            MemoriaNativa.liberar(seg);
+        }
+    }
+
+    /**
+     * Remoção com deslocamento para trás (sem tombstones)
+     */
+    private void removerSlot(long lacuna) {
+        if (variavel) {
+            ByteBuffer seg = segmento(lacuna);
+            bytesArenaMortos += tamanhoRegistro(registro(seg, offset(lacuna)), enderecoRegistro(seg, offset(lacuna)));
+        }
+        tamanho--;
+        long pos = lacuna;
+        while (true) {
+            pos = (pos + 1) & mascara;
+            ByteBuffer seg = segmento(pos);
+            int off = offset(pos);
+            int hash = seg.getInt(off);
+            if (hash == 0) {
+                segmento(lacuna).putInt(offset(lacuna), 0);
+                return;
+            }
+            long ideal = inicial(hash);
+            if (lacuna <= pos ? lacuna >= ideal || ideal > pos : lacuna >= ideal && ideal > pos) {
+                segmento(lacuna).put(offset(lacuna), seg, off, tamanhoSlot);
+                lacuna = pos;
+            }
+        }
+    }
+
+    // ============================================
+    // Internos: arena (modo variável)
+    // ============================================
+
+    private ByteBuffer registro(ByteBuffer seg, int off) {
+        return arena.get((int) (seg.getLong(off + BYTES_HASH) >>> 32));
+    }
+
+    private static int enderecoRegistro(ByteBuffer seg, int off) {
+        return (int) seg.getLong(off + BYTES_HASH);
+    }
+
+    private static int tamanhoRegistro(ByteBuffer reg, int ro) {
+        return BYTES_CABECALHO_REGISTRO + reg.getInt(ro) + reg.getInt(ro + Integer.BYTES);
+    }
+
+    private long anexarRegistro(ByteBuffer chave, int ki, int kl, ByteBuffer valor, int vi, int vl) {
+        int total = BYTES_CABECALHO_REGISTRO + kl + vl;
+        ByteBuffer atual = arena.isEmpty() ? null : arena.get(arena.size() - 1);
+        if (atual == null || posicaoArena + total > atual.capacity()) {
+            int proximo = atual == null
+                ? TAMANHO_INICIAL_ARENA
+                : Math.min(TAMANHO_MAXIMO_ARENA, atual.capacity() * 2);
+            atual = MemoriaNativa.alocar(Math.max(total, proximo));
+            arena.add(atual);
+            posicaoArena = 0;
+        }
+        int off = posicaoArena;
+        atual.putInt(off, kl);
+        atual.putInt(off + Integer.BYTES, vl);
+        atual.put(off + BYTES_CABECALHO_REGISTRO, chave, ki, kl);
+        atual.put(off + BYTES_CABECALHO_REGISTRO + kl, valor, vi, vl);
+        posicaoArena += total;
+        return ((long) (arena.size() - 1) << 32) | off;
+    }
+
+    private void substituirRegistro(ByteBuffer seg, int off, ByteBuffer chave, int ki, int kl,
+                                    ByteBuffer valor, int vi, int vl) {
+        ByteBuffer reg = registro(seg, off);
+        int ro = enderecoRegistro(seg, off);
+        if (reg.getInt(ro + Integer.BYTES) == vl) {
+            // Mesmo tamanho: sobrescreve no lugar, sem gerar lixo na arena
+            reg.put(ro + BYTES_CABECALHO_REGISTRO + kl, valor, vi, vl);
+            return;
+        }
+        bytesArenaMortos += tamanhoRegistro(reg, ro);
+        seg.putLong(off + BYTES_HASH, anexarRegistro(chave, ki, kl, valor, vi, vl));
+    }
+
+    // ============================================
+    // Internos: utilidades
+    // ============================================
+
+    private int tamanhoValor(ByteBuffer seg, int off) {
+        if (variavel) {
+            return registro(seg, off).getInt(enderecoRegistro(seg, off) + Integer.BYTES);
+        }
+        return bytesValor;
+    }
+
+    private int copiarValorDoSlot(ByteBuffer seg, int off, ByteBuffer destino) {
+        if (variavel) {
+            ByteBuffer reg = registro(seg, off);
+            int ro = enderecoRegistro(seg, off);
+            int kl = reg.getInt(ro);
+            return copiar(reg, ro + BYTES_CABECALHO_REGISTRO + kl, reg.getInt(ro + Integer.BYTES), destino);
+        }
+        return copiar(seg, off + BYTES_HASH + bytesChave, bytesValor, destino);
+    }
+
+    private static int copiar(ByteBuffer origem, int inicio, int tamanho, ByteBuffer destino) {
+        if (destino.remaining() < tamanho) {
+            throw new BufferOverflowException();
+        }
+        destino.put(destino.position(), origem, inicio, tamanho);
+        destino.position(destino.position() + tamanho);
+        return tamanho;
+    }
+
+    private void validarTamanhos(int kl, int vl) {
+        if (!variavel && (kl != bytesChave || vl != bytesValor)) {
+            throw new IllegalArgumentException("Esperado chave=" + bytesChave + " e valor=" + bytesValor
+                + " bytes, recebido chave=" + kl + " e valor=" + vl);
+        }
+        if (variavel && (long) BYTES_CABECALHO_REGISTRO + kl + vl > TAMANHO_MAXIMO_SEGMENTO) {
+            throw new IllegalArgumentException("Registro excede " + TAMANHO_MAXIMO_SEGMENTO + " bytes");
+        }
+    }
+
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("MapaOffHeap já foi fechado");
+        }
+    }
+
+    private void verificarLongLong() {
+        verificarAberto();
+        if (variavel || bytesChave != Long.BYTES || bytesValor != Long.BYTES) {
+            throw new UnsupportedOperationException("API long requer comTamanhoFixo(8, 8, ...)");
+        }
+    }
+
+    /**
+     * Compara bytes; usa leituras de 8 bytes quando as ordens coincidem
+     */
+    private static boolean iguais(ByteBuffer a, int ia, ByteBuffer b, int ib, int tamanho) {
+        int i = 0;
+        if (a.order() == b.order()) {
+            for (; i + Long.BYTES <= tamanho; i += Long.BYTES) {
+                if (a.getLong(ia + i) != b.getLong(ib + i)) {
+                    return false;
+                }
+            }
+        }
+        for (; i < tamanho; i++) {
+            if (a.get(ia + i) != b.get(ib + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash dos bytes brutos da chave, lidos em palavras little-endian.
+     * Nunca retorna 0 (o bit alto é forçado), pois 0 marca slot livre.
+     */
+    static int hashBytes(ByteBuffer buffer, int inicio, int tamanho) {
+        boolean le = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+        long h = SEMENTE;
+        int i = 0;
+        for (; i + Long.BYTES <= tamanho; i += Long.BYTES) {
+            long palavra = buffer.getLong(inicio + i);
+            h = misturar(h, le ? palavra : Long.reverseBytes(palavra));
+        }
+        if (i < tamanho) {
+            long palavra = 0;
+            for (int desloc = 0; i < tamanho; i++, desloc += 8) {
+                palavra |= (buffer.get(inicio + i) & 0xFFL) << desloc;
+            }
+            h = misturar(h, palavra);
+        }
+        return finalizar(h, tamanho);
+    }
+
+    /**
+     * Mesmo resultado de {@link #hashBytes} sobre os 8 bytes nativos da chave
+     */
+    static int hashLong(long chave) {
+        return finalizar(misturar(SEMENTE, NATIVA_LE ? chave : Long.reverseBytes(chave)), Long.BYTES);
+    }
+
+    private static long misturar(long h, long palavra) {
+        return Long.rotateLeft((h ^ palavra) * PHI, 31);
+    }
+
+    private static int finalizar(long h, int tamanho) {
+        h = (h ^ tamanho) * PHI;
+        h ^= h >>> 32;
+        return (int) h | Integer.MIN_VALUE;
+    }
+}
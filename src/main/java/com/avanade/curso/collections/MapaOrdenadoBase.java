@@ -0,0 +1,166 @@
+package com.avanade.curso.collections;
+
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Navegação por chave comum aos mapas ordenados imutáveis
+ *
+ * Um mapa é a faixa [inicio, fim) dos arrays compartilhados: subMapa,
+ * cabeca e cauda criam apenas um novo objeto de visão, sem copiar nem
+ * alocar nós. Os índices públicos são relativos à visão (0..size-1).
+ *
+ * @param <M> o próprio tipo do mapa, devolvido pelas visões
+ */
+abstract class MapaOrdenadoBase<K, M extends MapaOrdenadoBase<K, M>> {
+
+    final ChavesOrdenadas<K> indice;
+    final int inicio;
+    final int fim;
+
+    MapaOrdenadoBase(ChavesOrdenadas<K> indice, int inicio, int fim) {
+        this.indice = indice;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    /** Nova visão sobre os mesmos arrays, índices absolutos */
+    abstract M criarVisao(int inicio, int fim);
+
+    /** Índice absoluto da chave, ou -1 */
+    final int localizar(Object chave) {
+        return indice.indice(chave, inicio, fim);
+    }
+
+    public final int size() {
+        return fim - inicio;
+    }
+
+    public final boolean isEmpty() {
+        return fim == inicio;
+    }
+
+    public final boolean containsKey(Object chave) {
+        return localizar(chave) >= 0;
+    }
+
+    /**
+     * Chave na posição {@code i} da visão (0 = menor)
+     */
+    public final K chaveEm(int i) {
+        return indice.chaves[absoluto(i)];
+    }
+
+    final int absoluto(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Índice fora do intervalo [0, " + size() + "): " + i);
+        }
+        return inicio + i;
+    }
+
+    public final K primeiraChave() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Mapa vazio");
+        }
+        return indice.chaves[inicio];
+    }
+
+    public final K ultimaChave() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Mapa vazio");
+        }
+        return indice.chaves[fim - 1];
+    }
+
+    /**
+     * Posição da maior chave {@code <= chave}, ou -1 (equivale a floorKey)
+     */
+    public final int indiceChao(K chave) {
+        return indice.limite(chave, true, inicio, fim) - 1 - inicio;
+    }
+
+    /**
+     * Posição da menor chave {@code >= chave}, ou -1 (equivale a ceilingKey)
+     */
+    public final int indiceTeto(K chave) {
+        int i = indice.limite(chave, false, inicio, fim);
+        return i < fim ? i - inicio : -1;
+    }
+
+    /** Maior chave {@code <= chave}, ou null */
+    public final K chaveChao(K chave) {
+        int i = indiceChao(chave);
+        return i >= 0 ? indice.chaves[inicio + i] : null;
+    }
+
+    /** Menor chave {@code >= chave}, ou null */
+    public final K chaveTeto(K chave) {
+        int i = indiceTeto(chave);
+        return i >= 0 ? indice.chaves[inicio + i] : null;
+    }
+
+    /** Maior chave {@code < chave}, ou null */
+    public final K chaveInferior(K chave) {
+        int i = indice.limite(chave, false, inicio, fim) - 1;
+        return i >= inicio ? indice.chaves[i] : null;
+    }
+
+    /** Menor chave {@code > chave}, ou null */
+    public final K chaveSuperior(K chave) {
+        int i = indice.limite(chave, true, inicio, fim);
+        return i < fim ? indice.chaves[i] : null;
+    }
+
+    // ============================================
+    // Visões (O(log n), sem cópia)
+    // ============================================
+
+    public final M subMapa(K de, boolean deInclusivo, K ate, boolean ateInclusivo) {
+        if (indice.comparador.compare(de, ate) > 0) {
+            throw new IllegalArgumentException("Início da faixa maior que o fim: " + de + " > " + ate);
+        }
+        int i = indice.limite(de, !deInclusivo, inicio, fim);
+        int f = indice.limite(ate, ateInclusivo, inicio, fim);
+        return criarVisao(i, Math.max(i, f));
+    }
+
+    /** Chaves em [de, ate) */
+    public final M subMapa(K de, K ate) {
+        return subMapa(de, true, ate, false);
+    }
+
+    /** Chaves menores que {@code ate} (ou iguais, se inclusivo) */
+    public final M cabeca(K ate, boolean inclusivo) {
+        return criarVisao(inicio, indice.limite(ate, inclusivo, inicio, fim));
+    }
+
+    /** Chaves maiores que {@code de} (ou iguais, se inclusivo) */
+    public final M cauda(K de, boolean inclusivo) {
+        return criarVisao(indice.limite(de, !inclusivo, inicio, fim), fim);
+    }
+
+    // ============================================
+    // Suporte às subclasses
+    // ============================================
+
+    @SuppressWarnings("unchecked")
+    static <K> K[] copiarChaves(Object[] origem, int[] posicoes) {
+        Object[] chaves = new Object[posicoes.length];
+        for (int i = 0; i < posicoes.length; i++) {
+            chaves[i] = origem[posicoes[i]];
+        }
+        return (K[]) chaves;
+    }
+
+    /** Escreve "{k=v, ...}" delegando o valor à subclasse */
+    final String formatar(IntFunction<Object> valorAbsoluto) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = inicio; i < fim; i++) {
+            if (i > inicio) {
+                sb.append(", ");
+            }
+            sb.append(indice.chaves[i]).append('=').append(valorAbsoluto.apply(i));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,157 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mapa ordenado imutável K -> double sobre arrays paralelos
+ *
+ * Mesma navegação de {@link MapaOrdenadoImutavel}, com os valores em um
+ * double[]: nenhum Double por entrada. Caso típico: tabela de preços.
+ *
+ * Thread-safe por ser imutável (após a publicação segura da instância).
+ */
+public final class MapaOrdenadoDouble<K> extends MapaOrdenadoBase<K, MapaOrdenadoDouble<K>> {
+
+    private final double[] valores;
+
+    private MapaOrdenadoDouble(ChavesOrdenadas<K> indice, double[] valores, int inicio, int fim) {
+        super(indice, inicio, fim);
+        this.valores = valores;
+    }
+
+    /**
+     * Cria a partir de arrays já ordenados (copiados; sem ordenar de novo)
+     *
+     * @throws IllegalArgumentException se as chaves não estiverem em ordem
+     *         estritamente crescente ou os tamanhos forem diferentes
+     */
+    public static <K> MapaOrdenadoDouble<K> deArraysOrdenados(
+            K[] chaves, double[] valores, Comparator<? super K> comparador) {
+        if (chaves.length != valores.length) {
+            throw new IllegalArgumentException("Tamanhos diferentes: " + chaves.length + " chaves, "
+                + valores.length + " valores");
+        }
+        K[] copia = chaves.clone();
+        ChavesOrdenadas.validarOrdenadas(copia, comparador);
+        return new MapaOrdenadoDouble<>(new ChavesOrdenadas<>(copia, comparador, false),
+            valores.clone(), 0, copia.length);
+    }
+
+    /** Cópia de um Map qualquer, em ordem natural das chaves */
+    public static <K extends Comparable<? super K>> MapaOrdenadoDouble<K> copiaDe(
+            Map<? extends K, ? extends Number> origem) {
+        Builder<K> builder = builder();
+        origem.forEach((k, v) -> builder.put(k, v.doubleValue()));
+        return builder.build();
+    }
+
+    public static <K extends Comparable<? super K>> Builder<K> builder() {
+        return new Builder<>(Comparator.naturalOrder());
+    }
+
+    public static <K> Builder<K> builder(Comparator<? super K> comparador) {
+        return new Builder<>(comparador);
+    }
+
+    @Override
+    MapaOrdenadoDouble<K> criarVisao(int inicio, int fim) {
+        return new MapaOrdenadoDouble<>(indice, valores, inicio, fim);
+    }
+
+    public double getDouble(Object chave) {
+        return getOrDefault(chave, 0.0);
+    }
+
+    public double getOrDefault(Object chave, double padrao) {
+        int i = localizar(chave);
+        return i >= 0 ? valores[i] : padrao;
+    }
+
+    /**
+     * Valor na posição {@code i} da visão (0 = menor chave)
+     */
+    public double valorEm(int i) {
+        return valores[absoluto(i)];
+    }
+
+    /** Valor da maior chave {@code <= chave}, ou {@code padrao} */
+    public double valorChao(K chave, double padrao) {
+        int i = indiceChao(chave);
+        return i >= 0 ? valorEm(i) : padrao;
+    }
+
+    /** Soma dos valores da visão (ex.: total de uma faixa de subMapa) */
+    public double somar() {
+        double soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += valores[i];
+        }
+        return soma;
+    }
+
+    public void forEach(ConsumidorEntrada<? super K> acao) {
+        for (int i = inicio; i < fim; i++) {
+            acao.aceitar(indice.chaves[i], valores[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorEntrada<K> {
+        void aceitar(K chave, double valor);
+    }
+
+    @Override
+    public String toString() {
+        return formatar(i -> valores[i]);
+    }
+
+    /**
+     * Acumula entradas e ordena tudo de uma vez em {@link #build()}
+     *
+     * Chaves repetidas: vale o último put. Chaves null não são permitidas.
+     */
+    public static final class Builder<K> {
+
+        private final Comparator<? super K> comparador;
+        private Object[] chaves = new Object[16];
+        private double[] valores = new double[16];
+        private int tamanho;
+        private boolean eytzinger;
+
+        private Builder(Comparator<? super K> comparador) {
+            this.comparador = Objects.requireNonNull(comparador, "comparador");
+        }
+
+        public Builder<K> put(K chave, double valor) {
+            Objects.requireNonNull(chave, "chave");
+            if (tamanho == chaves.length) {
+                chaves = Arrays.copyOf(chaves, tamanho * 2);
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            chaves[tamanho] = chave;
+            valores[tamanho++] = valor;
+            return this;
+        }
+
+        /** Usa layout Eytzinger para a busca no mapa completo */
+        public Builder<K> eytzinger() {
+            this.eytzinger = true;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public MapaOrdenadoDouble<K> build() {
+            int[] posicoes = ChavesOrdenadas.ordenarPosicoes((K[]) chaves, tamanho, comparador);
+            K[] ordenadas = copiarChaves(chaves, posicoes);
+            double[] vs = new double[posicoes.length];
+            for (int i = 0; i < posicoes.length; i++) {
+                vs[i] = valores[posicoes[i]];
+            }
+            return new MapaOrdenadoDouble<>(new ChavesOrdenadas<>(ordenadas, comparador, eytzinger),
+                vs, 0, ordenadas.length);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Mapa ordenado imutável sobre arrays paralelos de chaves e valores
+ *
+ * Para tabelas de referência carregadas uma vez (preços, códigos,
+ * faixas de CEP), {@code TreeMap} paga um nó de ~40 bytes por entrada e
+ * uma busca que salta de nó em nó pela memória. Aqui:
+ *
+ * - memória: duas referências por entrada (K[] + V[])
+ * - get/chaveChao/chaveTeto: busca binária em array contíguo, O(log n)
+ * - layout Eytzinger opcional ({@link Builder#eytzinger()}): melhor uso
+ *   de cache em tabelas grandes
+ * - subMapa/cabeca/cauda: visões sobre os mesmos arrays, sem cópia
+ *
+ * Variantes sem boxing: {@link MapaOrdenadoDouble}, {@link MapaOrdenadoLong}.
+ *
+ * Thread-safe por ser imutável (após a publicação segura da instância).
+ */
+public final class MapaOrdenadoImutavel<K, V> extends MapaOrdenadoBase<K, MapaOrdenadoImutavel<K, V>> {
+
+    private final Object[] valores;
+
+    private MapaOrdenadoImutavel(ChavesOrdenadas<K> indice, Object[] valores, int inicio, int fim) {
+        super(indice, inicio, fim);
+        this.valores = valores;
+    }
+
+    /**
+     * Cria a partir de arrays já ordenados (copiados; sem ordenar de novo)
+     *
+     * @throws IllegalArgumentException se as chaves não estiverem em ordem
+     *         estritamente crescente ou os tamanhos forem diferentes
+     */
+    public static <K, V> MapaOrdenadoImutavel<K, V> deArraysOrdenados(
+            K[] chaves, V[] valores, Comparator<? super K> comparador) {
+        if (chaves.length != valores.length) {
+            throw new IllegalArgumentException("Tamanhos diferentes: " + chaves.length + " chaves, "
+                + valores.length + " valores");
+        }
+        K[] copia = chaves.clone();
+        ChavesOrdenadas.validarOrdenadas(copia, comparador);
+        return new MapaOrdenadoImutavel<>(new ChavesOrdenadas<>(copia, comparador, false),
+            Arrays.copyOf(valores, valores.length, Object[].class), 0, copia.length);
+    }
+
+    /** Cópia de um Map qualquer, em ordem natural das chaves */
+    public static <K extends Comparable<? super K>, V> MapaOrdenadoImutavel<K, V> copiaDe(
+            Map<? extends K, ? extends V> origem) {
+        Builder<K, V> builder = builder();
+        origem.forEach(builder::put);
+        return builder.build();
+    }
+
+    public static <K extends Comparable<? super K>, V> Builder<K, V> builder() {
+        return new Builder<>(Comparator.naturalOrder());
+    }
+
+    public static <K, V> Builder<K, V> builder(Comparator<? super K> comparador) {
+        return new Builder<>(comparador);
+    }
+
+    @Override
+    MapaOrdenadoImutavel<K, V> criarVisao(int inicio, int fim) {
+        return new MapaOrdenadoImutavel<>(indice, valores, inicio, fim);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object chave) {
+        int i = localizar(chave);
+        return i >= 0 ? (V) valores[i] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object chave, V padrao) {
+        int i = localizar(chave);
+        return i >= 0 ? (V) valores[i] : padrao;
+    }
+
+    /**
+     * Valor na posição {@code i} da visão (0 = menor chave)
+     */
+    @SuppressWarnings("unchecked")
+    public V valorEm(int i) {
+        return (V) valores[absoluto(i)];
+    }
+
+    /** Valor da maior chave {@code <= chave}, ou null (tabelas por faixa) */
+    public V valorChao(K chave) {
+        int i = indiceChao(chave);
+        return i >= 0 ? valorEm(i) : null;
+    }
+
+    /**
+     * Percorre as entradas em ordem crescente de chave, sem Map.Entry
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> acao) {
+        for (int i = inicio; i < fim; i++) {
+            acao.accept(indice.chaves[i], (V) valores[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return formatar(i -> valores[i]);
+    }
+
+    /**
+     * Acumula entradas e ordena tudo de uma vez em {@link #build()}
+     *
+     * Chaves repetidas: vale o último put. Chaves e valores null não são
+     * permitidos (null é a resposta de "ausente" em get).
+     */
+    public static final class Builder<K, V> {
+
+        private final Comparator<? super K> comparador;
+        private Object[] chaves = new Object[16];
+        private Object[] valores = new Object[16];
+        private int tamanho;
+        private boolean eytzinger;
+
+        private Builder(Comparator<? super K> comparador) {
+            this.comparador = Objects.requireNonNull(comparador, "comparador");
+        }
+
+        public Builder<K, V> put(K chave, V valor) {
+            Objects.requireNonNull(chave, "chave");
+            Objects.requireNonNull(valor, "valor");
+            if (tamanho == chaves.length) {
+                chaves = Arrays.copyOf(chaves, tamanho * 2);
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            chaves[tamanho] = chave;
+            valores[tamanho++] = valor;
+            return this;
+        }
+
+        /** Usa layout Eytzinger para a busca no mapa completo */
+        public Builder<K, V> eytzinger() {
+            this.eytzinger = true;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public MapaOrdenadoImutavel<K, V> build() {
+            int[] posicoes = ChavesOrdenadas.ordenarPosicoes((K[]) chaves, tamanho, comparador);
+            K[] ordenadas = copiarChaves(chaves, posicoes);
+            Object[] vs = new Object[posicoes.length];
+            for (int i = 0; i < posicoes.length; i++) {
+                vs[i] = valores[posicoes[i]];
+            }
+            return new MapaOrdenadoImutavel<>(new ChavesOrdenadas<>(ordenadas, comparador, eytzinger),
+                vs, 0, ordenadas.length);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mapa ordenado imutável K -> long sobre arrays paralelos
+ *
+ * Mesma navegação de {@link MapaOrdenadoImutavel}, com os valores em um
+ * long[]: nenhum Long por entrada. Caso típico: estoque ou preço em centavos.
+ *
+ * Thread-safe por ser imutável (após a publicação segura da instância).
+ */
+public final class MapaOrdenadoLong<K> extends MapaOrdenadoBase<K, MapaOrdenadoLong<K>> {
+
+    private final long[] valores;
+
+    private MapaOrdenadoLong(ChavesOrdenadas<K> indice, long[] valores, int inicio, int fim) {
+        super(indice, inicio, fim);
+        this.valores = valores;
+    }
+
+    /**
+     * Cria a partir de arrays já ordenados (copiados; sem ordenar de novo)
+     *
+     * @throws IllegalArgumentException se as chaves não estiverem em ordem
+     *         estritamente crescente ou os tamanhos forem diferentes
+     */
+    public static <K> MapaOrdenadoLong<K> deArraysOrdenados(
+            K[] chaves, long[] valores, Comparator<? super K> comparador) {
+        if (chaves.length != valores.length) {
+            throw new IllegalArgumentException("Tamanhos diferentes: " + chaves.length + " chaves, "
+                + valores.length + " valores");
+        }
+        K[] copia = chaves.clone();
+        ChavesOrdenadas.validarOrdenadas(copia, comparador);
+        return new MapaOrdenadoLong<>(new ChavesOrdenadas<>(copia, comparador, false),
+            valores.clone(), 0, copia.length);
+    }
+
+    /** Cópia de um Map qualquer, em ordem natural das chaves */
+    public static <K extends Comparable<? super K>> MapaOrdenadoLong<K> copiaDe(
+            Map<? extends K, ? extends Number> origem) {
+        Builder<K> builder = builder();
+        origem.forEach((k, v) -> builder.put(k, v.longValue()));
+        return builder.build();
+    }
+
+    public static <K extends Comparable<? super K>> Builder<K> builder() {
+        return new Builder<>(Comparator.naturalOrder());
+    }
+
+    public static <K> Builder<K> builder(Comparator<? super K> comparador) {
+        return new Builder<>(comparador);
+    }
+
+    @Override
+    MapaOrdenadoLong<K> criarVisao(int inicio, int fim) {
+        return new MapaOrdenadoLong<>(indice, valores, inicio, fim);
+    }
+
+    public long getLong(Object chave) {
+        return getOrDefault(chave, 0L);
+    }
+
+    public long getOrDefault(Object chave, long padrao) {
+        int i = localizar(chave);
+        return i >= 0 ? valores[i] : padrao;
+    }
+
+    /**
+     * Valor na posição {@code i} da visão (0 = menor chave)
+     */
+    public long valorEm(int i) {
+        return valores[absoluto(i)];
+    }
+
+    /** Valor da maior chave {@code <= chave}, ou {@code padrao} */
+    public long valorChao(K chave, long padrao) {
+        int i = indiceChao(chave);
+        return i >= 0 ? valorEm(i) : padrao;
+    }
+
+    /** Soma dos valores da visão (ex.: total de uma faixa de subMapa) */
+    public long somar() {
+        long soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += valores[i];
+        }
+        return soma;
+    }
+
+    public void forEach(ConsumidorEntrada<? super K> acao) {
+        for (int i = inicio; i < fim; i++) {
+            acao.aceitar(indice.chaves[i], valores[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorEntrada<K> {
+        void aceitar(K chave, long valor);
+    }
+
+    @Override
+    public String toString() {
+        return formatar(i -> valores[i]);
+    }
+
+    /**
+     * Acumula entradas e ordena tudo de uma vez em {@link #build()}
+     *
+     * Chaves repetidas: vale o último put. Chaves null não são permitidas.
+     */
+    public static final class Builder<K> {
+
+        private final Comparator<? super K> comparador;
+        private Object[] chaves = new Object[16];
+        private long[] valores = new long[16];
+        private int tamanho;
+        private boolean eytzinger;
+
+        private Builder(Comparator<? super K> comparador) {
+            this.comparador = Objects.requireNonNull(comparador, "comparador");
+        }
+
+        public Builder<K> put(K chave, long valor) {
+            Objects.requireNonNull(chave, "chave");
+            if (tamanho == chaves.length) {
+                chaves = Arrays.copyOf(chaves, tamanho * 2);
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            chaves[tamanho] = chave;
+            valores[tamanho++] = valor;
+            return this;
+        }
+
+        /** Usa layout Eytzinger para a busca no mapa completo */
+        public Builder<K> eytzinger() {
+            this.eytzinger = true;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public MapaOrdenadoLong<K> build() {
+            int[] posicoes = ChavesOrdenadas.ordenarPosicoes((K[]) chaves, tamanho, comparador);
+            K[] ordenadas = copiarChaves(chaves, posicoes);
+            long[] vs = new long[posicoes.length];
+            for (int i = 0; i < posicoes.length; i++) {
+                vs[i] = valores[posicoes[i]];
+            }
+            return new MapaOrdenadoLong<>(new ChavesOrdenadas<>(ordenadas, comparador, eytzinger),
+                vs, 0, ordenadas.length);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.avanade.curso.collections;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Alocação e liberação explícita de memória fora do heap
+ *
+ * ByteBuffer.allocateDirect reserva memória nativa que só é devolvida ao
+ * SO quando o buffer é coletado pelo GC (via Cleaner). Para estruturas de
+ * vários GB isso é tarde demais, então {@link #liberar} usa
+ * {@code sun.misc.Unsafe.invokeCleaner} (módulo jdk.unsupported) quando
+ * disponível; caso contrário apenas solta a referência.
+ *
+ * A API java.lang.foreign (Arena.close) faria o mesmo de forma suportada,
+ * mas no Java 21 ela ainda é preview.
+ */
+final class MemoriaNativa {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> classe = Class.forName("sun.misc.Unsafe");
+            Field campo = classe.getDeclaredField("theUnsafe");
+            campo.setAccessible(true);
+            unsafe = campo.get(null);
+            invokeCleaner = classe.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Sem Unsafe: a memória será liberada pelo GC
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MemoriaNativa() {}
+
+    static ByteBuffer alocar(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Devolve imediatamente a memória do buffer direto ao SO.
+     * O buffer NÃO pode ser usado depois desta chamada.
+     */
+    static void liberar(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Buffer é uma view (slice/duplicate) ou já foi liberado: o GC cuida
+        }
+    }
+}
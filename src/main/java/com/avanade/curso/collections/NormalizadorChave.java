@@ -0,0 +1,46 @@
+package com.avanade.curso.collections;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Transforma uma chave antes de indexá-la ou consultá-la em um
+ * {@link TrieNomes} (ex.: para buscas sem diferenciar caixa ou acentos)
+ *
+ * A mesma função é aplicada às chaves inseridas e aos prefixos
+ * consultados; deve ser determinística.
+ */
+@FunctionalInterface
+public interface NormalizadorChave {
+
+    String normalizar(String chave);
+
+    /** Chave como está */
+    NormalizadorChave IDENTIDADE = chave -> chave;
+
+    /** Minúsculas (Locale.ROOT): "ANA" e "ana" são a mesma chave */
+    NormalizadorChave MINUSCULAS = chave -> chave.toLowerCase(Locale.ROOT);
+
+    /**
+     * Minúsculas e sem acentos: "José", "JOSE" e "jose" são a mesma chave
+     *
+     * Caminho rápido para ASCII (o caso comum); o restante passa por
+     * decomposição NFD com remoção das marcas combinantes.
+     */
+    NormalizadorChave SEM_ACENTOS = chave -> {
+        for (int i = 0; i < chave.length(); i++) {
+            if (chave.charAt(i) >= 0x80) {
+                String decomposta = Normalizer.normalize(chave, Normalizer.Form.NFD);
+                StringBuilder sb = new StringBuilder(decomposta.length());
+                for (int j = 0; j < decomposta.length(); j++) {
+                    char c = decomposta.charAt(j);
+                    if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                        sb.append(c);
+                    }
+                }
+                return sb.toString().toLowerCase(Locale.ROOT);
+            }
+        }
+        return chave.toLowerCase(Locale.ROOT);
+    };
+}
@@ -0,0 +1,233 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Mapa K -> int com endereçamento aberto e sondagem linear
+ *
+ * Caso típico: contadores/frequências ({@code Map<String, Integer>} com
+ * merge/compute). Aqui {@link #addTo} incrementa o int direto no array,
+ * sem criar Integer a cada atualização.
+ *
+ * Chaves null não são permitidas (null marca slot livre).
+ *
+ * NÃO é thread-safe.
+ */
+public class Object2IntMap<K> {
+
+    public static final float FATOR_CARGA_PADRAO = 0.75f;
+
+    private final float fatorCarga;
+    private Object[] chaves;
+    private int[] valores;
+    private int mascara;
+    private int n;
+    private int limite;
+    private int tamanho;
+
+    public Object2IntMap() {
+        this(16, FATOR_CARGA_PADRAO);
+    }
+
+    public Object2IntMap(int capacidadeEsperada) {
+        this(capacidadeEsperada, FATOR_CARGA_PADRAO);
+    }
+
+    public Object2IntMap(int capacidadeEsperada, float fatorCarga) {
+        HashPrimitivo.validarFatorCarga(fatorCarga);
+        if (capacidadeEsperada < 0) {
+            throw new IllegalArgumentException("Capacidade negativa: " + capacidadeEsperada);
+        }
+        this.fatorCarga = fatorCarga;
+        alocar(HashPrimitivo.tamanhoTabela(capacidadeEsperada, fatorCarga));
+    }
+
+    private void alocar(int novoN) {
+        n = novoN;
+        mascara = novoN - 1;
+        limite = HashPrimitivo.limiteOcupacao(novoN, fatorCarga);
+        chaves = new Object[novoN];
+        valores = new int[novoN];
+    }
+
+    private int localizar(Object chave) {
+        Objects.requireNonNull(chave, "Chave não pode ser null");
+        int pos = HashPrimitivo.misturar(chave.hashCode()) & mascara;
+        Object atual;
+        while ((atual = chaves[pos]) != null) {
+            if (atual == chave || atual.equals(chave)) {
+                return pos;
+            }
+            pos = (pos + 1) & mascara;
+        }
+        return -(pos + 1);
+    }
+
+    public int getInt(Object chave) {
+        return getOrDefault(chave, 0);
+    }
+
+    public int getOrDefault(Object chave, int padrao) {
+        int pos = localizar(chave);
+        return pos >= 0 ? valores[pos] : padrao;
+    }
+
+    public boolean containsKey(Object chave) {
+        return localizar(chave) >= 0;
+    }
+
+    /**
+     * @return o valor anterior, ou 0 se a chave não existia
+     */
+    public int put(K chave, int valor) {
+        int pos = localizar(chave);
+        if (pos >= 0) {
+            int anterior = valores[pos];
+            valores[pos] = valor;
+            return anterior;
+        }
+        inserir(-pos - 1, chave, valor);
+        return 0;
+    }
+
+    /**
+     * Soma {@code incremento} ao valor da chave (0 se ausente).
+     * Equivalente a {@code map.merge(chave, incremento, Integer::sum)}.
+     *
+     * @return o novo valor
+     */
+    public int addTo(K chave, int incremento) {
+        int pos = localizar(chave);
+        if (pos >= 0) {
+            return valores[pos] += incremento;
+        }
+        inserir(-pos - 1, chave, incremento);
+        return incremento;
+    }
+
+    private void inserir(int pos, K chave, int valor) {
+        chaves[pos] = chave;
+        valores[pos] = valor;
+        if (++tamanho > limite) {
+            redimensionar(n * 2);
+        }
+    }
+
+    /**
+     * @return o valor removido, ou 0 se a chave não existia
+     */
+    public int removeInt(Object chave) {
+        int pos = localizar(chave);
+        if (pos < 0) {
+            return 0;
+        }
+        int anterior = valores[pos];
+        tamanho--;
+        deslocar(pos);
+        return anterior;
+    }
+
+    private void deslocar(int lacuna) {
+        int pos = lacuna;
+        while (true) {
+            pos = (pos + 1) & mascara;
+            Object atual = chaves[pos];
+            if (atual == null) {
+                chaves[lacuna] = null;
+                valores[lacuna] = 0;
+                return;
+            }
+            int ideal = HashPrimitivo.misturar(atual.hashCode()) & mascara;
+            if (HashPrimitivo.podeMover(lacuna, ideal, pos)) {
+                chaves[lacuna] = atual;
+                valores[lacuna] = valores[pos];
+                lacuna = pos;
+            }
+        }
+    }
+
+    private void redimensionar(int novoN) {
+        if (novoN > HashPrimitivo.CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Object2IntMap excedeu a capacidade máxima");
+        }
+        Object[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(novoN);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            Object chave = chavesAntigas[i];
+            if (chave != null) {
+                int pos = HashPrimitivo.misturar(chave.hashCode()) & mascara;
+                while (chaves[pos] != null) {
+                    pos = (pos + 1) & mascara;
+                }
+                chaves[pos] = chave;
+                valores[pos] = valoresAntigos[i];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, null);
+        Arrays.fill(valores, 0);
+        tamanho = 0;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public float getFatorCarga() {
+        return fatorCarga;
+    }
+
+    /**
+     * Cursor reutilizável sobre as entradas (sem Map.Entry nem Integer)
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private int pos = n;
+
+        public boolean proximo() {
+            while (--pos >= 0) {
+                if (chaves[pos] != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        public K chave() {
+            return (K) chaves[pos];
+        }
+
+        public int valor() {
+            return valores[pos];
+        }
+
+        public void setValor(int valor) {
+            valores[pos] = valor;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Cursor c = cursor();
+        while (c.proximo()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(c.chave()).append('=').append(c.valor());
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,458 @@
+package com.avanade.curso.collections;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ordenação radix (sem comparações) para primitivos, objetos por chave
+ * primitiva e Strings
+ *
+ * Ordenar com Comparator custa n log n chamadas de compare; com vários
+ * tipos de Comparator no mesmo ponto de chamada o JIT não consegue fazer
+ * inline (chamada megamórfica). Radix LSD faz um número fixo de passadas
+ * lineares de 8 bits: 4 para int, 8 para long, e pula as passadas em
+ * que todos os valores têm o mesmo dígito.
+ *
+ * - {@link #ordenar(int[])}, long[], double[]: LSD, estável
+ * - {@link #ordenarParalelo(int[])}: cada passada dividida em blocos no
+ *   ForkJoinPool comum (histograma e distribuição por bloco)
+ * - {@link #ordenarPorChave}: extrai a chave UMA vez por elemento e ordena
+ *   (chave, posição); estável, como {@code List.sort}
+ * - {@link #ordenar(String[])}: MSD por byte de cada char, mesma ordem
+ *   de {@code String.compareTo}
+ *
+ * Usa memória auxiliar proporcional ao array (radix não é in-place).
+ */
+public final class OrdenacaoRadix {
+
+    /** Abaixo disso Arrays.sort vence o custo fixo dos histogramas */
+    static final int LIMITE_INSERCAO = 64;
+
+    /** Menor bloco por tarefa na versão paralela */
+    static final int BLOCO_MINIMO = 1 << 16;
+
+    private static final int DIGITOS = 256;
+
+    private OrdenacaoRadix() {
+    }
+
+    // ============================================
+    // Primitivos
+    // ============================================
+
+    public static void ordenar(int[] a) {
+        if (a.length < LIMITE_INSERCAO) {
+            Arrays.sort(a);
+            return;
+        }
+        radixInt(a, null, 1);
+    }
+
+    public static void ordenar(long[] a) {
+        if (a.length < LIMITE_INSERCAO) {
+            Arrays.sort(a);
+            return;
+        }
+        radixLong(a, null, 1);
+    }
+
+    /**
+     * Mesma ordem de {@link Arrays#sort(double[])}: -0.0 antes de 0.0 e
+     * NaN no final
+     */
+    public static void ordenar(double[] a) {
+        ordenarDouble(a, 1);
+    }
+
+    public static void ordenarParalelo(int[] a) {
+        radixInt(a, null, blocosParalelos(a.length));
+    }
+
+    public static void ordenarParalelo(long[] a) {
+        radixLong(a, null, blocosParalelos(a.length));
+    }
+
+    public static void ordenarParalelo(double[] a) {
+        ordenarDouble(a, blocosParalelos(a.length));
+    }
+
+    private static void ordenarDouble(double[] a, int blocos) {
+        if (a.length < LIMITE_INSERCAO) {
+            Arrays.sort(a);
+            return;
+        }
+        // Bits IEEE 754 viram long com a mesma ordem: negativos têm os
+        // bits (exceto o sinal) invertidos. doubleToLongBits unifica os NaN
+        long[] chaves = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            long bits = Double.doubleToLongBits(a[i]);
+            chaves[i] = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        radixLong(chaves, null, blocos);
+        for (int i = 0; i < a.length; i++) {
+            long bits = chaves[i];
+            a[i] = Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+        }
+    }
+
+    // ============================================
+    // Objetos por chave primitiva
+    // ============================================
+
+    /**
+     * Ordena (estável) pela chave int extraída uma vez por elemento
+     */
+    public static <T> void ordenarPorChave(T[] a, ToIntFunction<? super T> extrator) {
+        ordenarPorChaveInt(a, extrator, 1);
+    }
+
+    public static <T> void ordenarPorChaveParalelo(T[] a, ToIntFunction<? super T> extrator) {
+        ordenarPorChaveInt(a, extrator, blocosParalelos(a.length));
+    }
+
+    /**
+     * Ordena (estável) pela chave long extraída uma vez por elemento
+     */
+    public static <T> void ordenarPorChaveLong(T[] a, ToLongFunction<? super T> extrator) {
+        long[] chaves = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            chaves[i] = extrator.applyAsLong(a[i]);
+        }
+        int[] posicoes = identidade(a.length);
+        radixLong(chaves, posicoes, 1);
+        permutar(a, posicoes);
+    }
+
+    /**
+     * Versão para listas: ordena uma cópia em array e grava de volta
+     */
+    public static <T> void ordenarPorChave(List<T> lista, ToIntFunction<? super T> extrator) {
+        @SuppressWarnings("unchecked")
+        T[] elementos = (T[]) lista.toArray();
+        ordenarPorChave(elementos, extrator);
+        for (int i = 0; i < elementos.length; i++) {
+            lista.set(i, elementos[i]);
+        }
+    }
+
+    private static <T> void ordenarPorChaveInt(T[] a, ToIntFunction<? super T> extrator, int blocos) {
+        int[] chaves = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            chaves[i] = extrator.applyAsInt(a[i]);
+        }
+        int[] posicoes = identidade(a.length);
+        radixInt(chaves, posicoes, blocos);
+        permutar(a, posicoes);
+    }
+
+    private static int[] identidade(int n) {
+        int[] posicoes = new int[n];
+        for (int i = 0; i < n; i++) {
+            posicoes[i] = i;
+        }
+        return posicoes;
+    }
+
+    private static <T> void permutar(T[] a, int[] posicoes) {
+        Object[] origem = a.clone();
+        for (int i = 0; i < a.length; i++) {
+            @SuppressWarnings("unchecked")
+            T elemento = (T) origem[posicoes[i]];
+            a[i] = elemento;
+        }
+    }
+
+    // ============================================
+    // Núcleo LSD (sequencial = 1 bloco)
+    // ============================================
+
+    /**
+     * Radix LSD de 8 bits sobre {@code chaves}; {@code carga}, se não for
+     * null, é reordenada junto (posições originais)
+     */
+    private static void radixInt(int[] chaves, int[] carga, int blocos) {
+        int n = chaves.length;
+        if (n < 2) {
+            return;
+        }
+        int[] origem = chaves;
+        int[] destino = new int[n];
+        int[] cargaOrigem = carga;
+        int[] cargaDestino = carga == null ? null : new int[n];
+        int[][] contagens = new int[blocos][DIGITOS];
+
+        for (int passada = 0; passada < 4; passada++) {
+            int deslocamento = 8 * passada;
+            // Último dígito: inverte o bit de sinal para negativos virem antes
+            int sinal = passada == 3 ? 0x80 : 0;
+            int[] o = origem;
+            executar(blocos, b -> {
+                int[] contagem = contagens[b];
+                Arrays.fill(contagem, 0);
+                for (int i = inicioBloco(b, blocos, n), fim = inicioBloco(b + 1, blocos, n); i < fim; i++) {
+                    contagem[((o[i] >>> deslocamento) & 0xFF) ^ sinal]++;
+                }
+            });
+            if (!calcularPosicoes(contagens, n)) {
+                continue; // todos no mesmo dígito: passada não muda nada
+            }
+            int[] d = destino;
+            int[] co = cargaOrigem;
+            int[] cd = cargaDestino;
+            executar(blocos, b -> {
+                int[] posicao = contagens[b];
+                for (int i = inicioBloco(b, blocos, n), fim = inicioBloco(b + 1, blocos, n); i < fim; i++) {
+                    int p = posicao[((o[i] >>> deslocamento) & 0xFF) ^ sinal]++;
+                    d[p] = o[i];
+                    if (co != null) {
+                        cd[p] = co[i];
+                    }
+                }
+            });
+            destino = origem;
+            origem = d;
+            cargaDestino = cargaOrigem;
+            cargaOrigem = cd;
+        }
+        if (origem != chaves) {
+            System.arraycopy(origem, 0, chaves, 0, n);
+            if (carga != null) {
+                System.arraycopy(cargaOrigem, 0, carga, 0, n);
+            }
+        }
+    }
+
+    private static void radixLong(long[] chaves, int[] carga, int blocos) {
+        int n = chaves.length;
+        if (n < 2) {
+            return;
+        }
+        long[] origem = chaves;
+        long[] destino = new long[n];
+        int[] cargaOrigem = carga;
+        int[] cargaDestino = carga == null ? null : new int[n];
+        int[][] contagens = new int[blocos][DIGITOS];
+
+        for (int passada = 0; passada < 8; passada++) {
+            int deslocamento = 8 * passada;
+            int sinal = passada == 7 ? 0x80 : 0;
+            long[] o = origem;
+            executar(blocos, b -> {
+                int[] contagem = contagens[b];
+                Arrays.fill(contagem, 0);
+                for (int i = inicioBloco(b, blocos, n), fim = inicioBloco(b + 1, blocos, n); i < fim; i++) {
+                    contagem[((int) (o[i] >>> deslocamento) & 0xFF) ^ sinal]++;
+                }
+            });
+            if (!calcularPosicoes(contagens, n)) {
+                continue;
+            }
+            long[] d = destino;
+            int[] co = cargaOrigem;
+            int[] cd = cargaDestino;
+            executar(blocos, b -> {
+                int[] posicao = contagens[b];
+                for (int i = inicioBloco(b, blocos, n), fim = inicioBloco(b + 1, blocos, n); i < fim; i++) {
+                    int p = posicao[((int) (o[i] >>> deslocamento) & 0xFF) ^ sinal]++;
+                    d[p] = o[i];
+                    if (co != null) {
+                        cd[p] = co[i];
+                    }
+                }
+            });
+            destino = origem;
+            origem = d;
+            cargaDestino = cargaOrigem;
+            cargaOrigem = cd;
+        }
+        if (origem != chaves) {
+            System.arraycopy(origem, 0, chaves, 0, n);
+            if (carga != null) {
+                System.arraycopy(cargaOrigem, 0, carga, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Converte as contagens por bloco em posições iniciais de escrita:
+     * dígito a dígito, e dentro do dígito bloco a bloco (mantém a
+     * estabilidade entre blocos)
+     *
+     * @return false se todos os elementos caíram em um único dígito
+     */
+    private static boolean calcularPosicoes(int[][] contagens, int n) {
+        int total = 0;
+        for (int digito = 0; digito < DIGITOS; digito++) {
+            int doDigito = 0;
+            for (int[] contagem : contagens) {
+                int c = contagem[digito];
+                contagem[digito] = total;
+                total += c;
+                doDigito += c;
+            }
+            if (doDigito == n) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int inicioBloco(int bloco, int blocos, int n) {
+        return (int) ((long) n * bloco / blocos);
+    }
+
+    private static int blocosParalelos(int n) {
+        int paralelismo = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, Math.min(paralelismo * 2, n / BLOCO_MINIMO));
+    }
+
+    private static void executar(int blocos, IntConsumer tarefa) {
+        if (blocos == 1) {
+            tarefa.accept(0);
+        } else {
+            ForkJoinPool.commonPool().invoke(new TarefaBlocos(0, blocos, tarefa));
+        }
+    }
+
+    /**
+     * Divide [inicio, fim) de blocos ao meio até sobrar um por tarefa
+     */
+    @SuppressWarnings("serial") // ForkJoinTask é Serializable, mas a tarefa nunca é serializada
+    private static final class TarefaBlocos extends RecursiveAction {
+
+        private final int inicio;
+        private final int fim;
+        private final IntConsumer tarefa;
+
+        TarefaBlocos(int inicio, int fim, IntConsumer tarefa) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.tarefa = tarefa;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio == 1) {
+                tarefa.accept(inicio);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaBlocos(inicio, meio, tarefa), new TarefaBlocos(meio, fim, tarefa));
+        }
+    }
+
+    // ============================================
+    // Strings (MSD)
+    // ============================================
+
+    /**
+     * Radix MSD, mesma ordem de {@code String.compareTo} (unidades UTF-16)
+     *
+     * Cada char é tratado como dois dígitos de 8 bits (byte alto, byte
+     * baixo); o fim da String é o dígito -1, antes de todos. Faixas
+     * pequenas vão para ordenação por inserção a partir do prefixo comum.
+     * Usa pilha explícita: prefixos comuns longos não estouram a pilha.
+     */
+    public static void ordenar(String[] a) {
+        int n = a.length;
+        if (n < 2) {
+            return;
+        }
+        String[] auxiliar = new String[n];
+        int[] contagem = new int[DIGITOS + 2];
+        Deque<int[]> pendentes = new ArrayDeque<>();
+        pendentes.push(new int[] {0, n, 0});
+
+        while (!pendentes.isEmpty()) {
+            int[] faixa = pendentes.pop();
+            int lo = faixa[0];
+            int hi = faixa[1];
+            int d = faixa[2];
+            if (hi - lo < LIMITE_INSERCAO / 2) {
+                insercao(a, lo, hi, d / 2);
+                continue;
+            }
+
+            Arrays.fill(contagem, 0);
+            for (int i = lo; i < hi; i++) {
+                contagem[digito(a[i], d) + 2]++;
+            }
+            for (int r = 0; r < DIGITOS + 1; r++) {
+                contagem[r + 1] += contagem[r];
+            }
+            if (contagem[1] == hi - lo) {
+                continue; // todas terminaram: iguais
+            }
+            if (digitoUnico(contagem, hi - lo)) {
+                // Comum em texto latino (byte alto sempre 0): avança sem mover
+                pendentes.push(new int[] {lo, hi, d + 1});
+                continue;
+            }
+            for (int i = lo; i < hi; i++) {
+                auxiliar[contagem[digito(a[i], d) + 1]++] = a[i];
+            }
+            System.arraycopy(auxiliar, 0, a, lo, hi - lo);
+
+            // contagem[r] agora é o fim do dígito r - 1; o dígito -1 (fim da String) já está pronto
+            int inicio = lo + contagem[0];
+            for (int r = 0; r < DIGITOS; r++) {
+                int fim = lo + contagem[r + 1];
+                if (fim - inicio > 1) {
+                    pendentes.push(new int[] {inicio, fim, d + 1});
+                }
+                inicio = fim;
+            }
+        }
+    }
+
+    private static boolean digitoUnico(int[] acumulada, int tamanho) {
+        for (int r = 1; r < DIGITOS + 1; r++) {
+            if (acumulada[r + 1] - acumulada[r] == tamanho) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Dígito d (byte alto/baixo do char d / 2), ou -1 após o fim */
+    private static int digito(String s, int d) {
+        int posicao = d >>> 1;
+        if (posicao >= s.length()) {
+            return -1;
+        }
+        char c = s.charAt(posicao);
+        return (d & 1) == 0 ? c >>> 8 : c & 0xFF;
+    }
+
+    /** Inserção comparando a partir do char {@code prefixo} (igual em toda a faixa) */
+    private static void insercao(String[] a, int lo, int hi, int prefixo) {
+        for (int i = lo + 1; i < hi; i++) {
+            String atual = a[i];
+            int j = i;
+            while (j > lo && menor(atual, a[j - 1], prefixo)) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = atual;
+        }
+    }
+
+    private static boolean menor(String x, String y, int prefixo) {
+        int limite = Math.min(x.length(), y.length());
+        for (int i = prefixo; i < limite; i++) {
+            char cx = x.charAt(i);
+            char cy = y.charAt(i);
+            if (cx != cy) {
+                return cx < cy;
+            }
+        }
+        return x.length() < y.length();
+    }
+}
@@ -0,0 +1,495 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+
+/**
+ * Ordem de despejo de um {@link CacheLimitado}
+ *
+ * As entradas ({@link NoCache}) ficam em listas duplamente ligadas
+ * intrusivas ({@link ListaCache}): mover, inserir e remover são O(1), sem
+ * alocar nós auxiliares. O cache cuida do mapa chave → nó e do peso total;
+ * a política só decide a ordem.
+ *
+ * Implementações:
+ * - {@link PoliticaLru}: uma lista, do menos para o mais recente
+ * - {@link PoliticaLfu}: baldes por frequência (Shah, Mitra e Matani, 2010)
+ * - {@link PoliticaWTinyLfu}: janela + SLRU com admissão por sketch
+ */
+abstract class PoliticaCache<K, V> {
+
+    static <K, V> PoliticaCache<K, V> criar(PoliticaDespejo tipo, long pesoMaximo) {
+        return switch (tipo) {
+            case LRU -> new PoliticaLru<>();
+            case LFU -> new PoliticaLfu<>();
+            case W_TINY_LFU -> new PoliticaWTinyLfu<>(pesoMaximo);
+        };
+    }
+
+    /** Registra uma requisição da chave, encontrada ou não */
+    void registrar(int hash) {
+    }
+
+    /** Entrada nova, ainda fora de qualquer lista */
+    abstract void inserir(NoCache<K, V> no);
+
+    /** Acerto (ou atualização do valor) de uma entrada presente */
+    abstract void acessar(NoCache<K, V> no);
+
+    /** Remoção explícita */
+    void remover(NoCache<K, V> no) {
+        no.lista.remover(no);
+    }
+
+    /**
+     * Escolhe, desliga da sua lista e devolve a próxima entrada a
+     * despejar; null se não houver entradas
+     */
+    abstract NoCache<K, V> escolherVitima();
+
+    abstract void limpar();
+}
+
+/**
+ * Entrada do cache e nó das listas da política
+ */
+final class NoCache<K, V> {
+
+    final K chave;
+    final int hash;
+    V valor;
+    int peso;
+
+    NoCache<K, V> anterior;
+    NoCache<K, V> proximo;
+    /** Lista onde o nó está (null fora de listas) */
+    ListaCache<K, V> lista;
+    /** Balde de frequência (só {@link PoliticaLfu}) */
+    PoliticaLfu.Balde<K, V> balde;
+
+    NoCache(K chave, int hash, V valor, int peso) {
+        this.chave = chave;
+        this.hash = hash;
+        this.valor = valor;
+        this.peso = peso;
+    }
+}
+
+/**
+ * Lista duplamente ligada intrusiva: da cabeça (mais antigo) à cauda
+ * (mais recente), com a soma dos pesos
+ */
+final class ListaCache<K, V> {
+
+    NoCache<K, V> cabeca;
+    NoCache<K, V> cauda;
+    long peso;
+
+    void adicionarNoFim(NoCache<K, V> no) {
+        no.lista = this;
+        no.anterior = cauda;
+        no.proximo = null;
+        if (cauda == null) {
+            cabeca = no;
+        } else {
+            cauda.proximo = no;
+        }
+        cauda = no;
+        peso += no.peso;
+    }
+
+    void remover(NoCache<K, V> no) {
+        if (no.anterior == null) {
+            cabeca = no.proximo;
+        } else {
+            no.anterior.proximo = no.proximo;
+        }
+        if (no.proximo == null) {
+            cauda = no.anterior;
+        } else {
+            no.proximo.anterior = no.anterior;
+        }
+        no.anterior = null;
+        no.proximo = null;
+        no.lista = null;
+        peso -= no.peso;
+    }
+
+    void moverParaFim(NoCache<K, V> no) {
+        if (cauda != no) {
+            remover(no);
+            adicionarNoFim(no);
+        }
+    }
+
+    /** Desliga e devolve a cabeça, ou null se vazia */
+    NoCache<K, V> removerCabeca() {
+        NoCache<K, V> no = cabeca;
+        if (no != null) {
+            remover(no);
+        }
+        return no;
+    }
+
+    boolean isEmpty() {
+        return cabeca == null;
+    }
+
+    void limpar() {
+        cabeca = null;
+        cauda = null;
+        peso = 0;
+    }
+}
+
+// ============================================
+// LRU
+// ============================================
+
+final class PoliticaLru<K, V> extends PoliticaCache<K, V> {
+
+    private final ListaCache<K, V> lista = new ListaCache<>();
+
+    @Override
+    void inserir(NoCache<K, V> no) {
+        lista.adicionarNoFim(no);
+    }
+
+    @Override
+    void acessar(NoCache<K, V> no) {
+        lista.moverParaFim(no);
+    }
+
+    @Override
+    NoCache<K, V> escolherVitima() {
+        return lista.removerCabeca();
+    }
+
+    @Override
+    void limpar() {
+        lista.limpar();
+    }
+}
+
+// ============================================
+// LFU
+// ============================================
+
+/**
+ * LFU O(1): baldes em ordem crescente de frequência, cada um com as suas
+ * entradas em ordem de chegada. Um acesso move a entrada para o balde
+ * seguinte (criando-o se a frequência não for exatamente +1); a vítima é
+ * a cabeça do primeiro balde.
+ */
+final class PoliticaLfu<K, V> extends PoliticaCache<K, V> {
+
+    static final class Balde<K, V> {
+        final long frequencia;
+        final ListaCache<K, V> entradas = new ListaCache<>();
+        Balde<K, V> anterior;
+        Balde<K, V> proximo;
+
+        Balde(long frequencia) {
+            this.frequencia = frequencia;
+        }
+    }
+
+    /** Balde de menor frequência */
+    private Balde<K, V> primeiro;
+
+    @Override
+    void inserir(NoCache<K, V> no) {
+        if (primeiro == null || primeiro.frequencia != 1) {
+            Balde<K, V> novo = new Balde<>(1);
+            novo.proximo = primeiro;
+            if (primeiro != null) {
+                primeiro.anterior = novo;
+            }
+            primeiro = novo;
+        }
+        colocar(no, primeiro);
+    }
+
+    @Override
+    void acessar(NoCache<K, V> no) {
+        Balde<K, V> atual = no.balde;
+        Balde<K, V> destino = atual.proximo;
+        if (destino == null || destino.frequencia != atual.frequencia + 1) {
+            destino = new Balde<>(atual.frequencia + 1);
+            destino.anterior = atual;
+            destino.proximo = atual.proximo;
+            if (atual.proximo != null) {
+                atual.proximo.anterior = destino;
+            }
+            atual.proximo = destino;
+        }
+        retirar(no);
+        colocar(no, destino);
+    }
+
+    @Override
+    void remover(NoCache<K, V> no) {
+        retirar(no);
+    }
+
+    @Override
+    NoCache<K, V> escolherVitima() {
+        if (primeiro == null) {
+            return null;
+        }
+        NoCache<K, V> vitima = primeiro.entradas.cabeca;
+        retirar(vitima);
+        return vitima;
+    }
+
+    @Override
+    void limpar() {
+        primeiro = null;
+    }
+
+    private static <K, V> void colocar(NoCache<K, V> no, Balde<K, V> balde) {
+        balde.entradas.adicionarNoFim(no);
+        no.balde = balde;
+    }
+
+    /** Tira o nó do seu balde, descartando o balde se ficar vazio */
+    private void retirar(NoCache<K, V> no) {
+        Balde<K, V> balde = no.balde;
+        balde.entradas.remover(no);
+        no.balde = null;
+        if (balde.entradas.isEmpty()) {
+            if (balde.anterior == null) {
+                primeiro = balde.proximo;
+            } else {
+                balde.anterior.proximo = balde.proximo;
+            }
+            if (balde.proximo != null) {
+                balde.proximo.anterior = balde.anterior;
+            }
+        }
+    }
+}
+
+// ============================================
+// W-TinyLFU
+// ============================================
+
+/**
+ * Window TinyLFU (Einziger, Friedman e Manes, 2017)
+ *
+ * Entradas novas entram na janela (LRU, 1% do peso). Quando a janela
+ * transborda com a região principal cheia, a mais antiga da janela
+ * (candidata) disputa a vaga com a vítima
+ * da região principal (cabeça da probatória): fica a de maior frequência
+ * estimada. Um acerto na probatória promove para a protegida (80% da
+ * principal); o excesso da protegida volta para a probatória.
+ *
+ * A frequência vem de um {@link SketchFrequencia}, que também conta
+ * chaves que não estão no cache - é isso que permite recusar uma
+ * entrada nova de uma varredura em favor de uma antiga popular. O sketch
+ * é dimensionado pela quantidade de entradas, não pelo peso: começa
+ * pequeno e cresce conforme o cache enche.
+ */
+final class PoliticaWTinyLfu<K, V> extends PoliticaCache<K, V> {
+
+    private final ListaCache<K, V> janela = new ListaCache<>();
+    private final ListaCache<K, V> probatoria = new ListaCache<>();
+    private final ListaCache<K, V> protegida = new ListaCache<>();
+    private final long pesoMaximoJanela;
+    private final long pesoMaximoPrincipal;
+    private final long pesoMaximoProtegida;
+    private final SketchFrequencia sketch;
+    private long entradas;
+
+    PoliticaWTinyLfu(long pesoMaximo) {
+        this.pesoMaximoJanela = Math.max(1, pesoMaximo / 100);
+        this.pesoMaximoPrincipal = pesoMaximo - pesoMaximoJanela;
+        this.pesoMaximoProtegida = pesoMaximoPrincipal * 80 / 100;
+        // Com peso >= 1 por entrada, nunca há mais entradas que pesoMaximo
+        this.sketch = new SketchFrequencia(pesoMaximo);
+    }
+
+    /** Longs alocados no sketch (16 contadores cada) */
+    int getTamanhoSketch() {
+        return sketch.getTamanhoTabela();
+    }
+
+    @Override
+    void registrar(int hash) {
+        sketch.incrementar(hash);
+    }
+
+    @Override
+    void inserir(NoCache<K, V> no) {
+        sketch.garantirCapacidade(++entradas);
+        janela.adicionarNoFim(no);
+        // Enquanto a principal tem folga, o excesso da janela entra sem disputa
+        while (janela.peso > pesoMaximoJanela
+               && probatoria.peso + protegida.peso + janela.cabeca.peso <= pesoMaximoPrincipal) {
+            probatoria.adicionarNoFim(janela.removerCabeca());
+        }
+    }
+
+    @Override
+    void acessar(NoCache<K, V> no) {
+        if (no.lista == probatoria) {
+            probatoria.remover(no);
+            protegida.adicionarNoFim(no);
+            while (protegida.peso > pesoMaximoProtegida && protegida.cabeca != protegida.cauda) {
+                probatoria.adicionarNoFim(protegida.removerCabeca());
+            }
+        } else {
+            no.lista.moverParaFim(no); // janela ou protegida
+        }
+    }
+
+    @Override
+    void remover(NoCache<K, V> no) {
+        super.remover(no);
+        entradas--;
+    }
+
+    @Override
+    NoCache<K, V> escolherVitima() {
+        NoCache<K, V> vitima = proximaVitima();
+        if (vitima != null) {
+            entradas--;
+        }
+        return vitima;
+    }
+
+    private NoCache<K, V> proximaVitima() {
+        if (janela.peso > pesoMaximoJanela) {
+            NoCache<K, V> candidata = janela.removerCabeca();
+            NoCache<K, V> vitima = probatoria.isEmpty() ? protegida.cabeca : probatoria.cabeca;
+            if (vitima == null) {
+                return candidata;
+            }
+            if (sketch.frequencia(candidata.hash) > sketch.frequencia(vitima.hash)) {
+                vitima.lista.remover(vitima);
+                probatoria.adicionarNoFim(candidata);
+                return vitima;
+            }
+            return candidata;
+        }
+        if (!probatoria.isEmpty()) {
+            return probatoria.removerCabeca();
+        }
+        if (!protegida.isEmpty()) {
+            return protegida.removerCabeca();
+        }
+        return janela.removerCabeca();
+    }
+
+    @Override
+    void limpar() {
+        janela.limpar();
+        probatoria.limpar();
+        protegida.limpar();
+        sketch.limpar();
+        entradas = 0;
+    }
+}
+
+/**
+ * Sketch Count-Min com contadores de 4 bits (16 por long) e envelhecimento
+ *
+ * Cada hash incrementa 4 contadores (um por "linha", escolhidos por
+ * hashes derivados); a estimativa é o menor deles, que superestima mas
+ * nunca subestima. Depois de 10 × tamanho da tabela incrementos todos
+ * os contadores são divididos por 2, para que popularidade antiga expire.
+ *
+ * Tamanho: um long por entrada do cache (próxima potência de 2). A
+ * tabela começa com 16 longs e dobra em {@link #garantirCapacidade}
+ * conforme as entradas chegam, até o limite de entradas informado na
+ * construção (e no máximo 2^26 longs). Ao crescer os contadores
+ * recomeçam do zero: acontece log2(entradas) vezes, só no aquecimento.
+ */
+final class SketchFrequencia {
+
+    private static final long[] SEMENTES = {
+        0x97CB3127C5A4E2B5L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final long METADES = 0x7777_7777_7777_7777L;
+
+    private static final int TAMANHO_INICIAL = 16;
+
+    private final int tamanhoMaximo;
+    private long[] tabela;
+    private int mascara;
+    private long tamanhoAmostra;
+    private long incrementos;
+
+    /**
+     * @param entradasMaximas quantas entradas o cache pode chegar a ter
+     */
+    SketchFrequencia(long entradasMaximas) {
+        this.tamanhoMaximo = (int) HashPrimitivo.proximaPotenciaDe2(
+            Math.max(TAMANHO_INICIAL, Math.min(entradasMaximas, 1 << 26)));
+        redimensionar(TAMANHO_INICIAL);
+    }
+
+    /**
+     * Cresce a tabela para {@code entradas}, respeitando o limite
+     */
+    void garantirCapacidade(long entradas) {
+        if (entradas > tabela.length && tabela.length < tamanhoMaximo) {
+            redimensionar((int) Math.min(tamanhoMaximo, HashPrimitivo.proximaPotenciaDe2(entradas)));
+        }
+    }
+
+    private void redimensionar(int tamanho) {
+        this.tabela = new long[tamanho];
+        this.mascara = tamanho - 1;
+        this.tamanhoAmostra = 10L * tamanho;
+        this.incrementos = 0;
+    }
+
+    int getTamanhoTabela() {
+        return tabela.length;
+    }
+
+    void incrementar(int hash) {
+        boolean alterou = false;
+        for (int i = 0; i < 4; i++) {
+            long h = derivar(hash, i);
+            int indice = (int) (h >>> 32) & mascara;
+            int deslocamento = ((int) h & 15) << 2;
+            if (((tabela[indice] >>> deslocamento) & 0xF) < 15) {
+                tabela[indice] += 1L << deslocamento;
+                alterou = true;
+            }
+        }
+        if (alterou && ++incrementos >= tamanhoAmostra) {
+            envelhecer();
+        }
+    }
+
+    /** Frequência estimada, de 0 a 15 */
+    int frequencia(int hash) {
+        int minimo = 15;
+        for (int i = 0; i < 4; i++) {
+            long h = derivar(hash, i);
+            int indice = (int) (h >>> 32) & mascara;
+            int deslocamento = ((int) h & 15) << 2;
+            minimo = Math.min(minimo, (int) ((tabela[indice] >>> deslocamento) & 0xF));
+        }
+        return minimo;
+    }
+
+    private void envelhecer() {
+        for (int i = 0; i < tabela.length; i++) {
+            tabela[i] = (tabela[i] >>> 1) & METADES;
+        }
+        incrementos /= 2;
+    }
+
+    void limpar() {
+        Arrays.fill(tabela, 0);
+        incrementos = 0;
+    }
+
+    private static long derivar(int hash, int linha) {
+        long h = (hash + SEMENTES[linha]) * SEMENTES[linha];
+        return h ^ (h >>> 29);
+    }
+}
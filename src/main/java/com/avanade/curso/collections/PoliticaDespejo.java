@@ -0,0 +1,24 @@
+package com.avanade.curso.collections;
+
+/**
+ * Política que decide qual entrada sai quando o cache excede o limite
+ */
+public enum PoliticaDespejo {
+
+    /** Menos recentemente usada: bom para acessos com localidade temporal */
+    LRU,
+
+    /**
+     * Menos frequentemente usada (empate: a mais antiga da frequência).
+     * Resiste a varreduras, mas demora a esquecer itens que já foram populares.
+     */
+    LFU,
+
+    /**
+     * Janela LRU (1%) + região principal LRU segmentada (probatória 20% /
+     * protegida 80%), com admissão por frequência estimada em um sketch
+     * Count-Min que envelhece periodicamente. Combina o bom
+     * comportamento de LRU em rajadas com a resistência a varreduras de LFU.
+     */
+    W_TINY_LFU
+}
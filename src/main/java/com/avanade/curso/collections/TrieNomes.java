@@ -0,0 +1,356 @@
+package com.avanade.curso.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Árvore radix (trie compactada) de chaves String, para busca exata e por
+ * prefixo (autocompletar)
+ *
+ * Filtrar uma lista com {@code stream().filter(n -> n.startsWith(p))}
+ * percorre todos os nomes a cada consulta. Aqui a consulta desce só pelos
+ * caracteres do prefixo e depois visita apenas as chaves que começam com
+ * ele: O(|prefixo| + resultados).
+ *
+ * Cada aresta guarda um trecho de chave (não um caractere), e os nós
+ * ficam em arrays paralelos indexados por int, com filhos em lista ligada
+ * ordenada pelo primeiro caractere: a enumeração sai em ordem
+ * lexicográfica da chave normalizada.
+ *
+ * As chaves passam por um {@link NormalizadorChave} (ex.:
+ * {@link NormalizadorChave#SEM_ACENTOS}); o valor guardado costuma ser o
+ * nome original ou o registro.
+ *
+ * Para leitura, {@link #congelar()} gera uma {@link TrieNomesCongelada},
+ * bem menor e mais rápida.
+ *
+ * NÃO é thread-safe.
+ */
+public class TrieNomes<V> {
+
+    private static final int SEM_NO = -1;
+
+    private final NormalizadorChave normalizador;
+    private String[] rotulos;
+    private int[] primeiroFilho;
+    private int[] proximoIrmao;
+    private Object[] valores;
+    private int nos;
+    private int tamanho;
+
+    public TrieNomes() {
+        this(NormalizadorChave.IDENTIDADE);
+    }
+
+    public TrieNomes(NormalizadorChave normalizador) {
+        this.normalizador = Objects.requireNonNull(normalizador, "normalizador");
+        this.rotulos = new String[16];
+        this.primeiroFilho = new int[16];
+        this.proximoIrmao = new int[16];
+        this.valores = new Object[16];
+        novoNo("", null); // raiz
+    }
+
+    /**
+     * Associa o valor à chave normalizada
+     *
+     * @return o valor anterior dessa chave normalizada, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(String nome, V valor) {
+        Objects.requireNonNull(valor, "valor");
+        String chave = normalizador.normalizar(nome);
+        int no = 0;
+        int pos = 0;
+        while (true) {
+            if (pos == chave.length()) {
+                V anterior = (V) valores[no];
+                valores[no] = valor;
+                if (anterior == null) {
+                    tamanho++;
+                }
+                return anterior;
+            }
+
+            char c = chave.charAt(pos);
+            int irmaoAnterior = SEM_NO;
+            int filho = primeiroFilho[no];
+            while (filho != SEM_NO && rotulos[filho].charAt(0) < c) {
+                irmaoAnterior = filho;
+                filho = proximoIrmao[filho];
+            }
+
+            if (filho == SEM_NO || rotulos[filho].charAt(0) != c) {
+                // Nenhuma aresta começa com c: nova folha com o resto da chave
+                int folha = novoNo(chave.substring(pos), valor);
+                proximoIrmao[folha] = filho;
+                ligar(no, irmaoAnterior, folha);
+                tamanho++;
+                return null;
+            }
+
+            String rotulo = rotulos[filho];
+            int comum = prefixoComum(rotulo, chave, pos);
+            if (comum < rotulo.length()) {
+                // Divide a aresta: pai -> meio (trecho comum) -> filho (resto)
+                int meio = novoNo(rotulo.substring(0, comum), null);
+                proximoIrmao[meio] = proximoIrmao[filho];
+                ligar(no, irmaoAnterior, meio);
+                rotulos[filho] = rotulo.substring(comum);
+                proximoIrmao[filho] = SEM_NO;
+                primeiroFilho[meio] = filho;
+                filho = meio;
+            }
+            no = filho;
+            pos += comum;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(String nome) {
+        int no = localizarExato(normalizador.normalizar(nome));
+        return no == SEM_NO ? null : (V) valores[no];
+    }
+
+    public boolean containsKey(String nome) {
+        return get(nome) != null;
+    }
+
+    /**
+     * Remove a chave. Os nós ficam na árvore (só o valor é apagado);
+     * {@link #congelar()} descarta os que sobrarem vazios.
+     *
+     * @return o valor removido, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(String nome) {
+        int no = localizarExato(normalizador.normalizar(nome));
+        if (no == SEM_NO || valores[no] == null) {
+            return null;
+        }
+        V anterior = (V) valores[no];
+        valores[no] = null;
+        tamanho--;
+        return anterior;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public NormalizadorChave getNormalizador() {
+        return normalizador;
+    }
+
+    // ============================================
+    // Consultas por prefixo
+    // ============================================
+
+    /**
+     * Até {@code limite} valores cujas chaves normalizadas começam com o
+     * prefixo (normalizado), em ordem lexicográfica da chave
+     */
+    public List<V> buscarPorPrefixo(String prefixo, int limite) {
+        List<V> resultado = new ArrayList<>(Math.min(limite, 16));
+        paraCadaComPrefixo(prefixo, limite, (chave, valor) -> resultado.add(valor));
+        return resultado;
+    }
+
+    public int contarPrefixo(String prefixo) {
+        int[] total = {0};
+        paraCadaComPrefixo(prefixo, Integer.MAX_VALUE, (chave, valor) -> total[0]++);
+        return total[0];
+    }
+
+    /**
+     * Visita até {@code limite} pares (chave normalizada, valor) cujas
+     * chaves começam com o prefixo, em ordem lexicográfica
+     */
+    @SuppressWarnings("unchecked")
+    public void paraCadaComPrefixo(String prefixo, int limite, BiConsumer<? super String, ? super V> acao) {
+        if (limite <= 0) {
+            return;
+        }
+        StringBuilder chave = new StringBuilder();
+        int raiz = localizarPrefixo(normalizador.normalizar(prefixo), chave);
+        if (raiz == SEM_NO) {
+            return;
+        }
+        int visitados = 0;
+        if (valores[raiz] != null) {
+            acao.accept(chave.toString(), (V) valores[raiz]);
+            if (++visitados == limite) {
+                return;
+            }
+        }
+
+        // Pré-ordem iterativa: pilha com o caminho e o comprimento da chave antes de cada nó
+        int[] caminho = new int[16];
+        int[] comprimentos = new int[16];
+        int profundidade = 0;
+        int atual = primeiroFilho[raiz];
+        while (true) {
+            if (atual != SEM_NO) {
+                if (profundidade == caminho.length) {
+                    caminho = Arrays.copyOf(caminho, profundidade * 2);
+                    comprimentos = Arrays.copyOf(comprimentos, profundidade * 2);
+                }
+                caminho[profundidade] = atual;
+                comprimentos[profundidade++] = chave.length();
+                chave.append(rotulos[atual]);
+                if (valores[atual] != null) {
+                    acao.accept(chave.toString(), (V) valores[atual]);
+                    if (++visitados == limite) {
+                        return;
+                    }
+                }
+                atual = primeiroFilho[atual];
+            } else {
+                if (profundidade == 0) {
+                    return;
+                }
+                int saindo = caminho[--profundidade];
+                chave.setLength(comprimentos[profundidade]);
+                atual = proximoIrmao[saindo];
+            }
+        }
+    }
+
+    // ============================================
+    // Congelamento
+    // ============================================
+
+    /**
+     * Versão somente leitura e compacta do conteúdo atual (esta árvore
+     * continua utilizável e independente)
+     */
+    @SuppressWarnings("unchecked")
+    public TrieNomesCongelada<V> congelar() {
+        String[] chaves = new String[tamanho];
+        Object[] valoresOrdenados = new Object[tamanho];
+        int[] i = {0};
+        paraCadaComPrefixo("", Integer.MAX_VALUE, (chave, valor) -> {
+            chaves[i[0]] = chave;
+            valoresOrdenados[i[0]++] = valor;
+        });
+        return new TrieNomesCongelada<>(normalizador, chaves, (V[]) valoresOrdenados);
+    }
+
+    /**
+     * Bytes aproximados (arrays, Strings dos rótulos e cabeçalhos;
+     * referências comprimidas, sem contar os valores)
+     */
+    public long getBytesEstimados() {
+        long bytes = 4 * 16 + 16L * rotulos.length; // 4 arrays de 4 bytes por posição
+        for (int i = 0; i < nos; i++) {
+            bytes += 24 + 16 + 2L * rotulos[i].length();
+        }
+        return bytes;
+    }
+
+    // ============================================
+    // Internos
+    // ============================================
+
+    /** Nó cuja chave completa é exatamente a chave dada, ou SEM_NO */
+    private int localizarExato(String chave) {
+        int no = 0;
+        int pos = 0;
+        while (pos < chave.length()) {
+            int filho = filhoComInicial(no, chave.charAt(pos));
+            if (filho == SEM_NO || !chave.startsWith(rotulos[filho], pos)) {
+                return SEM_NO;
+            }
+            no = filho;
+            pos += rotulos[filho].length();
+        }
+        return no;
+    }
+
+    /**
+     * Nó mais alto cuja subárvore contém exatamente as chaves que começam
+     * com o prefixo; acumula em {@code chave} a chave completa desse nó
+     */
+    private int localizarPrefixo(String prefixo, StringBuilder chave) {
+        int no = 0;
+        int pos = 0;
+        while (pos < prefixo.length()) {
+            int filho = filhoComInicial(no, prefixo.charAt(pos));
+            if (filho == SEM_NO) {
+                return SEM_NO;
+            }
+            String rotulo = rotulos[filho];
+            int restante = prefixo.length() - pos;
+            if (restante < rotulo.length()) {
+                // O prefixo termina no meio da aresta
+                if (!rotulo.startsWith(prefixo.substring(pos))) {
+                    return SEM_NO;
+                }
+            } else if (!prefixo.startsWith(rotulo, pos)) {
+                return SEM_NO;
+            }
+            chave.append(rotulo);
+            no = filho;
+            pos += rotulo.length();
+        }
+        return no;
+    }
+
+    private int filhoComInicial(int no, char c) {
+        for (int filho = primeiroFilho[no]; filho != SEM_NO; filho = proximoIrmao[filho]) {
+            char inicial = rotulos[filho].charAt(0);
+            if (inicial == c) {
+                return filho;
+            }
+            if (inicial > c) {
+                break; // filhos ordenados
+            }
+        }
+        return SEM_NO;
+    }
+
+    private void ligar(int pai, int irmaoAnterior, int no) {
+        if (irmaoAnterior == SEM_NO) {
+            primeiroFilho[pai] = no;
+        } else {
+            proximoIrmao[irmaoAnterior] = no;
+        }
+    }
+
+    private int novoNo(String rotulo, Object valor) {
+        if (nos == rotulos.length) {
+            int novaCapacidade = nos * 2;
+            rotulos = Arrays.copyOf(rotulos, novaCapacidade);
+            primeiroFilho = Arrays.copyOf(primeiroFilho, novaCapacidade);
+            proximoIrmao = Arrays.copyOf(proximoIrmao, novaCapacidade);
+            valores = Arrays.copyOf(valores, novaCapacidade);
+        }
+        rotulos[nos] = rotulo;
+        primeiroFilho[nos] = SEM_NO;
+        proximoIrmao[nos] = SEM_NO;
+        valores[nos] = valor;
+        return nos++;
+    }
+
+    /** Comprimento do prefixo comum entre o rótulo e chave[pos..] */
+    static int prefixoComum(String rotulo, String chave, int pos) {
+        int max = Math.min(rotulo.length(), chave.length() - pos);
+        int i = 0;
+        while (i < max && rotulo.charAt(i) == chave.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return "TrieNomes[" + tamanho + " chaves, " + nos + " nós]";
+    }
+}
@@ -0,0 +1,296 @@
+package com.avanade.curso.collections;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Árvore radix somente leitura, gerada por {@link TrieNomes#congelar()}
+ *
+ * Os nós ficam em pré-ordem, o que torna a subárvore de um nó um
+ * intervalo contíguo [i, fimSubarvore[i]). Com isso:
+ * - rótulos: um único char[] com todos os trechos, em pré-ordem
+ * - valores: só os dos nós terminais, também em pré-ordem (= ordem
+ *   lexicográfica das chaves); {@code terminaisAntes[i]} diz onde começam
+ *   os valores da subárvore de i
+ * - {@link #contarPrefixo} é O(|prefixo|) e {@link #buscarPorPrefixo}
+ *   copia uma fatia contígua do array de valores
+ *
+ * Os filhos de cada nó também ficam contíguos (índices e iniciais), para
+ * a descida ser uma busca binária em poucos bytes vizinhos.
+ *
+ * Sem Strings por nó, sem nós vazios e sem cadeias de nós sem valor com
+ * um único filho: ~6 ints e 1 char por nó + 2 bytes por caractere de
+ * rótulo + uma referência por chave.
+ *
+ * Imutável; segura para leitura por várias threads.
+ */
+public final class TrieNomesCongelada<V> {
+
+    private final NormalizadorChave normalizador;
+    /** Rótulos concatenados em pré-ordem; o do nó i é texto[inicioRotulo[i], inicioRotulo[i+1]) */
+    private final char[] texto;
+    private final int[] inicioRotulo;
+    /** Fim (exclusivo) da subárvore do nó i, em pré-ordem */
+    private final int[] fimSubarvore;
+    /** Número de nós terminais antes do nó i, em pré-ordem */
+    private final int[] terminaisAntes;
+    /** Filhos do nó i: filhos[inicioFilhos[i], inicioFilhos[i+1]), com as iniciais em paralelo */
+    private final int[] inicioFilhos;
+    private final int[] filhos;
+    private final char[] iniciais;
+    private final V[] valores;
+
+    // Construção
+    private int nos;
+    private int caracteres;
+
+    /**
+     * @param chaves  chaves normalizadas, distintas e em ordem crescente
+     * @param valores valores correspondentes (não nulos)
+     */
+    TrieNomesCongelada(NormalizadorChave normalizador, String[] chaves, V[] valores) {
+        this.normalizador = normalizador;
+        int maxNos = 2 * chaves.length + 1; // folhas + internos com 2+ filhos + raiz
+        long totalCaracteres = 0;
+        for (String chave : chaves) {
+            totalCaracteres += chave.length();
+        }
+        char[] textoTemp = new char[(int) Math.min(totalCaracteres, Integer.MAX_VALUE - 8)];
+        int[] inicioTemp = new int[maxNos + 1];
+        int[] fimTemp = new int[maxNos];
+        int[] terminaisTemp = new int[maxNos + 1];
+
+        if (chaves.length == 0) {
+            nos = 1; // só a raiz
+            fimTemp[0] = 1;
+        } else {
+            construir(chaves, 0, chaves.length, 0, 0, textoTemp, inicioTemp, fimTemp, terminaisTemp);
+        }
+        inicioTemp[nos] = caracteres;
+        terminaisTemp[nos] = chaves.length;
+
+        this.texto = Arrays.copyOf(textoTemp, caracteres);
+        this.inicioRotulo = Arrays.copyOf(inicioTemp, nos + 1);
+        this.fimSubarvore = Arrays.copyOf(fimTemp, nos);
+        this.terminaisAntes = Arrays.copyOf(terminaisTemp, nos + 1);
+        this.valores = valores;
+
+        // Filhos contíguos por nó: a busca de um filho não salta pela pré-ordem
+        this.inicioFilhos = new int[nos + 1];
+        this.filhos = new int[nos - 1];
+        this.iniciais = new char[nos - 1];
+        int k = 0;
+        for (int no = 0; no < nos; no++) {
+            inicioFilhos[no] = k;
+            for (int filho = no + 1; filho < fimSubarvore[no]; filho = fimSubarvore[filho]) {
+                filhos[k] = filho;
+                iniciais[k++] = texto[inicioRotulo[filho]];
+            }
+        }
+        inicioFilhos[nos] = k;
+    }
+
+    /**
+     * Emite em pré-ordem o nó das chaves[lo, hi), que compartilham os
+     * primeiros {@code profundidade} caracteres; o rótulo do nó é
+     * chaves[lo][inicioRotulo, profundidade). A recursão desce um nível
+     * por ramificação, limitada pelo comprimento da chave.
+     */
+    private void construir(String[] chaves, int lo, int hi, int inicioRotuloNo, int profundidade,
+                           char[] textoTemp, int[] inicioTemp, int[] fimTemp, int[] terminaisTemp) {
+        int no = nos++;
+        inicioTemp[no] = caracteres;
+        chaves[lo].getChars(inicioRotuloNo, profundidade, textoTemp, caracteres);
+        caracteres += profundidade - inicioRotuloNo;
+        terminaisTemp[no] = lo;
+
+        int i = lo;
+        if (chaves[i].length() == profundidade) {
+            i++; // terminal: ordena antes de qualquer extensão
+        }
+        while (i < hi) {
+            char c = chaves[i].charAt(profundidade);
+            int j = i + 1;
+            while (j < hi && chaves[j].charAt(profundidade) == c) {
+                j++;
+            }
+            // Chaves ordenadas: o prefixo comum do grupo é o da primeira com a última
+            String primeira = chaves[i];
+            String ultima = chaves[j - 1];
+            int max = Math.min(primeira.length(), ultima.length());
+            int fimComum = profundidade + 1;
+            while (fimComum < max && primeira.charAt(fimComum) == ultima.charAt(fimComum)) {
+                fimComum++;
+            }
+            construir(chaves, i, j, profundidade, fimComum, textoTemp, inicioTemp, fimTemp, terminaisTemp);
+            i = j;
+        }
+        fimTemp[no] = nos;
+    }
+
+    public V get(String nome) {
+        String chave = normalizador.normalizar(nome);
+        int no = 0;
+        int pos = 0;
+        while (pos < chave.length()) {
+            no = filhoComInicial(no, chave.charAt(pos));
+            if (no == -1) {
+                return null;
+            }
+            int inicio = inicioRotulo[no];
+            int comprimento = inicioRotulo[no + 1] - inicio;
+            if (comprimento > chave.length() - pos || !igual(chave, pos, inicio, comprimento)) {
+                return null;
+            }
+            pos += comprimento;
+        }
+        return terminal(no) ? valores[terminaisAntes[no]] : null;
+    }
+
+    public boolean containsKey(String nome) {
+        return get(nome) != null;
+    }
+
+    public int size() {
+        return valores.length;
+    }
+
+    public boolean isEmpty() {
+        return valores.length == 0;
+    }
+
+    /**
+     * Até {@code limite} valores cujas chaves começam com o prefixo, em
+     * ordem lexicográfica da chave: uma cópia de fatia, sem percorrer nós
+     */
+    public List<V> buscarPorPrefixo(String prefixo, int limite) {
+        int no = localizarPrefixo(normalizador.normalizar(prefixo));
+        if (no == -1 || limite <= 0) {
+            return List.of();
+        }
+        int de = terminaisAntes[no];
+        int ate = (int) Math.min(terminaisAntes[fimSubarvore[no]], (long) de + limite);
+        return List.of(Arrays.copyOfRange(valores, de, ate));
+    }
+
+    /** Número de chaves com o prefixo, em O(|prefixo|) */
+    public int contarPrefixo(String prefixo) {
+        int no = localizarPrefixo(normalizador.normalizar(prefixo));
+        return no == -1 ? 0 : terminaisAntes[fimSubarvore[no]] - terminaisAntes[no];
+    }
+
+    /**
+     * Visita até {@code limite} pares (chave normalizada, valor) com o
+     * prefixo, em ordem lexicográfica
+     */
+    public void paraCadaComPrefixo(String prefixo, int limite, BiConsumer<? super String, ? super V> acao) {
+        int raiz = localizarPrefixo(normalizador.normalizar(prefixo));
+        if (raiz == -1 || limite <= 0) {
+            return;
+        }
+        StringBuilder chave = new StringBuilder(chaveCompleta(raiz));
+        // Pilha (fim da subárvore, comprimento da chave) dos ancestrais abertos
+        int[] fins = new int[16];
+        int[] comprimentos = new int[16];
+        int profundidade = 0;
+        int visitados = 0;
+        for (int no = raiz; no < fimSubarvore[raiz]; no++) {
+            while (profundidade > 0 && fins[profundidade - 1] <= no) {
+                chave.setLength(comprimentos[--profundidade]);
+            }
+            if (no != raiz) {
+                if (profundidade == fins.length) {
+                    fins = Arrays.copyOf(fins, profundidade * 2);
+                    comprimentos = Arrays.copyOf(comprimentos, profundidade * 2);
+                }
+                fins[profundidade] = fimSubarvore[no];
+                comprimentos[profundidade++] = chave.length();
+                chave.append(texto, inicioRotulo[no], inicioRotulo[no + 1] - inicioRotulo[no]);
+            }
+            if (terminal(no)) {
+                acao.accept(chave.toString(), valores[terminaisAntes[no]]);
+                if (++visitados == limite) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public NormalizadorChave getNormalizador() {
+        return normalizador;
+    }
+
+    /**
+     * Bytes aproximados dos arrays (referências comprimidas, sem contar
+     * os valores)
+     */
+    public long getBytesEstimados() {
+        return 8 * 16L + 2L * (texto.length + iniciais.length)
+            + 4L * (inicioRotulo.length + fimSubarvore.length + terminaisAntes.length + valores.length
+                    + inicioFilhos.length + filhos.length);
+    }
+
+    // ============================================
+    // Internos
+    // ============================================
+
+    private boolean terminal(int no) {
+        return terminaisAntes[no + 1] > terminaisAntes[no];
+    }
+
+    /** Busca binária nas iniciais (ordenadas) dos filhos */
+    private int filhoComInicial(int no, char c) {
+        int i = Arrays.binarySearch(iniciais, inicioFilhos[no], inicioFilhos[no + 1], c);
+        return i < 0 ? -1 : filhos[i];
+    }
+
+    private boolean igual(String chave, int pos, int inicio, int comprimento) {
+        for (int k = 0; k < comprimento; k++) {
+            if (chave.charAt(pos + k) != texto[inicio + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int localizarPrefixo(String prefixo) {
+        int no = 0;
+        int pos = 0;
+        while (pos < prefixo.length()) {
+            no = filhoComInicial(no, prefixo.charAt(pos));
+            if (no == -1) {
+                return -1;
+            }
+            int inicio = inicioRotulo[no];
+            int comprimento = Math.min(inicioRotulo[no + 1] - inicio, prefixo.length() - pos);
+            if (!igual(prefixo, pos, inicio, comprimento)) {
+                return -1;
+            }
+            pos += comprimento;
+        }
+        return no;
+    }
+
+    /** Chave completa do nó, subindo pela raiz (usada uma vez por enumeração) */
+    private String chaveCompleta(int alvo) {
+        StringBuilder sb = new StringBuilder();
+        int no = 0;
+        while (no != alvo) {
+            int i = inicioFilhos[no];
+            while (fimSubarvore[filhos[i]] <= alvo) {
+                i++;
+            }
+            int filho = filhos[i];
+            sb.append(texto, inicioRotulo[filho], inicioRotulo[filho + 1] - inicioRotulo[filho]);
+            no = filho;
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "TrieNomesCongelada[" + valores.length + " chaves, " + fimSubarvore.length + " nós, "
+            + texto.length + " caracteres]";
+    }
+}
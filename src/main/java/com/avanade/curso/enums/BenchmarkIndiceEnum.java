@@ -0,0 +1,69 @@
+package com.avanade.curso.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark: decodificação de StatusPedido por código - varredura de
+ * values() (como porCodigo era) vs HashMap&lt;Integer, StatusPedido&gt; vs
+ * IndiceEnum (hash perfeito; códigos 1..5 e 99)
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.enums.BenchmarkIndiceEnum [decodificacoes]
+ * </pre>
+ *
+ * Os códigos vêm de um array pré-sorteado, com a mesma frequência para
+ * cada status, para que a busca domine o tempo medido.
+ */
+public class BenchmarkIndiceEnum {
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        StatusPedido[] todos = StatusPedido.values();
+        int[] codigos = new int[quantidade];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < quantidade; i++) {
+            codigos[i] = todos[random.nextInt(todos.length)].getCodigo();
+        }
+        Map<Integer, StatusPedido> mapa = new HashMap<>();
+        for (StatusPedido s : todos) {
+            mapa.put(s.getCodigo(), s);
+        }
+
+        System.out.printf("=== %,d decodificações de StatusPedido ===%n", quantidade);
+        cronometrar("varredura de values()", codigos, BenchmarkIndiceEnum::porVarredura);
+        cronometrar("HashMap<Integer, ...>", codigos, mapa::get);
+        cronometrar("IndiceEnum", codigos, StatusPedido::porCodigo);
+    }
+
+    private static void cronometrar(String nome, int[] codigos, IntFunction<StatusPedido> busca) {
+        long soma = 0;
+        for (int r = 0; r < 3; r++) {
+            for (int codigo : codigos) {
+                soma += busca.apply(codigo).ordinal();
+            }
+        }
+        long inicio = System.nanoTime();
+        for (int codigo : codigos) {
+            soma += busca.apply(codigo).ordinal();
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = soma;
+        System.out.printf("%-24s %,6.2f ns/código%n", nome, (double) nanos / codigos.length);
+    }
+
+    /** O porCodigo como era */
+    private static StatusPedido porVarredura(int codigo) {
+        for (StatusPedido status : StatusPedido.values()) {
+            if (status.getCodigo() == codigo) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Código inválido: " + codigo);
+    }
+}
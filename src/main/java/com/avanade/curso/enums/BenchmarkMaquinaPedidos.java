@@ -0,0 +1,107 @@
+package com.avanade.curso.enums;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark: vazão de eventos do ciclo de vida - abordagem ad hoc
+ * (StatusPedido[] por pedido, switch por evento, EnumMap de contadores)
+ * vs MaquinaEstadosPedido (byte por pedido, máscara + tabela de destinos,
+ * lote sem desvios)
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.enums.BenchmarkMaquinaPedidos [pedidos] [eventos]
+ * </pre>
+ *
+ * Eventos em pedidos sorteados: 3 em 4 são o próximo passo esperado do
+ * ciclo (estimado pela posição do evento), o resto é aleatório, então a
+ * validade de cada evento é imprevisível para o preditor de desvios.
+ * Ambas as versões entregam as transições aceitas a um consumidor que só
+ * as conta.
+ */
+public class BenchmarkMaquinaPedidos {
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int quantidadePedidos = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int quantidadeEventos = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        int[] pedidos = new int[quantidadeEventos];
+        byte[] eventos = new byte[quantidadeEventos];
+        SplittableRandom random = new SplittableRandom(42);
+        int totalEventos = EventoPedido.values().length;
+        for (int i = 0; i < quantidadeEventos; i++) {
+            pedidos[i] = random.nextInt(quantidadePedidos);
+            int esperado = (int) ((long) i * 4 / quantidadeEventos); // PAGAR, SEPARAR, ENVIAR, ENTREGAR
+            eventos[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt(totalEventos) : esperado);
+        }
+
+        System.out.printf("=== %,d pedidos, %,d eventos ===%n", quantidadePedidos, quantidadeEventos);
+        for (int rodada = 0; rodada < 3; rodada++) {
+            boolean medir = rodada == 2;
+            cronometrarAdHoc(quantidadePedidos, pedidos, eventos, medir);
+            cronometrarMaquina(quantidadePedidos, pedidos, eventos, medir);
+        }
+    }
+
+    private static void cronometrarMaquina(int quantidadePedidos, int[] pedidos, byte[] eventos, boolean medir) {
+        long[] recebidos = new long[1];
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(quantidadePedidos, lote -> recebidos[0] += lote.tamanho());
+        maquina.criar(quantidadePedidos);
+        long inicio = System.nanoTime();
+        for (int base = 0; base < pedidos.length; base += 65_536) {
+            maquina.aplicar(pedidos, eventos, base, Math.min(pedidos.length, base + 65_536));
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = recebidos[0] + maquina.contar(StatusPedido.ENTREGUE);
+        if (medir) {
+            imprimir("MaquinaEstadosPedido", nanos, pedidos.length, maquina.getAceitos());
+        }
+    }
+
+    private static void cronometrarAdHoc(int quantidadePedidos, int[] pedidos, byte[] eventos, boolean medir) {
+        EventoPedido[] todosEventos = EventoPedido.values();
+        StatusPedido[] estados = new StatusPedido[quantidadePedidos];
+        Arrays.fill(estados, StatusPedido.PENDENTE);
+        Map<StatusPedido, Integer> contagem = new EnumMap<>(StatusPedido.class);
+        contagem.put(StatusPedido.PENDENTE, quantidadePedidos);
+        long aceitos = 0;
+        long recebidos = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < pedidos.length; i++) {
+            StatusPedido de = estados[pedidos[i]];
+            StatusPedido para = proximo(de, todosEventos[eventos[i]]);
+            if (para != null) {
+                estados[pedidos[i]] = para;
+                contagem.merge(de, -1, Integer::sum);
+                contagem.merge(para, 1, Integer::sum);
+                aceitos++;
+                recebidos++;
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = recebidos + contagem.getOrDefault(StatusPedido.ENTREGUE, 0);
+        if (medir) {
+            imprimir("ad hoc (switch)", nanos, pedidos.length, aceitos);
+        }
+    }
+
+    /** Transições codificadas em switch, como em ProcessadorPedido */
+    private static StatusPedido proximo(StatusPedido atual, EventoPedido evento) {
+        return switch (evento) {
+            case PAGAR -> atual == StatusPedido.PENDENTE ? StatusPedido.PAGO : null;
+            case SEPARAR -> atual == StatusPedido.PAGO ? StatusPedido.PROCESSANDO : null;
+            case ENVIAR -> atual == StatusPedido.PROCESSANDO ? StatusPedido.ENVIADO : null;
+            case ENTREGAR -> atual == StatusPedido.ENVIADO ? StatusPedido.ENTREGUE : null;
+            case CANCELAR -> atual.podeCancelar() ? StatusPedido.CANCELADO : null;
+        };
+    }
+
+    private static void imprimir(String nome, long nanos, int eventos, long aceitos) {
+        System.out.printf("%-22s %,7.2f ns/evento  %,6.1f M eventos/s  (%,d aceitos)%n",
+            nome, (double) nanos / eventos, eventos * 1e3 / nanos, aceitos);
+    }
+}
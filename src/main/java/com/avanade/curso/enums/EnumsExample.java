@@ -53,24 +53,39 @@ enum StatusPedido {
         return codigo;
     }
     
-    // Método de instância
+    // Método de instância: derivado da tabela de transições da
+    // MaquinaEstadosPedido (status sem saída), não de uma lista à parte
     public boolean isFinalizado() {
-        return this == ENTREGUE || this == CANCELADO;
+        return MaquinaEstadosPedido.isTerminal(this);
     }
     
     // Método de instância
     public boolean podeCancelar() {
-        return this == PENDENTE || this == PAGO;
+        return MaquinaEstadosPedido.permite(this, EventoPedido.CANCELAR);
     }
     
-    // Método estático para buscar por código
+    // Índices montados na inicialização da classe (depois das constantes);
+    // código ou descrição repetidos falham aqui, não na busca
+    private static final IndiceEnum.Inteiro<StatusPedido> POR_CODIGO =
+        IndiceEnum.porInt(StatusPedido.class, StatusPedido::getCodigo);
+    private static final IndiceEnum.Texto<StatusPedido> POR_DESCRICAO =
+        IndiceEnum.porTexto(StatusPedido.class, StatusPedido::getDescricao);
+    
+    // Método estático para buscar por código: tempo constante, sem values()
     public static StatusPedido porCodigo(int codigo) {
-        for (StatusPedido status : values()) {
-            if (status.codigo == codigo) {
-                return status;
-            }
+        StatusPedido status = POR_CODIGO.buscar(codigo);
+        if (status == null) {
+            throw new IllegalArgumentException("Código inválido: " + codigo);
+        }
+        return status;
+    }
+    
+    public static StatusPedido porDescricao(String descricao) {
+        StatusPedido status = POR_DESCRICAO.buscar(descricao);
+        if (status == null) {
+            throw new IllegalArgumentException("Descrição inválida: " + descricao);
         }
-        throw new IllegalArgumentException("Código inválido: " + codigo);
+        return status;
     }
 }
 
@@ -119,6 +134,17 @@ enum OperacaoMatematica {
             case DIVISAO -> "/";
         };
     }
+    
+    private static final IndiceEnum.Texto<OperacaoMatematica> POR_SIMBOLO =
+        IndiceEnum.porTexto(OperacaoMatematica.class, OperacaoMatematica::getSimbolo);
+    
+    public static OperacaoMatematica porSimbolo(String simbolo) {
+        OperacaoMatematica operacao = POR_SIMBOLO.buscar(simbolo);
+        if (operacao == null) {
+            throw new IllegalArgumentException("Símbolo inválido: " + simbolo);
+        }
+        return operacao;
+    }
 }
 
 // ============================================
@@ -202,6 +228,18 @@ enum Prioridade {
     public int getValor() {
         return valor;
     }
+    
+    // Valores 1..4: índice denso, posição = valor - 1
+    private static final IndiceEnum.Inteiro<Prioridade> POR_VALOR =
+        IndiceEnum.porInt(Prioridade.class, Prioridade::getValor);
+    
+    public static Prioridade porValor(int valor) {
+        Prioridade prioridade = POR_VALOR.buscar(valor);
+        if (prioridade == null) {
+            throw new IllegalArgumentException("Valor inválido: " + valor);
+        }
+        return prioridade;
+    }
 }
 
 // ============================================
@@ -359,6 +397,9 @@ public class EnumsExample {
         // Buscar por código
         StatusPedido encontrado = StatusPedido.porCodigo(4);
         System.out.println("Status código 4: " + encontrado);
+        System.out.println("Status \"Entregue\": " + StatusPedido.porDescricao("Entregue"));
+        System.out.println("Prioridade 3: " + Prioridade.porValor(3));
+        System.out.println("Operação \"*\": " + OperacaoMatematica.porSimbolo("*"));
         
         System.out.println("\n=== MÉTODOS ABSTRATOS ===");
         
@@ -407,6 +448,20 @@ public class EnumsExample {
             System.out.println("  " + s + " -> " + processador.getProximoPasso(s));
         }
         
+        System.out.println("\n=== MÁQUINA DE ESTADOS ===");
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(4, lote -> {
+            for (int i = 0; i < lote.tamanho(); i++) {
+                System.out.println("  pedido " + lote.pedido(i) + ": " + lote.de(i) + " -> " + lote.para(i));
+            }
+        });
+        int primeiro = maquina.criar(3);
+        maquina.aplicar(new int[] {primeiro, primeiro + 1, primeiro, primeiro + 2, primeiro + 1},
+            new byte[] {(byte) EventoPedido.PAGAR.ordinal(), (byte) EventoPedido.CANCELAR.ordinal(),
+                (byte) EventoPedido.SEPARAR.ordinal(), (byte) EventoPedido.ENTREGAR.ordinal(),
+                (byte) EventoPedido.PAGAR.ordinal()}, 0, 5);
+        System.out.println("Aceitos: " + maquina.getAceitos() + ", rejeitados: " + maquina.getRejeitados());
+        System.out.println("Por status: " + maquina.contagens());
+        
         System.out.println("\n=== BOAS PRÁTICAS ===");
         System.out.println(" Use enums para conjuntos fixos de constantes");
         System.out.println(" Enums são type-safe: impede valores inválidos em compile-time");
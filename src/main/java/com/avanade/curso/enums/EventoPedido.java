@@ -0,0 +1,23 @@
+package com.avanade.curso.enums;
+
+/**
+ * Eventos do ciclo de vida do pedido; as transições que cada um provoca
+ * estão na tabela da {@link MaquinaEstadosPedido}
+ */
+enum EventoPedido {
+    PAGAR("Confirmar pagamento"),
+    SEPARAR("Iniciar separação"),
+    ENVIAR("Despachar"),
+    ENTREGAR("Confirmar entrega"),
+    CANCELAR("Cancelar pedido");
+
+    private final String descricao;
+
+    EventoPedido(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,271 @@
+package com.avanade.curso.enums;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * ÍNDICE DE ENUM: busca de constante por atributo em tempo constante
+ *
+ * O padrão "percorrer values() até achar" clona o array a cada chamada e
+ * compara constante por constante. O índice é montado uma vez, no
+ * static final do próprio enum (inicialização da classe), e a busca vira
+ * um acesso a array:
+ * - chaves int próximas (ex.: 1..4): array denso indexado por chave - mínimo
+ * - chaves int esparsas (ex.: 1..5 e 99) ou texto: hash perfeito - um
+ *   multiplicador escolhido na montagem leva cada chave a uma posição
+ *   própria de uma tabela potência de 2, sem colisões e sem sondagem
+ *
+ * Chave duplicada lança IllegalStateException na montagem, ou seja, na
+ * inicialização do enum (ExceptionInInitializerError no primeiro uso):
+ * o erro aparece ao carregar a classe, não na primeira busca que cair
+ * na chave repetida. Chaves texto diferentes com o mesmo hashCode (ex.:
+ * "Aa" e "BB") não são duplicadas: a multiplicação não as separa, então
+ * o índice usa um HashMap no lugar do hash perfeito.
+ *
+ * Uso:
+ * <pre>
+ * private static final IndiceEnum.Inteiro&lt;StatusPedido&gt; POR_CODIGO =
+ *     IndiceEnum.porInt(StatusPedido.class, StatusPedido::getCodigo);
+ * </pre>
+ */
+final class IndiceEnum {
+
+    /**
+     * Array denso enquanto não desperdiça mais que isso por constante
+     * (ou até 64 posições, para enums pequenos)
+     */
+    private static final int POSICOES_POR_CONSTANTE = 8;
+    private static final int TENTATIVAS_POR_TAMANHO = 1_000;
+
+    private IndiceEnum() {}
+
+    static <E extends Enum<E>> Inteiro<E> porInt(Class<E> tipo, ToIntFunction<? super E> chave) {
+        E[] constantes = tipo.getEnumConstants();
+        int[] chaves = new int[constantes.length];
+        Map<Integer, E> vistas = new HashMap<>();
+        for (int i = 0; i < constantes.length; i++) {
+            chaves[i] = chave.applyAsInt(constantes[i]);
+            duplicada(tipo, chaves[i], vistas.put(chaves[i], constantes[i]), constantes[i]);
+        }
+        return new Inteiro<>(tipo, constantes, chaves);
+    }
+
+    static <E extends Enum<E>> Texto<E> porTexto(Class<E> tipo, Function<? super E, String> chave) {
+        E[] constantes = tipo.getEnumConstants();
+        String[] chaves = new String[constantes.length];
+        Map<String, E> vistas = new HashMap<>();
+        for (int i = 0; i < constantes.length; i++) {
+            chaves[i] = chave.apply(constantes[i]);
+            if (chaves[i] == null) {
+                throw new IllegalStateException(tipo.getSimpleName() + "." + constantes[i] + ": chave nula");
+            }
+            duplicada(tipo, chaves[i], vistas.put(chaves[i], constantes[i]), constantes[i]);
+        }
+        return new Texto<>(tipo, constantes, chaves);
+    }
+
+    private static void duplicada(Class<?> tipo, Object chave, Enum<?> anterior, Enum<?> atual) {
+        if (anterior != null) {
+            throw new IllegalStateException("Chave duplicada em " + tipo.getSimpleName() + ": "
+                + chave + " (" + anterior + " e " + atual + ")");
+        }
+    }
+
+    // ============================================
+    // CHAVES INT
+    // ============================================
+
+    static final class Inteiro<E extends Enum<E>> {
+        private final E[] tabela;
+        private final int[] chaves; // null no modo denso
+        private final int minimo;
+        private final int multiplicador;
+        private final int deslocamento;
+
+        private Inteiro(Class<E> tipo, E[] constantes, int[] chavesConstantes) {
+            int minimo = Integer.MAX_VALUE;
+            int maximo = Integer.MIN_VALUE;
+            for (int chave : chavesConstantes) {
+                minimo = Math.min(minimo, chave);
+                maximo = Math.max(maximo, chave);
+            }
+            long amplitude = constantes.length == 0 ? 0 : (long) maximo - minimo + 1;
+            if (amplitude <= Math.max(64, (long) POSICOES_POR_CONSTANTE * constantes.length)) {
+                this.tabela = Arrays.copyOf(constantes, (int) amplitude);
+                Arrays.fill(tabela, null);
+                for (int i = 0; i < constantes.length; i++) {
+                    tabela[chavesConstantes[i] - minimo] = constantes[i];
+                }
+                this.chaves = null;
+                this.minimo = minimo;
+                this.multiplicador = 0;
+                this.deslocamento = 0;
+                return;
+            }
+            // Chaves int distintas (duplicadas já falharam em porInt) têm hashes distintos
+            int[] escolha = hashPerfeito(tipo, chavesConstantes);
+            this.multiplicador = escolha[0];
+            this.deslocamento = escolha[1];
+            this.tabela = Arrays.copyOf(constantes, 1 << (32 - deslocamento));
+            Arrays.fill(tabela, null);
+            this.chaves = new int[tabela.length];
+            for (int i = 0; i < constantes.length; i++) {
+                int posicao = (chavesConstantes[i] * multiplicador) >>> deslocamento;
+                tabela[posicao] = constantes[i];
+                chaves[posicao] = chavesConstantes[i];
+            }
+            this.minimo = 0;
+        }
+
+        /**
+         * @return a constante com a chave, ou null
+         */
+        E buscar(int chave) {
+            if (chaves == null) {
+                int posicao = chave - minimo;
+                return posicao >= 0 && posicao < tabela.length ? tabela[posicao] : null;
+            }
+            int posicao = (chave * multiplicador) >>> deslocamento;
+            // Posição vazia tem constante null: não importa o que há em chaves
+            return chaves[posicao] == chave ? tabela[posicao] : null;
+        }
+
+        boolean isDenso() {
+            return chaves == null;
+        }
+
+        int getTamanhoTabela() {
+            return tabela.length;
+        }
+    }
+
+    // ============================================
+    // CHAVES TEXTO
+    // ============================================
+
+    static final class Texto<E extends Enum<E>> {
+        private final E[] tabela;
+        private final String[] chaves;
+        private final int multiplicador;
+        private final int deslocamento;
+        /** Só quando duas chaves têm o mesmo hashCode; senão null */
+        private final Map<String, E> colisoes;
+
+        private Texto(Class<E> tipo, E[] constantes, String[] chavesConstantes) {
+            int[] hashes = new int[constantes.length];
+            for (int i = 0; i < constantes.length; i++) {
+                hashes[i] = chavesConstantes[i].hashCode();
+            }
+            if (hashRepetido(hashes)) {
+                this.colisoes = new HashMap<>();
+                for (int i = 0; i < constantes.length; i++) {
+                    colisoes.put(chavesConstantes[i], constantes[i]);
+                }
+                this.tabela = null;
+                this.chaves = null;
+                this.multiplicador = 0;
+                this.deslocamento = 0;
+                return;
+            }
+            this.colisoes = null;
+            int[] escolha = hashPerfeito(tipo, hashes);
+            this.multiplicador = escolha[0];
+            this.deslocamento = escolha[1];
+            this.tabela = Arrays.copyOf(constantes, 1 << (32 - deslocamento));
+            Arrays.fill(tabela, null);
+            this.chaves = new String[tabela.length];
+            for (int i = 0; i < constantes.length; i++) {
+                int posicao = (hashes[i] * multiplicador) >>> deslocamento;
+                tabela[posicao] = constantes[i];
+                chaves[posicao] = chavesConstantes[i];
+            }
+        }
+
+        /**
+         * @return a constante com a chave, ou null (também para null)
+         */
+        E buscar(String chave) {
+            if (chave == null) {
+                return null;
+            }
+            if (colisoes != null) {
+                return colisoes.get(chave);
+            }
+            int posicao = (chave.hashCode() * multiplicador) >>> deslocamento;
+            String candidata = chaves[posicao];
+            return candidata != null && candidata.equals(chave) ? tabela[posicao] : null;
+        }
+
+        int getTamanhoTabela() {
+            return colisoes != null ? colisoes.size() : tabela.length;
+        }
+
+        boolean isHashPerfeito() {
+            return colisoes == null;
+        }
+    }
+
+    // ============================================
+    // BUSCA DO HASH PERFEITO
+    // ============================================
+
+    /**
+     * Procura um multiplicador ímpar que leve os hashes a posições
+     * distintas de uma tabela de 2^bits, começando pela menor tabela que
+     * cabe todos e dobrando até n² (onde um multiplicador aleatório acerta
+     * com probabilidade de pelo menos 1/2). Semente fixa: a mesma tabela a
+     * cada execução.
+     *
+     * Os hashes precisam ser distintos (ver {@link #hashRepetido}): hashes
+     * iguais nunca se separam com multiplicação.
+     *
+     * @return {multiplicador, deslocamento}, deslocamento = 32 - bits
+     */
+    private static int[] hashPerfeito(Class<?> tipo, int[] hashes) {
+        int n = Math.max(hashes.length, 1);
+        int bitsMinimo = Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+        int bitsMaximo = Math.min(30, Math.max(bitsMinimo, 2 * bitsMinimo + 1));
+        SplittableRandom aleatorio = new SplittableRandom(0x5EEDL);
+        for (int bits = bitsMinimo; bits <= bitsMaximo; bits++) {
+            int deslocamento = 32 - bits;
+            int[] marcas = new int[1 << bits];
+            for (int tentativa = 1; tentativa <= TENTATIVAS_POR_TAMANHO; tentativa++) {
+                int multiplicador = aleatorio.nextInt() | 1;
+                if (semColisao(hashes, multiplicador, deslocamento, marcas, tentativa)) {
+                    return new int[] {multiplicador, deslocamento};
+                }
+            }
+        }
+        throw new IllegalStateException(tipo.getSimpleName() + ": nenhum hash perfeito até 2^" + bitsMaximo + " posições");
+    }
+
+    private static boolean hashRepetido(int[] hashes) {
+        for (int i = 0; i < hashes.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (hashes[i] == hashes[j]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * marcas[p] == tentativa: posição p já usada nesta tentativa (evita
+     * limpar o array entre tentativas)
+     */
+    private static boolean semColisao(int[] hashes, int multiplicador, int deslocamento, int[] marcas, int tentativa) {
+        for (int hash : hashes) {
+            int posicao = (hash * multiplicador) >>> deslocamento;
+            if (marcas[posicao] == tentativa) {
+                return false;
+            }
+            marcas[posicao] = tentativa;
+        }
+        return true;
+    }
+}
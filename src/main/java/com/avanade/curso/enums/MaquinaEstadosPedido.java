@@ -0,0 +1,262 @@
+package com.avanade.curso.enums;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * MÁQUINA DE ESTADOS do ciclo de vida de pedidos em massa
+ *
+ * Tabela de transições: definida uma vez em um EnumMap (status -> evento
+ * -> novo status) e compilada em duas formas primitivas:
+ * - uma máscara de bits por evento: bit {@code s} ligado se o evento é
+ *   válido no status de ordinal {@code s}
+ * - um array de destinos {@code [evento * STATUS + status]}; transição
+ *   inválida aponta para o próprio status
+ *
+ * Pedidos: um byte por pedido (ordinal do StatusPedido), o id é a posição.
+ * Um milhão de pedidos ocupa 1 MB, contra ~16 MB em referências + objetos.
+ *
+ * {@link #aplicar(int[], byte[], int, int)} processa um lote de eventos sem
+ * desvios dependentes de dados: o destino é sempre escrito (inválido =
+ * mesmo status), os contadores por status sempre somam e subtraem (em uma
+ * inválida o saldo é zero) e a transição é sempre escrita no buffer do
+ * lote, que só avança quando ela é válida. Eventos rejeitados não custam
+ * um desvio mal previsto.
+ *
+ * As transições aceitas são entregues ao {@link OuvinteTransicoes} em
+ * lotes de até {@link #TAMANHO_LOTE}, em um {@link LoteTransicoes}
+ * reaproveitado.
+ *
+ * Não é thread-safe: uma máquina por thread (particione os pedidos).
+ */
+final class MaquinaEstadosPedido {
+
+    static final int TAMANHO_LOTE = 4096;
+
+    private static final StatusPedido[] STATUS = StatusPedido.values();
+    private static final EventoPedido[] EVENTOS = EventoPedido.values();
+    private static final Map<StatusPedido, Map<EventoPedido, StatusPedido>> TRANSICOES = new EnumMap<>(StatusPedido.class);
+    private static final int[] MASCARAS = new int[EVENTOS.length];
+    private static final byte[] DESTINOS = new byte[EVENTOS.length * STATUS.length];
+    private static final int TERMINAIS;
+
+    static {
+        transicao(StatusPedido.PENDENTE, EventoPedido.PAGAR, StatusPedido.PAGO);
+        transicao(StatusPedido.PENDENTE, EventoPedido.CANCELAR, StatusPedido.CANCELADO);
+        transicao(StatusPedido.PAGO, EventoPedido.SEPARAR, StatusPedido.PROCESSANDO);
+        transicao(StatusPedido.PAGO, EventoPedido.CANCELAR, StatusPedido.CANCELADO);
+        transicao(StatusPedido.PROCESSANDO, EventoPedido.ENVIAR, StatusPedido.ENVIADO);
+        transicao(StatusPedido.ENVIADO, EventoPedido.ENTREGAR, StatusPedido.ENTREGUE);
+
+        if (STATUS.length > Integer.SIZE) {
+            throw new IllegalStateException("Máscaras int comportam até 32 status");
+        }
+        for (EventoPedido evento : EVENTOS) {
+            for (StatusPedido status : STATUS) {
+                DESTINOS[evento.ordinal() * STATUS.length + status.ordinal()] = (byte) status.ordinal();
+            }
+        }
+        int comSaida = 0;
+        for (Map.Entry<StatusPedido, Map<EventoPedido, StatusPedido>> origem : TRANSICOES.entrySet()) {
+            int de = origem.getKey().ordinal();
+            for (Map.Entry<EventoPedido, StatusPedido> saida : origem.getValue().entrySet()) {
+                int evento = saida.getKey().ordinal();
+                MASCARAS[evento] |= 1 << de;
+                DESTINOS[evento * STATUS.length + de] = (byte) saida.getValue().ordinal();
+                comSaida |= 1 << de;
+            }
+        }
+        TERMINAIS = ~comSaida & (int) ((1L << STATUS.length) - 1);
+    }
+
+    private static void transicao(StatusPedido de, EventoPedido evento, StatusPedido para) {
+        if (TRANSICOES.computeIfAbsent(de, s -> new EnumMap<>(EventoPedido.class)).putIfAbsent(evento, para) != null) {
+            throw new IllegalStateException("Transição duplicada: " + de + " + " + evento);
+        }
+    }
+
+    // ============================================
+    // CONSULTA À TABELA
+    // ============================================
+
+    /**
+     * @return o status após o evento, ou null se o evento não é válido
+     */
+    static StatusPedido destino(StatusPedido de, EventoPedido evento) {
+        return permite(de, evento) ? STATUS[DESTINOS[evento.ordinal() * STATUS.length + de.ordinal()]] : null;
+    }
+
+    static boolean permite(StatusPedido de, EventoPedido evento) {
+        return (MASCARAS[evento.ordinal()] >>> de.ordinal() & 1) != 0;
+    }
+
+    /**
+     * @return true se nenhum evento tira o pedido do status
+     */
+    static boolean isTerminal(StatusPedido status) {
+        return (TERMINAIS >>> status.ordinal() & 1) != 0;
+    }
+
+    // ============================================
+    // PEDIDOS
+    // ============================================
+
+    /**
+     * Transições aceitas de um {@link #aplicar}; o lote é reaproveitado e
+     * só vale durante a chamada ao ouvinte
+     */
+    static final class LoteTransicoes {
+        final int[] pedidos = new int[TAMANHO_LOTE];
+        final byte[] de = new byte[TAMANHO_LOTE];
+        final byte[] para = new byte[TAMANHO_LOTE];
+        int tamanho;
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        int pedido(int i) {
+            return pedidos[Objects.checkIndex(i, tamanho)];
+        }
+
+        StatusPedido de(int i) {
+            return STATUS[de[Objects.checkIndex(i, tamanho)]];
+        }
+
+        StatusPedido para(int i) {
+            return STATUS[para[Objects.checkIndex(i, tamanho)]];
+        }
+    }
+
+    @FunctionalInterface
+    interface OuvinteTransicoes {
+        void aoTransicionar(LoteTransicoes lote);
+    }
+
+    private static final OuvinteTransicoes NENHUM = lote -> { };
+
+    private byte[] estados;
+    private int quantidade;
+    private final int[] contagem = new int[STATUS.length];
+    private final LoteTransicoes lote = new LoteTransicoes();
+    private final OuvinteTransicoes ouvinte;
+    private long aceitos;
+    private long rejeitados;
+
+    MaquinaEstadosPedido(int capacidade, OuvinteTransicoes ouvinte) {
+        this.estados = new byte[Math.max(capacidade, 16)];
+        this.ouvinte = ouvinte == null ? NENHUM : ouvinte;
+    }
+
+    /**
+     * Cria {@code n} pedidos em PENDENTE
+     *
+     * @return o id do primeiro; os demais são consecutivos
+     */
+    int criar(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Quantidade negativa: " + n);
+        }
+        int primeiro = quantidade;
+        if (primeiro + n > estados.length) {
+            estados = Arrays.copyOf(estados, Math.max(primeiro + n, estados.length + (estados.length >> 1)));
+        }
+        Arrays.fill(estados, primeiro, primeiro + n, (byte) StatusPedido.PENDENTE.ordinal());
+        contagem[StatusPedido.PENDENTE.ordinal()] += n;
+        quantidade += n;
+        return primeiro;
+    }
+
+    int getQuantidade() {
+        return quantidade;
+    }
+
+    StatusPedido status(int pedido) {
+        return STATUS[estados[Objects.checkIndex(pedido, quantidade)]];
+    }
+
+    /**
+     * @return pedidos no status, mantido a cada transição (sem varrer)
+     */
+    int contar(StatusPedido status) {
+        return contagem[status.ordinal()];
+    }
+
+    Map<StatusPedido, Integer> contagens() {
+        Map<StatusPedido, Integer> mapa = new EnumMap<>(StatusPedido.class);
+        for (StatusPedido status : STATUS) {
+            mapa.put(status, contagem[status.ordinal()]);
+        }
+        return mapa;
+    }
+
+    long getAceitos() {
+        return aceitos;
+    }
+
+    long getRejeitados() {
+        return rejeitados;
+    }
+
+    /**
+     * Um evento; para volume use o lote
+     *
+     * @return true se a transição foi aceita
+     */
+    boolean aplicar(int pedido, EventoPedido evento) {
+        return aplicar(new int[] {pedido}, new byte[] {(byte) evento.ordinal()}, 0, 1) == 1;
+    }
+
+    /**
+     * Aplica {@code eventos[i]} (ordinal de EventoPedido) a
+     * {@code pedidos[i]}, para i em [inicio, fim), na ordem
+     *
+     * @return quantidade de transições aceitas
+     * @throws IndexOutOfBoundsException pedido inexistente ou ordinal de
+     *         evento inválido; o intervalo inteiro é validado antes da
+     *         primeira transição, então nada do lote é aplicado
+     */
+    int aplicar(int[] pedidos, byte[] eventos, int inicio, int fim) {
+        Objects.checkFromToIndex(inicio, fim, Math.min(pedidos.length, eventos.length));
+        int quantidade = this.quantidade;
+        for (int i = inicio; i < fim; i++) {
+            Objects.checkIndex(pedidos[i], quantidade);
+            Objects.checkIndex(eventos[i], EVENTOS.length);
+        }
+        byte[] estados = this.estados;
+        int[] contagem = this.contagem;
+        int[] lotePedidos = lote.pedidos;
+        byte[] loteDe = lote.de;
+        byte[] lotePara = lote.para;
+        int totalStatus = STATUS.length;
+        int aceitosChamada = 0;
+        for (int base = inicio; base < fim; base += TAMANHO_LOTE) {
+            int limite = Math.min(fim, base + TAMANHO_LOTE);
+            int k = 0;
+            for (int i = base; i < limite; i++) {
+                int pedido = pedidos[i];
+                int evento = eventos[i];
+                int de = estados[pedido];
+                int valido = MASCARAS[evento] >>> de & 1;
+                byte para = DESTINOS[evento * totalStatus + de];
+                estados[pedido] = para;
+                contagem[de]--;
+                contagem[para]++;
+                lotePedidos[k] = pedido;
+                loteDe[k] = (byte) de;
+                lotePara[k] = para;
+                k += valido;
+            }
+            aceitos += k;
+            rejeitados += limite - base - k;
+            aceitosChamada += k;
+            if (k > 0) {
+                lote.tamanho = k;
+                ouvinte.aoTransicionar(lote);
+            }
+        }
+        return aceitosChamada;
+    }
+}
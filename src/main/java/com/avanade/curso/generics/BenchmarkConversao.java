@@ -0,0 +1,84 @@
+package com.avanade.curso.generics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: conversão de listas grandes - ArrayList sem tamanho inicial,
+ * passos encadeados e em lote/paralela/fundida
+ *
+ * Execução:
+ * <pre>
+ * java -Xmx8g -cp target/classes com.avanade.curso.generics.BenchmarkConversao [linhas]
+ * </pre>
+ *
+ * Converte linhas " 123 " em int x 2 (trim, parseInt, dobro). Além do
+ * tempo, mostra os bytes alocados pela thread que chamou
+ * (com.sun.management.ThreadMXBean); nas variantes paralelas a maior
+ * parte da alocação acontece nas threads do ForkJoin e não aparece ali.
+ */
+public class BenchmarkConversao {
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int linhas = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        List<String> entrada = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            entrada.add(" " + (i % 100_000) + " ");
+        }
+        Conversao<String, Integer> fundida = Conversao.<String, String>de(String::trim)
+            .depois(Integer::parseInt)
+            .depois(n -> n * 2);
+        int limiar = UtilitariosGenericos.LIMIAR_PARALELO_PADRAO;
+        System.out.printf("=== %,d linhas, %d processadores ===%n", linhas, Runtime.getRuntime().availableProcessors());
+
+        medir("3x converter (sem tamanho)", () -> {
+            List<String> aparadas = semTamanho(entrada, String::trim);
+            List<Integer> numeros = semTamanho(aparadas, Integer::parseInt);
+            return semTamanho(numeros, n -> n * 2);
+        });
+        medir("3x converter", () -> {
+            List<String> aparadas = UtilitariosGenericos.converter(entrada, String::trim);
+            List<Integer> numeros = UtilitariosGenericos.converter(aparadas, Integer::parseInt);
+            return UtilitariosGenericos.converter(numeros, n -> n * 2);
+        });
+        medir("Conversao fundida", () -> fundida.aplicar(entrada));
+        medir("Conversao fundida paralela", () -> fundida.aplicar(entrada, limiar));
+        medir("converterParaInt paralelo", () -> UtilitariosGenericos.converterParaInt(entrada,
+            s -> Integer.parseInt(s.trim()) * 2, limiar));
+    }
+
+    /** O converter como era: ArrayList sem capacidade inicial */
+    private static <T, R> List<R> semTamanho(List<T> lista, Function<T, R> conversor) {
+        List<R> resultado = new ArrayList<>();
+        for (T item : lista) {
+            resultado.add(conversor.apply(item));
+        }
+        return resultado;
+    }
+
+    /**
+     * Aquecimento com 3 execuções e média de 5
+     */
+    private static void medir(String nome, Supplier<Object> conversao) {
+        for (int i = 0; i < 3; i++) {
+            sumidouro += System.identityHashCode(conversao.get());
+        }
+        long alocadoAntes = alocadoPelaThread();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            sumidouro += System.identityHashCode(conversao.get());
+        }
+        long nanos = (System.nanoTime() - inicio) / 5;
+        long alocado = (alocadoPelaThread() - alocadoAntes) / 5;
+        System.out.printf("%-30s %,8d ms   %,6d MB alocados na thread%n", nome, nanos / 1_000_000, alocado >> 20);
+    }
+
+    private static long alocadoPelaThread() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
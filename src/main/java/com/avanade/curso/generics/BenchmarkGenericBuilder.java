@@ -0,0 +1,147 @@
+package com.avanade.curso.generics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark: GenericBuilder com setters compilados vs o caminho reflexivo
+ * anterior ({@code getMethod + Method.invoke} a cada propriedade)
+ *
+ * Execução:
+ * <pre>
+ * java -cp target/classes com.avanade.curso.generics.BenchmarkGenericBuilder [objetos]
+ * </pre>
+ *
+ * Cada objeto recebe 4 propriedades; os valores vêm de arrays para que o
+ * JIT não trate como constantes. O sumidouro soma um campo de cada objeto
+ * construído para que a construção não seja eliminada.
+ */
+public class BenchmarkGenericBuilder {
+
+    public static class Pessoa {
+        private String nome;
+        private Integer idade;
+        private String email;
+        private Double salario;
+
+        public void setNome(String nome) { this.nome = nome; }
+        public void setIdade(Integer idade) { this.idade = idade; }
+        public void setEmail(String email) { this.email = email; }
+        public void setSalario(Double salario) { this.salario = salario; }
+    }
+
+    private static volatile long sumidouro;
+
+    public static void main(String[] args) {
+        int objetos = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] nomes = new String[1024];
+        Integer[] idades = new Integer[1024];
+        String[] emails = new String[1024];
+        Double[] salarios = new Double[1024];
+        for (int i = 0; i < nomes.length; i++) {
+            nomes[i] = "Pessoa " + i;
+            idades[i] = 18 + i % 60;
+            emails[i] = "p" + i + "@x.com";
+            salarios[i] = 1_000.0 + i;
+        }
+        Map<String, Object>[] mapas = criarMapas(nomes, idades, emails, salarios);
+        PlanoConstrucao<Pessoa> plano = PlanoConstrucao.de(Pessoa.class);
+        BiConsumer<Pessoa, Object> setNome = plano.setter("nome");
+        BiConsumer<Pessoa, Object> setIdade = plano.setter("idade");
+        BiConsumer<Pessoa, Object> setEmail = plano.setter("email");
+        BiConsumer<Pessoa, Object> setSalario = plano.setter("salario");
+
+        System.out.printf("=== %,d objetos, 4 propriedades cada ===%n", objetos);
+        cronometrar("setters diretos", objetos, i -> {
+            Pessoa p = new Pessoa();
+            p.setNome(nomes[i & 1023]);
+            p.setIdade(idades[i & 1023]);
+            p.setEmail(emails[i & 1023]);
+            p.setSalario(salarios[i & 1023]);
+            return p;
+        });
+        cronometrar("reflexão (anterior)", objetos, i -> {
+            try {
+                return new BuilderReflexivo<>(Pessoa.class)
+                    .com("nome", nomes[i & 1023])
+                    .com("idade", idades[i & 1023])
+                    .com("email", emails[i & 1023])
+                    .com("salario", salarios[i & 1023])
+                    .build();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        cronometrar("GenericBuilder", objetos, i -> new GenericBuilder<>(Pessoa.class)
+            .com("nome", nomes[i & 1023])
+            .com("idade", idades[i & 1023])
+            .com("email", emails[i & 1023])
+            .com("salario", salarios[i & 1023])
+            .build());
+        cronometrar("setters pré-resolvidos", objetos, i -> {
+            Pessoa p = plano.novaInstancia();
+            setNome.accept(p, nomes[i & 1023]);
+            setIdade.accept(p, idades[i & 1023]);
+            setEmail.accept(p, emails[i & 1023]);
+            setSalario.accept(p, salarios[i & 1023]);
+            return p;
+        });
+        cronometrar("PlanoConstrucao.criar(Map)", objetos, i -> plano.criar(mapas[i & 1023]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object>[] criarMapas(String[] nomes, Integer[] idades,
+                                                    String[] emails, Double[] salarios) {
+        Map<String, Object>[] mapas = new Map[nomes.length];
+        for (int i = 0; i < mapas.length; i++) {
+            Map<String, Object> mapa = new HashMap<>();
+            mapa.put("nome", nomes[i]);
+            mapa.put("idade", idades[i]);
+            mapa.put("email", emails[i]);
+            mapa.put("salario", salarios[i]);
+            mapas[i] = mapa;
+        }
+        return mapas;
+    }
+
+    /**
+     * Aquecimento por tempo (1 s) e depois {@code objetos} construções medidas
+     */
+    private static void cronometrar(String nome, int objetos, IntFunction<Pessoa> construcao) {
+        long soma = 0;
+        long aquecimento = System.nanoTime();
+        for (int i = 0; System.nanoTime() - aquecimento < 1_000_000_000L; i++) {
+            soma += construcao.apply(i).idade;
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < objetos; i++) {
+            soma += construcao.apply(i).idade;
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidouro = soma;
+        System.out.printf("%-28s %,8.1f ns/objeto%n", nome, (double) nanos / objetos);
+    }
+
+    /** O GenericBuilder como era: busca e invoca o setter por reflexão a cada chamada */
+    private static final class BuilderReflexivo<T> {
+        private final T objeto;
+        private final Class<T> clazz;
+
+        BuilderReflexivo(Class<T> clazz) throws Exception {
+            this.clazz = clazz;
+            this.objeto = clazz.getDeclaredConstructor().newInstance();
+        }
+
+        BuilderReflexivo<T> com(String propriedade, Object valor) throws Exception {
+            clazz.getMethod("set" + propriedade.substring(0, 1).toUpperCase() + propriedade.substring(1),
+                valor.getClass()).invoke(objeto, valor);
+            return this;
+        }
+
+        T build() {
+            return objeto;
+        }
+    }
+}
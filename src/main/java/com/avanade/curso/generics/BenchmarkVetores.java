@@ -0,0 +1,93 @@
+package com.avanade.curso.generics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Benchmark: agregações sobre List de wrappers vs vetores primitivos
+ *
+ * Execução:
+ * <pre>
+ * java -Xmx4g -cp target/classes com.avanade.curso.generics.BenchmarkVetores [elementos]
+ * </pre>
+ *
+ * Compara {@code somarNumeros(ArrayList<Double>)} (um doubleValue() por
+ * elemento, com cada Double espalhado pelo heap) com a mesma chamada
+ * recebendo um DoubleVector (detectado e somado em bloco), além de
+ * mínimo/máximo/produto escalar via stream de wrappers.
+ */
+public class BenchmarkVetores {
+
+    private static volatile double sumidouro;
+
+    public static void main(String[] args) {
+        int elementos = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        List<Double> doubles = new ArrayList<>(elementos);
+        List<Integer> inteiros = new ArrayList<>(elementos);
+        DoubleVector vetorDouble = new DoubleVector(elementos);
+        IntVector vetorInt = new IntVector(elementos);
+        for (int i = 0; i < elementos; i++) {
+            double d = random.nextDouble(-1_000, 1_000);
+            int n = random.nextInt(-1_000_000, 1_000_000);
+            doubles.add(d);
+            inteiros.add(n);
+            vetorDouble.adicionar(d);
+            vetorInt.adicionar(n);
+        }
+
+        System.out.printf("=== Soma de %,d doubles ===%n", elementos);
+        cronometrar("somarNumeros(ArrayList)", elementos, () -> ExemplosWildcards.somarNumeros(doubles));
+        cronometrar("somarNumeros(DoubleVector)", elementos, () -> ExemplosWildcards.somarNumeros(vetorDouble));
+
+        System.out.printf("%n=== Soma de %,d ints ===%n", elementos);
+        cronometrar("somarNumeros(ArrayList)", elementos, () -> ExemplosWildcards.somarNumeros(inteiros));
+        cronometrar("somarNumeros(IntVector)", elementos, () -> ExemplosWildcards.somarNumeros(vetorInt));
+
+        System.out.printf("%n=== Mínimo e máximo de %,d doubles ===%n", elementos);
+        cronometrar("stream min + max", elementos, () ->
+            doubles.stream().mapToDouble(Double::doubleValue).min().orElseThrow()
+                + doubles.stream().mapToDouble(Double::doubleValue).max().orElseThrow());
+        cronometrar("DoubleVector min + max", elementos, () -> vetorDouble.minimo() + vetorDouble.maximo());
+
+        System.out.printf("%n=== Produto escalar de %,d ints ===%n", elementos);
+        cronometrar("laço sobre List<Integer>", elementos, () -> {
+            long soma = 0;
+            for (int i = 0; i < inteiros.size(); i++) {
+                soma += (long) inteiros.get(i) * inteiros.get(i);
+            }
+            return soma;
+        });
+        cronometrar("IntVector.produtoEscalar", elementos, () -> vetorInt.produtoEscalar(vetorInt));
+
+        System.out.printf("%n=== Precisão: 10.000.000 x 0,1 ===%n");
+        DoubleVector decimos = new DoubleVector(10_000_000);
+        List<Double> listaDecimos = new ArrayList<>(10_000_000);
+        for (int i = 0; i < 10_000_000; i++) {
+            decimos.adicionar(0.1);
+            listaDecimos.add(0.1);
+        }
+        System.out.printf("soma ingênua   %.10f%n", ExemplosWildcards.somarNumeros(listaDecimos));
+        System.out.printf("soma compensada %.10f%n", decimos.soma());
+    }
+
+    /**
+     * Aquecimento por tempo (1 s) e depois média de 10 execuções
+     */
+    private static void cronometrar(String nome, int elementos, DoubleSupplier agregacao) {
+        double soma = 0;
+        long aquecimento = System.nanoTime();
+        while (System.nanoTime() - aquecimento < 1_000_000_000L) {
+            soma += agregacao.getAsDouble();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            soma += agregacao.getAsDouble();
+        }
+        long nanos = (System.nanoTime() - inicio) / 10;
+        sumidouro = soma;
+        System.out.printf("%-28s %,8.2f ms  (%.2f ns/elemento)%n", nome, nanos / 1e6, (double) nanos / elementos);
+    }
+}
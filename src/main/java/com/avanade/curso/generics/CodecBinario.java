@@ -0,0 +1,59 @@
+package com.avanade.curso.generics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serialização binária de um tipo, usada por {@link RepositorioArquivo}
+ *
+ * Ao contrário de {@code Serializable}, o formato é explícito e estável:
+ * o codec grava só os campos, sem nome de classe nem metadados, e a
+ * leitura não usa reflexão. {@code ler} deve consumir exatamente o que
+ * {@code escrever} gravou.
+ *
+ * @param <T> tipo codificado
+ */
+interface CodecBinario<T> {
+
+    void escrever(T valor, DataOutput saida) throws IOException;
+
+    T ler(DataInput entrada) throws IOException;
+
+    CodecBinario<Long> LONG = new CodecBinario<>() {
+        @Override
+        public void escrever(Long valor, DataOutput saida) throws IOException {
+            saida.writeLong(valor);
+        }
+
+        @Override
+        public Long ler(DataInput entrada) throws IOException {
+            return entrada.readLong();
+        }
+    };
+
+    CodecBinario<Integer> INTEIRO = new CodecBinario<>() {
+        @Override
+        public void escrever(Integer valor, DataOutput saida) throws IOException {
+            saida.writeInt(valor);
+        }
+
+        @Override
+        public Integer ler(DataInput entrada) throws IOException {
+            return entrada.readInt();
+        }
+    };
+
+    /** UTF-8 modificado (writeUTF): até 65.535 bytes codificados */
+    CodecBinario<String> TEXTO = new CodecBinario<>() {
+        @Override
+        public void escrever(String valor, DataOutput saida) throws IOException {
+            saida.writeUTF(valor);
+        }
+
+        @Override
+        public String ler(DataInput entrada) throws IOException {
+            return entrada.readUTF();
+        }
+    };
+}
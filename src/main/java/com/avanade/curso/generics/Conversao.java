@@ -0,0 +1,62 @@
+package com.avanade.curso.generics;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Conversão em vários passos aplicada em uma única passada
+ *
+ * <pre>
+ * Conversao.de(String::trim).depois(Integer::parseInt).depois(i -> i * 2)
+ *     .aplicar(linhas, UtilitariosGenericos.LIMIAR_PARALELO_PADRAO);
+ * </pre>
+ *
+ * Encadear {@code converter} três vezes aloca duas listas intermediárias
+ * do tamanho da entrada; aqui os passos são compostos em uma função e
+ * cada elemento passa por todos eles antes do próximo, direto para o
+ * destino pré-dimensionado. Imutável: cada {@link #depois} devolve uma
+ * nova conversão.
+ *
+ * @param <T> tipo de entrada
+ * @param <R> tipo após o último passo
+ */
+final class Conversao<T, R> {
+
+    private final Function<? super T, ? extends R> funcao;
+
+    private Conversao(Function<? super T, ? extends R> funcao) {
+        this.funcao = funcao;
+    }
+
+    static <T, R> Conversao<T, R> de(Function<? super T, ? extends R> primeiroPasso) {
+        return new Conversao<>(Objects.requireNonNull(primeiroPasso, "primeiroPasso"));
+    }
+
+    <V> Conversao<T, V> depois(Function<? super R, ? extends V> proximoPasso) {
+        Objects.requireNonNull(proximoPasso, "proximoPasso");
+        Function<? super T, ? extends R> atual = funcao;
+        return new Conversao<>(t -> proximoPasso.apply(atual.apply(t)));
+    }
+
+    R converter(T valor) {
+        return funcao.apply(valor);
+    }
+
+    List<R> aplicar(List<? extends T> lista) {
+        return UtilitariosGenericos.converterEmLote(lista, funcao);
+    }
+
+    /**
+     * Em paralelo a partir de {@code limiarParalelo} itens; todos os
+     * passos devem ser thread-safe
+     */
+    List<R> aplicar(List<? extends T> lista, int limiarParalelo) {
+        return UtilitariosGenericos.converterEmLote(lista, funcao, limiarParalelo);
+    }
+
+    R[] aplicar(T[] origem, IntFunction<R[]> criarArray, int limiarParalelo) {
+        return UtilitariosGenericos.converterArray(origem, criarArray, funcao, limiarParalelo);
+    }
+}
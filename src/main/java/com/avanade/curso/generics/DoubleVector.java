@@ -0,0 +1,223 @@
+package com.avanade.curso.generics;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Vetor de double sobre um array, com agregações em bloco sem boxing
+ *
+ * Também é um {@code List<Double>}, para entrar nas APIs genéricas
+ * (ex.: {@link ExemplosWildcards#somarNumeros}); elas detectam o tipo e
+ * usam os métodos em bloco em vez de desembrulhar elemento a elemento.
+ * Pela interface List cada get() embrulha um Double, então prefira
+ * {@link #getDouble} e as agregações.
+ *
+ * NÃO é thread-safe.
+ */
+final class DoubleVector extends AbstractList<Double> implements RandomAccess {
+
+    private double[] valores;
+    private int tamanho;
+
+    DoubleVector() {
+        this(10);
+    }
+
+    DoubleVector(int capacidade) {
+        this.valores = new double[capacidade];
+    }
+
+    private DoubleVector(double[] valores, int tamanho) {
+        this.valores = valores;
+        this.tamanho = tamanho;
+    }
+
+    /** Cópia dos valores */
+    static DoubleVector de(double... valores) {
+        return new DoubleVector(valores.clone(), valores.length);
+    }
+
+    // ============================================
+    // ACESSO SEM BOXING
+    // ============================================
+
+    void adicionar(double valor) {
+        if (tamanho == valores.length) {
+            crescer(tamanho + 1);
+        }
+        valores[tamanho++] = valor;
+        modCount++;
+    }
+
+    void adicionarTodos(double[] novos) {
+        if (tamanho + novos.length > valores.length) {
+            crescer(tamanho + novos.length);
+        }
+        System.arraycopy(novos, 0, valores, tamanho, novos.length);
+        tamanho += novos.length;
+        modCount++;
+    }
+
+    double getDouble(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        return valores[indice];
+    }
+
+    double setDouble(int indice, double valor) {
+        Objects.checkIndex(indice, tamanho);
+        double anterior = valores[indice];
+        valores[indice] = valor;
+        return anterior;
+    }
+
+    double[] paraArray() {
+        return Arrays.copyOf(valores, tamanho);
+    }
+
+    private void crescer(int minimo) {
+        valores = Arrays.copyOf(valores, Math.max(minimo, valores.length + (valores.length >> 1) + 1));
+    }
+
+    // ============================================
+    // AGREGAÇÕES EM BLOCO
+    // ============================================
+
+    /**
+     * Soma compensada (Kahan-Babuška/Neumaier): o erro de arredondamento
+     * de cada adição é acumulado à parte e devolvido no fim, então o
+     * erro não cresce com a quantidade de elementos como na soma ingênua
+     * (1e16 + 1 - 1e16 dá 1, não 0). O resultado ainda pode variar com a
+     * ordem em casos extremos.
+     *
+     * Com overflow ou elemento infinito a compensação vira NaN
+     * (inf - inf); nesse caso vale a soma simples, como no laço comum:
+     * ±Infinity, ou NaN só se a própria soma for NaN.
+     */
+    double soma() {
+        double[] v = valores;
+        double soma = 0;
+        double compensacao = 0;
+        for (int i = 0; i < tamanho; i++) {
+            double t = soma + v[i];
+            compensacao += erroSoma(soma, v[i], t);
+            soma = t;
+        }
+        return compensado(soma, compensacao);
+    }
+
+    private static double compensado(double soma, double compensacao) {
+        return Double.isFinite(soma) ? soma + compensacao : soma;
+    }
+
+    /** Erro de arredondamento de t = a + b, somado à parte (Neumaier) */
+    private static double erroSoma(double a, double b, double t) {
+        return Math.abs(a) >= Math.abs(b) ? (a - t) + b : (b - t) + a;
+    }
+
+    /** NaN se algum elemento for NaN (como Math.min) */
+    double minimo() {
+        exigirElementos();
+        double[] v = valores;
+        double minimo = v[0];
+        for (int i = 1; i < tamanho; i++) {
+            minimo = Math.min(minimo, v[i]);
+        }
+        return minimo;
+    }
+
+    /** NaN se algum elemento for NaN (como Math.max) */
+    double maximo() {
+        exigirElementos();
+        double[] v = valores;
+        double maximo = v[0];
+        for (int i = 1; i < tamanho; i++) {
+            maximo = Math.max(maximo, v[i]);
+        }
+        return maximo;
+    }
+
+    double media() {
+        exigirElementos();
+        return soma() / tamanho;
+    }
+
+    /**
+     * Produto escalar compensado (Dot2, Ogita-Rump-Oishi): o erro exato de
+     * cada produto vem de Math.fma e o da soma, da mesma compensação de
+     * {@link #soma()}, inclusive no tratamento de overflow e infinitos
+     */
+    double produtoEscalar(DoubleVector outro) {
+        if (outro.tamanho != tamanho) {
+            throw new IllegalArgumentException("Tamanhos diferentes: " + tamanho + " e " + outro.tamanho);
+        }
+        double[] a = valores;
+        double[] b = outro.valores;
+        double soma = 0;
+        double compensacao = 0;
+        for (int i = 0; i < tamanho; i++) {
+            double p = a[i] * b[i];
+            double erroProduto = Math.fma(a[i], b[i], -p);
+            double t = soma + p;
+            compensacao += erroSoma(soma, p, t) + erroProduto;
+            soma = t;
+        }
+        return compensado(soma, compensacao);
+    }
+
+    private void exigirElementos() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Vetor vazio");
+        }
+    }
+
+    // ============================================
+    // LIST<DOUBLE>
+    // ============================================
+
+    @Override
+    public Double get(int indice) {
+        return getDouble(indice);
+    }
+
+    @Override
+    public Double set(int indice, Double valor) {
+        return setDouble(indice, valor);
+    }
+
+    @Override
+    public void add(int indice, Double valor) {
+        Objects.checkIndex(indice, tamanho + 1);
+        double v = valor;
+        if (tamanho == valores.length) {
+            crescer(tamanho + 1);
+        }
+        System.arraycopy(valores, indice, valores, indice + 1, tamanho - indice);
+        valores[indice] = v;
+        tamanho++;
+        modCount++;
+    }
+
+    @Override
+    public Double remove(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        double anterior = valores[indice];
+        System.arraycopy(valores, indice + 1, valores, indice, tamanho - indice - 1);
+        tamanho--;
+        modCount++;
+        return anterior;
+    }
+
+    @Override
+    public void clear() {
+        tamanho = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+}
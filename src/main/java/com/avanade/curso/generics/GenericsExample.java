@@ -2,6 +2,11 @@ package com.avanade.curso.generics;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * GENERICS EM JAVA
@@ -87,8 +92,17 @@ class NumberBox<T extends Number> {
      * Verifica se é maior que outro número
      */
     public boolean isGreaterThan(T outro) {
+        // Inteiros comparam como long: via double, longs acima de 2^53
+        // perdem precisão e valores diferentes pareceriam iguais
+        if (ehInteiro(numero) && ehInteiro(outro)) {
+            return numero.longValue() > outro.longValue();
+        }
         return this.numero.doubleValue() > outro.doubleValue();
     }
+    
+    private static boolean ehInteiro(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
 }
 
 // ============================================
@@ -100,6 +114,29 @@ interface Repositorio<T, ID> {
     T buscarPorId(ID id);
     List<T> buscarTodos();
     void deletar(ID id);
+    
+    /**
+     * Stream das entidades. Implementações podem percorrer o armazenamento
+     * sob demanda; o padrão materializa buscarTodos()
+     */
+    default Stream<T> stream() {
+        return buscarTodos().stream();
+    }
+    
+    /**
+     * Até {@code limite} entidades que satisfazem o filtro, avaliado
+     * dentro do repositório (sem copiar as demais)
+     */
+    default List<T> buscar(Predicate<? super T> filtro, int limite) {
+        return stream().filter(filtro).limit(limite).toList();
+    }
+    
+    /**
+     * Paginação por keyset: até {@code tamanho} entidades com ID maior que
+     * {@code depoisDe} (null = desde o início), em ordem de ID, que
+     * satisfazem o filtro. A próxima página usa {@link Pagina#proximoCursor()}.
+     */
+    Pagina<T, ID> buscarPagina(ID depoisDe, int tamanho, Predicate<? super T> filtro);
 }
 
 // Implementação da interface genérica
@@ -121,35 +158,23 @@ class Usuario {
     }
 }
 
-class UsuarioRepository implements Repositorio<Usuario, Long> {
-    private Map<Long, Usuario> usuarios = new HashMap<>();
-    private long nextId = 1;
-    
-    @Override
-    public Usuario salvar(Usuario entidade) {
-        if (entidade.getId() == null) {
-            // Simula auto-incremento
-            usuarios.put(nextId, new Usuario(nextId, entidade.getNome()));
-            nextId++;
-        } else {
-            usuarios.put(entidade.getId(), entidade);
-        }
-        return usuarios.get(nextId - 1);
-    }
-    
-    @Override
-    public Usuario buscarPorId(Long id) {
-        return usuarios.get(id);
-    }
+/**
+ * Repositório de usuários: IDs atômicos, seguro entre threads e com
+ * índice por nome (ver {@link RepositorioConcorrente})
+ */
+class UsuarioRepository extends RepositorioConcorrente<Usuario, Long> {
+    private final Indice<Usuario, String> porNome;
     
-    @Override
-    public List<Usuario> buscarTodos() {
-        return new ArrayList<>(usuarios.values());
+    public UsuarioRepository() {
+        super(Usuario::getId, (u, id) -> new Usuario(id, u.getNome()), sequencial());
+        this.porNome = criarIndice("nome", Usuario::getNome);
     }
     
-    @Override
-    public void deletar(Long id) {
-        usuarios.remove(id);
+    /**
+     * Busca O(1) pelo índice, sem percorrer todos os usuários
+     */
+    public List<Usuario> buscarPorNome(String nome) {
+        return porNome.buscar(nome);
     }
 }
 
@@ -198,13 +223,102 @@ class UtilitariosGenericos {
      * Converter lista de um tipo para outro
      */
     public static <T, R> List<R> converter(List<T> lista, Function<T, R> converter) {
-        List<R> resultado = new ArrayList<>();
+        List<R> resultado = new ArrayList<>(lista.size());
         for (T item : lista) {
             resultado.add(converter.apply(item));
         }
         return resultado;
     }
     
+    // ============================================
+    // CONVERSÃO EM LOTE
+    // ============================================
+    
+    /**
+     * Abaixo disto, dividir entre threads custa mais (fork/join, tarefas,
+     * junção) do que a conversão em si
+     */
+    static final int LIMIAR_PARALELO_PADRAO = 10_000;
+    
+    /**
+     * Converte para uma lista de tamanho fixo: o array de destino é
+     * alocado uma vez no tamanho exato e preenchido por índice, sem o
+     * crescimento (e as cópias) de um ArrayList vazio
+     */
+    public static <T, R> List<R> converterEmLote(List<? extends T> lista, Function<? super T, ? extends R> conversor) {
+        return converterEmLote(lista, conversor, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Como {@link #converterEmLote(List, Function)}, em paralelo (ForkJoin
+     * comum) quando a lista tem pelo menos {@code limiarParalelo} itens.
+     * O conversor deve ser thread-safe; a ordem do resultado é a da entrada.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> converterEmLote(List<? extends T> lista, Function<? super T, ? extends R> conversor,
+                                                 int limiarParalelo) {
+        int n = lista.size();
+        Object[] destino = new Object[n];
+        if (n < limiarParalelo) {
+            int i = 0;
+            for (T item : lista) {
+                destino[i++] = conversor.apply(item);
+            }
+        } else if (lista instanceof RandomAccess) {
+            IntStream.range(0, n).parallel().forEach(i -> destino[i] = conversor.apply(lista.get(i)));
+        } else {
+            // LinkedList e afins: get(i) é O(n), então copia as referências antes
+            Object[] origem = lista.toArray();
+            IntStream.range(0, n).parallel().forEach(i -> destino[i] = conversor.apply((T) origem[i]));
+        }
+        return (List<R>) Arrays.asList(destino);
+    }
+    
+    /**
+     * Array → array, sem lista intermediária
+     *
+     * @param criarArray ex.: {@code Integer[]::new}
+     */
+    public static <T, R> R[] converterArray(T[] origem, IntFunction<R[]> criarArray,
+                                            Function<? super T, ? extends R> conversor) {
+        return converterArray(origem, criarArray, conversor, Integer.MAX_VALUE);
+    }
+    
+    public static <T, R> R[] converterArray(T[] origem, IntFunction<R[]> criarArray,
+                                            Function<? super T, ? extends R> conversor, int limiarParalelo) {
+        R[] destino = criarArray.apply(origem.length);
+        if (origem.length < limiarParalelo) {
+            for (int i = 0; i < origem.length; i++) {
+                destino[i] = conversor.apply(origem[i]);
+            }
+        } else {
+            IntStream.range(0, origem.length).parallel().forEach(i -> destino[i] = conversor.apply(origem[i]));
+        }
+        return destino;
+    }
+    
+    /**
+     * Conversão para int[] sem embrulhar cada resultado em Integer
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int[] converterParaInt(List<? extends T> lista, ToIntFunction<? super T> conversor,
+                                             int limiarParalelo) {
+        int n = lista.size();
+        int[] destino = new int[n];
+        if (n < limiarParalelo) {
+            int i = 0;
+            for (T item : lista) {
+                destino[i++] = conversor.applyAsInt(item);
+            }
+        } else if (lista instanceof RandomAccess) {
+            IntStream.range(0, n).parallel().forEach(i -> destino[i] = conversor.applyAsInt(lista.get(i)));
+        } else {
+            Object[] origem = lista.toArray();
+            IntStream.range(0, n).parallel().forEach(i -> destino[i] = conversor.applyAsInt((T) origem[i]));
+        }
+        return destino;
+    }
+    
     /**
      * Encontrar máximo em uma lista
      */
@@ -265,6 +379,18 @@ class ExemplosWildcards {
      * Pode ler como T, mas não pode adicionar
      */
     public static double somarNumeros(List<? extends Number> numeros) {
+        // Vetores primitivos somam o array em bloco, sem desembrulhar
+        // elemento a elemento (DoubleVector com soma compensada). LongVector
+        // acumula em double, como o laço abaixo: a soma em long estouraria
+        if (numeros instanceof DoubleVector vetor) {
+            return vetor.soma();
+        }
+        if (numeros instanceof IntVector vetor) {
+            return vetor.soma();
+        }
+        if (numeros instanceof LongVector vetor) {
+            return vetor.somaDouble();
+        }
         double soma = 0;
         for (Number n : numeros) {
             soma += n.doubleValue();
@@ -415,19 +541,30 @@ class HerancaComGenerics {
 // PADRÃO DE PROJETO: GENERIC BUILDER
 // ============================================
 
+/**
+ * Builder por nome de propriedade. Os setters são resolvidos uma vez por
+ * classe e compilados em lambdas (ver {@link PlanoConstrucao}), em vez de
+ * getMethod + Method.invoke a cada chamada.
+ */
 class GenericBuilder<T> {
-    private T objeto;
-    private Class<T> clazz;
+    private final PlanoConstrucao<T> plano;
+    private final T objeto;
+    
+    public GenericBuilder(Class<T> clazz) {
+        this.plano = PlanoConstrucao.de(clazz);
+        this.objeto = plano.novaInstancia();
+    }
     
-    public GenericBuilder(Class<T> clazz) throws Exception {
-        this.clazz = clazz;
-        this.objeto = clazz.getDeclaredConstructor().newInstance();
+    public GenericBuilder<T> com(String propriedade, Object valor) {
+        plano.definir(objeto, propriedade, valor);
+        return this;
     }
     
-    public GenericBuilder<T> com(String propriedade, Object valor) throws Exception {
-        // Usa reflection para setar propriedade
-        clazz.getMethod("set" + propriedade.substring(0, 1).toUpperCase() + propriedade.substring(1), 
-            valor.getClass()).invoke(objeto, valor);
+    /**
+     * Preenche várias propriedades de uma vez (nome → valor)
+     */
+    public GenericBuilder<T> comTodos(Map<String, ?> valores) {
+        plano.preencher(objeto, valores);
         return this;
     }
     
@@ -518,6 +655,7 @@ public class GenericsExample {
         
         Usuario encontrado = repo.buscarPorId(1L);
         System.out.println("Encontrado: " + encontrado);
+        System.out.println("Por nome: " + repo.buscarPorNome("João"));
     }
     
     public static void main(String[] args) throws Exception {
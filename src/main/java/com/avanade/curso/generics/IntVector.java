@@ -0,0 +1,190 @@
+package com.avanade.curso.generics;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Vetor de int sobre um array, com agregações em bloco sem boxing
+ *
+ * Também é um {@code List<Integer>}, para entrar nas APIs genéricas
+ * (ex.: {@link ExemplosWildcards#somarNumeros}); elas detectam o tipo e
+ * usam os métodos em bloco em vez de desembrulhar elemento a elemento.
+ * Pela interface List cada get() embrulha um Integer, então prefira
+ * {@link #getInt} e as agregações.
+ *
+ * NÃO é thread-safe.
+ */
+final class IntVector extends AbstractList<Integer> implements RandomAccess {
+
+    private int[] valores;
+    private int tamanho;
+
+    IntVector() {
+        this(10);
+    }
+
+    IntVector(int capacidade) {
+        this.valores = new int[capacidade];
+    }
+
+    private IntVector(int[] valores, int tamanho) {
+        this.valores = valores;
+        this.tamanho = tamanho;
+    }
+
+    /** Cópia dos valores */
+    static IntVector de(int... valores) {
+        return new IntVector(valores.clone(), valores.length);
+    }
+
+    // ============================================
+    // ACESSO SEM BOXING
+    // ============================================
+
+    void adicionar(int valor) {
+        if (tamanho == valores.length) {
+            crescer(tamanho + 1);
+        }
+        valores[tamanho++] = valor;
+        modCount++;
+    }
+
+    void adicionarTodos(int[] novos) {
+        if (tamanho + novos.length > valores.length) {
+            crescer(tamanho + novos.length);
+        }
+        System.arraycopy(novos, 0, valores, tamanho, novos.length);
+        tamanho += novos.length;
+        modCount++;
+    }
+
+    int getInt(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        return valores[indice];
+    }
+
+    int setInt(int indice, int valor) {
+        Objects.checkIndex(indice, tamanho);
+        int anterior = valores[indice];
+        valores[indice] = valor;
+        return anterior;
+    }
+
+    int[] paraArray() {
+        return Arrays.copyOf(valores, tamanho);
+    }
+
+    private void crescer(int minimo) {
+        valores = Arrays.copyOf(valores, Math.max(minimo, valores.length + (valores.length >> 1) + 1));
+    }
+
+    // ============================================
+    // AGREGAÇÕES EM BLOCO
+    // ============================================
+
+    /** Soma em long: não estoura com até 2^32 elementos */
+    long soma() {
+        int[] v = valores;
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += v[i];
+        }
+        return soma;
+    }
+
+    int minimo() {
+        exigirElementos();
+        int[] v = valores;
+        int minimo = v[0];
+        for (int i = 1; i < tamanho; i++) {
+            minimo = Math.min(minimo, v[i]);
+        }
+        return minimo;
+    }
+
+    int maximo() {
+        exigirElementos();
+        int[] v = valores;
+        int maximo = v[0];
+        for (int i = 1; i < tamanho; i++) {
+            maximo = Math.max(maximo, v[i]);
+        }
+        return maximo;
+    }
+
+    double media() {
+        exigirElementos();
+        return (double) soma() / tamanho;
+    }
+
+    /** Soma dos produtos em long (cada produto int*int cabe em long) */
+    long produtoEscalar(IntVector outro) {
+        if (outro.tamanho != tamanho) {
+            throw new IllegalArgumentException("Tamanhos diferentes: " + tamanho + " e " + outro.tamanho);
+        }
+        int[] a = valores;
+        int[] b = outro.valores;
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += (long) a[i] * b[i];
+        }
+        return soma;
+    }
+
+    private void exigirElementos() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Vetor vazio");
+        }
+    }
+
+    // ============================================
+    // LIST<INTEGER>
+    // ============================================
+
+    @Override
+    public Integer get(int indice) {
+        return getInt(indice);
+    }
+
+    @Override
+    public Integer set(int indice, Integer valor) {
+        return setInt(indice, valor);
+    }
+
+    @Override
+    public void add(int indice, Integer valor) {
+        Objects.checkIndex(indice, tamanho + 1);
+        int v = valor;
+        if (tamanho == valores.length) {
+            crescer(tamanho + 1);
+        }
+        System.arraycopy(valores, indice, valores, indice + 1, tamanho - indice);
+        valores[indice] = v;
+        tamanho++;
+        modCount++;
+    }
+
+    @Override
+    public Integer remove(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        int anterior = valores[indice];
+        System.arraycopy(valores, indice + 1, valores, indice, tamanho - indice - 1);
+        tamanho--;
+        modCount++;
+        return anterior;
+    }
+
+    @Override
+    public void clear() {
+        tamanho = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+}
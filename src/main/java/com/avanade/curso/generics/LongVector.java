@@ -0,0 +1,208 @@
+package com.avanade.curso.generics;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Vetor de long sobre um array, com agregações em bloco sem boxing
+ *
+ * Também é um {@code List<Long>}, para entrar nas APIs genéricas
+ * (ex.: {@link ExemplosWildcards#somarNumeros}); elas detectam o tipo e
+ * usam os métodos em bloco em vez de desembrulhar elemento a elemento.
+ * Pela interface List cada get() embrulha um Long, então prefira
+ * {@link #getLong} e as agregações.
+ *
+ * NÃO é thread-safe.
+ */
+final class LongVector extends AbstractList<Long> implements RandomAccess {
+
+    private long[] valores;
+    private int tamanho;
+
+    LongVector() {
+        this(10);
+    }
+
+    LongVector(int capacidade) {
+        this.valores = new long[capacidade];
+    }
+
+    private LongVector(long[] valores, int tamanho) {
+        this.valores = valores;
+        this.tamanho = tamanho;
+    }
+
+    /** Cópia dos valores */
+    static LongVector de(long... valores) {
+        return new LongVector(valores.clone(), valores.length);
+    }
+
+    // ============================================
+    // ACESSO SEM BOXING
+    // ============================================
+
+    void adicionar(long valor) {
+        if (tamanho == valores.length) {
+            crescer(tamanho + 1);
+        }
+        valores[tamanho++] = valor;
+        modCount++;
+    }
+
+    void adicionarTodos(long[] novos) {
+        if (tamanho + novos.length > valores.length) {
+            crescer(tamanho + novos.length);
+        }
+        System.arraycopy(novos, 0, valores, tamanho, novos.length);
+        tamanho += novos.length;
+        modCount++;
+    }
+
+    long getLong(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        return valores[indice];
+    }
+
+    long setLong(int indice, long valor) {
+        Objects.checkIndex(indice, tamanho);
+        long anterior = valores[indice];
+        valores[indice] = valor;
+        return anterior;
+    }
+
+    long[] paraArray() {
+        return Arrays.copyOf(valores, tamanho);
+    }
+
+    private void crescer(int minimo) {
+        valores = Arrays.copyOf(valores, Math.max(minimo, valores.length + (valores.length >> 1) + 1));
+    }
+
+    // ============================================
+    // AGREGAÇÕES EM BLOCO
+    // ============================================
+
+    /** Soma em long: como o operador +, estoura em silêncio */
+    long soma() {
+        long[] v = valores;
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += v[i];
+        }
+        return soma;
+    }
+
+    long minimo() {
+        exigirElementos();
+        long[] v = valores;
+        long minimo = v[0];
+        for (int i = 1; i < tamanho; i++) {
+            minimo = Math.min(minimo, v[i]);
+        }
+        return minimo;
+    }
+
+    long maximo() {
+        exigirElementos();
+        long[] v = valores;
+        long maximo = v[0];
+        for (int i = 1; i < tamanho; i++) {
+            maximo = Math.max(maximo, v[i]);
+        }
+        return maximo;
+    }
+
+    /**
+     * Soma acumulada em double com compensação: não estoura mesmo
+     * quando a soma não caberia em long
+     */
+    double somaDouble() {
+        long[] v = valores;
+        double soma = 0;
+        double compensacao = 0;
+        for (int i = 0; i < tamanho; i++) {
+            double x = v[i];
+            double t = soma + x;
+            compensacao += Math.abs(soma) >= Math.abs(x) ? (soma - t) + x : (x - t) + soma;
+            soma = t;
+        }
+        return soma + compensacao;
+    }
+
+    /** Média sobre {@link #somaDouble()} */
+    double media() {
+        exigirElementos();
+        return somaDouble() / tamanho;
+    }
+
+    /** Soma dos produtos em long: estoura em silêncio como o operador * */
+    long produtoEscalar(LongVector outro) {
+        if (outro.tamanho != tamanho) {
+            throw new IllegalArgumentException("Tamanhos diferentes: " + tamanho + " e " + outro.tamanho);
+        }
+        long[] a = valores;
+        long[] b = outro.valores;
+        long soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += a[i] * b[i];
+        }
+        return soma;
+    }
+
+    private void exigirElementos() {
+        if (tamanho == 0) {
+            throw new NoSuchElementException("Vetor vazio");
+        }
+    }
+
+    // ============================================
+    // LIST<LONG>
+    // ============================================
+
+    @Override
+    public Long get(int indice) {
+        return getLong(indice);
+    }
+
+    @Override
+    public Long set(int indice, Long valor) {
+        return setLong(indice, valor);
+    }
+
+    @Override
+    public void add(int indice, Long valor) {
+        Objects.checkIndex(indice, tamanho + 1);
+        long v = valor;
+        if (tamanho == valores.length) {
+            crescer(tamanho + 1);
+        }
+        System.arraycopy(valores, indice, valores, indice + 1, tamanho - indice);
+        valores[indice] = v;
+        tamanho++;
+        modCount++;
+    }
+
+    @Override
+    public Long remove(int indice) {
+        Objects.checkIndex(indice, tamanho);
+        long anterior = valores[indice];
+        System.arraycopy(valores, indice + 1, valores, indice, tamanho - indice - 1);
+        tamanho--;
+        modCount++;
+        return anterior;
+    }
+
+    @Override
+    public void clear() {
+        tamanho = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+}
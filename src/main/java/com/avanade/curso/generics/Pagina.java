@@ -0,0 +1,25 @@
+package com.avanade.curso.generics;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados com o cursor da próxima (paginação por keyset)
+ *
+ * O cursor é o ID do último item aceito pelo filtro (o último de
+ * {@link #itens()}), não um deslocamento: inserções e exclusões entre uma
+ * página e outra não fazem itens pularem ou repetirem, e buscar a página
+ * N não exige percorrer as N-1 anteriores. IDs examinados depois dele e
+ * recusados pelo filtro são examinados de novo na próxima página.
+ *
+ * Com filtro, {@link #temProxima()} só indica que há IDs depois do
+ * cursor; a próxima página pode vir vazia se nenhum deles passar.
+ *
+ * @param itens         entidades desta página
+ * @param proximoCursor ID a passar como {@code depoisDe}; null na última página
+ */
+record Pagina<T, ID>(List<T> itens, ID proximoCursor) {
+
+    boolean temProxima() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,312 @@
+package com.avanade.curso.generics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Setters e construtor de uma classe resolvidos uma única vez
+ *
+ * {@code getMethod + Method.invoke} a cada propriedade paga a busca por
+ * nome, a verificação de acesso e o array de argumentos em toda chamada.
+ * Aqui a classe é inspecionada na primeira vez que aparece (cache por
+ * {@link ClassValue}) e cada setter vira um {@code BiConsumer} gerado por
+ * {@link LambdaMetafactory} - a mesma maquinaria de {@code Pessoa::setNome}.
+ * Depois do JIT, a chamada é inlinada como um setter direto.
+ *
+ * Quando a LambdaMetafactory não tem acesso à classe (ex.: setter herdado
+ * de uma classe de outro módulo), usa o MethodHandle diretamente.
+ *
+ * Propriedades: métodos públicos {@code setX(valor)} de instância,
+ * inclusive herdados e fluentes (que retornam o próprio objeto). A
+ * propriedade aceita "x" e "X". Valores não são convertidos: Integer vai
+ * para int/Integer, mas não para long.
+ *
+ * Thread-safe: o plano é imutável depois de construído.
+ *
+ * @param <T> classe construída
+ */
+final class PlanoConstrucao<T> {
+
+    private static final ClassValue<PlanoConstrucao<?>> PLANOS = new ClassValue<>() {
+        @Override
+        protected PlanoConstrucao<?> computeValue(Class<?> classe) {
+            return new PlanoConstrucao<>(classe);
+        }
+    };
+
+    private final Class<T> classe;
+    private final Supplier<T> construtor;
+    private final Map<String, Propriedade> propriedades;
+
+    private PlanoConstrucao(Class<T> classe) {
+        this.classe = classe;
+        this.construtor = compilarConstrutor(classe);
+        Map<String, List<Setter>> porNome = new HashMap<>();
+        for (Method metodo : classe.getMethods()) {
+            if (!Modifier.isStatic(metodo.getModifiers()) && metodo.getParameterCount() == 1
+                    && metodo.getName().length() > 3 && metodo.getName().startsWith("set")) {
+                porNome.computeIfAbsent(metodo.getName().substring(3), n -> new ArrayList<>())
+                    .add(new Setter(metodo.getParameterTypes()[0], compilarSetter(metodo)));
+            }
+        }
+        Map<String, Propriedade> mapa = new HashMap<>();
+        porNome.forEach((sufixo, setters) -> {
+            Propriedade propriedade = new Propriedade(decapitalizar(sufixo), setters.toArray(new Setter[0]));
+            mapa.put(propriedade.nome, propriedade);
+            mapa.putIfAbsent(sufixo, propriedade);
+        });
+        this.propriedades = mapa;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PlanoConstrucao<T> de(Class<T> classe) {
+        return (PlanoConstrucao<T>) PLANOS.get(classe);
+    }
+
+    Class<T> getClasse() {
+        return classe;
+    }
+
+    /**
+     * Nomes das propriedades graváveis
+     */
+    Set<String> propriedades() {
+        Set<String> nomes = new TreeSet<>();
+        propriedades.values().forEach(p -> nomes.add(p.nome));
+        return Collections.unmodifiableSet(nomes);
+    }
+
+    /**
+     * Nova instância pelo construtor sem argumentos
+     *
+     * @throws IllegalStateException se a classe não tiver um acessível
+     */
+    T novaInstancia() {
+        if (construtor == null) {
+            throw new IllegalStateException(classe.getName() + " não tem construtor sem argumentos acessível");
+        }
+        return construtor.get();
+    }
+
+    /**
+     * @throws IllegalArgumentException propriedade inexistente ou valor de tipo incompatível
+     */
+    void definir(T objeto, String propriedade, Object valor) {
+        propriedade(propriedade).definir(objeto, valor);
+    }
+
+    /**
+     * Aplica todas as entradas do mapa (nome da propriedade → valor)
+     */
+    T preencher(T objeto, Map<String, ?> valores) {
+        for (Map.Entry<String, ?> entrada : valores.entrySet()) {
+            propriedade(entrada.getKey()).definir(objeto, entrada.getValue());
+        }
+        return objeto;
+    }
+
+    T criar(Map<String, ?> valores) {
+        return preencher(novaInstancia(), valores);
+    }
+
+    /**
+     * Setter já resolvido, para laços que gravam a mesma propriedade em
+     * muitos objetos sem repetir a busca por nome
+     *
+     * Sem sobrecarga e com parâmetro de referência, devolve o próprio
+     * lambda gerado: cada ponto de chamada fica monomórfico e o JIT o
+     * inlina como um setter direto. Nesse caso um valor de tipo errado
+     * lança ClassCastException (o cast do próprio lambda).
+     */
+    @SuppressWarnings("unchecked")
+    BiConsumer<T, Object> setter(String propriedade) {
+        Propriedade p = propriedade(propriedade);
+        if (p.setters.length == 1 && !p.setters[0].tipo().isPrimitive()) {
+            return (BiConsumer<T, Object>) p.setters[0].acao();
+        }
+        return p::definir;
+    }
+
+    private Propriedade propriedade(String nome) {
+        Propriedade propriedade = propriedades.get(nome);
+        if (propriedade == null) {
+            throw new IllegalArgumentException("Propriedade inexistente em " + classe.getSimpleName() + ": " + nome);
+        }
+        return propriedade;
+    }
+
+    // ============================================
+    // COMPILAÇÃO
+    // ============================================
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> compilarConstrutor(Class<T> classe) {
+        if (classe.isInterface() || Modifier.isAbstract(classe.getModifiers())) {
+            return null;
+        }
+        MethodHandles.Lookup lookup;
+        MethodHandle construtor;
+        try {
+            lookup = lookupPrivado(classe);
+            construtor = lookup.findConstructor(classe, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            return null; // sem construtor sem argumentos acessível
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                construtor, MethodType.methodType(classe));
+            return (Supplier<T>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generico = construtor.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (T) generico.invokeExact();
+                } catch (Throwable t) {
+                    throw propagar(t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compilarSetter(Method metodo) {
+        MethodHandle alvo;
+        try {
+            alvo = MethodHandles.publicLookup().unreflect(metodo);
+        } catch (IllegalAccessException e) {
+            // Método público declarado em classe não pública: acessível só
+            // pela subclasse pública, via lookup privado
+            try {
+                alvo = lookupPrivado(metodo.getDeclaringClass()).unreflect(metodo);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Setter inacessível: " + metodo, ex);
+            }
+        }
+        Class<?> declarante = metodo.getDeclaringClass();
+        Class<?> parametro = embrulhar(metodo.getParameterTypes()[0]);
+        try {
+            MethodHandles.Lookup lookup = lookupPrivado(declarante);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                alvo, MethodType.methodType(void.class, declarante, parametro));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generico = alvo.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (objeto, valor) -> {
+                try {
+                    generico.invokeExact(objeto, valor);
+                } catch (Throwable t) {
+                    throw propagar(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Lookup com acesso privado à classe (mesmo módulo, ou pacote aberto);
+     * sem ele, só o lookup público
+     */
+    private static MethodHandles.Lookup lookupPrivado(Class<?> classe) {
+        try {
+            return MethodHandles.privateLookupIn(classe, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    private static RuntimeException propagar(Throwable t) {
+        if (t instanceof RuntimeException r) {
+            return r;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        return new IllegalStateException(t);
+    }
+
+    private static Class<?> embrulhar(Class<?> tipo) {
+        return MethodType.methodType(tipo).wrap().returnType();
+    }
+
+    /** "Nome" → "nome", mas "URL" continua "URL" (como java.beans.Introspector) */
+    private static String decapitalizar(String nome) {
+        if (nome.length() > 1 && Character.isUpperCase(nome.charAt(0)) && Character.isUpperCase(nome.charAt(1))) {
+            return nome;
+        }
+        return Character.toLowerCase(nome.charAt(0)) + nome.substring(1);
+    }
+
+    // ============================================
+    // PROPRIEDADES
+    // ============================================
+
+    private record Setter(Class<?> tipo, BiConsumer<Object, Object> acao) {
+    }
+
+    /**
+     * Um nome pode ter setters sobrecarregados; escolhe pelo tipo do valor.
+     * A ordem de getMethods() não é especificada, então os setters são
+     * ordenados do tipo mais específico para o mais genérico: o primeiro
+     * que aceita o valor é o que o compilador escolheria
+     */
+    private static final class Propriedade {
+        final String nome;
+        final Setter[] setters;
+        /** Tipos embrulhados, para não chamar wrap() a cada escrita */
+        final Class<?>[] tipos;
+
+        Propriedade(String nome, Setter[] setters) {
+            this.nome = nome;
+            this.setters = doMaisEspecifico(setters);
+            this.tipos = new Class<?>[setters.length];
+            for (int i = 0; i < setters.length; i++) {
+                tipos[i] = embrulhar(setters[i].tipo);
+            }
+        }
+
+        /**
+         * Insere cada setter antes do primeiro cujo tipo é supertipo do seu;
+         * como a relação é só uma ordem parcial, não dá para usar um Comparator
+         */
+        private static Setter[] doMaisEspecifico(Setter[] setters) {
+            List<Setter> ordenados = new ArrayList<>(setters.length);
+            for (Setter setter : setters) {
+                Class<?> tipo = embrulhar(setter.tipo);
+                int posicao = 0;
+                while (posicao < ordenados.size()
+                        && !embrulhar(ordenados.get(posicao).tipo).isAssignableFrom(tipo)) {
+                    posicao++;
+                }
+                ordenados.add(posicao, setter);
+            }
+            return ordenados.toArray(new Setter[0]);
+        }
+
+        void definir(Object objeto, Object valor) {
+            for (int i = 0; i < setters.length; i++) {
+                if (valor == null ? !setters[i].tipo.isPrimitive() : tipos[i].isInstance(valor)) {
+                    setters[i].acao.accept(objeto, valor);
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("Valor incompatível com " + nome + ": "
+                + (valor == null ? "null" : valor.getClass().getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,845 @@
+package com.avanade.curso.generics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Repositório persistente: log append-only mapeado em memória
+ *
+ * Formato do arquivo:
+ * <pre>
+ * [magic "REPO"][versão]                          cabeçalho, 8 bytes
+ * [tamanho][crc32][tipo][tamanho id][id][valor]   um registro por escrita
+ * </pre>
+ * - Gravação: anexa a entidade inteira; a anterior do mesmo ID vira
+ *   espaço morto
+ * - Exclusão: anexa um registro só com o ID (lápide)
+ * - Marca: registro só com o ID, gravado pela compactação quando o maior
+ *   ID já usado foi excluído - sem ela a sequência recomeçaria do maior
+ *   ID vivo após reabrir e reaproveitaria IDs
+ * - Índice: {@code HashMap<ID, posição>} em memória, reconstruído ao
+ *   abrir reproduzindo o log
+ * - Leitura: decodifica direto da região mapeada; registros quentes
+ *   estão no page cache e a leitura não faz chamada de sistema
+ *
+ * Recuperação: ao abrir, o log é reproduzido até o primeiro registro
+ * com tamanho inválido ou CRC que não confere (escrita interrompida por
+ * queda). Esse ponto passa a ser o fim do log e o resto é zerado, então
+ * perde-se no máximo o que não tinha sido sincronizado.
+ *
+ * Compactação: quando o espaço morto passa do limiar e supera o vivo, uma
+ * thread de fundo copia os registros vivos para um arquivo novo sem
+ * bloquear leituras nem escritas; só a cópia da cauda escrita durante a
+ * compactação e a troca de arquivo (rename atômico) são feitas com lock
+ * exclusivo. Uma queda no meio deixa o arquivo original intacto.
+ *
+ * Durabilidade: escritas vão para o page cache; {@link #sincronizar()}
+ * (e {@link #close()}) forçam o conteúdo para o disco.
+ *
+ * Limite: um único mapeamento, então o log tem no máximo 2 GB.
+ *
+ * @param <T>  tipo da entidade (imutável, ou tratada como tal após salvar)
+ * @param <ID> tipo do identificador
+ */
+class RepositorioArquivo<T, ID extends Comparable<? super ID>> implements Repositorio<T, ID>, AutoCloseable {
+
+    private static final int MAGIC = 0x5245504F; // "REPO"
+    /** Versão 2 acrescenta o registro de marca; a 1 continua legível */
+    private static final int VERSAO = 2;
+    private static final int CABECALHO = 8;
+    /** tamanho + crc */
+    private static final int CABECALHO_REGISTRO = 8;
+    /** tipo + tamanho do ID */
+    private static final int PREFIXO_CORPO = 5;
+    private static final byte GRAVACAO = 1;
+    private static final byte EXCLUSAO = 2;
+    private static final byte MARCA = 3;
+    private static final int CAPACIDADE_INICIAL = 64 * 1024;
+    private static final long CAPACIDADE_MAXIMA = Integer.MAX_VALUE;
+
+    private final Path arquivo;
+    private final CodecBinario<T> codec;
+    private final CodecBinario<ID> codecId;
+    private final Function<? super T, ? extends ID> extratorId;
+    private final BiFunction<? super T, ? super ID, ? extends T> atribuirId;
+    private final UnaryOperator<ID> proximoId;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final ReentrantLock travaCompactacao = new ReentrantLock();
+    private final AtomicBoolean compactacaoAgendada = new AtomicBoolean();
+    private final ExecutorService compactador;
+
+    // Protegidos por trava
+    private FileChannel canal;
+    private MappedByteBuffer mapa;
+    private int fim;
+    private Estado<ID> estado = new Estado<>();
+    /** IDs presentes em ordem, para paginação por keyset */
+    private final TreeSet<ID> ids = new TreeSet<>();
+    private final BufferEscrita escrita = new BufferEscrita();
+    private final DataOutputStream saida = new DataOutputStream(escrita);
+    private boolean fechado;
+
+    private volatile long limiarCompactacao = 4L * 1024 * 1024;
+
+    /**
+     * Abre (ou cria) o arquivo e reconstrói o índice
+     *
+     * @param codec      formato da entidade
+     * @param codecId    formato do ID
+     * @param extratorId ID da entidade (null = ainda não salva)
+     * @param atribuirId cria a entidade com o ID gerado
+     * @param proximoId  próximo ID a partir do maior já usado (null se nenhum)
+     */
+    RepositorioArquivo(Path arquivo, CodecBinario<T> codec, CodecBinario<ID> codecId,
+                       Function<? super T, ? extends ID> extratorId,
+                       BiFunction<? super T, ? super ID, ? extends T> atribuirId,
+                       UnaryOperator<ID> proximoId) throws IOException {
+        this.arquivo = Objects.requireNonNull(arquivo, "arquivo");
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.codecId = Objects.requireNonNull(codecId, "codecId");
+        this.extratorId = Objects.requireNonNull(extratorId, "extratorId");
+        this.atribuirId = Objects.requireNonNull(atribuirId, "atribuirId");
+        this.proximoId = Objects.requireNonNull(proximoId, "proximoId");
+
+        // Sobra de uma compactação interrompida: o original continua válido
+        Files.deleteIfExists(temporario());
+        this.canal = FileChannel.open(arquivo,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            abrir();
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        this.compactador = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "compactacao-" + arquivo.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Repositório com IDs Long sequenciais, continuando do maior já gravado
+     */
+    static <T> RepositorioArquivo<T, Long> comIdLong(Path arquivo, CodecBinario<T> codec,
+                                                     Function<? super T, Long> extratorId,
+                                                     BiFunction<? super T, Long, ? extends T> atribuirId)
+            throws IOException {
+        return new RepositorioArquivo<>(arquivo, codec, CodecBinario.LONG, extratorId, atribuirId,
+            ultimo -> ultimo == null ? 1L : ultimo + 1);
+    }
+
+    // ============================================
+    // ABERTURA E RECUPERAÇÃO
+    // ============================================
+
+    private void abrir() throws IOException {
+        long tamanho = canal.size();
+        if (tamanho == 0) {
+            mapa = mapear(canal, CAPACIDADE_INICIAL);
+            mapa.putInt(0, MAGIC);
+            mapa.putInt(4, VERSAO);
+            fim = CABECALHO;
+            return;
+        }
+        if (tamanho < CABECALHO || tamanho > CAPACIDADE_MAXIMA) {
+            throw new IOException("Arquivo não é um repositório: " + arquivo);
+        }
+        mapa = mapear(canal, tamanho);
+        if (mapa.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo não é um repositório: " + arquivo);
+        }
+        if (mapa.getInt(4) < 1 || mapa.getInt(4) > VERSAO) {
+            throw new IOException("Versão não suportada " + mapa.getInt(4) + ": " + arquivo);
+        }
+
+        fim = reproduzir(mapa, CABECALHO, mapa.capacity(), estado);
+        ids.addAll(estado.posicoes.keySet());
+        if (!zerado(mapa, fim)) {
+            // Cauda de uma escrita interrompida: descarta para que novos
+            // registros não sejam seguidos por lixo que pareça válido
+            for (int i = fim; i < mapa.capacity(); i++) {
+                mapa.put(i, (byte) 0);
+            }
+            mapa.force();
+        }
+    }
+
+    /**
+     * Aplica os registros de [inicio, limite) ao estado, parando no
+     * primeiro inválido
+     *
+     * @return posição logo após o último registro válido
+     */
+    private int reproduzir(ByteBuffer buffer, int inicio, int limite, Estado<ID> destino) {
+        int pos = inicio;
+        CRC32 crc = new CRC32();
+        while (pos + CABECALHO_REGISTRO + PREFIXO_CORPO <= limite) {
+            int tamanho = buffer.getInt(pos);
+            if (tamanho < PREFIXO_CORPO || tamanho > limite - pos - CABECALHO_REGISTRO) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(pos + CABECALHO_REGISTRO, tamanho));
+            if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+                break;
+            }
+            byte tipo = buffer.get(pos + CABECALHO_REGISTRO);
+            int tamanhoId = buffer.getInt(pos + CABECALHO_REGISTRO + 1);
+            if (tipo < GRAVACAO || tipo > MARCA || tamanhoId < 0 || tamanhoId > tamanho - PREFIXO_CORPO) {
+                break;
+            }
+            ID id = decodificar(codecId, buffer.slice(pos + CABECALHO_REGISTRO + PREFIXO_CORPO, tamanhoId));
+            registrar(destino, buffer, tipo, id, pos, CABECALHO_REGISTRO + tamanho);
+            pos += CABECALHO_REGISTRO + tamanho;
+        }
+        return pos;
+    }
+
+    /**
+     * Atualiza índice e contadores para um registro anexado em {@code pos}
+     */
+    private static <ID extends Comparable<? super ID>> void registrar(Estado<ID> estado, ByteBuffer buffer,
+                                                                      byte tipo, ID id, int pos, int tamanho) {
+        if (tipo == MARCA) {
+            // Só avança a sequência; é mantida pela compactação, então conta como viva
+            estado.bytesVivos += tamanho;
+            if (estado.maiorId == null || id.compareTo(estado.maiorId) > 0) {
+                estado.maiorId = id;
+            }
+            return;
+        }
+        Integer anterior = tipo == GRAVACAO ? estado.posicoes.put(id, pos) : estado.posicoes.remove(id);
+        if (anterior != null) {
+            int tamanhoAnterior = CABECALHO_REGISTRO + buffer.getInt(anterior);
+            estado.bytesVivos -= tamanhoAnterior;
+            estado.bytesMortos += tamanhoAnterior;
+        }
+        if (tipo == GRAVACAO) {
+            estado.bytesVivos += tamanho;
+            if (estado.maiorId == null || id.compareTo(estado.maiorId) > 0) {
+                estado.maiorId = id;
+            }
+        } else {
+            estado.bytesMortos += tamanho;
+        }
+    }
+
+    private static boolean zerado(ByteBuffer buffer, int inicio) {
+        for (int i = inicio; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================================
+    // REPOSITORIO
+    // ============================================
+
+    @Override
+    public T salvar(T entidade) {
+        Objects.requireNonNull(entidade, "entidade");
+        trava.writeLock().lock();
+        try {
+            verificarAberto();
+            ID id = extratorId.apply(entidade);
+            if (id == null) {
+                id = proximoId.apply(estado.maiorId);
+                entidade = atribuirId.apply(entidade, id);
+            }
+            int pos = anexar(GRAVACAO, id, entidade);
+            registrar(estado, mapa, GRAVACAO, id, pos, fim - pos);
+            ids.add(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+        agendarCompactacaoSeNecessario();
+        return entidade;
+    }
+
+    @Override
+    public T buscarPorId(ID id) {
+        trava.readLock().lock();
+        try {
+            verificarAberto();
+            Integer pos = estado.posicoes.get(id);
+            return pos == null ? null : ler(pos);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> buscarTodos() {
+        return buscar(entidade -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void deletar(ID id) {
+        trava.writeLock().lock();
+        try {
+            verificarAberto();
+            if (!estado.posicoes.containsKey(id)) {
+                return;
+            }
+            int pos = anexar(EXCLUSAO, id, null);
+            registrar(estado, mapa, EXCLUSAO, id, pos, fim - pos);
+            ids.remove(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+        agendarCompactacaoSeNecessario();
+    }
+
+    /**
+     * Percorre em ordem de ID decodificando uma entidade por vez, até o limite
+     */
+    @Override
+    public List<T> buscar(Predicate<? super T> filtro, int limite) {
+        List<T> resultado = new ArrayList<>();
+        if (limite <= 0) {
+            return resultado;
+        }
+        trava.readLock().lock();
+        try {
+            verificarAberto();
+            for (ID id : ids) {
+                T entidade = ler(estado.posicoes.get(id));
+                if (filtro.test(entidade)) {
+                    resultado.add(entidade);
+                    if (resultado.size() == limite) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    @Override
+    public Pagina<T, ID> buscarPagina(ID depoisDe, int tamanho, Predicate<? super T> filtro) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("Tamanho de página deve ser positivo: " + tamanho);
+        }
+        trava.readLock().lock();
+        try {
+            verificarAberto();
+            Set<ID> restantes = depoisDe == null ? ids : ids.tailSet(depoisDe, false);
+            List<T> itens = new ArrayList<>(Math.min(tamanho, 64));
+            ID ultimo = null;
+            for (ID id : restantes) {
+                T entidade = ler(estado.posicoes.get(id));
+                if (filtro.test(entidade)) {
+                    itens.add(entidade);
+                    ultimo = id;
+                    if (itens.size() == tamanho) {
+                        break;
+                    }
+                }
+            }
+            boolean haMais = ultimo != null && itens.size() == tamanho && ids.higher(ultimo) != null;
+            return new Pagina<>(itens, haMais ? ultimo : null);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public Pagina<T, ID> buscarPagina(ID depoisDe, int tamanho) {
+        return buscarPagina(depoisDe, tamanho, entidade -> true);
+    }
+
+    public boolean existe(ID id) {
+        trava.readLock().lock();
+        try {
+            verificarAberto();
+            return estado.posicoes.containsKey(id);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        trava.readLock().lock();
+        try {
+            verificarAberto();
+            return estado.posicoes.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ============================================
+    // LOG
+    // ============================================
+
+    /**
+     * Anexa um registro no fim do log (com a trava de escrita)
+     *
+     * O corpo e o CRC são gravados antes do tamanho: um registro só passa
+     * a ser visto pela recuperação quando o tamanho é escrito.
+     *
+     * @return posição do registro
+     */
+    private int anexar(byte tipo, ID id, T entidade) {
+        int tamanho = codificar(escrita, saida, tipo, id, entidade);
+        garantirCapacidade(CABECALHO_REGISTRO + tamanho);
+        int pos = fim;
+        fim = pos + gravarRegistro(mapa, pos, escrita);
+        return pos;
+    }
+
+    /**
+     * Serializa o corpo do registro (tipo, tamanho do ID, ID, valor) em
+     * {@code buffer}, que é reiniciado
+     *
+     * @return tamanho do corpo
+     */
+    private int codificar(BufferEscrita buffer, DataOutputStream saida, byte tipo, ID id, T entidade) {
+        buffer.reset();
+        try {
+            saida.writeByte(tipo);
+            saida.writeInt(0); // tamanho do ID, preenchido abaixo
+            codecId.escrever(id, saida);
+            int tamanhoId = buffer.size() - PREFIXO_CORPO;
+            if (entidade != null) {
+                codec.escrever(entidade, saida);
+            }
+            buffer.preencherInt(1, tamanhoId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.size();
+    }
+
+    /**
+     * Grava o corpo em {@code buffer} como registro em {@code pos}: corpo
+     * e CRC antes do tamanho
+     *
+     * @return bytes ocupados, com o cabeçalho do registro
+     */
+    private static int gravarRegistro(ByteBuffer destino, int pos, BufferEscrita buffer) {
+        int tamanho = buffer.size();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.bytes(), 0, tamanho);
+        destino.put(pos + CABECALHO_REGISTRO, buffer.bytes(), 0, tamanho);
+        destino.putInt(pos + 4, (int) crc.getValue());
+        destino.putInt(pos, tamanho);
+        return CABECALHO_REGISTRO + tamanho;
+    }
+
+    private T ler(int pos) {
+        int tamanho = mapa.getInt(pos);
+        int tamanhoId = mapa.getInt(pos + CABECALHO_REGISTRO + 1);
+        int inicioValor = pos + CABECALHO_REGISTRO + PREFIXO_CORPO + tamanhoId;
+        return decodificar(codec, mapa.slice(inicioValor, tamanho - PREFIXO_CORPO - tamanhoId));
+    }
+
+    private static <V> V decodificar(CodecBinario<V> codec, ByteBuffer origem) {
+        try {
+            return codec.ler(new EntradaBuffer(origem));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Remapeia com o dobro da capacidade quando o registro não cabe.
+     * O mapeamento antigo é liberado pelo GC.
+     */
+    private void garantirCapacidade(int bytes) {
+        long necessario = (long) fim + bytes;
+        if (necessario <= mapa.capacity()) {
+            return;
+        }
+        if (necessario > CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Log excede 2 GB: " + arquivo);
+        }
+        try {
+            mapa = mapear(canal, Math.max(necessario, Math.min(CAPACIDADE_MAXIMA, 2L * mapa.capacity())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, long tamanho) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+    }
+
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("Repositório fechado: " + arquivo);
+        }
+    }
+
+    // ============================================
+    // COMPACTAÇÃO
+    // ============================================
+
+    /**
+     * Espaço morto mínimo para disparar a compactação em segundo plano
+     * (ela também exige mais bytes mortos que vivos)
+     */
+    public void setLimiarCompactacao(long bytes) {
+        this.limiarCompactacao = bytes;
+    }
+
+    public long getBytesVivos() {
+        trava.readLock().lock();
+        try {
+            return estado.bytesVivos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public long getBytesMortos() {
+        trava.readLock().lock();
+        try {
+            return estado.bytesMortos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Roda depois que a escrita já foi aplicada e a trava liberada: um
+     * close() concorrente não pode transformar essa escrita em falha, então
+     * repositório fechado (ou executor já desligado) só dispensa a compactação
+     */
+    private void agendarCompactacaoSeNecessario() {
+        long mortos;
+        long vivos;
+        trava.readLock().lock();
+        try {
+            if (fechado) {
+                return;
+            }
+            mortos = estado.bytesMortos;
+            vivos = estado.bytesVivos;
+        } finally {
+            trava.readLock().unlock();
+        }
+        if (mortos >= limiarCompactacao && mortos > vivos && compactacaoAgendada.compareAndSet(false, true)) {
+            try {
+                compactador.execute(() -> {
+                    try {
+                        compactar();
+                    } finally {
+                        compactacaoAgendada.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                compactacaoAgendada.set(false);
+            }
+        }
+    }
+
+    /**
+     * Reescreve o log só com os registros vivos, em ordem de ID
+     *
+     * 1. Com a trava de leitura: fotografa as posições, o maior ID já
+     *    usado e o fim do log
+     * 2. Sem trava: copia os registros fotografados para o arquivo novo
+     *    (os bytes antes do fim nunca mudam, então a cópia é segura),
+     *    precedidos de uma marca se o maior ID já usado não está vivo
+     * 3. Com a trava de escrita: copia a cauda anexada durante o passo 2,
+     *    reproduz só essa cauda e troca os arquivos
+     */
+    public void compactar() {
+        travaCompactacao.lock();
+        try {
+            List<ID> instantaneo;
+            int[] posicoes;
+            ID marca;
+            int limite;
+            MappedByteBuffer origem;
+            trava.readLock().lock();
+            try {
+                if (fechado || estado.bytesMortos == 0) {
+                    return;
+                }
+                instantaneo = new ArrayList<>(ids);
+                posicoes = new int[instantaneo.size()];
+                for (int i = 0; i < posicoes.length; i++) {
+                    posicoes[i] = estado.posicoes.get(instantaneo.get(i));
+                }
+                boolean maiorVivo = estado.maiorId == null
+                    || (!ids.isEmpty() && ids.last().compareTo(estado.maiorId) >= 0);
+                marca = maiorVivo ? null : estado.maiorId;
+                limite = fim;
+                origem = mapa;
+            } finally {
+                trava.readLock().unlock();
+            }
+
+            Path temporario = temporario();
+            FileChannel novoCanal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                Estado<ID> novoEstado = new Estado<>();
+                // Buffer próprio: o de anexar() é protegido pela trava de escrita
+                BufferEscrita corpoMarca = new BufferEscrita();
+                if (marca != null) {
+                    codificar(corpoMarca, new DataOutputStream(corpoMarca), MARCA, marca, null);
+                }
+                long necessario = CABECALHO + (marca == null ? 0 : CABECALHO_REGISTRO + corpoMarca.size());
+                for (int pos : posicoes) {
+                    necessario += CABECALHO_REGISTRO + origem.getInt(pos);
+                }
+                MappedByteBuffer destino = mapear(novoCanal,
+                    Math.max(CAPACIDADE_INICIAL, Math.min(CAPACIDADE_MAXIMA, necessario + necessario / 4)));
+                destino.putInt(0, MAGIC);
+                destino.putInt(4, VERSAO);
+                int escrito = CABECALHO;
+                if (marca != null) {
+                    int tamanho = gravarRegistro(destino, escrito, corpoMarca);
+                    novoEstado.bytesVivos += tamanho;
+                    escrito += tamanho;
+                }
+                for (int i = 0; i < posicoes.length; i++) {
+                    int tamanho = CABECALHO_REGISTRO + origem.getInt(posicoes[i]);
+                    destino.put(escrito, origem, posicoes[i], tamanho);
+                    novoEstado.posicoes.put(instantaneo.get(i), escrito);
+                    novoEstado.bytesVivos += tamanho;
+                    escrito += tamanho;
+                }
+
+                trava.writeLock().lock();
+                try {
+                    if (fechado) {
+                        return;
+                    }
+                    int cauda = fim - limite;
+                    if ((long) escrito + cauda > destino.capacity()) {
+                        destino = mapear(novoCanal, Math.min(CAPACIDADE_MAXIMA, 2L * (escrito + cauda)));
+                    }
+                    destino.put(escrito, mapa, limite, cauda);
+                    int novoFim = reproduzir(destino, escrito, escrito + cauda, novoEstado);
+                    destino.force();
+                    Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+
+                    novoEstado.maiorId = estado.maiorId;
+                    canal.close();
+                    canal = novoCanal;
+                    mapa = destino;
+                    fim = novoFim;
+                    estado = novoEstado;
+                    novoCanal = null;
+                } finally {
+                    trava.writeLock().unlock();
+                }
+            } finally {
+                if (novoCanal != null) {
+                    novoCanal.close();
+                    Files.deleteIfExists(temporario);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            travaCompactacao.unlock();
+        }
+    }
+
+    private Path temporario() {
+        return arquivo.resolveSibling(arquivo.getFileName() + ".compactando");
+    }
+
+    // ============================================
+    // DURABILIDADE
+    // ============================================
+
+    /**
+     * Força as escritas para o disco (msync)
+     */
+    public void sincronizar() {
+        trava.readLock().lock();
+        try {
+            verificarAberto();
+            mapa.force();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Espera a compactação em andamento, sincroniza e fecha o arquivo
+     */
+    @Override
+    public void close() {
+        compactador.shutdown();
+        try {
+            compactador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        trava.writeLock().lock();
+        try {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            mapa.force();
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // ============================================
+    // AUXILIARES
+    // ============================================
+
+    /** Índice e contadores; trocado inteiro pela compactação */
+    private static final class Estado<ID> {
+        final HashMap<ID, Integer> posicoes = new HashMap<>();
+        long bytesVivos;
+        long bytesMortos;
+        ID maiorId;
+    }
+
+    /** ByteArrayOutputStream que expõe o array, sem a cópia de toByteArray */
+    private static final class BufferEscrita extends ByteArrayOutputStream {
+
+        BufferEscrita() {
+            super(256);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+
+        void preencherInt(int pos, int valor) {
+            buf[pos] = (byte) (valor >>> 24);
+            buf[pos + 1] = (byte) (valor >>> 16);
+            buf[pos + 2] = (byte) (valor >>> 8);
+            buf[pos + 3] = (byte) valor;
+        }
+    }
+
+    /**
+     * DataInput sobre um ByteBuffer (fatia da região mapeada): o codec lê
+     * direto da memória, sem cópia nem chamada de sistema
+     */
+    private static final class EntradaBuffer implements DataInput {
+        private final ByteBuffer buffer;
+
+        EntradaBuffer(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void readFully(byte[] b) {
+            buffer.get(b);
+        }
+
+        @Override
+        public void readFully(byte[] b, int off, int len) {
+            buffer.get(b, off, len);
+        }
+
+        @Override
+        public int skipBytes(int n) {
+            int pulados = Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + pulados);
+            return pulados;
+        }
+
+        @Override
+        public boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        @Override
+        public byte readByte() {
+            return buffer.get();
+        }
+
+        @Override
+        public int readUnsignedByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public short readShort() {
+            return buffer.getShort();
+        }
+
+        @Override
+        public int readUnsignedShort() {
+            return buffer.getShort() & 0xFFFF;
+        }
+
+        @Override
+        public char readChar() {
+            return buffer.getChar();
+        }
+
+        @Override
+        public int readInt() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public long readLong() {
+            return buffer.getLong();
+        }
+
+        @Override
+        public float readFloat() {
+            return buffer.getFloat();
+        }
+
+        @Override
+        public double readDouble() {
+            return buffer.getDouble();
+        }
+
+        @Override
+        public String readLine() {
+            throw new UnsupportedOperationException("readLine");
+        }
+
+        @Override
+        public String readUTF() throws IOException {
+            return DataInputStream.readUTF(this);
+        }
+    }
+}
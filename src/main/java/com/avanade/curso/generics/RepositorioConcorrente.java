@@ -0,0 +1,559 @@
+package com.avanade.curso.generics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repositório thread-safe com geração atômica de IDs e índices secundários
+ *
+ * - Dados: {@code ConcurrentHashMap<ID, T>}; leituras não usam lock
+ * - Escritas: lock por faixa de ID (lock striping), para que a troca do
+ *   valor e a atualização dos índices sejam vistas como uma unidade por
+ *   outras escritas do mesmo ID
+ * - IDs: entidade com ID null recebe o próximo do gerador (ex.:
+ *   {@link #sequencial()}); se o ID gerado já existir (foi salvo
+ *   explicitamente), tenta o seguinte
+ * - Índices: {@link #criarIndice} (chave → vários) e
+ *   {@link #criarIndiceUnico} (chave → um), ambos O(1) por consulta
+ *
+ * Consultas por índice conferem a chave na entidade atual antes de
+ * devolvê-la: uma leitura concorrente com uma atualização nunca devolve
+ * entidade cuja chave já mudou.
+ *
+ * Consultas sem materializar tudo:
+ * - {@link #stream()} / {@link #stream(Predicate)}: percorrem o mapa sob
+ *   demanda e dividem para {@code parallel()}; o filtro roda dentro do
+ *   spliterator do repositório
+ * - {@link #buscarPagina}: paginação por keyset sobre um conjunto
+ *   ordenado de IDs (ConcurrentSkipListSet), O(log n) para achar o cursor
+ *
+ * @param <T>  tipo da entidade (imutável, ou tratada como tal após salvar)
+ * @param <ID> tipo do identificador
+ */
+class RepositorioConcorrente<T, ID> implements Repositorio<T, ID> {
+
+    private static final int FAIXAS = 64;
+
+    private final ConcurrentHashMap<ID, T> dados = new ConcurrentHashMap<>();
+    /** IDs presentes em ordem, para paginação por keyset */
+    private final ConcurrentSkipListSet<ID> ids;
+    private final Function<? super T, ? extends ID> extratorId;
+    private final BiFunction<? super T, ? super ID, ? extends T> atribuirId;
+    private final Supplier<? extends ID> geradorId;
+    private final ReentrantLock[] travas = new ReentrantLock[FAIXAS];
+    private final List<IndiceBase<?>> indices = new CopyOnWriteArrayList<>();
+
+    /**
+     * IDs em ordem natural (devem ser Comparable)
+     *
+     * @param extratorId ID da entidade (null = ainda não salva)
+     * @param atribuirId cria a entidade com o ID gerado
+     * @param geradorId  próximo ID (chamado concorrentemente)
+     */
+    @SuppressWarnings("unchecked")
+    RepositorioConcorrente(Function<? super T, ? extends ID> extratorId,
+                           BiFunction<? super T, ? super ID, ? extends T> atribuirId,
+                           Supplier<? extends ID> geradorId) {
+        this(extratorId, atribuirId, geradorId, (Comparator<? super ID>) Comparator.naturalOrder());
+    }
+
+    /**
+     * @param ordemIds ordem dos IDs na paginação
+     */
+    RepositorioConcorrente(Function<? super T, ? extends ID> extratorId,
+                           BiFunction<? super T, ? super ID, ? extends T> atribuirId,
+                           Supplier<? extends ID> geradorId,
+                           Comparator<? super ID> ordemIds) {
+        this.ids = new ConcurrentSkipListSet<>(Objects.requireNonNull(ordemIds, "ordemIds"));
+        this.extratorId = Objects.requireNonNull(extratorId, "extratorId");
+        this.atribuirId = Objects.requireNonNull(atribuirId, "atribuirId");
+        this.geradorId = Objects.requireNonNull(geradorId, "geradorId");
+        for (int i = 0; i < FAIXAS; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    /** Gerador de IDs Long 1, 2, 3... seguro entre threads */
+    static Supplier<Long> sequencial() {
+        AtomicLong proximo = new AtomicLong(1);
+        return proximo::getAndIncrement;
+    }
+
+    // ============================================
+    // Repositorio
+    // ============================================
+
+    /**
+     * Insere (ID null: gera um) ou substitui (ID presente)
+     *
+     * @return a entidade como ficou guardada (com ID)
+     * @throws IllegalStateException se violar um índice único; nada é alterado
+     */
+    @Override
+    public T salvar(T entidade) {
+        Objects.requireNonNull(entidade, "entidade");
+        ID id = extratorId.apply(entidade);
+        if (id != null) {
+            ReentrantLock trava = trava(id);
+            trava.lock();
+            try {
+                aplicar(id, dados.get(id), entidade);
+                return entidade;
+            } finally {
+                trava.unlock();
+            }
+        }
+        while (true) {
+            ID novoId = geradorId.get();
+            T comId = atribuirId.apply(entidade, novoId);
+            ReentrantLock trava = trava(novoId);
+            trava.lock();
+            try {
+                if (!dados.containsKey(novoId)) {
+                    aplicar(novoId, null, comId);
+                    return comId;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    @Override
+    public T buscarPorId(ID id) {
+        return dados.get(id);
+    }
+
+    /** Cópia de todas as entidades (fotografia fracamente consistente) */
+    @Override
+    public List<T> buscarTodos() {
+        return new ArrayList<>(dados.values());
+    }
+
+    @Override
+    public void deletar(ID id) {
+        ReentrantLock trava = trava(id);
+        trava.lock();
+        try {
+            T antiga = dados.remove(id);
+            if (antiga != null) {
+                ids.remove(id);
+                for (IndiceBase<?> indice : indices) {
+                    indice.remover(id, antiga);
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // ============================================
+    // Consultas sem materializar
+    // ============================================
+
+    /**
+     * Stream preguiçoso sobre o armazenamento (fracamente consistente: vê
+     * ou não escritas concorrentes, sem ConcurrentModificationException).
+     * Divide bem para {@code parallel()}.
+     */
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Stream só com as entidades que passam no filtro, aplicado dentro do
+     * spliterator do repositório (também em paralelo)
+     */
+    public Stream<T> stream(Predicate<? super T> filtro) {
+        return StreamSupport.stream(new SpliteratorFiltrado<>(spliterator(), filtro), false);
+    }
+
+    public Spliterator<T> spliterator() {
+        return dados.values().spliterator();
+    }
+
+    /**
+     * Percorre o mapa e para ao atingir o limite; só as entidades
+     * aceitas são copiadas
+     */
+    @Override
+    public List<T> buscar(Predicate<? super T> filtro, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        List<T> resultado = new ArrayList<>(Math.min(limite, 64));
+        for (T entidade : dados.values()) {
+            if (filtro.test(entidade)) {
+                resultado.add(entidade);
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public Pagina<T, ID> buscarPagina(ID depoisDe, int tamanho, Predicate<? super T> filtro) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("Tamanho de página deve ser positivo: " + tamanho);
+        }
+        Set<ID> restantes = depoisDe == null ? ids : ids.tailSet(depoisDe, false);
+        List<T> itens = new ArrayList<>(tamanho);
+        ID ultimo = null;
+        for (ID id : restantes) {
+            T entidade = dados.get(id);
+            if (entidade != null && filtro.test(entidade)) {
+                itens.add(entidade);
+                ultimo = id;
+                if (itens.size() == tamanho) {
+                    break;
+                }
+            }
+        }
+        boolean haMais = ultimo != null && itens.size() == tamanho && ids.higher(ultimo) != null;
+        return new Pagina<>(itens, haMais ? ultimo : null);
+    }
+
+    public Pagina<T, ID> buscarPagina(ID depoisDe, int tamanho) {
+        return buscarPagina(depoisDe, tamanho, entidade -> true);
+    }
+
+    public boolean existe(ID id) {
+        return dados.containsKey(id);
+    }
+
+    public int size() {
+        return dados.size();
+    }
+
+    // ============================================
+    // Índices secundários
+    // ============================================
+
+    /** Índice chave → entidades (ex.: por nome) */
+    interface Indice<T, K> {
+        /** Entidades com a chave, em O(1) + resultados */
+        List<T> buscar(K chave);
+
+        /** Entidades com a chave que passam no filtro (o índice restringe antes do filtro) */
+        default List<T> buscar(K chave, Predicate<? super T> filtro) {
+            List<T> candidatos = buscar(chave);
+            List<T> resultado = new ArrayList<>(candidatos.size());
+            for (T entidade : candidatos) {
+                if (filtro.test(entidade)) {
+                    resultado.add(entidade);
+                }
+            }
+            return resultado;
+        }
+
+        int contar(K chave);
+    }
+
+    /** Índice chave → no máximo uma entidade (ex.: por e-mail) */
+    interface IndiceUnico<T, K> {
+        Optional<T> buscar(K chave);
+    }
+
+    /**
+     * Cria um índice pelo extrator (chave null = entidade fora do índice).
+     * Pode ser criado com dados presentes: eles são indexados antes do
+     * retorno, com as escritas bloqueadas.
+     */
+    public <K> Indice<T, K> criarIndice(String nome, Function<? super T, ? extends K> extrator) {
+        IndiceMultiplo<K> indice = new IndiceMultiplo<>(nome, extrator);
+        registrar(indice);
+        return indice;
+    }
+
+    /**
+     * Cria um índice único
+     *
+     * @throws IllegalStateException se os dados atuais já tiverem chaves repetidas
+     */
+    public <K> IndiceUnico<T, K> criarIndiceUnico(String nome, Function<? super T, ? extends K> extrator) {
+        IndiceExclusivo<K> indice = new IndiceExclusivo<>(nome, extrator);
+        registrar(indice);
+        return indice;
+    }
+
+    private void registrar(IndiceBase<?> indice) {
+        for (IndiceBase<?> existente : indices) {
+            if (existente.nome.equals(indice.nome)) {
+                throw new IllegalArgumentException("Índice já existe: " + indice.nome);
+            }
+        }
+        for (ReentrantLock trava : travas) {
+            trava.lock();
+        }
+        try {
+            dados.forEach((id, entidade) -> {
+                if (!indice.reservar(id, entidade, null)) {
+                    throw new IllegalStateException("Chave repetida no índice único '" + indice.nome
+                        + "': " + indice.extrator.apply(entidade));
+                }
+                indice.adicionar(id, entidade, null);
+            });
+            indices.add(indice);
+        } finally {
+            for (ReentrantLock trava : travas) {
+                trava.unlock();
+            }
+        }
+    }
+
+    /**
+     * Troca antiga → nova no ID, com os índices. Chamado com a trava do ID.
+     * Índices únicos reservam a chave nova antes de qualquer alteração,
+     * para que uma violação não deixe nada pela metade.
+     */
+    private void aplicar(ID id, T antiga, T nova) {
+        List<IndiceBase<?>> atuais = indices;
+        int reservados = 0;
+        for (IndiceBase<?> indice : atuais) {
+            if (!indice.reservar(id, nova, antiga)) {
+                for (int i = 0; i < reservados; i++) {
+                    atuais.get(i).liberarReserva(id, nova, antiga);
+                }
+                throw new IllegalStateException("Violação do índice único '" + indice.nome + "': "
+                    + indice.extrator.apply(nova));
+            }
+            reservados++;
+        }
+        if (dados.put(id, nova) == null) {
+            ids.add(id);
+        }
+        for (IndiceBase<?> indice : atuais) {
+            indice.adicionar(id, nova, antiga);
+        }
+    }
+
+    private ReentrantLock trava(Object id) {
+        int h = id.hashCode();
+        return travas[(h ^ (h >>> 16)) & (FAIXAS - 1)];
+    }
+
+    /**
+     * Base dos índices: reservar (só índices únicos podem falhar),
+     * adicionar/trocar e remover, sempre com a trava do ID
+     */
+    private abstract class IndiceBase<K> {
+        final String nome;
+        final Function<? super T, ? extends K> extrator;
+
+        IndiceBase(String nome, Function<? super T, ? extends K> extrator) {
+            this.nome = Objects.requireNonNull(nome, "nome");
+            this.extrator = Objects.requireNonNull(extrator, "extrator");
+        }
+
+        boolean reservar(ID id, T nova, T antiga) {
+            return true;
+        }
+
+        void liberarReserva(ID id, T nova, T antiga) {
+        }
+
+        /** Chave da entidade atual do ID, conferida no momento da leitura */
+        boolean confere(T entidade, K chave) {
+            return entidade != null && chave.equals(extrator.apply(entidade));
+        }
+
+        K chave(T entidade) {
+            return entidade == null ? null : extrator.apply(entidade);
+        }
+
+        abstract void adicionar(ID id, T nova, T antiga);
+
+        abstract void remover(ID id, T antiga);
+    }
+
+    private final class IndiceMultiplo<K> extends IndiceBase<K> implements Indice<T, K> {
+        private final ConcurrentHashMap<K, Set<ID>> mapa = new ConcurrentHashMap<>();
+
+        IndiceMultiplo(String nome, Function<? super T, ? extends K> extrator) {
+            super(nome, extrator);
+        }
+
+        @Override
+        void adicionar(ID id, T nova, T antiga) {
+            K chaveNova = chave(nova);
+            K chaveAntiga = chave(antiga);
+            if (Objects.equals(chaveNova, chaveAntiga)) {
+                return;
+            }
+            if (chaveAntiga != null) {
+                desassociar(chaveAntiga, id);
+            }
+            if (chaveNova != null) {
+                // compute é atômico por chave: o conjunto nunca some no meio de uma inserção
+                mapa.compute(chaveNova, (k, ids) -> {
+                    Set<ID> conjunto = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    conjunto.add(id);
+                    return conjunto;
+                });
+            }
+        }
+
+        @Override
+        void remover(ID id, T antiga) {
+            K chaveAntiga = chave(antiga);
+            if (chaveAntiga != null) {
+                desassociar(chaveAntiga, id);
+            }
+        }
+
+        private void desassociar(K chave, ID id) {
+            mapa.computeIfPresent(chave, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+
+        @Override
+        public List<T> buscar(K chave) {
+            Set<ID> ids = mapa.get(chave);
+            if (ids == null) {
+                return List.of();
+            }
+            List<T> resultado = new ArrayList<>(ids.size());
+            for (ID id : ids) {
+                T entidade = dados.get(id);
+                if (confere(entidade, chave)) {
+                    resultado.add(entidade);
+                }
+            }
+            return resultado;
+        }
+
+        @Override
+        public int contar(K chave) {
+            Set<ID> ids = mapa.get(chave);
+            return ids == null ? 0 : ids.size();
+        }
+    }
+
+    private final class IndiceExclusivo<K> extends IndiceBase<K> implements IndiceUnico<T, K> {
+        private final ConcurrentHashMap<K, ID> mapa = new ConcurrentHashMap<>();
+
+        IndiceExclusivo(String nome, Function<? super T, ? extends K> extrator) {
+            super(nome, extrator);
+        }
+
+        @Override
+        boolean reservar(ID id, T nova, T antiga) {
+            K chaveNova = chave(nova);
+            if (chaveNova == null || chaveNova.equals(chave(antiga))) {
+                return true;
+            }
+            ID dono = mapa.putIfAbsent(chaveNova, id);
+            return dono == null || dono.equals(id);
+        }
+
+        @Override
+        void liberarReserva(ID id, T nova, T antiga) {
+            K chaveNova = chave(nova);
+            if (chaveNova != null && !chaveNova.equals(chave(antiga))) {
+                mapa.remove(chaveNova, id);
+            }
+        }
+
+        @Override
+        void adicionar(ID id, T nova, T antiga) {
+            // A chave nova já foi reservada; falta soltar a antiga
+            K chaveAntiga = chave(antiga);
+            if (chaveAntiga != null && !chaveAntiga.equals(chave(nova))) {
+                mapa.remove(chaveAntiga, id);
+            }
+        }
+
+        @Override
+        void remover(ID id, T antiga) {
+            K chaveAntiga = chave(antiga);
+            if (chaveAntiga != null) {
+                mapa.remove(chaveAntiga, id);
+            }
+        }
+
+        @Override
+        public Optional<T> buscar(K chave) {
+            ID id = mapa.get(chave);
+            if (id == null) {
+                return Optional.empty();
+            }
+            T entidade = dados.get(id);
+            return confere(entidade, chave) ? Optional.of(entidade) : Optional.empty();
+        }
+    }
+
+    /**
+     * Aplica o filtro na fonte: tryAdvance só entrega entidades aceitas e
+     * trySplit divide a fonte, preservando o paralelismo
+     */
+    private static final class SpliteratorFiltrado<T> implements Spliterator<T> {
+        private final Spliterator<T> fonte;
+        private final Predicate<? super T> filtro;
+        private T atual;
+
+        SpliteratorFiltrado(Spliterator<T> fonte, Predicate<? super T> filtro) {
+            this.fonte = fonte;
+            this.filtro = filtro;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> acao) {
+            while (fonte.tryAdvance(e -> atual = e)) {
+                T candidato = atual;
+                atual = null;
+                if (filtro.test(candidato)) {
+                    acao.accept(candidato);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> acao) {
+            fonte.forEachRemaining(e -> {
+                if (filtro.test(e)) {
+                    acao.accept(e);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefixo = fonte.trySplit();
+            return prefixo == null ? null : new SpliteratorFiltrado<>(prefixo, filtro);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fonte.estimateSize(); // limite superior
+        }
+
+        @Override
+        public int characteristics() {
+            return fonte.characteristics() & ~(SIZED | SUBSIZED);
+        }
+    }
+}
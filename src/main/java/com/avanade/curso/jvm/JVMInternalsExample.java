@@ -1,5 +1,8 @@
 package com.avanade.curso.jvm;
 
+import com.avanade.curso.collections.Cache;
+import com.avanade.curso.collections.PoliticaDespejo;
+
 import java.lang.management.*;
 import java.util.*;
 
@@ -319,11 +322,11 @@ public class JVMInternalsExample {
         // Opcao 1: WeakHashMap (entradas removidas quando chave nao e mais usada)
         private Map<String, Object> weakCache = new WeakHashMap<>();
         
-        // Opcao 2: Cache com limite (Guava, Caffeine, EhCache)
-        // private Cache<String, Object> boundedCache = CacheBuilder.newBuilder()
-        //     .maximumSize(1000)
-        //     .expireAfterWrite(10, TimeUnit.MINUTES)
-        //     .build();
+        // Opcao 2: Cache com limite (Guava, Caffeine, EhCache ou o do curso)
+        private Cache<String, Object> boundedCache = Cache.<String, Object>builder()
+            .capacidade(1000)
+            .politica(PoliticaDespejo.W_TINY_LFU)
+            .buildConcorrente();
     }
     
     // Exemplo 2: Listeners nao removidos
@@ -0,0 +1,157 @@
+package com.avanade.curso.nio;
+
+import com.avanade.curso.carga.MedicaoCarga;
+import com.avanade.curso.carga.MedicaoCarga.ResultadoCarga;
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes;
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes.Canal;
+import com.avanade.curso.oop.abstracao.ServicoNotificacao;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gerador de carga para o {@link ServidorNotificacoes}
+ *
+ * Abre N conexões (uma thread cada) e envia requisições em lotes
+ * pipelined de tamanho fixo. A latência de cada requisição é medida do
+ * envio do lote até a chegada do byte de resposta correspondente;
+ * largada, percentis e relatório ficam em {@link MedicaoCarga}.
+ *
+ * Uso: {@code java ... GeradorCargaNotificacoes [host porta] [conexoes] [reqPorConexao] [pipeline]}
+ * Sem host/porta, sobe um servidor local com um serviço silencioso
+ * (sem System.out) para medir apenas o custo de rede + protocolo.
+ */
+public class GeradorCargaNotificacoes {
+
+    private final InetSocketAddress endereco;
+    private final int conexoes;
+    private final int requisicoesPorConexao;
+    private final int pipeline;
+
+    public GeradorCargaNotificacoes(InetSocketAddress endereco, int conexoes,
+                                    int requisicoesPorConexao, int pipeline) {
+        this.endereco = endereco;
+        this.conexoes = conexoes;
+        this.requisicoesPorConexao = requisicoesPorConexao;
+        this.pipeline = pipeline;
+    }
+
+    public ResultadoCarga executar() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(conexoes);
+        try {
+            return MedicaoCarga.medir(executor, conexoes, this::executarConexao);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] executarConexao(int indice, long[] sucessosPorConexao) throws IOException {
+        long[] latencias = new long[requisicoesPorConexao];
+        long[] enviadoEm = new long[pipeline];
+        ByteBuffer envio = ByteBuffer.allocate(Math.max(64 * 1024, pipeline * 128));
+        ByteBuffer resposta = ByteBuffer.allocate(pipeline);
+        long sucessos = 0;
+
+        try (SocketChannel canal = SocketChannel.open()) {
+            canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            canal.connect(endereco);
+
+            int enviadas = 0;
+            while (enviadas < requisicoesPorConexao) {
+                int lote = Math.min(pipeline, requisicoesPorConexao - enviadas);
+
+                envio.clear();
+                for (int i = 0; i < lote; i++) {
+                    ProtocoloNotificacao.codificar(envio, Canal.QUALQUER,
+                        "cliente-" + indice, "mensagem " + (enviadas + i));
+                }
+                envio.flip();
+                long agora = System.nanoTime();
+                Arrays.fill(enviadoEm, 0, lote, agora);
+                while (envio.hasRemaining()) {
+                    canal.write(envio);
+                }
+
+                resposta.clear().limit(lote);
+                int recebidas = 0;
+                while (recebidas < lote) {
+                    if (canal.read(resposta) < 0) {
+                        throw new IOException("Servidor encerrou a conexão");
+                    }
+                    long chegada = System.nanoTime();
+                    for (; recebidas < resposta.position(); recebidas++) {
+                        latencias[enviadas + recebidas] = chegada - enviadoEm[recebidas];
+                        if (resposta.get(recebidas) == ProtocoloNotificacao.STATUS_SUCESSO) {
+                            sucessos++;
+                        }
+                    }
+                }
+                enviadas += lote;
+            }
+        }
+        sucessosPorConexao[indice] = sucessos;
+        return latencias;
+    }
+
+    /**
+     * Serviço que aceita tudo sem imprimir: isola o custo do servidor
+     */
+    static class ServicoSilencioso extends ServicoNotificacao {
+        ServicoSilencioso() {
+            super("Silencioso");
+        }
+
+        @Override
+        public boolean enviar(String destinatario, String mensagem) {
+            return true;
+        }
+
+        @Override
+        public void configurar(Map<String, String> configuracoes) {
+        }
+
+        @Override
+        protected boolean validarDestinatario(String destinatario) {
+            return destinatario != null && !destinatario.isEmpty();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int conexoes = MedicaoCarga.parametro(args, 0, 8);
+        int requisicoes = MedicaoCarga.parametro(args, 1, 200_000);
+        int pipeline = MedicaoCarga.parametro(args, 2, 64);
+
+        ServidorNotificacoes servidorLocal = null;
+        InetSocketAddress endereco = MedicaoCarga.enderecoInformado(args);
+        if (endereco == null) {
+            // O template method de ServicoNotificacao registra log por envio;
+            // para benchmark o stdout é redirecionado para não dominar a medição
+            System.setOut(new java.io.PrintStream(java.io.OutputStream.nullOutputStream()));
+            GerenciadorNotificacoes gerenciador = new GerenciadorNotificacoes();
+            gerenciador.adicionarServico(new ServicoSilencioso());
+            servidorLocal = new ServidorNotificacoes(gerenciador, new InetSocketAddress("127.0.0.1", 0));
+            servidorLocal.iniciar();
+            endereco = new InetSocketAddress("127.0.0.1", servidorLocal.getPorta());
+        }
+
+        try {
+            GeradorCargaNotificacoes gerador = new GeradorCargaNotificacoes(endereco, conexoes, 10_000, pipeline);
+            System.err.println("Aquecimento: " + gerador.executar());
+
+            gerador = new GeradorCargaNotificacoes(endereco, conexoes, requisicoes, pipeline);
+            System.err.printf("Conexões=%d, req/conexão=%,d, pipeline=%d%n", conexoes, requisicoes, pipeline);
+            System.err.println("Resultado:   " + gerador.executar());
+        } finally {
+            if (servidorLocal != null) {
+                servidorLocal.close();
+            }
+        }
+    }
+}
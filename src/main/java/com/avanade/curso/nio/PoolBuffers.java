@@ -0,0 +1,75 @@
+package com.avanade.curso.nio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool de ByteBuffers diretos de tamanho fixo
+ *
+ * Buffers diretos são caros de alocar (memória nativa + Cleaner) e não
+ * devem ser criados por conexão/requisição. O pool recicla os buffers
+ * devolvidos e mantém no máximo {@code maximoRetidos} em espera.
+ *
+ * NÃO é thread-safe: cada loop de eventos do servidor possui o seu
+ * próprio pool, então não há contenção entre núcleos.
+ */
+public class PoolBuffers {
+
+    private final int tamanhoBuffer;
+    private final int maximoRetidos;
+    private final ArrayDeque<ByteBuffer> livres;
+
+    private long alocados;
+    private long reutilizados;
+
+    public PoolBuffers(int tamanhoBuffer, int maximoRetidos) {
+        if (tamanhoBuffer <= ProtocoloNotificacao.TAMANHO_CABECALHO) {
+            throw new IllegalArgumentException("Buffer muito pequeno: " + tamanhoBuffer);
+        }
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.maximoRetidos = maximoRetidos;
+        this.livres = new ArrayDeque<>(Math.min(maximoRetidos, 1024));
+    }
+
+    /**
+     * Obtém um buffer limpo (posição 0, limite = capacidade)
+     */
+    public ByteBuffer adquirir() {
+        ByteBuffer buffer = livres.pollFirst();
+        if (buffer == null) {
+            alocados++;
+            return ByteBuffer.allocateDirect(tamanhoBuffer);
+        }
+        reutilizados++;
+        return buffer;
+    }
+
+    /**
+     * Devolve o buffer ao pool; o excedente é descartado para o GC
+     */
+    public void liberar(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != tamanhoBuffer) {
+            return;
+        }
+        if (livres.size() < maximoRetidos) {
+            buffer.clear();
+            livres.offerFirst(buffer); // LIFO: o buffer mais "quente" volta primeiro
+        }
+    }
+
+    public int getTamanhoBuffer() {
+        return tamanhoBuffer;
+    }
+
+    public int getLivres() {
+        return livres.size();
+    }
+
+    public long getAlocados() {
+        return alocados;
+    }
+
+    public long getReutilizados() {
+        return reutilizados;
+    }
+}
@@ -0,0 +1,68 @@
+package com.avanade.curso.nio;
+
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes.Canal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protocolo binário (length-prefixed) do gateway de notificações
+ *
+ * Requisição (big-endian):
+ * <pre>
+ * +-----------+-------+-------------+--------------+-----------------+
+ * | int len   | byte  | short dLen  | dLen bytes   | len-3-dLen bytes|
+ * | (payload) | canal | (destinat.) | destinatário | mensagem (UTF-8)|
+ * +-----------+-------+-------------+--------------+-----------------+
+ * </pre>
+ *
+ * Resposta: um único byte de status por requisição, sempre na mesma ordem
+ * em que as requisições chegaram. Isso permite pipelining: o cliente pode
+ * enviar N requisições seguidas e depois ler N bytes de resposta.
+ */
+public final class ProtocoloNotificacao {
+
+    public static final byte STATUS_FALHA = 0;
+    public static final byte STATUS_SUCESSO = 1;
+    public static final byte STATUS_INVALIDO = 2;
+
+    /** Tamanho do prefixo de comprimento (int) */
+    public static final int TAMANHO_CABECALHO = Integer.BYTES;
+
+    /** Menor payload válido: canal (1) + tamanho do destinatário (2) */
+    public static final int PAYLOAD_MINIMO = 1 + Short.BYTES;
+
+    private static final Canal[] CANAIS = Canal.values();
+
+    private ProtocoloNotificacao() {}
+
+    /**
+     * Tamanho total do frame (cabeçalho + payload) para os dados informados
+     */
+    public static int tamanhoFrame(byte[] destinatario, byte[] mensagem) {
+        return TAMANHO_CABECALHO + PAYLOAD_MINIMO + destinatario.length + mensagem.length;
+    }
+
+    /**
+     * Codifica uma requisição no buffer (que deve estar em modo de escrita)
+     */
+    public static void codificar(ByteBuffer destino, Canal canal, String destinatario, String mensagem) {
+        byte[] dest = destinatario.getBytes(StandardCharsets.UTF_8);
+        byte[] msg = mensagem.getBytes(StandardCharsets.UTF_8);
+        if (dest.length > 0xFFFF) {
+            throw new IllegalArgumentException("Destinatário excede 65535 bytes");
+        }
+        destino.putInt(PAYLOAD_MINIMO + dest.length + msg.length);
+        destino.put((byte) canal.ordinal());
+        destino.putShort((short) dest.length);
+        destino.put(dest);
+        destino.put(msg);
+    }
+
+    /**
+     * Converte o byte de canal recebido; retorna null se fora do intervalo
+     */
+    public static Canal canalPorCodigo(int codigo) {
+        return codigo >= 0 && codigo < CANAIS.length ? CANAIS[codigo] : null;
+    }
+}
@@ -0,0 +1,361 @@
+package com.avanade.curso.nio;
+
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes;
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes.Canal;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SERVIDOR TCP NÃO-BLOQUEANTE (Selector) para o gateway de notificações
+ *
+ * Arquitetura:
+ * - Um loop de eventos (thread + Selector) por núcleo
+ * - O loop 0 também aceita conexões e as distribui em round-robin
+ * - Cada conexão pertence a um único loop durante toda a vida:
+ *   nenhum lock no caminho de leitura/escrita
+ * - Buffers diretos reciclados por um {@link PoolBuffers} por loop
+ *
+ * Pipelining: todos os frames completos presentes no buffer de entrada
+ * são processados de uma vez e as respostas (1 byte cada) acumuladas no
+ * buffer de saída, que é enviado com uma única chamada write().
+ * Se o buffer de saída encher, a conexão para de ler até o cliente
+ * consumir as respostas (backpressure).
+ *
+ * Protocolo: ver {@link ProtocoloNotificacao}.
+ */
+public class ServidorNotificacoes implements AutoCloseable {
+
+    public static final int TAMANHO_BUFFER_PADRAO = 64 * 1024;
+
+    private final GerenciadorNotificacoes gerenciador;
+    private final InetSocketAddress endereco;
+    private final int numeroLoops;
+    private final int tamanhoBuffer;
+
+    private ServerSocketChannel servidor;
+    private LoopEventos[] loops;
+    private Thread[] threads;
+    private volatile boolean executando;
+
+    public ServidorNotificacoes(GerenciadorNotificacoes gerenciador, InetSocketAddress endereco) {
+        this(gerenciador, endereco, Runtime.getRuntime().availableProcessors(), TAMANHO_BUFFER_PADRAO);
+    }
+
+    public ServidorNotificacoes(GerenciadorNotificacoes gerenciador, InetSocketAddress endereco,
+                                int numeroLoops, int tamanhoBuffer) {
+        if (numeroLoops < 1) {
+            throw new IllegalArgumentException("Número de loops deve ser >= 1");
+        }
+        this.gerenciador = gerenciador;
+        this.endereco = endereco;
+        this.numeroLoops = numeroLoops;
+        this.tamanhoBuffer = tamanhoBuffer;
+    }
+
+    /**
+     * Abre o socket de escuta e inicia os loops de eventos
+     */
+    public synchronized void iniciar() throws IOException {
+        if (executando) {
+            throw new IllegalStateException("Servidor já iniciado");
+        }
+        servidor = ServerSocketChannel.open();
+        servidor.configureBlocking(false);
+        servidor.bind(endereco, 1024);
+
+        loops = new LoopEventos[numeroLoops];
+        for (int i = 0; i < numeroLoops; i++) {
+            loops[i] = new LoopEventos();
+        }
+        servidor.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+
+        executando = true;
+        threads = new Thread[numeroLoops];
+        for (int i = 0; i < numeroLoops; i++) {
+            threads[i] = new Thread(loops[i], "notificacoes-nio-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Porta efetiva (útil quando o servidor é aberto na porta 0)
+     */
+    public int getPorta() throws IOException {
+        return ((InetSocketAddress) servidor.getLocalAddress()).getPort();
+    }
+
+    public long getRequisicoesProcessadas() {
+        long total = 0;
+        for (LoopEventos loop : loops) {
+            total += loop.processadas;
+        }
+        return total;
+    }
+
+    public int getConexoesAtivas() {
+        int total = 0;
+        for (LoopEventos loop : loops) {
+            total += loop.conexoes;
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!executando) {
+            return;
+        }
+        executando = false;
+        for (LoopEventos loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        servidor.close();
+    }
+
+    /**
+     * Estado por conexão: canal + buffers emprestados do pool do loop
+     */
+    private static final class Conexao {
+        final SocketChannel canal;
+        final ByteBuffer entrada; // modo escrita (recebe bytes do socket)
+        final ByteBuffer saida;   // modo escrita (acumula respostas)
+
+        Conexao(SocketChannel canal, ByteBuffer entrada, ByteBuffer saida) {
+            this.canal = canal;
+            this.entrada = entrada;
+            this.saida = saida;
+        }
+    }
+
+    /**
+     * Loop de eventos single-threaded: um Selector, um pool de buffers
+     */
+    private final class LoopEventos implements Runnable {
+
+        final Selector selector;
+        final PoolBuffers pool;
+        final Queue<SocketChannel> pendentes = new ConcurrentLinkedQueue<>();
+        final byte[] rascunho;
+        volatile long processadas;
+        volatile int conexoes;
+        int proximoLoop;
+
+        LoopEventos() throws IOException {
+            this.selector = Selector.open();
+            this.pool = new PoolBuffers(tamanhoBuffer, 256);
+            this.rascunho = new byte[tamanhoBuffer];
+        }
+
+        /**
+         * Chamado por outro loop (o aceitador): entrega via fila + wakeup
+         */
+        void entregar(SocketChannel canal) {
+            pendentes.offer(canal);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (executando) {
+                    selector.select();
+                    registrarPendentes();
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        tratar(key);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Loop de eventos encerrado: " + e.getMessage());
+            } finally {
+                encerrar();
+            }
+        }
+
+        private void tratar(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                if (key.isAcceptable()) {
+                    aceitar();
+                    return;
+                }
+                Conexao conexao = (Conexao) key.attachment();
+                if (key.isReadable()) {
+                    int lidos = conexao.canal.read(conexao.entrada);
+                    if (lidos < 0) {
+                        fechar(key);
+                        return;
+                    }
+                }
+                bombear(key, conexao);
+            } catch (IOException | CancelledKeyException e) {
+                fechar(key);
+            }
+        }
+
+        private void aceitar() throws IOException {
+            SocketChannel canal;
+            while ((canal = servidor.accept()) != null) {
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                LoopEventos destino = loops[proximoLoop];
+                proximoLoop = (proximoLoop + 1) % loops.length;
+                destino.entregar(canal);
+            }
+        }
+
+        private void registrarPendentes() {
+            SocketChannel canal;
+            while ((canal = pendentes.poll()) != null) {
+                Conexao conexao = new Conexao(canal, pool.adquirir(), pool.adquirir());
+                try {
+                    canal.register(selector, SelectionKey.OP_READ, conexao);
+                    conexoes++;
+                } catch (IOException e) {
+                    liberar(conexao);
+                }
+            }
+        }
+
+        /**
+         * Processa frames e descarrega respostas até não haver mais progresso
+         */
+        private void bombear(SelectionKey key, Conexao conexao) throws IOException {
+            while (true) {
+                boolean saidaCheia = processarFrames(conexao);
+                conexao.saida.flip();
+                conexao.canal.write(conexao.saida);
+                boolean restante = conexao.saida.hasRemaining();
+                conexao.saida.compact();
+                if (restante) {
+                    // Cliente não está consumindo: para de ler até drenar a saída
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                if (!saidaCheia) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Decodifica todos os frames completos do buffer de entrada.
+         *
+         * @return true se parou porque o buffer de saída encheu
+         */
+        private boolean processarFrames(Conexao conexao) throws IOException {
+            ByteBuffer in = conexao.entrada;
+            ByteBuffer out = conexao.saida;
+            int maximoPayload = in.capacity() - ProtocoloNotificacao.TAMANHO_CABECALHO;
+            boolean saidaCheia = false;
+
+            in.flip();
+            try {
+                while (in.remaining() >= ProtocoloNotificacao.TAMANHO_CABECALHO) {
+                    int tamanho = in.getInt(in.position());
+                    if (tamanho < ProtocoloNotificacao.PAYLOAD_MINIMO || tamanho > maximoPayload) {
+                        throw new IOException("Frame com tamanho inválido: " + tamanho);
+                    }
+                    if (in.remaining() < ProtocoloNotificacao.TAMANHO_CABECALHO + tamanho) {
+                        break; // frame incompleto: aguarda mais bytes
+                    }
+                    if (!out.hasRemaining()) {
+                        saidaCheia = true;
+                        break;
+                    }
+                    in.position(in.position() + ProtocoloNotificacao.TAMANHO_CABECALHO);
+                    out.put(despachar(in, in.position() + tamanho));
+                    processadas++;
+                }
+            } finally {
+                in.compact();
+            }
+            return saidaCheia;
+        }
+
+        private byte despachar(ByteBuffer in, int fim) throws IOException {
+            Canal canal = ProtocoloNotificacao.canalPorCodigo(in.get());
+            int tamanhoDestinatario = Short.toUnsignedInt(in.getShort());
+            if (in.position() + tamanhoDestinatario > fim) {
+                throw new IOException("Destinatário excede o frame");
+            }
+            String destinatario = lerTexto(in, tamanhoDestinatario);
+            String mensagem = lerTexto(in, fim - in.position());
+            if (canal == null) {
+                return ProtocoloNotificacao.STATUS_INVALIDO;
+            }
+            try {
+                return gerenciador.notificar(destinatario, mensagem, canal)
+                    ? ProtocoloNotificacao.STATUS_SUCESSO
+                    : ProtocoloNotificacao.STATUS_FALHA;
+            } catch (RuntimeException e) {
+                return ProtocoloNotificacao.STATUS_FALHA;
+            }
+        }
+
+        private String lerTexto(ByteBuffer in, int tamanho) {
+            in.get(rascunho, 0, tamanho);
+            return new String(rascunho, 0, tamanho, StandardCharsets.UTF_8);
+        }
+
+        private void fechar(SelectionKey key) {
+            key.cancel();
+            Object anexo = key.attachment();
+            if (anexo instanceof Conexao conexao) {
+                conexoes--;
+                liberar(conexao);
+            }
+        }
+
+        private void liberar(Conexao conexao) {
+            try {
+                conexao.canal.close();
+            } catch (IOException e) {
+                // Ignora: conexão já está sendo descartada
+            }
+            pool.liberar(conexao.entrada);
+            pool.liberar(conexao.saida);
+        }
+
+        private void encerrar() {
+            for (SelectionKey key : selector.keys()) {
+                fechar(key);
+            }
+            SocketChannel canal;
+            while ((canal = pendentes.poll()) != null) {
+                try {
+                    canal.close();
+                } catch (IOException e) {
+                    // Ignora
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Ignora
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.avanade.curso.annotations;
+
+import com.avanade.curso.annotations.processamento.ProcessadorComponentes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.*;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Testes do módulo de componentes gerado pelo ProcessadorComponentes
+ */
+class ComponentesGeradosTest {
+
+    // Declarados fora de ordem: o módulo gerado ordena pelas dependências
+    @Componente
+    static class Relatorios {
+        @Injecao
+        private Auditoria auditoria;
+
+        void setAuditoria(Auditoria auditoria) {
+            this.auditoria = auditoria;
+        }
+    }
+
+    @Componente
+    static class Auditoria {
+        @Injecao
+        Repositorio repositorio; // componente do main
+
+        @Get(path = "/auditoria/{id}")
+        public String registro(String id) {
+            return "registro " + id;
+        }
+    }
+
+    @Test
+    @DisplayName("Módulo gerado deve registrar em ordem topológica e injetar sem reflexão")
+    void carregarModulos() {
+        ComponentesTestes modulo = new ComponentesTestes();
+        List<Class<?>> ordem = modulo.componentes();
+        assertTrue(ordem.indexOf(Auditoria.class) < ordem.indexOf(Relatorios.class));
+        assertEquals(List.of(Repositorio.class), modulo.externas());
+        assertEquals(List.of(Repositorio.class, MeuServico.class), new ComponentesPrincipal().componentes());
+
+        ContainerDI container = new ContainerDI();
+        assertEquals(2 + ordem.size(), container.carregarModulos());
+
+        Repositorio repositorio = container.getComponente(Repositorio.class);
+        assertNotNull(repositorio);
+        assertSame(repositorio, container.getComponente(MeuServico.class).repositorio);
+        Auditoria auditoria = container.getComponente(Auditoria.class);
+        assertSame(repositorio, auditoria.repositorio);
+        assertSame(auditoria, container.getComponente(Relatorios.class).auditoria);
+
+        assertEquals("registro 3", container.getRoteador().buscar(Roteador.Metodo.GET, "/auditoria/3").invocar(null));
+        assertEquals("Usuário 1", container.getRoteador().buscar(Roteador.Metodo.GET, "/usuarios/1").invocar(null));
+
+        assertThrows(IllegalStateException.class, container::carregarModulos);
+    }
+
+    @Test
+    @DisplayName("Módulo com dependência externa ausente deve falhar na inicialização")
+    void dependenciaExternaAusente() {
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+            () -> new ComponentesTestes().registrar(new ContainerDI()));
+        assertTrue(erro.getMessage().contains("Repositorio"), erro.getMessage());
+    }
+
+    @Test
+    @DisplayName("Processador deve falhar a compilação com ciclo, injeção inválida ou rota incompatível")
+    void errosDeCompilacao() throws Exception {
+        assertEquals(List.of(), compilar("""
+            package com.avanade.curso.annotations;
+
+            @Componente class A1 { @Injecao B1 b; }
+            @Componente class B1 { }
+            """));
+
+        List<String> ciclo = compilar("""
+            package com.avanade.curso.annotations;
+
+            @Componente class A2 { @Injecao B2 b; }
+            @Componente class B2 { @Injecao C2 c; }
+            @Componente class C2 { @Injecao A2 a; }
+            """);
+        assertEquals(1, ciclo.size(), ciclo::toString);
+        assertTrue(ciclo.get(0).contains("A2 -> B2 -> C2 -> A2"), ciclo.get(0));
+
+        List<String> privado = compilar("""
+            package com.avanade.curso.annotations;
+
+            @Componente class A3 { @Injecao private B3 b; }
+            @Componente class B3 { @Injecao String texto; }
+            """);
+        assertEquals(2, privado.size(), privado::toString);
+        assertTrue(privado.get(0).contains("private"), privado.get(0));
+        assertTrue(privado.get(1).contains("não é um @Componente"), privado.get(1));
+
+        // O módulo gerado precisa enxergar o componente: nada dentro de classe private
+        List<String> invisivel = compilar("""
+            package com.avanade.curso.annotations;
+
+            class A5 {
+                private static class Interna {
+                    @Componente static class B5 { }
+                }
+            }
+            """);
+        assertEquals(1, invisivel.size(), invisivel::toString);
+        assertTrue(invisivel.get(0).contains("dentro de uma classe private"), invisivel.get(0));
+
+        List<String> rota = compilar("""
+            package com.avanade.curso.annotations;
+
+            @Componente class A4 { @Get(path = "/a4/{id}") public String buscar() { return ""; } }
+            """);
+        assertEquals(1, rota.size(), rota::toString);
+        assertTrue(rota.get(0).contains("/a4/{id}"), rota.get(0));
+    }
+
+    private static List<String> compilar(String fonte) throws Exception {
+        return compilar(fonte, ProcessadorComponentes.class);
+    }
+
+    /**
+     * Roda só o processador sobre a fonte (pacote do framework)
+     *
+     * @return mensagens de erro de compilação
+     */
+    static List<String> compilar(String fonte, Class<?> processador) throws Exception {
+        JavaCompiler compilador = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject arquivo = new SimpleJavaFileObject(
+                URI.create("string:///com/avanade/curso/annotations/Grafo.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignorarErros) {
+                return fonte;
+            }
+        };
+        String classes = new File(Componente.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        String saida = Files.createTempDirectory("componentes").toString();
+        DiagnosticCollector<JavaFileObject> diagnosticos = new DiagnosticCollector<>();
+        compilador.getTask(null, null, diagnosticos,
+            List.of("-classpath", classes, "-d", saida, "-s", saida, "-proc:only",
+                "-processor", processador.getName(), "-Acomponentes.modulo=Teste"),
+            null, List.of(arquivo)).call();
+        return diagnosticos.getDiagnostics().stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .map(d -> d.getMessage(Locale.ROOT))
+            .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.avanade.curso.annotations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes do plano de validação por classe
+ */
+class PlanoValidacaoTest {
+
+    static class Pessoa {
+        @Validar(tamanhoMinimo = 2, tamanhoMaximo = 10)
+        private String nome;
+
+        @Validar(obrigatorio = false, regex = "\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}")
+        private String cpf;
+
+        @Validar(regex = "\\d+")
+        private int idade;
+
+        private String semRegra;
+
+        Pessoa(String nome, String cpf, int idade) {
+            this.nome = nome;
+            this.cpf = cpf;
+            this.idade = idade;
+        }
+    }
+
+    static class Funcionario extends Pessoa {
+        @Validar(tamanhoMaximo = 4)
+        private final String matricula;
+
+        Funcionario(String nome, String matricula) {
+            super(nome, null, 30);
+            this.matricula = matricula;
+        }
+    }
+
+    @Test
+    @DisplayName("Plano deve apontar cada violação com campo e tipo")
+    void errosEstruturados() {
+        PlanoValidacao plano = PlanoValidacao.de(Pessoa.class);
+        assertSame(plano, PlanoValidacao.de(Pessoa.class));
+        assertEquals(3, plano.getQuantidadeRegras());
+
+        assertTrue(plano.valido(new Pessoa("Ana", "123.456.789-00", 30)));
+        assertTrue(plano.valido(new Pessoa("Ana", null, 30))); // opcional nulo não é verificado
+
+        List<ErroValidacao> erros = plano.validar(new Pessoa("A", "123", -1));
+        assertEquals(List.of(
+            new ErroValidacao("nome", ErroValidacao.Violacao.TAMANHO_MINIMO, "tamanho mínimo: 2"),
+            new ErroValidacao("cpf", ErroValidacao.Violacao.PADRAO,
+                "não corresponde ao padrão \\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}"),
+            new ErroValidacao("idade", ErroValidacao.Violacao.PADRAO, "não corresponde ao padrão \\d+")
+        ), erros);
+
+        List<ErroValidacao> vazio = plano.validar(new Pessoa("", null, 1));
+        assertEquals(1, vazio.size());
+        assertEquals(ErroValidacao.Violacao.OBRIGATORIO, vazio.get(0).violacao());
+        assertEquals(ErroValidacao.Violacao.TAMANHO_MAXIMO,
+            plano.validar(new Pessoa("Nome Comprido", null, 1)).get(0).violacao());
+        assertThrows(IllegalArgumentException.class, () -> plano.validar("outra classe"));
+    }
+
+    @Test
+    @DisplayName("Subclasse deve validar também os campos herdados")
+    void camposHerdados() {
+        List<ErroValidacao> erros = PlanoValidacao.validarObjeto(new Funcionario(null, "12345"));
+        assertEquals(List.of("nome", "matricula"), erros.stream().map(ErroValidacao::campo).toList());
+
+        ServicoLegado legado = new ServicoLegado();
+        assertEquals(2, PlanoValidacao.validarObjeto(legado).size());
+    }
+
+    @Test
+    @DisplayName("Validação em lote deve devolver só os inválidos, na ordem, também em paralelo")
+    void validarTodos() {
+        List<Pessoa> pessoas = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            pessoas.add(i % 7 == 0 ? new Funcionario("X", "m" + i) : new Pessoa("Pessoa" + (i % 100), null, i));
+        }
+        List<PlanoValidacao.ObjetoInvalido<Pessoa>> sequencial = PlanoValidacao.validarTodos(pessoas, Integer.MAX_VALUE);
+        List<PlanoValidacao.ObjetoInvalido<Pessoa>> paralelo = PlanoValidacao.validarTodos(new LinkedList<>(pessoas), 1_000);
+
+        assertEquals(sequencial, paralelo);
+        assertEquals(20_000 / 7 + 1, sequencial.size());
+        for (PlanoValidacao.ObjetoInvalido<Pessoa> invalido : sequencial) {
+            assertEquals(0, invalido.indice() % 7);
+            assertSame(pessoas.get(invalido.indice()), invalido.objeto());
+        }
+        assertEquals(ErroValidacao.Violacao.TAMANHO_MINIMO, sequencial.get(0).erros().get(0).violacao());
+    }
+}
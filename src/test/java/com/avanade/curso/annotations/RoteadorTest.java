@@ -0,0 +1,152 @@
+package com.avanade.curso.annotations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes do roteador de @Get/@Post
+ */
+class RoteadorTest {
+
+    static class Pedidos {
+        final List<String> recebidos = new ArrayList<>();
+
+        @Get(path = "/pedidos")
+        public String listar() {
+            return "todos";
+        }
+
+        @Get(path = "/pedidos/{id}")
+        public String buscar(String id) {
+            return "pedido " + id;
+        }
+
+        @Get(path = "/pedidos/abertos")
+        public String abertos() {
+            return "abertos";
+        }
+
+        @Get(path = "/pedidos/{id}/itens/{item}")
+        public String item(String id, String item) {
+            return id + ":" + item;
+        }
+
+        @Get(path = "/pedidos/abertos/resumo/{dia}")
+        public String resumo(String dia) {
+            return "resumo " + dia;
+        }
+
+        @Post(path = "/pedidos/{id}/notas")
+        public void anotar(String id, String corpo) {
+            recebidos.add(id + "=" + corpo);
+        }
+
+        @Post(path = "/pedidos")
+        public String criar() {
+            return "criado";
+        }
+    }
+
+    static class Falha {
+        @Get(path = "/falha")
+        public String falhar() {
+            throw new UnsupportedOperationException("indisponível");
+        }
+    }
+
+    static class Duplicado {
+        @Get(path = "/pedidos/{codigo}")
+        public String outro(String codigo) {
+            return codigo;
+        }
+    }
+
+    static class AssinaturaErrada {
+        @Get(path = "/x/{a}")
+        public String semParametro() {
+            return "";
+        }
+    }
+
+    @Test
+    @DisplayName("Roteador deve resolver literais, variáveis e preferir o literal")
+    void resolverRotas() {
+        Roteador roteador = new Roteador();
+        Pedidos pedidos = new Pedidos();
+        roteador.registrar(pedidos);
+        assertEquals(7, roteador.getQuantidadeRotas());
+
+        assertEquals("todos", invocar(roteador, "/pedidos"));
+        assertEquals("todos", invocar(roteador, "/pedidos/"));
+        assertEquals("pedido 7", invocar(roteador, "/pedidos/7"));
+        assertEquals("abertos", invocar(roteador, "/pedidos/abertos"));
+        assertEquals("7:3", invocar(roteador, "//pedidos/7/itens/3"));
+        assertEquals("resumo seg", invocar(roteador, "/pedidos/abertos/resumo/seg"));
+        // literal "abertos" não leva a itens: volta para a variável
+        assertEquals("abertos:1", invocar(roteador, "/pedidos/abertos/itens/1"));
+
+        Roteador.Correspondencia item = roteador.buscar(Roteador.Metodo.GET, "/pedidos/9/itens/2");
+        assertEquals("9", item.valor("id"));
+        assertEquals("2", item.valor("item"));
+        assertNull(item.valor("outro"));
+
+        assertNull(roteador.buscar(Roteador.Metodo.GET, "/pedidos/7/itens"));
+        assertNull(roteador.buscar(Roteador.Metodo.GET, "/clientes"));
+        assertNull(roteador.buscar(Roteador.Metodo.POST, "/pedidos/7"));
+    }
+
+    @Test
+    @DisplayName("POST deve passar o corpo como último parâmetro quando o método o recebe")
+    void postComCorpo() {
+        Roteador roteador = new Roteador();
+        Pedidos pedidos = new Pedidos();
+        roteador.registrar(pedidos);
+
+        assertNull(roteador.buscar(Roteador.Metodo.POST, "/pedidos/5/notas").invocar("urgente"));
+        assertEquals(List.of("5=urgente"), pedidos.recebidos);
+        assertEquals("criado", roteador.buscar(Roteador.Metodo.POST, "/pedidos").invocar("ignorado"));
+
+        assertEquals(EnumSet.of(Roteador.Metodo.GET, Roteador.Metodo.POST), roteador.metodosPermitidos("/pedidos"));
+        assertEquals(EnumSet.of(Roteador.Metodo.POST), roteador.metodosPermitidos("/pedidos/1/notas"));
+        assertTrue(roteador.metodosPermitidos("/nada").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Registro deve rejeitar rota duplicada e assinatura incompatível")
+    void errosDeRegistro() {
+        Roteador roteador = new Roteador();
+        roteador.registrar(new Pedidos());
+        assertThrows(IllegalStateException.class, () -> roteador.registrar(new Duplicado()));
+        assertThrows(IllegalArgumentException.class, () -> new Roteador().registrar(new AssinaturaErrada()));
+
+        roteador.registrar(new Falha());
+        UnsupportedOperationException erro = assertThrows(UnsupportedOperationException.class,
+            () -> invocar(roteador, "/falha"));
+        assertEquals("indisponível", erro.getMessage());
+    }
+
+    @Test
+    @DisplayName("ContainerDI deve indexar as rotas dos componentes registrados")
+    void containerIndexaRotas() throws Exception {
+        ContainerDI container = new ContainerDI();
+        container.registrar(Repositorio.class);
+        container.registrar(MeuServico.class);
+
+        Roteador roteador = container.getRoteador();
+        assertEquals(3, roteador.getQuantidadeRotas());
+        assertEquals("Lista de usuários", invocar(roteador, "/usuarios"));
+        assertEquals("Usuário 42", invocar(roteador, "/usuarios/42"));
+        assertEquals("Usuário criado", roteador.buscar(Roteador.Metodo.POST, "/usuarios").invocar("{}"));
+        assertDoesNotThrow(() -> container.invocarPost("/usuarios", "{}"));
+        assertDoesNotThrow(() -> container.invocarGet("/inexistente"));
+    }
+
+    private static Object invocar(Roteador roteador, String caminho) {
+        Roteador.Correspondencia correspondencia = roteador.buscar(Roteador.Metodo.GET, caminho);
+        assertNotNull(correspondencia, caminho);
+        return correspondencia.invocar(null);
+    }
+}
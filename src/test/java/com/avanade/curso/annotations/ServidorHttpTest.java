@@ -0,0 +1,138 @@
+package com.avanade.curso.annotations;
+
+import com.avanade.curso.carga.MedicaoCarga;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+
+/**
+ * Testes do servidor HTTP embutido via loopback
+ */
+class ServidorHttpTest {
+
+    @Componente
+    static class Diagnostico {
+        @Get(path = "/diagnostico/thread")
+        public String thread() {
+            return String.valueOf(Thread.currentThread().isVirtual());
+        }
+
+        @Post(path = "/diagnostico/eco/{prefixo}")
+        public String eco(String prefixo, String corpo) {
+            return prefixo + ":" + corpo;
+        }
+
+        @Post(path = "/diagnostico/tamanho")
+        public String tamanho(String corpo) {
+            return String.valueOf(corpo.length());
+        }
+
+        @Get(path = "/diagnostico/falha")
+        public String falha() {
+            throw new IllegalStateException("quebrou");
+        }
+    }
+
+    private ServidorHttp servidor;
+    private HttpClient cliente;
+    private String base;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ContainerDI container = new ContainerDI();
+        container.registrar(Repositorio.class);
+        container.registrar(MeuServico.class);
+        container.registrar(Diagnostico.class);
+        servidor = new ServidorHttp(container, new InetSocketAddress("127.0.0.1", 0));
+        servidor.iniciar();
+        base = "http://127.0.0.1:" + servidor.getPorta();
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cliente.close();
+        servidor.close();
+    }
+
+    private HttpResponse<String> get(String caminho) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(base + caminho)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String caminho, String corpo) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(base + caminho))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Servidor deve despachar GET e POST para os componentes em virtual threads")
+    void despacharRotas() throws Exception {
+        HttpResponse<String> usuario = get("/usuarios/42");
+        assertEquals(200, usuario.statusCode());
+        assertEquals("Usuário 42", usuario.body());
+        assertEquals("text/plain; charset=utf-8", usuario.headers().firstValue("Content-Type").orElseThrow());
+
+        assertEquals("Usuário criado", post("/usuarios", "{}").body());
+        assertEquals("ação:coração ✓", post("/diagnostico/eco/ação", "coração ✓").body());
+        assertEquals("true", get("/diagnostico/thread").body());
+        assertEquals(4, servidor.getRequisicoes());
+    }
+
+    @Test
+    @DisplayName("Servidor deve responder 404, 405, 413 e 500")
+    void respostasDeErro() throws Exception {
+        assertEquals(404, get("/inexistente").statusCode());
+
+        HttpResponse<String> metodoErrado = cliente.send(HttpRequest.newBuilder(URI.create(base + "/usuarios"))
+            .DELETE().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, metodoErrado.statusCode());
+        assertEquals("GET, POST", metodoErrado.headers().firstValue("Allow").orElseThrow());
+        assertEquals(405, post("/usuarios/42", "").statusCode());
+
+        HttpResponse<String> falha = get("/diagnostico/falha");
+        assertEquals(500, falha.statusCode());
+        assertEquals("Erro interno", falha.body());
+
+        assertEquals(413, post("/diagnostico/tamanho", "x".repeat(ServidorHttp.LIMITE_CORPO + 1)).statusCode());
+    }
+
+    @Test
+    @DisplayName("Corpos maiores que a área devem crescer o buffer e as áreas devem ser reutilizadas")
+    void reutilizaAreas() throws Exception {
+        String grande = "é".repeat(ServidorHttp.TAMANHO_AREA * 2);
+        assertEquals(String.valueOf(grande.length()), post("/diagnostico/tamanho", grande).body());
+        // resposta maior que a área: codificada fora dela
+        assertEquals("p:" + grande, post("/diagnostico/eco/p", grande).body());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, get("/usuarios").statusCode());
+        }
+        assertTrue(servidor.getAreasReutilizadas() >= 20);
+        assertTrue(servidor.getAreasAlocadas() < servidor.getAreasReutilizadas());
+    }
+
+    @Test
+    @DisplayName("Gerador de carga deve medir vazão e latência")
+    void geradorCarga() throws Exception {
+        MedicaoCarga.ResultadoCarga resultado = new GeradorCargaHttp(
+            new InetSocketAddress("127.0.0.1", servidor.getPorta()), 4, 200).executar();
+
+        assertEquals(800, resultado.requisicoes());
+        assertEquals(800, resultado.sucessos());
+        assertTrue(resultado.requisicoesPorSegundo() > 0);
+        assertTrue(resultado.p50Micros() <= resultado.p99Micros());
+        assertTrue(resultado.p99Micros() <= resultado.maxMicros());
+    }
+}
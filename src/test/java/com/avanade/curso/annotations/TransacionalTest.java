@@ -0,0 +1,210 @@
+package com.avanade.curso.annotations;
+
+import com.avanade.curso.annotations.processamento.ProcessadorTransacional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Testes do interceptador @Transacional e da UnidadeTrabalho
+ */
+class TransacionalTest {
+
+    @Componente
+    static class Banco implements UnidadeTrabalho.Destino {
+        final List<List<Object>> lotes = new ArrayList<>();
+
+        @Override
+        public void gravarLote(List<Object> objetos) {
+            lotes.add(List.copyOf(objetos));
+        }
+    }
+
+    @Componente
+    static class Pedidos {
+        @Injecao
+        Banco banco;
+
+        @Transacional
+        public int criar(String... itens) {
+            for (String item : itens) {
+                UnidadeTrabalho.gravar(banco, item);
+            }
+            return itens.length;
+        }
+
+        // this.criar passa pela sobrescrita gerada: unidade aninhada
+        @Transacional
+        public int importar(List<List<String>> grupos) {
+            int total = 0;
+            for (List<String> grupo : grupos) {
+                total += criar(grupo.toArray(new String[0]));
+            }
+            return total;
+        }
+
+        @Transacional
+        void falhar(String item) throws IOException {
+            UnidadeTrabalho.gravar(banco, item);
+            throw new IOException("falha depois de gravar " + item);
+        }
+
+        @Transacional
+        public void engolirFalha() {
+            UnidadeTrabalho.gravar(banco, "antes");
+            try {
+                falhar("dentro");
+            } catch (IOException e) {
+                // a unidade já está marcada para desfazer
+            }
+        }
+
+        @Post(path = "/pedidos/{cliente}")
+        @Transacional
+        public String criarPorRota(String cliente, String corpo) {
+            return cliente + ":" + criar(corpo.split(","));
+        }
+    }
+
+    @Test
+    @DisplayName("Classe com @Transacional deve ter subclasse gerada; sem anotação, a própria classe")
+    void subclasseGerada() throws Exception {
+        assertEquals(Pedidos.class, Transacoes.interceptada(Pedidos.class).getSuperclass());
+        assertEquals("TransacionalTest_PedidosTransacional", Transacoes.interceptada(Pedidos.class).getSimpleName());
+        assertEquals(Banco.class, Transacoes.interceptada(Banco.class));
+        assertInstanceOf(Pedidos.class, Transacoes.criar(Pedidos.class));
+    }
+
+    @Test
+    @DisplayName("Escritas dentro da unidade devem ir em um lote; fora, uma a uma")
+    void loteUnico() {
+        ContainerDI container = new ContainerDI();
+        container.carregarModulos();
+        Pedidos pedidos = container.getComponente(Pedidos.class);
+        Banco banco = container.getComponente(Banco.class);
+        assertNotSame(Pedidos.class, pedidos.getClass());
+
+        assertEquals(3, pedidos.criar("a", "b", "c"));
+        assertEquals(List.of(List.of("a", "b", "c")), banco.lotes);
+
+        UnidadeTrabalho.gravar(banco, "x");
+        UnidadeTrabalho.gravar(banco, "y");
+        assertEquals(List.of(List.of("x"), List.of("y")), banco.lotes.subList(1, 3));
+        assertNull(UnidadeTrabalho.atual());
+    }
+
+    @Test
+    @DisplayName("Chamadas aninhadas devem compartilhar a unidade da mais externa")
+    void aninhadas() {
+        Banco banco = new Banco();
+        Pedidos pedidos = criar(banco);
+
+        assertEquals(4, pedidos.importar(List.of(List.of("a", "b"), List.of(), List.of("c", "d"))));
+        assertEquals(List.of(List.of("a", "b", "c", "d")), banco.lotes);
+        assertNull(UnidadeTrabalho.atual());
+
+        UnidadeTrabalho externa = UnidadeTrabalho.abrir();
+        try {
+            pedidos.criar("e");
+            assertEquals(1, externa.getProfundidade());
+            assertEquals(1, banco.lotes.size());
+        } finally {
+            externa.fechar(true);
+        }
+        assertEquals(List.of("e"), banco.lotes.get(1));
+    }
+
+    @Test
+    @DisplayName("Falha deve descartar as escritas da unidade inteira e propagar a exceção")
+    void falhaDescarta() {
+        Banco banco = new Banco();
+        Pedidos pedidos = criar(banco);
+
+        IOException erro = assertThrows(IOException.class, () -> pedidos.falhar("perdido"));
+        assertEquals("falha depois de gravar perdido", erro.getMessage());
+        assertTrue(banco.lotes.isEmpty());
+
+        IllegalStateException engolida = assertThrows(IllegalStateException.class, pedidos::engolirFalha);
+        assertTrue(engolida.getMessage().contains("2 escrita(s) descartada(s)"), engolida.getMessage());
+        assertTrue(banco.lotes.isEmpty());
+
+        // A unidade da thread volta ao estado inicial
+        assertNull(UnidadeTrabalho.atual());
+        pedidos.criar("ok");
+        assertEquals(List.of(List.of("ok")), banco.lotes);
+    }
+
+    @Test
+    @DisplayName("Falha ao gravar um lote não deve impedir os demais destinos")
+    void falhaDeUmDestino() {
+        Banco antes = new Banco();
+        Banco depois = new Banco();
+        UnidadeTrabalho.Destino quebrado = objetos -> {
+            throw new IllegalStateException("destino fora do ar: " + objetos);
+        };
+        UnidadeTrabalho.Destino quebradoTambem = objetos -> {
+            throw new IllegalArgumentException("recusado: " + objetos);
+        };
+
+        UnidadeTrabalho unidade = UnidadeTrabalho.abrir();
+        UnidadeTrabalho.gravar(antes, "a");
+        UnidadeTrabalho.gravar(quebrado, "b");
+        UnidadeTrabalho.gravar(depois, "c");
+        UnidadeTrabalho.gravar(quebradoTambem, "d");
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> unidade.fechar(true));
+
+        assertEquals("destino fora do ar: [b]", erro.getMessage());
+        assertEquals(1, erro.getSuppressed().length);
+        assertEquals("recusado: [d]", erro.getSuppressed()[0].getMessage());
+        assertEquals(List.of(List.of("a")), antes.lotes);
+        assertEquals(List.of(List.of("c")), depois.lotes);
+        assertNull(UnidadeTrabalho.atual());
+    }
+
+    @Test
+    @DisplayName("Registro por reflexão deve usar a subclasse e manter as rotas")
+    void registroPorReflexao() throws Exception {
+        ContainerDI container = new ContainerDI();
+        container.registrar(Banco.class);
+        container.registrar(Pedidos.class);
+        Banco banco = container.getComponente(Banco.class);
+        assertEquals(Transacoes.interceptada(Pedidos.class), container.getComponente(Pedidos.class).getClass());
+
+        Object resultado = container.getRoteador().buscar(Roteador.Metodo.POST, "/pedidos/ana").invocar("p1,p2");
+        assertEquals("ana:2", resultado);
+        assertEquals(List.of(List.of("p1", "p2")), banco.lotes);
+    }
+
+    @Test
+    @DisplayName("Processador deve rejeitar @Transacional que não pode ser sobrescrito")
+    void errosDeCompilacao() throws Exception {
+        assertEquals(List.of(), ComponentesGeradosTest.compilar("""
+            package com.avanade.curso.annotations;
+
+            class T1 { @Transacional protected <T extends Comparable<T>> T maior(T a, T... b) { return a; } }
+            """, ProcessadorTransacional.class));
+
+        List<String> erros = ComponentesGeradosTest.compilar("""
+            package com.avanade.curso.annotations;
+
+            class T2 { @Transacional final void a() { } @Transacional private void b() { } }
+            final class T3 { @Transacional void c() { } }
+            """, ProcessadorTransacional.class);
+        assertEquals(3, erros.size(), erros::toString);
+        assertTrue(erros.get(0).contains("não pode ser private, static nem final"), erros.get(0));
+        assertTrue(erros.get(2).contains("não pode ser final"), erros.get(2));
+    }
+
+    private static Pedidos criar(Banco banco) {
+        try {
+            Pedidos pedidos = Transacoes.criar(Pedidos.class);
+            pedidos.banco = banco;
+            return pedidos;
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
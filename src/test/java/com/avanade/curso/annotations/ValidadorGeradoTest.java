@@ -0,0 +1,155 @@
+package com.avanade.curso.annotations;
+
+import com.avanade.curso.annotations.processamento.ProcessadorValidar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Testes dos validadores gerados pelo ProcessadorValidar
+ */
+class ValidadorGeradoTest {
+
+    static class Base {
+        @Validar(tamanhoMinimo = 2, tamanhoMaximo = 10)
+        String nome;
+    }
+
+    @GerarValidador
+    static class Conta extends Base {
+        @Validar(obrigatorio = false, regex = "\\d{4}-\\d")
+        String agencia;
+
+        @Validar(regex = "\\d{1,3}")
+        int idade;
+
+        // private: lido pelo getter
+        @Validar(tamanhoMaximo = 3)
+        private StringBuilder sigla;
+
+        @Validar(obrigatorio = false, tamanhoMinimo = 1)
+        static String prefixo = "BR";
+
+        Conta(String nome, String agencia, int idade, String sigla) {
+            this.nome = nome;
+            this.agencia = agencia;
+            this.idade = idade;
+            this.sigla = sigla == null ? null : new StringBuilder(sigla);
+        }
+
+        StringBuilder getSigla() {
+            return sigla;
+        }
+    }
+
+    // Campos de record são private: lidos pelos acessores nome() e ddd()
+    @GerarValidador
+    record Telefone(@Validar(tamanhoMinimo = 2) String nome, @Validar(regex = "\\d{2}") int ddd) {
+    }
+
+    static class SemGeracao {
+        @Validar
+        String nome;
+    }
+
+    @Test
+    @DisplayName("Validador gerado deve produzir os mesmos erros que o PlanoValidacao")
+    void mesmosErrosQueOPlano() {
+        Validador<Conta> gerado = new ValidadorGeradoTest_ContaValidador();
+        PlanoValidacao plano = PlanoValidacao.de(Conta.class);
+        List<Conta> contas = List.of(
+            new Conta("Ana", "1234-5", 30, "AB"),
+            new Conta("Ana", null, 30, "AB"),
+            new Conta("A", "12", -1, null),
+            new Conta("", "", 1000, "ABCD"),
+            new Conta(null, "1234-56", 7, ""),
+            new Conta("Nome Comprido", "1234-5", 0, "X"));
+        for (Conta conta : contas) {
+            assertEquals(plano.validar(conta), gerado.validar(conta));
+        }
+        assertTrue(gerado.valido(contas.get(0)));
+        assertEquals(List.of("nome", "agencia", "idade", "sigla"),
+            gerado.validar(new Conta("A", "12", -1, null)).stream().map(ErroValidacao::campo).toList());
+    }
+
+    @Test
+    @DisplayName("Validador gerado para record deve ler os campos pelos acessores")
+    void record() {
+        Validador<Telefone> gerado = new ValidadorGeradoTest_TelefoneValidador();
+        PlanoValidacao plano = PlanoValidacao.de(Telefone.class);
+        for (Telefone telefone : List.of(new Telefone("Casa", 11), new Telefone("C", 1), new Telefone(null, 100))) {
+            assertEquals(plano.validar(telefone), gerado.validar(telefone));
+        }
+        assertTrue(gerado.valido(new Telefone("Casa", 11)));
+        assertEquals(List.of("nome", "ddd"),
+            gerado.validar(new Telefone("C", 1)).stream().map(ErroValidacao::campo).toList());
+    }
+
+    @Test
+    @DisplayName("Validadores deve usar a classe gerada e, sem ela, o plano por reflexão")
+    void validadoresComFallback() {
+        Validador<Conta> validador = Validadores.para(Conta.class);
+        assertInstanceOf(ValidadorGeradoTest_ContaValidador.class, validador);
+        assertSame(validador, Validadores.para(Conta.class));
+        assertEquals("com.avanade.curso.annotations.ValidadorGeradoTest_ContaValidador",
+            Validadores.nomeGerado(Conta.class));
+
+        Validador<SemGeracao> reflexivo = Validadores.para(SemGeracao.class);
+        assertFalse(reflexivo.valido(new SemGeracao()));
+        assertEquals(ErroValidacao.Violacao.OBRIGATORIO, reflexivo.validar(new SemGeracao()).get(0).violacao());
+    }
+
+    @Test
+    @DisplayName("Processador deve falhar a compilação com regex inválida ou campo inacessível")
+    void errosDeCompilacao() throws Exception {
+        JavaCompiler compilador = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compilador, "teste requer um JDK");
+        String fonte = """
+            package com.avanade.curso.annotations;
+
+            @GerarValidador
+            class Invalido {
+                @Validar(regex = "[a-z")
+                String codigo;
+
+                @Validar
+                private String oculto;
+            }
+            """;
+        JavaFileObject arquivo = new SimpleJavaFileObject(
+                URI.create("string:///com/avanade/curso/annotations/Invalido.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignorarErros) {
+                return fonte;
+            }
+        };
+        String classes = new File(Validar.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        Path saida = Files.createTempDirectory("processador");
+        DiagnosticCollector<JavaFileObject> diagnosticos = new DiagnosticCollector<>();
+        boolean compilou = compilador.getTask(null, null, diagnosticos,
+            List.of("-classpath", classes, "-d", saida.toString(), "-s", saida.toString(),
+                "-processor", ProcessadorValidar.class.getName()),
+            null, List.of(arquivo)).call();
+
+        assertFalse(compilou);
+        List<String> erros = diagnosticos.getDiagnostics().stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .map(d -> d.getMessage(Locale.ROOT))
+            .toList();
+        assertEquals(2, erros.size(), erros::toString);
+        assertTrue(erros.get(0).contains("regex inválida \"[a-z\""), erros.get(0));
+        assertTrue(erros.get(1).contains("oculto"), erros.get(1));
+    }
+}
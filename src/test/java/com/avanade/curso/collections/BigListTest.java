@@ -0,0 +1,117 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Testes das listas segmentadas (BigList, IntBigList, LongBigList)
+ */
+class BigListTest {
+
+    @Test
+    @DisplayName("BigList deve manter ordem e índices através das fronteiras de chunk")
+    void bigListBasico() {
+        BigList<String> lista = new BigList<>(3); // chunks de 8
+        for (int i = 0; i < 100; i++) {
+            lista.add("e" + i);
+        }
+
+        assertEquals(100, lista.size());
+        assertEquals("e0", lista.get(0));
+        assertEquals("e8", lista.get(8));
+        assertEquals("e99", lista.get(99));
+        assertEquals("e42", lista.set(42, "x"));
+        assertEquals("x", lista.get(42));
+        assertEquals("e99", lista.removeLast());
+        assertEquals(99, lista.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.get(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.get(-1));
+
+        List<String> visitados = new ArrayList<>();
+        lista.forEach(visitados::add);
+        List<String> iterados = new ArrayList<>();
+        lista.iterator().forEachRemaining(iterados::add);
+        assertEquals(visitados, iterados);
+        assertEquals(visitados, lista.stream().collect(Collectors.toList()));
+        assertEquals(visitados, lista.parallelStream().collect(Collectors.toList()));
+
+        lista.clear();
+        assertTrue(lista.isEmpty());
+        assertThrows(NoSuchElementException.class, lista::removeLast);
+    }
+
+    @Test
+    @DisplayName("Spliterator deve dividir em fronteiras de chunk e cobrir tudo uma única vez")
+    void spliterator() {
+        BigList<Integer> lista = new BigList<>(4); // chunks de 16
+        for (int i = 0; i < 1_000; i++) {
+            lista.add(i);
+        }
+
+        Deque<Spliterator<Integer>> pendentes = new ArrayDeque<>(List.of(lista.spliterator()));
+        List<Integer> visitados = new ArrayList<>();
+        int folhas = 0;
+        while (!pendentes.isEmpty()) {
+            Spliterator<Integer> s = pendentes.pop();
+            Spliterator<Integer> prefixo = s.trySplit();
+            if (prefixo != null) {
+                pendentes.push(s);
+                pendentes.push(prefixo);
+                continue;
+            }
+            // Folha: no máximo um chunk, começando em uma fronteira de chunk
+            assertTrue(s.estimateSize() <= 16);
+            int inicio = visitados.size();
+            s.forEachRemaining(visitados::add);
+            assertEquals(0, visitados.get(inicio) % 16);
+            folhas++;
+        }
+
+        assertEquals(IntStream.range(0, 1_000).boxed().toList(), visitados);
+        assertEquals((1_000 + 15) / 16, folhas);
+        assertTrue(lista.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+    }
+
+    @Test
+    @DisplayName("IntBigList deve suportar addAll, toArray e soma paralela")
+    void intBigList() {
+        IntBigList lista = new IntBigList(5);
+        int[] valores = IntStream.range(0, 10_000).toArray();
+        lista.addAll(Arrays.copyOf(valores, 7));
+        for (int i = 7; i < 100; i++) {
+            lista.add(i);
+        }
+        lista.addAll(Arrays.copyOfRange(valores, 100, valores.length));
+
+        assertEquals(valores.length, lista.size());
+        assertArrayEquals(valores, lista.toArray());
+        assertEquals(IntStream.of(valores).asLongStream().sum(), lista.parallelStream().asLongStream().sum());
+        assertEquals(5, lista.set(5, -5));
+        assertEquals(9_999, lista.removeLast());
+        assertEquals("[0, 1, 2, 3, 4, -5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, ... (9999 elementos)]",
+            lista.toString());
+    }
+
+    @Test
+    @DisplayName("LongBigList com chunk padrão deve somar igual a LongStream")
+    void longBigList() {
+        LongBigList lista = new LongBigList();
+        long[] valores = new Random(1).longs(100_000, -1_000, 1_000).toArray();
+        for (long v : valores) {
+            lista.add(v);
+        }
+
+        assertEquals(LongStream.of(valores).sum(), lista.stream().sum());
+        assertEquals(LongStream.of(valores).sum(), lista.parallelStream().sum());
+        assertArrayEquals(valores, lista.toArray());
+        long[] soma = {0};
+        lista.forEach(v -> soma[0] += v);
+        assertEquals(LongStream.of(valores).sum(), soma[0]);
+    }
+}
@@ -0,0 +1,215 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Testes do bitmap compactado (containers array, bitmap e run)
+ */
+class BitmapCompactadoTest {
+
+    /** Mistura valores esparsos, densos e faixas contíguas */
+    private static Set<Integer> gerar(long semente) {
+        Random random = new Random(semente);
+        Set<Integer> valores = new TreeSet<>(Integer::compareUnsigned);
+        for (int i = 0; i < 3_000; i++) {
+            valores.add(random.nextInt(1 << 24));
+        }
+        for (int i = 0; i < 8_000; i++) {
+            valores.add((3 << 16) + random.nextInt(1 << 16));
+        }
+        int inicio = (5 << 16) + random.nextInt(1_000);
+        for (int v = inicio; v < inicio + 70_000; v++) {
+            valores.add(v);
+        }
+        valores.add(-1);
+        valores.add(Integer.MIN_VALUE);
+        return valores;
+    }
+
+    private static BitmapCompactado bitmapDe(Set<Integer> valores) {
+        BitmapCompactado bitmap = new BitmapCompactado();
+        valores.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertMesmoConteudo(Set<Integer> esperado, BitmapCompactado bitmap) {
+        assertEquals(esperado.size(), bitmap.cardinalidade());
+        assertArrayEquals(esperado.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+    }
+
+    @Test
+    @DisplayName("add/remove/contains devem concordar com um Set")
+    void elementos() {
+        BitmapCompactado bitmap = new BitmapCompactado();
+        Set<Integer> referencia = new HashSet<>();
+        Random random = new Random(1);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Poucas chaves altas: força conversões array <-> bitmap
+            int v = random.nextInt(3 << 16);
+            if (random.nextInt(4) == 0) {
+                assertEquals(referencia.remove(v), bitmap.remove(v));
+            } else {
+                assertEquals(referencia.add(v), bitmap.add(v));
+            }
+        }
+
+        assertEquals(referencia.size(), bitmap.cardinalidade());
+        for (int v = 0; v < 3 << 16; v++) {
+            assertEquals(referencia.contains(v), bitmap.contains(v));
+        }
+    }
+
+    @Test
+    @DisplayName("Iteração deve seguir a ordem sem sinal")
+    void iteracaoSemSinal() {
+        BitmapCompactado bitmap = BitmapCompactado.de(-1, 7, Integer.MIN_VALUE, 0, 70_000);
+
+        assertArrayEquals(new int[] {0, 7, 70_000, Integer.MIN_VALUE, -1}, bitmap.toArray());
+        PrimitiveIterator.OfInt it = bitmap.iterator();
+        assertEquals(0, it.nextInt());
+        assertEquals(7, it.nextInt());
+    }
+
+    @Test
+    @DisplayName("and/or/andNot/xor devem concordar com operações de Set")
+    void operacoes() {
+        Set<Integer> a = gerar(2);
+        Set<Integer> b = gerar(3);
+        BitmapCompactado ba = bitmapDe(a);
+        BitmapCompactado bb = bitmapDe(b);
+        bb.otimizarRuns();
+
+        Set<Integer> e = new TreeSet<>(Integer::compareUnsigned);
+        e.addAll(a);
+        e.retainAll(b);
+        assertMesmoConteudo(e, BitmapCompactado.and(ba, bb));
+
+        e.clear();
+        e.addAll(a);
+        e.addAll(b);
+        assertMesmoConteudo(e, BitmapCompactado.or(ba, bb));
+
+        e.clear();
+        e.addAll(a);
+        e.removeAll(b);
+        assertMesmoConteudo(e, BitmapCompactado.andNot(ba, bb));
+
+        Set<Integer> xor = new TreeSet<>(Integer::compareUnsigned);
+        xor.addAll(a);
+        xor.addAll(b);
+        Set<Integer> intersecao = new HashSet<>(a);
+        intersecao.retainAll(b);
+        xor.removeAll(intersecao);
+        assertMesmoConteudo(xor, BitmapCompactado.xor(ba, bb));
+
+        // Operações novas não alteram os operandos
+        assertMesmoConteudo(a, ba);
+        assertMesmoConteudo(b, bb);
+    }
+
+    @Test
+    @DisplayName("Operações no lugar devem dar o mesmo resultado que as que criam bitmap")
+    void operacoesNoLugar() {
+        BitmapCompactado a = bitmapDe(gerar(4));
+        BitmapCompactado b = bitmapDe(gerar(5));
+
+        BitmapCompactado x = a.copiar();
+        x.andNoLugar(b);
+        assertEquals(BitmapCompactado.and(a, b), x);
+
+        x = a.copiar();
+        x.orNoLugar(b);
+        assertEquals(BitmapCompactado.or(a, b), x);
+
+        x = a.copiar();
+        x.andNotNoLugar(b);
+        assertEquals(BitmapCompactado.andNot(a, b), x);
+
+        x = a.copiar();
+        x.xorNoLugar(b);
+        assertEquals(BitmapCompactado.xor(a, b), x);
+
+        x.xorNoLugar(x.copiar());
+        assertTrue(x.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Operações no lugar com o próprio bitmap como operando")
+    void operacoesNoLugarComOProprio() {
+        Set<Integer> valores = gerar(6);
+        BitmapCompactado a = bitmapDe(valores);
+
+        a.andNoLugar(a);
+        assertMesmoConteudo(valores, a);
+
+        a.orNoLugar(a);
+        assertMesmoConteudo(valores, a);
+
+        a.xorNoLugar(a);
+        assertTrue(a.isEmpty());
+        assertEquals(0, a.cardinalidade());
+
+        BitmapCompactado b = BitmapCompactado.de(1, 2, 3, 4, 5, 70_000, 70_001, 140_000, 200_000, 300_000);
+        b.andNotNoLugar(b);
+        assertTrue(b.isEmpty());
+        b.add(7);
+        assertMesmoConteudo(Set.of(7), b);
+    }
+
+    @Test
+    @DisplayName("União preguiçosa de N bitmaps deve igualar ORs sucessivos")
+    void uniaoPreguicosa() {
+        BitmapCompactado[] bitmaps = new BitmapCompactado[6];
+        BitmapCompactado esperado = new BitmapCompactado();
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = bitmapDe(gerar(10 + i));
+            esperado = BitmapCompactado.or(esperado, bitmaps[i]);
+        }
+
+        BitmapCompactado uniao = BitmapCompactado.uniao(bitmaps);
+        assertEquals(esperado, uniao);
+        assertEquals(esperado.cardinalidade(), uniao.cardinalidade());
+        assertTrue(BitmapCompactado.uniao().isEmpty());
+    }
+
+    @Test
+    @DisplayName("otimizarRuns deve reduzir faixas contíguas sem alterar o conteúdo")
+    void runs() {
+        BitmapCompactado bitmap = new BitmapCompactado();
+        for (int v = 100; v < 300_000; v++) {
+            bitmap.add(v);
+        }
+        long antes = bitmap.getBytesEstimados();
+        BitmapCompactado copia = bitmap.copiar();
+
+        bitmap.otimizarRuns();
+
+        assertTrue(bitmap.getBytesEstimados() < antes / 100);
+        assertEquals(copia, bitmap);
+        assertTrue(bitmap.contains(100));
+        assertFalse(bitmap.contains(99));
+        assertTrue(bitmap.remove(150_000));
+        assertFalse(bitmap.contains(150_000));
+        assertEquals(299_899, bitmap.cardinalidade());
+    }
+
+    @Test
+    @DisplayName("Serialização deve preservar conteúdo e rejeitar dados truncados")
+    void serializacao() {
+        BitmapCompactado bitmap = bitmapDe(gerar(7));
+        bitmap.otimizarRuns();
+
+        ByteBuffer buffer = bitmap.serializar();
+        assertEquals(bitmap.tamanhoSerializado(), buffer.remaining());
+        assertEquals(bitmap, BitmapCompactado.desserializar(buffer.duplicate()));
+
+        ByteBuffer truncado = buffer.duplicate().limit(buffer.limit() - 3);
+        assertThrows(IllegalArgumentException.class, () -> BitmapCompactado.desserializar(truncado));
+    }
+}
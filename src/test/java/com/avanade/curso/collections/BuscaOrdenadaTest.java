@@ -0,0 +1,108 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes das buscas em arrays ordenados (sem desvio, em lote e Eytzinger)
+ */
+class BuscaOrdenadaTest {
+
+    /** Referência simples: primeiro índice com a[i] >= chave */
+    private static int limiteInferiorLinear(int[] a, int chave) {
+        int i = 0;
+        while (i < a.length && a[i] < chave) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] ordenado(int n, int limite, long semente) {
+        int[] a = new Random(semente).ints(n, -limite, limite).toArray();
+        Arrays.sort(a);
+        return a;
+    }
+
+    @Test
+    @DisplayName("Limites inferior/superior devem concordar com a busca linear, inclusive com repetidos")
+    void limites() {
+        for (int n = 0; n <= 70; n++) {
+            int[] a = ordenado(n, 20, n);
+            for (int chave = -22; chave <= 22; chave++) {
+                int esperado = limiteInferiorLinear(a, chave);
+                assertEquals(esperado, BuscaOrdenada.limiteInferior(a, chave));
+                assertEquals(limiteInferiorLinear(a, chave + 1), BuscaOrdenada.limiteSuperior(a, chave));
+                assertEquals(esperado, BuscaOrdenada.limiteInferior(
+                    Arrays.stream(a).asLongStream().toArray(), (long) chave));
+            }
+        }
+        int[] extremos = {Integer.MIN_VALUE, 0, Integer.MAX_VALUE};
+        assertEquals(3, BuscaOrdenada.limiteSuperior(extremos, Integer.MAX_VALUE));
+        assertEquals(0, BuscaOrdenada.limiteInferior(extremos, Integer.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("buscar deve seguir o contrato de Arrays.binarySearch para chaves únicas")
+    void contratoArraysBinarySearch() {
+        int[] a = Arrays.stream(ordenado(1_000, 5_000, 1)).distinct().toArray();
+        long[] l = Arrays.stream(a).asLongStream().toArray();
+        BuscaOrdenada.EytzingerInt eInt = BuscaOrdenada.EytzingerInt.de(a);
+        BuscaOrdenada.EytzingerLong eLong = BuscaOrdenada.EytzingerLong.de(l);
+
+        for (int chave = -5_001; chave <= 5_001; chave++) {
+            int esperado = Arrays.binarySearch(a, chave);
+            assertEquals(esperado, BuscaOrdenada.buscar(a, chave));
+            assertEquals(esperado, BuscaOrdenada.buscar(l, chave));
+            assertEquals(esperado, eInt.buscar(chave));
+            assertEquals(esperado, eLong.buscar(chave));
+            assertEquals(esperado >= 0, eInt.contem(chave));
+        }
+    }
+
+    @Test
+    @DisplayName("Eytzinger deve dar o mesmo limite inferior para todos os tamanhos")
+    void eytzingerTamanhos() {
+        for (int n = 0; n <= 130; n++) {
+            int[] a = ordenado(n, 50, 100 + n);
+            BuscaOrdenada.EytzingerInt e = BuscaOrdenada.EytzingerInt.de(a);
+            assertEquals(n, e.size());
+            for (int chave = -52; chave <= 52; chave++) {
+                assertEquals(limiteInferiorLinear(a, chave), e.limiteInferior(chave), "n=" + n + " chave=" + chave);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Buscas em lote devem igualar as buscas individuais")
+    void lotes() {
+        int[] a = ordenado(100_000, 1_000_000, 7);
+        long[] l = Arrays.stream(a).asLongStream().toArray();
+        int[] chaves = new Random(8).ints(1_003, -1_100_000, 1_100_000).toArray();
+        long[] chavesLong = Arrays.stream(chaves).asLongStream().toArray();
+        int[] esperado = Arrays.stream(chaves).map(c -> limiteInferiorLinear(a, c)).toArray();
+
+        int[] saida = new int[chaves.length];
+        BuscaOrdenada.limitesInferiores(a, chaves, saida);
+        assertArrayEquals(esperado, saida);
+
+        Arrays.fill(saida, -1);
+        BuscaOrdenada.limitesInferiores(l, chavesLong, saida);
+        assertArrayEquals(esperado, saida);
+
+        Arrays.fill(saida, -1);
+        BuscaOrdenada.EytzingerInt.de(a).limitesInferiores(chaves, saida);
+        assertArrayEquals(esperado, saida);
+
+        Arrays.fill(saida, -1);
+        BuscaOrdenada.EytzingerLong.de(l).limitesInferiores(chavesLong, saida);
+        assertArrayEquals(esperado, saida);
+
+        BuscaOrdenada.limitesInferiores(new int[0], chaves, saida);
+        assertEquals(0, Arrays.stream(saida).max().getAsInt());
+        assertThrows(IllegalArgumentException.class,
+            () -> BuscaOrdenada.limitesInferiores(a, chaves, new int[2]));
+    }
+}
@@ -0,0 +1,229 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testes dos caches limitados (LRU, LFU, W-TinyLFU, concorrente)
+ */
+class CacheTest {
+
+    private static CacheLimitado<Integer, String> cache(PoliticaDespejo politica, int capacidade) {
+        return Cache.<Integer, String>builder().capacidade(capacidade).politica(politica).build();
+    }
+
+    @Test
+    @DisplayName("LRU deve despejar a entrada usada há mais tempo")
+    void lru() {
+        CacheLimitado<Integer, String> cache = cache(PoliticaDespejo.LRU, 3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertEquals("a", cache.get(1)); // 2 passa a ser a mais antiga
+        cache.put(4, "d");
+
+        assertFalse(cache.containsKey(2));
+        assertTrue(cache.containsKey(1));
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+
+        EstatisticasCache e = cache.estatisticas();
+        assertEquals(1, e.acertos());
+        assertEquals(1, e.falhas());
+        assertEquals(1, e.despejos());
+        assertEquals(0.5, e.taxaAcerto());
+    }
+
+    @Test
+    @DisplayName("LFU deve despejar a menos frequente e, no empate, a mais antiga")
+    void lfu() {
+        CacheLimitado<Integer, String> cache = cache(PoliticaDespejo.LFU, 3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        cache.get(1);
+        cache.get(1);
+        cache.get(3);
+        cache.put(4, "d"); // 2 tem frequência 1
+        assertFalse(cache.containsKey(2));
+
+        cache.put(5, "e"); // 4 (freq 1) é a única com freq mínima
+        assertFalse(cache.containsKey(4));
+        assertTrue(cache.containsKey(1));
+        assertTrue(cache.containsKey(3));
+
+        assertEquals("a", cache.remove(1));
+        assertNull(cache.remove(1));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.estatisticas().despejos());
+    }
+
+    @Test
+    @DisplayName("W-TinyLFU deve manter o conjunto quente durante uma varredura")
+    void wTinyLfuResisteAVarredura() {
+        for (PoliticaDespejo politica : PoliticaDespejo.values()) {
+            CacheLimitado<Integer, String> cache = cache(politica, 1_000);
+            for (int rodada = 0; rodada < 10; rodada++) {
+                for (int k = 0; k < 500; k++) {
+                    cache.computeIfAbsent(k, String::valueOf);
+                }
+            }
+            // Varredura de chaves vistas uma única vez
+            for (int k = 1_000_000; k < 1_010_000; k++) {
+                cache.computeIfAbsent(k, String::valueOf);
+            }
+            int quentes = 0;
+            for (int k = 0; k < 500; k++) {
+                if (cache.containsKey(k)) {
+                    quentes++;
+                }
+            }
+            assertEquals(1_000, cache.size());
+            if (politica == PoliticaDespejo.LRU) {
+                assertEquals(0, quentes, "LRU perde tudo para a varredura");
+            } else {
+                assertTrue(quentes >= 490, politica + " manteve só " + quentes);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sketch do W-TinyLFU deve ser dimensionado pelas entradas, não pelo peso")
+    void sketchDimensionadoPorEntradas() {
+        // 256 MB de peso máximo: dimensionar pelo peso alocaria 2 GB de sketch
+        PoliticaWTinyLfu<Integer, String> politica = new PoliticaWTinyLfu<>(256L << 20);
+        assertEquals(16, politica.getTamanhoSketch());
+
+        for (int k = 0; k < 1_000; k++) {
+            politica.inserir(new NoCache<>(k, Integer.hashCode(k), "v", 1));
+        }
+        assertEquals(1_024, politica.getTamanhoSketch());
+
+        // Despejos descontam entradas: a tabela não passa do necessário
+        for (int k = 1_000; k < 5_000; k++) {
+            assertNotNull(politica.escolherVitima());
+            politica.inserir(new NoCache<>(k, Integer.hashCode(k), "v", 1));
+        }
+        assertEquals(1_024, politica.getTamanhoSketch());
+
+        // Com peso >= 1 o peso máximo limita as entradas, e o sketch
+        PoliticaWTinyLfu<Integer, String> pequena = new PoliticaWTinyLfu<>(64);
+        for (int k = 0; k < 1_000; k++) {
+            pequena.inserir(new NoCache<>(k, Integer.hashCode(k), "v", 1));
+        }
+        assertEquals(64, pequena.getTamanhoSketch());
+    }
+
+    @Test
+    @DisplayName("Limite por peso deve considerar atualizações e recusar entradas grandes demais")
+    void limitePorPeso() {
+        List<String> despejados = new ArrayList<>();
+        CacheLimitado<String, String> cache = Cache.<String, String>builder()
+            .pesoMaximo(10, (k, v) -> v.length())
+            .politica(PoliticaDespejo.LRU)
+            .aoDespejar((k, v) -> despejados.add(k))
+            .build();
+
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        assertEquals(8, cache.pesoTotal());
+        cache.put("a", "12"); // atualização diminui o peso
+        assertEquals(6, cache.pesoTotal());
+        cache.put("c", "12345"); // 11 > 10: sai "b" (o "a" foi tocado depois)
+        assertEquals(List.of("b"), despejados);
+        assertEquals(7, cache.pesoTotal());
+
+        assertNull(cache.put("d", "12345678901"));
+        assertFalse(cache.containsKey("d"));
+        assertEquals(List.of("b", "d"), despejados);
+        assertEquals(2, cache.size());
+        assertEquals(15, cache.estatisticas().pesoDespejado());
+
+        assertThrows(NullPointerException.class, () -> cache.put("x", null));
+        assertThrows(IllegalStateException.class, () -> Cache.builder().build());
+    }
+
+    @Test
+    @DisplayName("Todas as políticas devem respeitar o limite e devolver valores corretos")
+    void invariantes() {
+        Random random = new Random(7);
+        for (PoliticaDespejo politica : PoliticaDespejo.values()) {
+            CacheLimitado<Integer, String> cache = cache(politica, 64);
+            for (int i = 0; i < 50_000; i++) {
+                int k = (int) Math.abs(random.nextGaussian() * 100);
+                switch (random.nextInt(4)) {
+                    case 0 -> cache.put(k, "v" + k);
+                    case 1 -> cache.remove(k);
+                    default -> {
+                        String v = cache.get(k);
+                        assertTrue(v == null || v.equals("v" + k));
+                    }
+                }
+                assertTrue(cache.size() <= 64);
+                assertEquals(cache.size(), cache.pesoTotal());
+            }
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertNull(cache.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("CacheConcorrente deve respeitar o limite e calcular cada chave uma vez por residência")
+    void concorrente() throws Exception {
+        CacheConcorrente<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+            .capacidade(1_024)
+            .listras(8)
+            .buildConcorrente();
+        assertEquals(8, cache.getListras());
+
+        AtomicInteger calculos = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int k = i % 512;
+                    Integer v = cache.computeIfAbsent(k, x -> {
+                        calculos.incrementAndGet();
+                        return x * 2;
+                    });
+                    assertEquals(k * 2, v);
+                }
+            }));
+        }
+        for (Future<?> f : tarefas) {
+            f.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(cache.size() <= 1_024);
+        EstatisticasCache e = cache.estatisticas();
+        assertEquals(80_000, e.requisicoes());
+        assertEquals(calculos.get(), e.falhas());
+        assertEquals(e.falhas() - e.despejos(), cache.size());
+    }
+
+    @Test
+    @DisplayName("Segmentos do CacheConcorrente devem somar exatamente o peso máximo")
+    void concorrenteDivideOPesoSemExceder() {
+        // 1_001 / 8 não é exato: arredondar para cima daria 8 × 126 = 1_008
+        CacheConcorrente<Integer, Integer> cache = Cache.<Integer, Integer>builder()
+            .capacidade(1_001)
+            .listras(8)
+            .buildConcorrente();
+        for (int k = 0; k < 100_000; k++) {
+            cache.put(k, k);
+        }
+        assertEquals(1_001, cache.size());
+    }
+}
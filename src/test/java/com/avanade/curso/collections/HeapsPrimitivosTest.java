@@ -0,0 +1,127 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes dos heaps primitivos e da fila de prioridade indexada
+ */
+class HeapsPrimitivosTest {
+
+    @Test
+    @DisplayName("HeapInt de mínimo deve drenar em ordem crescente")
+    void heapIntMinimo() {
+        HeapInt heap = HeapInt.minimo(0);
+        int[] valores = new Random(3).ints(1_000, -500, 500).toArray();
+        for (int v : valores) {
+            heap.offer(v);
+        }
+
+        int[] esperado = valores.clone();
+        Arrays.sort(esperado);
+        assertEquals(esperado[0], heap.peek());
+        assertArrayEquals(esperado, heap.drenarOrdenado());
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::poll);
+    }
+
+    @Test
+    @DisplayName("HeapLong de máximo deve drenar em ordem decrescente")
+    void heapLongMaximo() {
+        HeapLong heap = HeapLong.maximo(4);
+        heap.offer(5);
+        heap.offer(Long.MAX_VALUE);
+        heap.offer(Long.MIN_VALUE);
+        heap.offer(3);
+
+        assertArrayEquals(new long[] {Long.MAX_VALUE, 5, 3, Long.MIN_VALUE}, heap.drenarOrdenado());
+    }
+
+    @Test
+    @DisplayName("Top-K com heap de mínimo deve manter os K maiores")
+    void topK() {
+        HeapInt heap = HeapInt.minimo(3);
+        for (int v : new int[] {5, 1, 9, 3, 7, 2, 8}) {
+            heap.ofertarTopK(v, 3);
+        }
+
+        assertEquals(3, heap.size());
+        assertArrayEquals(new int[] {7, 8, 9}, heap.drenarOrdenado());
+    }
+
+    @Test
+    @DisplayName("Fila indexada deve suportar diminuirChave e remover(id)")
+    void filaIndexada() {
+        FilaPrioridadeIndexada fila = new FilaPrioridadeIndexada(10);
+        fila.inserir(0, 50);
+        fila.inserir(1, 30);
+        fila.inserir(2, 40);
+        fila.inserir(3, 10);
+
+        assertEquals(3, fila.topo());
+        fila.diminuirChave(0, 5);
+        assertEquals(0, fila.topo());
+        assertTrue(fila.remover(0));
+        assertFalse(fila.contem(0));
+        fila.aumentarChave(3, 100);
+
+        assertEquals(1, fila.removerTopo());
+        assertEquals(2, fila.removerTopo());
+        assertEquals(100, fila.prioridadeTopo());
+        assertEquals(3, fila.removerTopo());
+        assertTrue(fila.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fila indexada deve concordar com TreeSet em operações aleatórias")
+    void filaIndexadaAleatoria() {
+        int n = 500;
+        FilaPrioridadeIndexada fila = new FilaPrioridadeIndexada(n);
+        long[] prioridades = new long[n];
+        TreeSet<Integer> referencia = new TreeSet<>(
+            Comparator.<Integer>comparingLong(id -> prioridades[id]).thenComparingInt(id -> id));
+        Random random = new Random(5);
+
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(n);
+            long p = random.nextInt(1_000);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    referencia.remove(id);
+                    prioridades[id] = p;
+                    referencia.add(id);
+                    fila.alterarPrioridade(id, p);
+                }
+                case 1 -> assertEquals(referencia.remove(id), fila.remover(id));
+                default -> {
+                    if (!referencia.isEmpty()) {
+                        int esperado = referencia.pollFirst();
+                        int obtido = fila.removerTopo();
+                        assertEquals(prioridades[esperado], prioridades[obtido]);
+                        if (esperado != obtido) {
+                            // Empate de prioridade: qualquer um dos dois é válido
+                            referencia.add(esperado);
+                            referencia.remove(obtido);
+                        }
+                    }
+                }
+            }
+            assertEquals(referencia.size(), fila.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Fila indexada deve validar ids e direção da alteração")
+    void filaIndexadaValidacoes() {
+        FilaPrioridadeIndexada fila = new FilaPrioridadeIndexada(2);
+        fila.inserir(0, 10);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> fila.inserir(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> fila.inserir(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> fila.diminuirChave(0, 20));
+        assertThrows(NoSuchElementException.class, () -> fila.prioridade(1));
+    }
+}
@@ -0,0 +1,119 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Testes do mapa hash off-heap
+ */
+class MapaOffHeapTest {
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("API long deve se comportar como HashMap e sobreviver a redimensionamentos")
+    void longLongEquivalenteHashMap() {
+        try (MapaOffHeap mapa = MapaOffHeap.comTamanhoFixo(8, 8, 4)) {
+            Map<Long, Long> referencia = new HashMap<>();
+            Random random = new Random(11);
+
+            for (int i = 0; i < 40_000; i++) {
+                long chave = random.nextInt(5_000) - 2_500;
+                switch (random.nextInt(4)) {
+                    case 0 -> assertEquals(referencia.put(chave, (long) i) == null, mapa.putLong(chave, i));
+                    case 1 -> assertEquals(referencia.merge(chave, 2L, Long::sum).longValue(), mapa.addTo(chave, 2L));
+                    case 2 -> assertEquals(referencia.remove(chave) != null, mapa.removeLong(chave));
+                    default -> assertEquals(referencia.getOrDefault(chave, -1L), mapa.getLong(chave, -1L));
+                }
+                assertEquals(referencia.size(), mapa.size());
+            }
+
+            Map<Long, Long> iterado = new HashMap<>();
+            MapaOffHeap.Cursor cursor = mapa.cursor();
+            while (cursor.proximo()) {
+                iterado.put(cursor.chaveLong(), cursor.valorLong());
+            }
+            assertEquals(referencia, iterado);
+            assertTrue(mapa.getCapacidade() > 4);
+        }
+    }
+
+    @Test
+    @DisplayName("API por bytes e API long devem enxergar as mesmas chaves")
+    void bytesELongCompativeis() {
+        try (MapaOffHeap mapa = MapaOffHeap.comTamanhoFixo(8, 8, 16)) {
+            mapa.putLong(42L, 7L);
+
+            ByteBuffer chave = ByteBuffer.allocateDirect(8).order(java.nio.ByteOrder.nativeOrder());
+            chave.putLong(0, 42L);
+            ByteBuffer destino = ByteBuffer.allocate(8).order(java.nio.ByteOrder.nativeOrder());
+
+            assertTrue(mapa.containsKey(chave));
+            assertEquals(8, mapa.copiarValor(chave, destino));
+            assertEquals(7L, destino.getLong(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Modo variável deve armazenar chaves e valores de tamanhos diferentes")
+    void tamanhoVariavel() {
+        try (MapaOffHeap mapa = MapaOffHeap.comTamanhoVariavel(2)) {
+            for (int i = 0; i < 2_000; i++) {
+                assertTrue(mapa.put(bytes("chave-" + i), bytes("valor-" + "x".repeat(i % 50))));
+            }
+            assertFalse(mapa.put(bytes("chave-7"), bytes("substituído")));
+            assertTrue(mapa.remove(bytes("chave-8")));
+
+            assertEquals(1_999, mapa.size());
+            assertEquals("substituído", new String(mapa.get(bytes("chave-7")), StandardCharsets.UTF_8));
+            assertNull(mapa.get(bytes("chave-8")));
+            assertEquals("valor-" + "x".repeat(10), new String(mapa.get(bytes("chave-10")), StandardCharsets.UTF_8));
+            assertTrue(mapa.getBytesArenaMortos() > 0);
+
+            mapa.compactarArena();
+            assertEquals(0, mapa.getBytesArenaMortos());
+            assertEquals("substituído", new String(mapa.get(bytes("chave-7")), StandardCharsets.UTF_8));
+
+            Set<String> chaves = new HashSet<>();
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            MapaOffHeap.Cursor cursor = mapa.cursor();
+            while (cursor.proximo()) {
+                buffer.clear();
+                int tamanho = cursor.copiarChave(buffer);
+                chaves.add(new String(buffer.array(), 0, tamanho, StandardCharsets.UTF_8));
+            }
+            assertEquals(1_999, chaves.size());
+            assertFalse(chaves.contains("chave-8"));
+        }
+    }
+
+    @Test
+    @DisplayName("Tamanho fixo deve rejeitar chaves de tamanho errado")
+    void tamanhoFixoValida() {
+        try (MapaOffHeap mapa = MapaOffHeap.comTamanhoFixo(4, 2, 16)) {
+            assertThrows(IllegalArgumentException.class, () -> mapa.put(new byte[3], new byte[2]));
+            assertThrows(UnsupportedOperationException.class, () -> mapa.putLong(1, 1));
+            assertTrue(mapa.put(new byte[] {1, 2, 3, 4}, new byte[] {9, 9}));
+            assertArrayEquals(new byte[] {9, 9}, mapa.get(new byte[] {1, 2, 3, 4}));
+        }
+    }
+
+    @Test
+    @DisplayName("Mapa fechado não pode ser usado")
+    void fechado() {
+        MapaOffHeap mapa = MapaOffHeap.comTamanhoFixo(8, 8, 16);
+        mapa.putLong(1, 1);
+        mapa.close();
+        mapa.close(); // idempotente
+
+        assertTrue(mapa.isFechado());
+        assertThrows(IllegalStateException.class, () -> mapa.getLong(1, 0));
+    }
+}
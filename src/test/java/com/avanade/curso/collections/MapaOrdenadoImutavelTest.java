@@ -0,0 +1,127 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes dos mapas ordenados imutáveis (objeto, double e long)
+ */
+class MapaOrdenadoImutavelTest {
+
+    private static TreeMap<Integer, String> referencia(int n, long semente) {
+        Random random = new Random(semente);
+        TreeMap<Integer, String> mapa = new TreeMap<>();
+        while (mapa.size() < n) {
+            int k = random.nextInt(10 * n);
+            mapa.put(k, "v" + k);
+        }
+        return mapa;
+    }
+
+    private static void assertNavegacaoIgual(NavigableMap<Integer, String> esperado,
+                                             MapaOrdenadoImutavel<Integer, String> mapa, int limite) {
+        assertEquals(esperado.size(), mapa.size());
+        for (int k = -1; k <= limite; k++) {
+            assertEquals(esperado.get(k), mapa.get(k), "get " + k);
+            assertEquals(esperado.floorKey(k), mapa.chaveChao(k), "floor " + k);
+            assertEquals(esperado.ceilingKey(k), mapa.chaveTeto(k), "ceiling " + k);
+            assertEquals(esperado.lowerKey(k), mapa.chaveInferior(k), "lower " + k);
+            assertEquals(esperado.higherKey(k), mapa.chaveSuperior(k), "higher " + k);
+        }
+    }
+
+    @Test
+    @DisplayName("Busca binária e Eytzinger devem concordar com TreeMap")
+    void navegacao() {
+        for (int n : new int[] {0, 1, 2, 7, 8, 100, 1_023}) {
+            TreeMap<Integer, String> esperado = referencia(n, n);
+            MapaOrdenadoImutavel<Integer, String> binaria = MapaOrdenadoImutavel.copiaDe(esperado);
+            MapaOrdenadoImutavel.Builder<Integer, String> builder = MapaOrdenadoImutavel.<Integer, String>builder()
+                .eytzinger();
+            esperado.forEach(builder::put);
+            MapaOrdenadoImutavel<Integer, String> eytzinger = builder.build();
+
+            assertNavegacaoIgual(esperado, binaria, 10 * n + 1);
+            assertNavegacaoIgual(esperado, eytzinger, 10 * n + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Visões devem corresponder a subMap/headMap/tailMap sem copiar")
+    void visoes() {
+        TreeMap<Integer, String> esperado = referencia(500, 9);
+        MapaOrdenadoImutavel<Integer, String> mapa = MapaOrdenadoImutavel.copiaDe(esperado);
+        Random random = new Random(10);
+
+        for (int i = 0; i < 200; i++) {
+            int a = random.nextInt(5_000);
+            int b = a + random.nextInt(1_000);
+            boolean ia = random.nextBoolean();
+            boolean ib = random.nextBoolean();
+            assertNavegacaoIgual(esperado.subMap(a, ia, b, ib), mapa.subMapa(a, ia, b, ib), 5_000);
+            assertNavegacaoIgual(esperado.headMap(a, ia), mapa.cabeca(a, ia), 5_000);
+            assertNavegacaoIgual(esperado.tailMap(b, ib), mapa.cauda(b, ib), 5_000);
+        }
+
+        MapaOrdenadoImutavel<Integer, String> faixa = mapa.subMapa(1_000, 2_000);
+        List<Integer> chaves = new ArrayList<>();
+        faixa.forEach((k, v) -> chaves.add(k));
+        assertEquals(new ArrayList<>(esperado.subMap(1_000, 2_000).keySet()), chaves);
+        assertEquals(faixa.chaveEm(0), faixa.primeiraChave());
+        assertThrows(IndexOutOfBoundsException.class, () -> faixa.valorEm(faixa.size()));
+        assertThrows(IllegalArgumentException.class, () -> mapa.subMapa(10, 5));
+    }
+
+    @Test
+    @DisplayName("Builder deve ordenar em lote e manter o último valor de chaves repetidas")
+    void builderDuplicadas() {
+        MapaOrdenadoImutavel<String, Integer> mapa = MapaOrdenadoImutavel.<String, Integer>builder()
+            .put("c", 1).put("a", 2).put("b", 3).put("a", 4).put("c", 5)
+            .build();
+
+        assertEquals("{a=4, b=3, c=5}", mapa.toString());
+        assertThrows(NullPointerException.class, () -> MapaOrdenadoImutavel.<String, Integer>builder().put("x", null));
+    }
+
+    @Test
+    @DisplayName("deArraysOrdenados deve rejeitar chaves fora de ordem")
+    void arraysOrdenados() {
+        Comparator<String> ordem = Comparator.naturalOrder();
+        MapaOrdenadoImutavel<String, Integer> mapa = MapaOrdenadoImutavel.deArraysOrdenados(
+            new String[] {"a", "b"}, new Integer[] {1, 2}, ordem);
+        assertEquals(2, mapa.get("b"));
+
+        assertThrows(IllegalArgumentException.class, () -> MapaOrdenadoImutavel.deArraysOrdenados(
+            new String[] {"b", "a"}, new Integer[] {1, 2}, ordem));
+        assertThrows(IllegalArgumentException.class, () -> MapaOrdenadoDouble.deArraysOrdenados(
+            new String[] {"a", "a"}, new double[] {1, 2}, ordem));
+        assertThrows(IllegalArgumentException.class, () -> MapaOrdenadoLong.deArraysOrdenados(
+            new String[] {"a"}, new long[] {1, 2}, ordem));
+    }
+
+    @Test
+    @DisplayName("Variantes primitivas devem navegar e agregar sem boxing")
+    void variantesPrimitivas() {
+        MapaOrdenadoDouble<String> precos = MapaOrdenadoDouble.<String>builder()
+            .put("Maçã", 3.00).put("Banana", 2.50).put("Laranja", 2.00)
+            .eytzinger()
+            .build();
+
+        assertEquals(2.50, precos.getDouble("Banana"));
+        assertEquals(-1.0, precos.getOrDefault("Uva", -1.0));
+        assertEquals(4.50, precos.subMapa("Banana", true, "Laranja", true).somar(), 1e-9);
+        assertEquals("Banana", precos.primeiraChave());
+
+        // Tabela por faixa: frete pelo início da faixa de peso (gramas)
+        MapaOrdenadoLong<Integer> frete = MapaOrdenadoLong.<Integer>builder()
+            .put(0, 1_000).put(500, 1_800).put(2_000, 3_500)
+            .build();
+        assertEquals(1_800, frete.valorChao(1_999, -1));
+        assertEquals(3_500, frete.valorChao(50_000, -1));
+        assertEquals(-1, frete.valorChao(-5, -1));
+        assertEquals(6_300, frete.somar());
+    }
+}
@@ -0,0 +1,125 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes dos mapas primitivos de endereçamento aberto
+ */
+class MapasPrimitivosTest {
+
+    @Test
+    @DisplayName("Long2LongMap deve se comportar como HashMap em operações aleatórias")
+    void long2LongEquivalenteHashMap() {
+        Long2LongMap mapa = new Long2LongMap(4, 0.5f);
+        Map<Long, Long> referencia = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            long chave = random.nextInt(2_000) - 1_000; // inclui 0 e negativos
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(Optional.ofNullable(referencia.put(chave, (long) i)).orElse(0L), mapa.put(chave, i));
+                case 1 -> assertEquals(referencia.merge(chave, 3L, Long::sum).longValue(), mapa.addTo(chave, 3L));
+                case 2 -> assertEquals(Optional.ofNullable(referencia.remove(chave)).orElse(0L), mapa.remove(chave));
+                default -> assertEquals(referencia.getOrDefault(chave, -1L), mapa.getOrDefault(chave, -1L));
+            }
+            assertEquals(referencia.size(), mapa.size());
+        }
+
+        Map<Long, Long> iterado = new HashMap<>();
+        Long2LongMap.Cursor cursor = mapa.cursor();
+        while (cursor.proximo()) {
+            iterado.put(cursor.chave(), cursor.valor());
+        }
+        assertEquals(referencia, iterado);
+    }
+
+    @Test
+    @DisplayName("Chave 0 deve ser tratada separadamente")
+    void chaveZero() {
+        Long2LongMap mapa = new Long2LongMap();
+        assertFalse(mapa.containsKey(0));
+        mapa.put(0, 10);
+        mapa.put(1, 20);
+
+        assertTrue(mapa.containsKey(0));
+        assertEquals(10, mapa.get(0));
+        assertEquals(2, mapa.size());
+        assertEquals(10, mapa.remove(0));
+        assertFalse(mapa.containsKey(0));
+        assertEquals(1, mapa.size());
+    }
+
+    @Test
+    @DisplayName("Object2IntMap.addTo deve contar frequências sem boxing")
+    void object2IntContagem() {
+        Object2IntMap<String> contagem = new Object2IntMap<>();
+        for (String palavra : "a b a c a b".split(" ")) {
+            contagem.addTo(palavra, 1);
+        }
+
+        assertEquals(3, contagem.getInt("a"));
+        assertEquals(2, contagem.getInt("b"));
+        assertEquals(1, contagem.getInt("c"));
+        assertEquals(0, contagem.getOrDefault("d", 0));
+        assertEquals(3, contagem.size());
+        assertEquals(2, contagem.removeInt("b"));
+        assertFalse(contagem.containsKey("b"));
+        assertThrows(NullPointerException.class, () -> contagem.addTo(null, 1));
+    }
+
+    @Test
+    @DisplayName("Object2IntMap deve sobreviver a redimensionamentos e remoções")
+    void object2IntRedimensiona() {
+        Object2IntMap<String> mapa = new Object2IntMap<>(2, 0.9f);
+        for (int i = 0; i < 10_000; i++) {
+            mapa.put("k" + i, i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            mapa.removeInt("k" + i);
+        }
+
+        assertEquals(5_000, mapa.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, mapa.getOrDefault("k" + i, -1));
+        }
+        int soma = 0;
+        Object2IntMap<String>.Cursor cursor = mapa.cursor();
+        while (cursor.proximo()) {
+            soma += cursor.valor();
+        }
+        assertEquals(25_000_000, soma);
+    }
+
+    @Test
+    @DisplayName("Int2ObjectMap deve suportar computeIfAbsent e chave 0")
+    void int2Object() {
+        Int2ObjectMap<List<String>> grupos = new Int2ObjectMap<>();
+        grupos.computeIfAbsent(0, k -> new ArrayList<>()).add("zero");
+        grupos.computeIfAbsent(5, k -> new ArrayList<>()).add("cinco");
+        grupos.computeIfAbsent(5, k -> new ArrayList<>()).add("five");
+
+        assertEquals(List.of("zero"), grupos.get(0));
+        assertEquals(List.of("cinco", "five"), grupos.get(5));
+        assertNull(grupos.get(7));
+        assertEquals(2, grupos.size());
+
+        int chaves = 0;
+        Int2ObjectMap<List<String>>.Cursor cursor = grupos.cursor();
+        while (cursor.proximo()) {
+            chaves += cursor.chave();
+        }
+        assertEquals(5, chaves);
+    }
+
+    @Test
+    @DisplayName("Fator de carga inválido deve ser rejeitado")
+    void fatorCargaInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new Long2LongMap(10, 1.0f));
+        assertThrows(IllegalArgumentException.class, () -> new Int2ObjectMap<String>(10, 0f));
+        assertThrows(IllegalArgumentException.class, () -> new Object2IntMap<String>(-1));
+    }
+}
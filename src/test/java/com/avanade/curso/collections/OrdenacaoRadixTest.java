@@ -0,0 +1,127 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes da ordenação radix (primitivos, objetos por chave e Strings)
+ */
+class OrdenacaoRadixTest {
+
+    @Test
+    @DisplayName("int[] e long[] devem ficar iguais a Arrays.sort, sequencial e paralelo")
+    void primitivos() {
+        Random random = new Random(1);
+        for (int n : new int[] {0, 1, 63, 64, 1_000, 300_000}) {
+            int[] ints = random.ints(n).toArray();
+            if (n > 0) {
+                ints[0] = Integer.MIN_VALUE;
+            }
+            long[] longs = random.longs(n).toArray();
+            int[] esperadoInt = ints.clone();
+            long[] esperadoLong = longs.clone();
+            Arrays.sort(esperadoInt);
+            Arrays.sort(esperadoLong);
+
+            int[] sequencial = ints.clone();
+            OrdenacaoRadix.ordenar(sequencial);
+            assertArrayEquals(esperadoInt, sequencial);
+            OrdenacaoRadix.ordenarParalelo(ints);
+            assertArrayEquals(esperadoInt, ints);
+
+            long[] longSequencial = longs.clone();
+            OrdenacaoRadix.ordenar(longSequencial);
+            assertArrayEquals(esperadoLong, longSequencial);
+            OrdenacaoRadix.ordenarParalelo(longs);
+            assertArrayEquals(esperadoLong, longs);
+        }
+    }
+
+    @Test
+    @DisplayName("Valores em faixa estreita devem pular passadas sem erro")
+    void faixaEstreita() {
+        int[] a = new Random(2).ints(10_000, -3, 3).toArray();
+        int[] esperado = a.clone();
+        Arrays.sort(esperado);
+        OrdenacaoRadix.ordenar(a);
+        assertArrayEquals(esperado, a);
+    }
+
+    @Test
+    @DisplayName("double[] deve seguir a ordem de Arrays.sort, com -0.0 e NaN")
+    void doubles() {
+        double[] a = new Random(3).doubles(100_000, -1e6, 1e6).toArray();
+        double[] especiais = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            -Double.MIN_VALUE, Double.MIN_VALUE, -Double.MAX_VALUE};
+        System.arraycopy(especiais, 0, a, 0, especiais.length);
+        double[] esperado = a.clone();
+        Arrays.sort(esperado);
+
+        double[] paralelo = a.clone();
+        OrdenacaoRadix.ordenar(a);
+        OrdenacaoRadix.ordenarParalelo(paralelo);
+        assertArrayEquals(esperado, a);
+        assertArrayEquals(esperado, paralelo);
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(a[Arrays.binarySearch(a, 0.0) - 1]));
+    }
+
+    record Pedido(String id, int prioridade, long criadoEm) {
+    }
+
+    @Test
+    @DisplayName("Ordenação por chave deve ser estável como List.sort")
+    void porChave() {
+        Random random = new Random(4);
+        Pedido[] pedidos = new Pedido[200_000];
+        for (int i = 0; i < pedidos.length; i++) {
+            pedidos[i] = new Pedido("p" + i, random.nextInt(100) - 50, random.nextLong());
+        }
+        List<Pedido> esperado = new ArrayList<>(Arrays.asList(pedidos));
+        esperado.sort(Comparator.comparingInt(Pedido::prioridade));
+
+        Pedido[] sequencial = pedidos.clone();
+        OrdenacaoRadix.ordenarPorChave(sequencial, Pedido::prioridade);
+        assertEquals(esperado, Arrays.asList(sequencial));
+
+        Pedido[] paralelo = pedidos.clone();
+        OrdenacaoRadix.ordenarPorChaveParalelo(paralelo, Pedido::prioridade);
+        assertEquals(esperado, Arrays.asList(paralelo));
+
+        esperado.sort(Comparator.comparingLong(Pedido::criadoEm));
+        OrdenacaoRadix.ordenarPorChaveLong(pedidos, Pedido::criadoEm);
+        assertEquals(esperado, Arrays.asList(pedidos));
+
+        List<String> textos = new ArrayList<>(List.of("ccc", "a", "bb", "dd", "e"));
+        OrdenacaoRadix.ordenarPorChave(textos, String::length);
+        assertEquals(List.of("a", "e", "bb", "dd", "ccc"), textos);
+    }
+
+    @Test
+    @DisplayName("Strings devem seguir String.compareTo, inclusive prefixos e não-ASCII")
+    void strings() {
+        Random random = new Random(5);
+        String[] alfabeto = {"a", "b", "ab", "ç", "é", "Z", "", "日", "😀", "aaaa"};
+        String[] a = new String[50_000];
+        for (int i = 0; i < a.length; i++) {
+            StringBuilder sb = new StringBuilder(i % 7 == 0 ? "prefixo-comum-longo-" : "");
+            for (int k = random.nextInt(5); k > 0; k--) {
+                sb.append(alfabeto[random.nextInt(alfabeto.length)]);
+            }
+            a[i] = sb.toString();
+        }
+        String[] esperado = a.clone();
+        Arrays.sort(esperado);
+
+        OrdenacaoRadix.ordenar(a);
+        assertArrayEquals(esperado, a);
+
+        String[] longas = new String[200];
+        Arrays.fill(longas, "x".repeat(20_000));
+        longas[100] = "x".repeat(19_999) + "a";
+        OrdenacaoRadix.ordenar(longas);
+        assertEquals(longas[0], "x".repeat(19_999) + "a");
+    }
+}
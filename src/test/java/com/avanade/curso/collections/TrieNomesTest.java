@@ -0,0 +1,137 @@
+package com.avanade.curso.collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Testes da árvore radix de nomes (TrieNomes e TrieNomesCongelada)
+ */
+class TrieNomesTest {
+
+    @Test
+    @DisplayName("TrieNomes deve dividir arestas e buscar chaves exatas")
+    void buscaExata() {
+        TrieNomes<Integer> trie = new TrieNomes<>();
+        assertNull(trie.put("romano", 1));
+        assertNull(trie.put("romanus", 2));
+        assertNull(trie.put("romulus", 3));
+        assertNull(trie.put("rom", 4));
+        assertNull(trie.put("", 5));
+        assertEquals(1, trie.put("romano", 10));
+
+        assertEquals(5, trie.size());
+        assertEquals(10, trie.get("romano"));
+        assertEquals(4, trie.get("rom"));
+        assertEquals(5, trie.get(""));
+        assertNull(trie.get("ro"));
+        assertNull(trie.get("romanos"));
+        assertNull(trie.get("x"));
+
+        assertEquals(4, trie.remove("rom"));
+        assertNull(trie.remove("rom"));
+        assertFalse(trie.containsKey("rom"));
+        assertEquals(3, trie.contarPrefixo("rom"));
+    }
+
+    @Test
+    @DisplayName("Busca por prefixo deve respeitar ordem e limite")
+    void prefixo() {
+        TrieNomes<String> trie = new TrieNomes<>();
+        for (String nome : List.of("bruno", "ana", "anabela", "anderson", "andre", "antonio", "ana paula")) {
+            trie.put(nome, nome);
+        }
+
+        assertEquals(List.of("ana", "ana paula", "anabela", "anderson", "andre", "antonio"),
+            trie.buscarPorPrefixo("an", 10));
+        assertEquals(List.of("ana", "ana paula"), trie.buscarPorPrefixo("an", 2));
+        assertEquals(List.of("anderson", "andre"), trie.buscarPorPrefixo("and", 10));
+        assertEquals(List.of("anderson"), trie.buscarPorPrefixo("ande", 10)); // termina no meio da aresta
+        assertEquals(List.of(), trie.buscarPorPrefixo("anx", 10));
+        assertEquals(List.of(), trie.buscarPorPrefixo("an", 0));
+        assertEquals(7, trie.contarPrefixo(""));
+
+        List<String> chaves = new ArrayList<>();
+        trie.paraCadaComPrefixo("ana", 10, (chave, valor) -> chaves.add(chave));
+        assertEquals(List.of("ana", "ana paula", "anabela"), chaves);
+    }
+
+    @Test
+    @DisplayName("Normalizador sem acentos deve unificar caixa e acentuação")
+    void normalizador() {
+        TrieNomes<String> trie = new TrieNomes<>(NormalizadorChave.SEM_ACENTOS);
+        trie.put("José Álvares", "José Álvares");
+        trie.put("Joana", "Joana");
+        trie.put("JOÃO", "JOÃO");
+
+        assertEquals("José Álvares", trie.get("jose alvares"));
+        assertEquals(List.of("Joana", "JOÃO"), trie.buscarPorPrefixo("JOA", 10));
+        assertEquals(List.of("José Álvares"), trie.buscarPorPrefixo("josé", 10));
+        assertEquals("joao", NormalizadorChave.SEM_ACENTOS.normalizar("João"));
+        assertEquals("ana", NormalizadorChave.MINUSCULAS.normalizar("ANA"));
+
+        TrieNomesCongelada<String> congelada = trie.congelar();
+        assertEquals("JOÃO", congelada.get("joao"));
+        assertEquals(2, congelada.contarPrefixo("joã"));
+    }
+
+    @Test
+    @DisplayName("TrieNomesCongelada deve responder igual à versão mutável")
+    void congeladaEquivalente() {
+        Random random = new Random(3);
+        TrieNomes<Integer> trie = new TrieNomes<>();
+        TreeMap<String, Integer> referencia = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int comprimento = random.nextInt(8);
+            for (int k = 0; k < comprimento; k++) {
+                sb.append((char) ('a' + random.nextInt(4)));
+            }
+            String chave = sb.toString();
+            trie.put(chave, i);
+            referencia.put(chave, i);
+        }
+        for (int i = 0; i < 200; i++) {
+            String chave = referencia.keySet().iterator().next();
+            trie.remove(chave);
+            referencia.remove(chave);
+            String outra = referencia.ceilingKey("c" + i % 3);
+            if (outra != null) {
+                trie.remove(outra);
+                referencia.remove(outra);
+            }
+        }
+
+        TrieNomesCongelada<Integer> congelada = trie.congelar();
+        assertEquals(referencia.size(), trie.size());
+        assertEquals(referencia.size(), congelada.size());
+        for (String prefixo : List.of("", "a", "ab", "abc", "ba", "dddd", "cab", "abcdabcd")) {
+            List<Integer> esperado = referencia.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefixo))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+            assertEquals(esperado, trie.buscarPorPrefixo(prefixo, Integer.MAX_VALUE), prefixo);
+            assertEquals(esperado, congelada.buscarPorPrefixo(prefixo, Integer.MAX_VALUE), prefixo);
+            assertEquals(esperado.subList(0, Math.min(3, esperado.size())), congelada.buscarPorPrefixo(prefixo, 3));
+            assertEquals(esperado.size(), congelada.contarPrefixo(prefixo));
+
+            Map<String, Integer> visitados = new LinkedHashMap<>();
+            congelada.paraCadaComPrefixo(prefixo, Integer.MAX_VALUE, visitados::put);
+            assertEquals(referencia.subMap(prefixo, prefixo + Character.MAX_VALUE), visitados);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            String chave = Integer.toString(i, 4).replace('0', 'a').replace('1', 'b').replace('2', 'c').replace('3', 'd');
+            assertEquals(referencia.get(chave), congelada.get(chave), chave);
+            assertEquals(referencia.get(chave), trie.get(chave), chave);
+        }
+        assertTrue(congelada.getBytesEstimados() < trie.getBytesEstimados());
+
+        TrieNomesCongelada<Integer> vazia = new TrieNomes<Integer>().congelar();
+        assertTrue(vazia.isEmpty());
+        assertNull(vazia.get(""));
+        assertEquals(List.of(), vazia.buscarPorPrefixo("", 5));
+    }
+}
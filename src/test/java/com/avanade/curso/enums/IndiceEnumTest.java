@@ -0,0 +1,127 @@
+package com.avanade.curso.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes do IndiceEnum e das buscas dos enums que o usam
+ */
+class IndiceEnumTest {
+
+    enum Esparso {
+        A(-1_000_000), B(7), C(Integer.MAX_VALUE), D(Integer.MIN_VALUE), E(0);
+
+        final int codigo;
+
+        Esparso(int codigo) {
+            this.codigo = codigo;
+        }
+    }
+
+    enum Repetido {
+        X(1), Y(2), Z(1);
+
+        final int codigo;
+
+        Repetido(int codigo) {
+            this.codigo = codigo;
+        }
+    }
+
+    @Test
+    @DisplayName("Chaves próximas devem usar array denso; esparsas, hash perfeito")
+    void modos() {
+        IndiceEnum.Inteiro<Prioridade> prioridades = IndiceEnum.porInt(Prioridade.class, Prioridade::getValor);
+        assertTrue(prioridades.isDenso());
+        assertEquals(4, prioridades.getTamanhoTabela());
+
+        IndiceEnum.Inteiro<StatusPedido> status = IndiceEnum.porInt(StatusPedido.class, StatusPedido::getCodigo);
+        assertFalse(status.isDenso());
+        assertTrue(status.getTamanhoTabela() >= 8 && status.getTamanhoTabela() <= 128, "" + status.getTamanhoTabela());
+    }
+
+    @Test
+    @DisplayName("Busca deve achar toda constante e devolver null para o resto")
+    void buscar() {
+        IndiceEnum.Inteiro<Esparso> indice = IndiceEnum.porInt(Esparso.class, e -> e.codigo);
+        assertFalse(indice.isDenso());
+        for (Esparso e : Esparso.values()) {
+            assertSame(e, indice.buscar(e.codigo));
+        }
+        Random random = new Random(1);
+        Set<Integer> codigos = Set.of(-1_000_000, 7, Integer.MAX_VALUE, Integer.MIN_VALUE, 0);
+        for (int i = 0; i < 100_000; i++) {
+            int chave = random.nextInt();
+            if (!codigos.contains(chave)) {
+                assertNull(indice.buscar(chave));
+            }
+        }
+        for (int chave = -100; chave <= 200; chave++) {
+            assertEquals(chave == 0 ? Esparso.E : chave == 7 ? Esparso.B : null, indice.buscar(chave));
+        }
+
+        IndiceEnum.Inteiro<Prioridade> denso = IndiceEnum.porInt(Prioridade.class, Prioridade::getValor);
+        assertNull(denso.buscar(0));
+        assertNull(denso.buscar(5));
+        assertNull(denso.buscar(Integer.MIN_VALUE));
+        assertSame(Prioridade.CRITICA, denso.buscar(4));
+    }
+
+    @Test
+    @DisplayName("Índice de texto deve comparar a chave inteira, não só o hash")
+    void texto() {
+        IndiceEnum.Texto<StatusPedido> indice = IndiceEnum.porTexto(StatusPedido.class, StatusPedido::getDescricao);
+        for (StatusPedido s : StatusPedido.values()) {
+            assertSame(s, indice.buscar(new String(s.getDescricao())));
+        }
+        assertNull(indice.buscar("entregue"));
+        assertNull(indice.buscar(""));
+        assertNull(indice.buscar(null));
+        // "Aa" e "BB" têm o mesmo hashCode
+        assertNull(IndiceEnum.porTexto(Prioridade.class, p -> p == Prioridade.BAIXA ? "Aa" : p.name()).buscar("BB"));
+    }
+
+    @Test
+    @DisplayName("Chaves texto distintas com o mesmo hashCode devem ser indexadas, não rejeitadas")
+    void mesmoHashCode() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        IndiceEnum.Texto<Repetido> indice = IndiceEnum.porTexto(Repetido.class,
+            r -> r == Repetido.X ? "Aa" : r == Repetido.Y ? "BB" : "C");
+        assertFalse(indice.isHashPerfeito());
+        assertSame(Repetido.X, indice.buscar("Aa"));
+        assertSame(Repetido.Y, indice.buscar("BB"));
+        assertSame(Repetido.Z, indice.buscar("C"));
+        assertNull(indice.buscar("AaBB"));
+        assertNull(indice.buscar(null));
+
+        assertTrue(IndiceEnum.porTexto(StatusPedido.class, StatusPedido::getDescricao).isHashPerfeito());
+    }
+
+    @Test
+    @DisplayName("Chave duplicada deve falhar na montagem do índice")
+    void duplicada() {
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+            () -> IndiceEnum.porInt(Repetido.class, r -> r.codigo));
+        assertEquals("Chave duplicada em Repetido: 1 (X e Z)", erro.getMessage());
+        assertThrows(IllegalStateException.class, () -> IndiceEnum.porTexto(Repetido.class, r -> "mesma"));
+        assertThrows(IllegalStateException.class, () -> IndiceEnum.porTexto(Repetido.class, r -> null));
+    }
+
+    @Test
+    @DisplayName("Enums devem buscar por código, descrição, valor e símbolo")
+    void buscasDosEnums() {
+        assertEquals(StatusPedido.CANCELADO, StatusPedido.porCodigo(99));
+        assertEquals(StatusPedido.ENVIADO, StatusPedido.porDescricao("Enviado"));
+        assertThrows(IllegalArgumentException.class, () -> StatusPedido.porDescricao("Perdido"));
+        assertThrows(IllegalArgumentException.class, () -> StatusPedido.porCodigo(6));
+        assertEquals(Prioridade.ALTA, Prioridade.porValor(3));
+        assertThrows(IllegalArgumentException.class, () -> Prioridade.porValor(0));
+        for (OperacaoMatematica operacao : OperacaoMatematica.values()) {
+            assertSame(operacao, OperacaoMatematica.porSimbolo(operacao.getSimbolo()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> OperacaoMatematica.porSimbolo("%"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.avanade.curso.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes da MaquinaEstadosPedido
+ */
+class MaquinaEstadosPedidoTest {
+
+    private static final byte PAGAR = (byte) EventoPedido.PAGAR.ordinal();
+    private static final byte SEPARAR = (byte) EventoPedido.SEPARAR.ordinal();
+    private static final byte ENVIAR = (byte) EventoPedido.ENVIAR.ordinal();
+    private static final byte ENTREGAR = (byte) EventoPedido.ENTREGAR.ordinal();
+    private static final byte CANCELAR = (byte) EventoPedido.CANCELAR.ordinal();
+
+    @Test
+    @DisplayName("Tabela deve conter só as transições do ciclo de vida")
+    void tabela() {
+        assertEquals(StatusPedido.PAGO, MaquinaEstadosPedido.destino(StatusPedido.PENDENTE, EventoPedido.PAGAR));
+        assertEquals(StatusPedido.ENTREGUE, MaquinaEstadosPedido.destino(StatusPedido.ENVIADO, EventoPedido.ENTREGAR));
+        assertEquals(StatusPedido.CANCELADO, MaquinaEstadosPedido.destino(StatusPedido.PAGO, EventoPedido.CANCELAR));
+        assertNull(MaquinaEstadosPedido.destino(StatusPedido.ENVIADO, EventoPedido.CANCELAR));
+        assertNull(MaquinaEstadosPedido.destino(StatusPedido.PENDENTE, EventoPedido.ENVIAR));
+
+        int validas = 0;
+        for (StatusPedido status : StatusPedido.values()) {
+            for (EventoPedido evento : EventoPedido.values()) {
+                validas += MaquinaEstadosPedido.permite(status, evento) ? 1 : 0;
+            }
+            assertEquals(status.isFinalizado(), MaquinaEstadosPedido.isTerminal(status));
+        }
+        assertEquals(6, validas);
+        assertTrue(MaquinaEstadosPedido.isTerminal(StatusPedido.CANCELADO));
+        assertFalse(MaquinaEstadosPedido.isTerminal(StatusPedido.PROCESSANDO));
+    }
+
+    @Test
+    @DisplayName("Lote deve aplicar as válidas, ignorar as inválidas e manter os contadores")
+    void lote() {
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(2, null);
+        int primeiro = maquina.criar(3);
+        assertEquals(0, primeiro);
+        assertEquals(3, maquina.contar(StatusPedido.PENDENTE));
+
+        int[] pedidos = {0, 0, 0, 1, 1, 2, 0, 2};
+        byte[] eventos = {PAGAR, SEPARAR, CANCELAR, ENVIAR, CANCELAR, ENTREGAR, ENVIAR, PAGAR};
+        assertEquals(5, maquina.aplicar(pedidos, eventos, 0, pedidos.length));
+
+        assertEquals(StatusPedido.ENVIADO, maquina.status(0));
+        assertEquals(StatusPedido.CANCELADO, maquina.status(1));
+        assertEquals(StatusPedido.PAGO, maquina.status(2));
+        assertEquals(5, maquina.getAceitos());
+        assertEquals(3, maquina.getRejeitados());
+
+        Map<StatusPedido, Integer> contagens = maquina.contagens();
+        assertEquals(1, contagens.get(StatusPedido.ENVIADO));
+        assertEquals(1, contagens.get(StatusPedido.CANCELADO));
+        assertEquals(1, contagens.get(StatusPedido.PAGO));
+        assertEquals(0, contagens.get(StatusPedido.PENDENTE));
+        assertEquals(3, contagens.values().stream().mapToInt(Integer::intValue).sum());
+
+        assertFalse(maquina.aplicar(1, EventoPedido.PAGAR));
+        assertTrue(maquina.aplicar(2, EventoPedido.SEPARAR));
+    }
+
+    @Test
+    @DisplayName("Ouvinte deve receber só as aceitas, em lotes de até TAMANHO_LOTE")
+    void ouvinte() {
+        List<Integer> tamanhos = new ArrayList<>();
+        List<String> transicoes = new ArrayList<>();
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(16, lote -> {
+            tamanhos.add(lote.tamanho());
+            if (transicoes.size() < 3) {
+                transicoes.add(lote.pedido(0) + ":" + lote.de(0) + "->" + lote.para(0));
+            }
+        });
+        int n = MaquinaEstadosPedido.TAMANHO_LOTE + 10;
+        maquina.criar(n);
+
+        // Cada pedido recebe PAGAR (válido) e ENTREGAR (inválido): n aceitos
+        int[] pedidos = new int[2 * n];
+        byte[] eventos = new byte[2 * n];
+        for (int i = 0; i < n; i++) {
+            pedidos[2 * i] = i;
+            eventos[2 * i] = ENTREGAR;
+            pedidos[2 * i + 1] = i;
+            eventos[2 * i + 1] = PAGAR;
+        }
+        assertEquals(n, maquina.aplicar(pedidos, eventos, 0, 2 * n));
+        assertEquals(n, tamanhos.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(tamanhos.stream().allMatch(t -> t <= MaquinaEstadosPedido.TAMANHO_LOTE));
+        assertEquals(List.of("0:PENDENTE->PAGO"), transicoes.subList(0, 1));
+        assertEquals(n, maquina.contar(StatusPedido.PAGO));
+    }
+
+    @Test
+    @DisplayName("Pedido ou evento inexistente deve lançar exceção")
+    void invalidos() {
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(0, null);
+        maquina.criar(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> maquina.aplicar(new int[] {2}, new byte[] {PAGAR}, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> maquina.aplicar(new int[] {0}, new byte[] {9}, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> maquina.aplicar(new int[] {0}, new byte[] {PAGAR}, 0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> maquina.status(2));
+        assertEquals(StatusPedido.PENDENTE, maquina.status(0));
+        assertEquals(2, maquina.contar(StatusPedido.PENDENTE));
+    }
+
+    @Test
+    @DisplayName("Lote com item inválido no fim não deve aplicar nada")
+    void loteInvalidoNaoAplica() {
+        List<Integer> tamanhos = new ArrayList<>();
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(0, lote -> tamanhos.add(lote.tamanho()));
+        maquina.criar(2);
+
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> maquina.aplicar(new int[] {0, 1, 5}, new byte[] {PAGAR, PAGAR, PAGAR}, 0, 3));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> maquina.aplicar(new int[] {0, 1}, new byte[] {PAGAR, -1}, 0, 2));
+
+        assertEquals(2, maquina.contar(StatusPedido.PENDENTE));
+        assertEquals(0, maquina.contar(StatusPedido.PAGO));
+        assertEquals(0, maquina.getAceitos());
+        assertEquals(0, maquina.getRejeitados());
+        assertTrue(tamanhos.isEmpty());
+
+        assertEquals(2, maquina.aplicar(new int[] {0, 1}, new byte[] {PAGAR, PAGAR}, 0, 2));
+        assertEquals(List.of(2), tamanhos);
+    }
+
+    @Test
+    @DisplayName("criar deve crescer o array de estados além da capacidade inicial")
+    void crescer() {
+        MaquinaEstadosPedido maquina = new MaquinaEstadosPedido(16, null);
+        assertEquals(0, maquina.criar(10));
+        assertEquals(10, maquina.criar(100));
+        assertEquals(110, maquina.getQuantidade());
+        assertEquals(StatusPedido.PENDENTE, maquina.status(109));
+        assertEquals(110, maquina.contar(StatusPedido.PENDENTE));
+    }
+}
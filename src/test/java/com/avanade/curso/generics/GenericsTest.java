@@ -152,6 +152,47 @@ class GenericsTest {
         assertEquals(1, inteiros.get(0));
     }
     
+    @Test
+    @DisplayName("Conversão em lote deve preservar a ordem, sequencial ou paralela")
+    void converterEmLote() {
+        List<Integer> numeros = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            numeros.add(i);
+        }
+        List<String> esperado = UtilitariosGenericos.converter(numeros, String::valueOf);
+        
+        assertEquals(esperado, UtilitariosGenericos.converterEmLote(numeros, String::valueOf));
+        assertEquals(esperado, UtilitariosGenericos.converterEmLote(numeros, String::valueOf, 1_000));
+        assertEquals(esperado, UtilitariosGenericos.converterEmLote(new LinkedList<>(numeros), String::valueOf, 1_000));
+        assertEquals(List.of(), UtilitariosGenericos.converterEmLote(List.<Integer>of(), String::valueOf, 0));
+        
+        String[] textos = esperado.toArray(new String[0]);
+        Integer[] devolta = UtilitariosGenericos.converterArray(textos, Integer[]::new, Integer::valueOf, 1_000);
+        assertArrayEquals(numeros.toArray(new Integer[0]), devolta);
+        
+        int[] dobros = UtilitariosGenericos.converterParaInt(new LinkedList<>(esperado), s -> Integer.parseInt(s) * 2, 1_000);
+        assertEquals(99_998, dobros[49_999]);
+        assertEquals(dobros.length, numeros.size());
+    }
+    
+    @Test
+    @DisplayName("Conversão em vários passos deve aplicar tudo numa passada")
+    void conversaoFundida() {
+        Conversao<String, Integer> conversao = Conversao.<String, String>de(String::trim)
+            .depois(Integer::parseInt)
+            .depois(i -> i * 10);
+        
+        assertEquals(List.of(10, 20, 30), conversao.aplicar(List.of(" 1", "2 ", " 3 ")));
+        assertEquals(70, conversao.converter(" 7 "));
+        
+        String[] linhas = new String[20_000];
+        Arrays.fill(linhas, " 4 ");
+        Integer[] resultado = conversao.aplicar(linhas, Integer[]::new, 1_000);
+        assertEquals(20_000, resultado.length);
+        assertTrue(Arrays.stream(resultado).allMatch(i -> i == 40));
+        assertThrows(NumberFormatException.class, () -> conversao.aplicar(List.of("x"), 0));
+    }
+    
     @Test
     @DisplayName("Maximo deve encontrar maior em lista")
     void maximoLista() {
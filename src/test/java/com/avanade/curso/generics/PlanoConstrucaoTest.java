@@ -0,0 +1,158 @@
+package com.avanade.curso.generics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Testes dos setters compilados do GenericBuilder
+ */
+class PlanoConstrucaoTest {
+
+    static class Base {
+        private String id;
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    static class Produto extends Base {
+        private String nome;
+        private int quantidade;
+        private Double preco;
+        private String url;
+        private String rotulo;
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+
+        public void setQuantidade(int quantidade) {
+            this.quantidade = quantidade;
+        }
+
+        public Produto setPreco(Double preco) { // fluente
+            this.preco = preco;
+            return this;
+        }
+
+        public void setURL(String url) {
+            this.url = url;
+        }
+
+        public void setRotulo(String rotulo) {
+            this.rotulo = rotulo;
+        }
+
+        public void setRotulo(int codigo) { // sobrecarga
+            this.rotulo = "#" + codigo;
+        }
+    }
+
+    /** Sobrecarga com supertipo: o setter mais específico deve vencer */
+    static class Etiqueta {
+        private Object valor;
+        private String origem;
+
+        public void setValor(Object valor) {
+            this.valor = valor;
+            this.origem = "Object";
+        }
+
+        public void setValor(CharSequence valor) {
+            this.valor = valor;
+            this.origem = "CharSequence";
+        }
+
+        public void setValor(String valor) {
+            this.valor = valor;
+            this.origem = "String";
+        }
+    }
+
+    /** Setter herdado de java.base: a LambdaMetafactory não tem acesso */
+    static class Data extends Date {
+    }
+
+    @Test
+    @DisplayName("GenericBuilder deve gravar propriedades herdadas, primitivas, fluentes e sobrecarregadas")
+    void builder() {
+        Produto p = new GenericBuilder<>(Produto.class)
+            .com("id", "p1")
+            .com("nome", "Caneta")
+            .com("Quantidade", 3) // Integer → int
+            .com("preco", 2.5)
+            .com("URL", "http://x")
+            .com("rotulo", 7)
+            .build();
+
+        assertEquals("p1", p.getId());
+        assertEquals("Caneta", p.nome);
+        assertEquals(3, p.quantidade);
+        assertEquals(2.5, p.preco);
+        assertEquals("http://x", p.url);
+        assertEquals("#7", p.rotulo);
+        assertEquals(Set.of("id", "nome", "quantidade", "preco", "URL", "rotulo"),
+            PlanoConstrucao.de(Produto.class).propriedades());
+    }
+
+    @Test
+    @DisplayName("Preenchimento por mapa deve aplicar tudo e rejeitar nome ou tipo inválido")
+    void preencherPorMapa() {
+        PlanoConstrucao<Produto> plano = PlanoConstrucao.de(Produto.class);
+        assertSame(plano, PlanoConstrucao.de(Produto.class));
+
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("nome", "Lápis");
+        valores.put("quantidade", 10);
+        valores.put("preco", null);
+        Produto p = plano.criar(valores);
+        assertEquals("Lápis", p.nome);
+        assertEquals(10, p.quantidade);
+        assertNull(p.preco);
+
+        assertThrows(IllegalArgumentException.class, () -> plano.definir(p, "cor", "azul"));
+        assertThrows(IllegalArgumentException.class, () -> plano.definir(p, "quantidade", 10L));
+        assertThrows(IllegalArgumentException.class, () -> plano.definir(p, "quantidade", null));
+        assertThrows(IllegalArgumentException.class, () -> plano.definir(p, "nome", 1));
+
+        BiConsumer<Produto, Object> nome = plano.setter("nome");
+        nome.accept(p, "Borracha");
+        assertEquals("Borracha", p.nome);
+        assertThrows(ClassCastException.class, () -> nome.accept(p, 1));
+        BiConsumer<Produto, Object> quantidade = plano.setter("quantidade"); // primitivo: verifica o tipo
+        assertThrows(IllegalArgumentException.class, () -> quantidade.accept(p, null));
+    }
+
+    @Test
+    @DisplayName("Sobrecarga deve escolher o setter mais específico, independente da ordem de getMethods")
+    void sobrecargaMaisEspecifica() {
+        PlanoConstrucao<Etiqueta> plano = PlanoConstrucao.de(Etiqueta.class);
+        Etiqueta etiqueta = plano.novaInstancia();
+
+        plano.definir(etiqueta, "valor", "texto");
+        assertEquals("String", etiqueta.origem);
+        plano.definir(etiqueta, "valor", new StringBuilder("sb"));
+        assertEquals("CharSequence", etiqueta.origem);
+        plano.definir(etiqueta, "valor", 42);
+        assertEquals("Object", etiqueta.origem);
+        assertEquals(42, etiqueta.valor);
+    }
+
+    @Test
+    @DisplayName("Setter de classe inacessível deve cair para MethodHandle")
+    void fallbackMethodHandle() {
+        Data data = new GenericBuilder<>(Data.class).com("time", 1_000L).build();
+        assertEquals(1_000L, data.getTime());
+
+        assertThrows(IllegalStateException.class, () -> PlanoConstrucao.de(Runnable.class).novaInstancia());
+    }
+}
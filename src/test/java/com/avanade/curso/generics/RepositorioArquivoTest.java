@@ -0,0 +1,228 @@
+package com.avanade.curso.generics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Testes do repositório persistente em arquivo mapeado
+ */
+class RepositorioArquivoTest {
+
+    record Cliente(Long id, String nome, String email) {
+    }
+
+    static final CodecBinario<Cliente> CODEC = new CodecBinario<>() {
+        @Override
+        public void escrever(Cliente c, DataOutput saida) throws IOException {
+            saida.writeLong(c.id());
+            saida.writeUTF(c.nome());
+            saida.writeBoolean(c.email() != null);
+            if (c.email() != null) {
+                saida.writeUTF(c.email());
+            }
+        }
+
+        @Override
+        public Cliente ler(DataInput entrada) throws IOException {
+            long id = entrada.readLong();
+            String nome = entrada.readUTF();
+            String email = entrada.readBoolean() ? entrada.readUTF() : null;
+            return new Cliente(id, nome, email);
+        }
+    };
+
+    @TempDir
+    Path pasta;
+
+    private static RepositorioArquivo<Cliente, Long> abrir(Path arquivo) throws IOException {
+        return RepositorioArquivo.comIdLong(arquivo, CODEC, Cliente::id,
+            (c, id) -> new Cliente(id, c.nome(), c.email()));
+    }
+
+    @Test
+    @DisplayName("Dados devem sobreviver ao fechamento e a sequência de IDs deve continuar")
+    void persistencia() throws IOException {
+        Path arquivo = pasta.resolve("clientes.db");
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            Cliente ana = repo.salvar(new Cliente(null, "Ana", "ana@x.com"));
+            repo.salvar(new Cliente(null, "Bia", null));
+            repo.salvar(new Cliente(null, "Caio", "caio@x.com"));
+            assertEquals(1L, ana.id());
+            repo.salvar(new Cliente(2L, "Bianca", "bia@x.com"));
+            repo.deletar(1L);
+            repo.deletar(99L); // inexistente: não grava nada
+            assertEquals(2, repo.size());
+        }
+
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(2, repo.size());
+            assertNull(repo.buscarPorId(1L));
+            assertEquals(new Cliente(2L, "Bianca", "bia@x.com"), repo.buscarPorId(2L));
+            assertEquals(new Cliente(3L, "Caio", "caio@x.com"), repo.buscarPorId(3L));
+            assertEquals(4L, repo.salvar(new Cliente(null, "Duda", null)).id());
+
+            Pagina<Cliente, Long> pagina = repo.buscarPagina(null, 2);
+            assertEquals(List.of(2L, 3L), pagina.itens().stream().map(Cliente::id).toList());
+            assertEquals(List.of(4L), repo.buscarPagina(pagina.proximoCursor(), 2)
+                .itens().stream().map(Cliente::id).toList());
+            assertEquals(List.of("Caio"), repo.buscar(c -> c.email() != null && c.email().startsWith("c"), 5)
+                .stream().map(Cliente::nome).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Registro corrompido na cauda deve ser descartado e o log deve continuar utilizável")
+    void recuperacao() throws IOException {
+        Path arquivo = pasta.resolve("clientes.db");
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            for (int i = 0; i < 3; i++) {
+                repo.salvar(new Cliente(null, "c" + i, null));
+            }
+            repo.salvar(new Cliente(null, "interrompido", null));
+        }
+
+        // Simula escrita interrompida: altera o último byte não zero (fim do 4º registro)
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            long pos = raf.length() - 1;
+            raf.seek(pos);
+            while (raf.read() == 0) {
+                raf.seek(--pos);
+            }
+            raf.seek(pos);
+            raf.write(0x7F);
+        }
+
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(3, repo.size());
+            assertNull(repo.buscarPorId(4L));
+            assertEquals("c2", repo.buscarPorId(3L).nome());
+            assertEquals(4L, repo.salvar(new Cliente(null, "novo", "n@x.com")).id());
+        }
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(4, repo.size());
+            assertEquals(new Cliente(4L, "novo", "n@x.com"), repo.buscarPorId(4L));
+        }
+
+        Path outro = pasta.resolve("outro.txt");
+        Files.writeString(outro, "não é um repositório");
+        assertThrows(IOException.class, () -> abrir(outro));
+    }
+
+    @Test
+    @DisplayName("Compactação deve descartar versões antigas sem perder escritas concorrentes")
+    void compactacao() throws Exception {
+        Path arquivo = pasta.resolve("clientes.db");
+        Map<Long, String> esperado = new HashMap<>();
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            for (int versao = 0; versao < 50; versao++) {
+                for (long id = 1; id <= 200; id++) {
+                    repo.salvar(new Cliente(id, "cliente " + id + " v" + versao, null));
+                }
+            }
+            long tamanhoAntes = Files.size(arquivo);
+            assertTrue(repo.getBytesMortos() > 40 * repo.getBytesVivos());
+
+            // Escritas durante a compactação caem na cauda e devem ser preservadas
+            Thread escritor = new Thread(() -> {
+                for (long id = 1; id <= 200; id++) {
+                    repo.salvar(new Cliente(id, "final " + id, null));
+                    if (id % 10 == 0) {
+                        repo.deletar(id);
+                    }
+                }
+            });
+            escritor.start();
+            repo.compactar();
+            escritor.join();
+            for (long id = 1; id <= 200; id++) {
+                if (id % 10 != 0) {
+                    esperado.put(id, "final " + id);
+                }
+            }
+
+            repo.compactar();
+            assertEquals(0, repo.getBytesMortos());
+            assertTrue(Files.size(arquivo) < tamanhoAntes / 4);
+            assertFalse(Files.exists(pasta.resolve("clientes.db.compactando")));
+            assertEquals(esperado.size(), repo.size());
+            repo.buscarTodos().forEach(c -> assertEquals(esperado.get(c.id()), c.nome()));
+        }
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(esperado.size(), repo.size());
+            esperado.forEach((id, nome) -> assertEquals(nome, repo.buscarPorId(id).nome()));
+        }
+    }
+
+    @Test
+    @DisplayName("Sequência de IDs deve continuar após compactar e reabrir, mesmo sem o maior ID vivo")
+    void sequenciaAposCompactacao() throws IOException {
+        Path arquivo = pasta.resolve("clientes.db");
+        RepositorioArquivo<Cliente, Long> fechado;
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            for (int i = 0; i < 5; i++) {
+                repo.salvar(new Cliente(null, "c" + i, null));
+            }
+            repo.deletar(4L);
+            repo.deletar(5L);
+            repo.compactar();
+            assertEquals(0, repo.getBytesMortos());
+            fechado = repo;
+        }
+        assertThrows(IllegalStateException.class, () -> fechado.size());
+        assertThrows(IllegalStateException.class, () -> fechado.existe(1L));
+
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(3, repo.size());
+            assertEquals(6L, repo.salvar(new Cliente(null, "novo", null)).id());
+            repo.deletar(6L);
+            repo.deletar(1L);
+            repo.compactar();
+        }
+        // A marca sobrevive a uma segunda compactação
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(2, repo.size());
+            assertEquals(7L, repo.salvar(new Cliente(null, "outro", null)).id());
+            for (long id = 2; id <= 7; id++) {
+                repo.deletar(id);
+            }
+            repo.compactar();
+        }
+        // Repositório vazio também guarda a marca
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals(0, repo.size());
+            assertEquals(8L, repo.salvar(new Cliente(null, "último", null)).id());
+        }
+    }
+
+    @Test
+    @DisplayName("Compactação em segundo plano deve disparar ao passar do limiar")
+    void compactacaoEmSegundoPlano() throws Exception {
+        Path arquivo = pasta.resolve("clientes.db");
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            repo.setLimiarCompactacao(16 * 1024);
+            for (int i = 0; i < 20_000; i++) {
+                repo.salvar(new Cliente(1L + i % 10, "nome " + i, null));
+            }
+            long limite = System.nanoTime() + 10_000_000_000L;
+            while (repo.getBytesMortos() > 64 * 1024 && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            assertTrue(repo.getBytesMortos() <= 64 * 1024);
+            assertEquals(10, repo.size());
+            assertEquals("nome 19999", repo.buscarPorId(10L).nome());
+        }
+        try (RepositorioArquivo<Cliente, Long> repo = abrir(arquivo)) {
+            assertEquals("nome 19990", repo.buscarPorId(1L).nome());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.avanade.curso.generics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testes do repositório concorrente com índices secundários
+ */
+class RepositorioConcorrenteTest {
+
+    record Cliente(Long id, String nome, String email) {
+    }
+
+    private static RepositorioConcorrente<Cliente, Long> novoRepositorio() {
+        return new RepositorioConcorrente<>(Cliente::id,
+            (c, id) -> new Cliente(id, c.nome(), c.email()), RepositorioConcorrente.sequencial());
+    }
+
+    @Test
+    @DisplayName("Índices devem acompanhar inserção, atualização e exclusão")
+    void indicesConsistentes() {
+        RepositorioConcorrente<Cliente, Long> repo = novoRepositorio();
+        RepositorioConcorrente.Indice<Cliente, String> porNome = repo.criarIndice("nome", Cliente::nome);
+        RepositorioConcorrente.IndiceUnico<Cliente, String> porEmail = repo.criarIndiceUnico("email", Cliente::email);
+
+        Cliente ana = repo.salvar(new Cliente(null, "Ana", "ana@x.com"));
+        Cliente outraAna = repo.salvar(new Cliente(null, "Ana", "ana2@x.com"));
+        assertEquals(1L, ana.id());
+        assertEquals(2L, outraAna.id());
+        assertEquals(2, porNome.contar("Ana"));
+        assertEquals(Optional.of(outraAna), porEmail.buscar("ana2@x.com"));
+
+        Cliente renomeada = repo.salvar(new Cliente(2L, "Bia", "bia@x.com"));
+        assertEquals(List.of(ana), porNome.buscar("Ana"));
+        assertEquals(List.of(renomeada), porNome.buscar("Bia"));
+        assertEquals(Optional.empty(), porEmail.buscar("ana2@x.com"));
+        assertEquals(Optional.of(renomeada), porEmail.buscar("bia@x.com"));
+
+        repo.deletar(1L);
+        assertEquals(List.of(), porNome.buscar("Ana"));
+        assertEquals(0, porNome.contar("Ana"));
+        assertEquals(Optional.empty(), porEmail.buscar("ana@x.com"));
+        assertEquals(1, repo.size());
+    }
+
+    @Test
+    @DisplayName("Violação de índice único não deve alterar nada")
+    void violacaoIndiceUnico() {
+        RepositorioConcorrente<Cliente, Long> repo = novoRepositorio();
+        RepositorioConcorrente.Indice<Cliente, String> porNome = repo.criarIndice("nome", Cliente::nome);
+        RepositorioConcorrente.IndiceUnico<Cliente, String> porEmail = repo.criarIndiceUnico("email", Cliente::email);
+        Cliente ana = repo.salvar(new Cliente(null, "Ana", "ana@x.com"));
+        Cliente bia = repo.salvar(new Cliente(null, "Bia", "bia@x.com"));
+
+        assertThrows(IllegalStateException.class, () -> repo.salvar(new Cliente(bia.id(), "Bianca", "ana@x.com")));
+        assertEquals(bia, repo.buscarPorId(bia.id()));
+        assertEquals(List.of(bia), porNome.buscar("Bia"));
+        assertEquals(List.of(), porNome.buscar("Bianca"));
+        assertEquals(Optional.of(ana), porEmail.buscar("ana@x.com"));
+
+        assertThrows(IllegalArgumentException.class, () -> repo.criarIndice("nome", Cliente::email));
+        repo.salvar(new Cliente(null, "Caio", "caio@x.com"));
+        repo.salvar(new Cliente(null, "Duda", "ana@y.com"));
+        assertThrows(IllegalStateException.class, () -> repo.criarIndiceUnico("dominio",
+            c -> c.email().substring(c.email().indexOf('@'))));
+    }
+
+    @Test
+    @DisplayName("Índice criado depois deve indexar dados existentes e ID explícito não deve colidir")
+    void indiceTardioEIdExplicito() {
+        RepositorioConcorrente<Cliente, Long> repo = novoRepositorio();
+        repo.salvar(new Cliente(2L, "Ana", null)); // ID explícito à frente da sequência
+        Cliente primeiro = repo.salvar(new Cliente(null, "Bia", null));
+        Cliente segundo = repo.salvar(new Cliente(null, "Ana", null));
+        assertEquals(1L, primeiro.id());
+        assertEquals(3L, segundo.id()); // 2 já estava ocupado
+
+        RepositorioConcorrente.Indice<Cliente, String> porNome = repo.criarIndice("nome", Cliente::nome);
+        assertEquals(2, porNome.buscar("Ana").size());
+        RepositorioConcorrente.IndiceUnico<Cliente, String> porEmail = repo.criarIndiceUnico("email", Cliente::email);
+        assertEquals(Optional.empty(), porEmail.buscar("qualquer")); // e-mails null ficam fora
+    }
+
+    @Test
+    @DisplayName("Escritas concorrentes devem gerar IDs únicos e manter índices consistentes")
+    void concorrencia() throws Exception {
+        RepositorioConcorrente<Cliente, Long> repo = novoRepositorio();
+        RepositorioConcorrente.Indice<Cliente, String> porNome = repo.criarIndice("nome", Cliente::nome);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    Cliente c = repo.salvar(new Cliente(null, "n" + (i % 10), null));
+                    // Renomeia metade, alternando entre threads
+                    if (i % 2 == 0) {
+                        repo.salvar(new Cliente(c.id(), "t" + thread, null));
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : tarefas) {
+            f.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8_000, repo.size());
+        int totalIndexado = 0;
+        for (int i = 0; i < 10; i++) {
+            List<Cliente> encontrados = porNome.buscar("n" + i);
+            encontrados.forEach(c -> assertTrue(c.nome().startsWith("n")));
+            totalIndexado += encontrados.size();
+        }
+        for (int t = 0; t < 4; t++) {
+            assertEquals(1_000, porNome.contar("t" + t));
+            totalIndexado += porNome.buscar("t" + t).size();
+        }
+        assertEquals(8_000, totalIndexado);
+    }
+
+    @Test
+    @DisplayName("Paginação por keyset deve percorrer tudo em ordem de ID, mesmo com exclusões no meio")
+    void paginacao() {
+        RepositorioConcorrente<Cliente, Long> repo = novoRepositorio();
+        for (int i = 0; i < 25; i++) {
+            repo.salvar(new Cliente(null, i % 2 == 0 ? "par" : "impar", null));
+        }
+
+        Pagina<Cliente, Long> primeira = repo.buscarPagina(null, 10);
+        assertEquals(10, primeira.itens().size());
+        assertEquals(10L, primeira.proximoCursor());
+        repo.deletar(11L); // exclusão entre páginas não desloca a próxima
+
+        List<Long> vistos = new ArrayList<>();
+        primeira.itens().forEach(c -> vistos.add(c.id()));
+        Long cursor = primeira.proximoCursor();
+        while (cursor != null) {
+            Pagina<Cliente, Long> pagina = repo.buscarPagina(cursor, 10);
+            pagina.itens().forEach(c -> vistos.add(c.id()));
+            cursor = pagina.proximoCursor();
+        }
+        List<Long> esperado = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            if (id != 11) {
+                esperado.add(id);
+            }
+        }
+        assertEquals(esperado, vistos);
+
+        Pagina<Cliente, Long> pares = repo.buscarPagina(20L, 10, c -> c.nome().equals("par"));
+        assertEquals(List.of(21L, 23L, 25L), pares.itens().stream().map(Cliente::id).toList());
+        assertFalse(pares.temProxima());
+        assertThrows(IllegalArgumentException.class, () -> repo.buscarPagina(null, 0));
+    }
+
+    @Test
+    @DisplayName("Stream deve ser preguiçoso, paralelizável e aplicar o filtro na fonte")
+    void streamEFiltro() {
+        RepositorioConcorrente<Cliente, Long> repo = novoRepositorio();
+        RepositorioConcorrente.Indice<Cliente, String> porNome = repo.criarIndice("nome", Cliente::nome);
+        for (int i = 0; i < 10_000; i++) {
+            repo.salvar(new Cliente(null, "n" + (i % 100), i % 3 == 0 ? "x" : null));
+        }
+
+        assertEquals(10_000, repo.stream().count());
+        assertEquals(repo.stream().mapToLong(Cliente::id).sum(),
+            repo.stream().parallel().mapToLong(Cliente::id).sum());
+
+        int[] testados = {0};
+        List<Cliente> primeiros = repo.buscar(c -> {
+            testados[0]++;
+            return c.email() != null;
+        }, 5);
+        assertEquals(5, primeiros.size());
+        assertTrue(testados[0] < 100, "buscar deve parar ao atingir o limite");
+
+        assertEquals(3_334, repo.stream(c -> c.email() != null).parallel().count());
+        assertEquals(100, repo.stream(c -> c.nome().equals("n7")).count());
+        assertEquals(33, porNome.buscar("n7", c -> c.email() != null).size());
+    }
+
+    @Test
+    @DisplayName("UsuarioRepository deve buscar por nome via índice")
+    void usuarioRepositoryPorNome() {
+        UsuarioRepository repo = new UsuarioRepository();
+        Usuario joao = repo.salvar(new Usuario(null, "João"));
+        repo.salvar(new Usuario(null, "Maria"));
+        assertEquals(List.of(joao), repo.buscarPorNome("João"));
+        repo.salvar(new Usuario(joao.getId(), "João Silva"));
+        assertEquals(List.of(), repo.buscarPorNome("João"));
+        assertEquals(1, repo.buscarPorNome("João Silva").size());
+    }
+}
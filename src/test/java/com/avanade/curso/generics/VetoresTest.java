@@ -0,0 +1,111 @@
+package com.avanade.curso.generics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Testes dos vetores primitivos (IntVector, LongVector, DoubleVector)
+ */
+class VetoresTest {
+
+    @Test
+    @DisplayName("IntVector deve agregar sem estourar e funcionar como List<Integer>")
+    void intVector() {
+        IntVector v = IntVector.de(Integer.MAX_VALUE, Integer.MAX_VALUE, -5);
+        assertEquals(2L * Integer.MAX_VALUE - 5, v.soma());
+        assertEquals(-5, v.minimo());
+        assertEquals(Integer.MAX_VALUE, v.maximo());
+        assertEquals((2.0 * Integer.MAX_VALUE - 5) / 3, v.media(), 1e-6);
+        assertEquals(2L * Integer.MAX_VALUE * Integer.MAX_VALUE + 25, v.produtoEscalar(v));
+
+        IntVector lista = new IntVector(1);
+        for (int i = 0; i < 100; i++) {
+            lista.adicionar(i);
+        }
+        lista.add(0, -1);
+        lista.remove(Integer.valueOf(50));
+        assertEquals(100, lista.size());
+        assertEquals(-1, lista.get(0));
+        assertEquals(4950 - 50 - 1, ExemplosWildcards.somarNumeros(lista));
+        assertEquals(new ArrayList<>(lista), lista);
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.getInt(100));
+        assertThrows(IllegalArgumentException.class, () -> lista.produtoEscalar(IntVector.de(1)));
+        assertThrows(NoSuchElementException.class, () -> new IntVector().minimo());
+    }
+
+    @Test
+    @DisplayName("LongVector deve calcular a média mesmo quando a soma não cabe em long")
+    void longVector() {
+        LongVector v = LongVector.de(Long.MAX_VALUE, Long.MAX_VALUE - 2);
+        assertEquals(Long.MAX_VALUE - 2, v.minimo());
+        assertEquals(Long.MAX_VALUE, v.maximo());
+        assertEquals((double) Long.MAX_VALUE, v.media());
+        assertEquals(32L, LongVector.de(1, 2, 3).produtoEscalar(LongVector.de(4, 5, 6)));
+
+        LongVector lista = new LongVector();
+        lista.adicionarTodos(new long[]{10, 20, 30});
+        assertEquals(60.0, ExemplosWildcards.somarNumeros(lista));
+        assertArrayEquals(new long[]{10, 20, 30}, lista.paraArray());
+
+        // Soma em long daria -2; em double, como o laço genérico, 2^64
+        LongVector maximos = LongVector.de(Long.MAX_VALUE, Long.MAX_VALUE);
+        assertEquals(0x1p64, ExemplosWildcards.somarNumeros(maximos));
+        assertEquals(ExemplosWildcards.somarNumeros(List.of(Long.MAX_VALUE, Long.MAX_VALUE)),
+            ExemplosWildcards.somarNumeros(maximos));
+    }
+
+    @Test
+    @DisplayName("DoubleVector deve somar com compensação e propagar NaN em mínimo e máximo")
+    void doubleVector() {
+        DoubleVector v = DoubleVector.de(1e16, 1.0, -1e16);
+        assertEquals(1.0, v.soma());
+        assertEquals(1.0, ExemplosWildcards.somarNumeros(v));
+        assertEquals(0.0, ExemplosWildcards.somarNumeros(new ArrayList<>(v))); // caminho ingênuo perde o 1
+
+        DoubleVector decimos = new DoubleVector();
+        for (int i = 0; i < 1_000_000; i++) {
+            decimos.adicionar(0.1);
+        }
+        assertEquals(100_000.0, decimos.soma(), 1e-9);
+        assertEquals(0.1, decimos.media(), 1e-15);
+
+        // 1+2^-30 ao quadrado perde 2^-60 no produto; o fma recupera
+        double x = 1 + Math.scalb(1.0, -30);
+        DoubleVector a = DoubleVector.de(x, -1.0);
+        assertEquals(Math.scalb(1.0, -29) + Math.scalb(1.0, -60), a.produtoEscalar(DoubleVector.de(x, 1.0)));
+
+        assertTrue(Double.isNaN(DoubleVector.de(1, Double.NaN, 3).maximo()));
+        assertEquals(-2.0, DoubleVector.de(1, -2, 3).minimo());
+    }
+
+    @Test
+    @DisplayName("DoubleVector deve devolver infinito, não NaN, com overflow ou elemento infinito")
+    void doubleVectorNaoFinito() {
+        assertEquals(Double.POSITIVE_INFINITY, DoubleVector.de(Double.MAX_VALUE, Double.MAX_VALUE).soma());
+        assertEquals(Double.NEGATIVE_INFINITY, DoubleVector.de(-Double.MAX_VALUE, -Double.MAX_VALUE, 1).soma());
+        assertEquals(Double.POSITIVE_INFINITY, DoubleVector.de(1, Double.POSITIVE_INFINITY, 2).soma());
+        assertEquals(Double.NEGATIVE_INFINITY, DoubleVector.de(Double.NEGATIVE_INFINITY, 1e300).media());
+        assertTrue(Double.isNaN(DoubleVector.de(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY).soma()));
+
+        DoubleVector grandes = DoubleVector.de(1e200, 1e200);
+        assertEquals(Double.POSITIVE_INFINITY, grandes.produtoEscalar(grandes));
+        assertEquals(Double.NEGATIVE_INFINITY,
+            DoubleVector.de(Double.POSITIVE_INFINITY, 1).produtoEscalar(DoubleVector.de(-1, 1)));
+    }
+
+    @Test
+    @DisplayName("NumberBox deve comparar longs grandes sem perda de precisão")
+    void numberBoxInteiros() {
+        NumberBox<Long> box = new NumberBox<>();
+        box.set(Long.MAX_VALUE);
+        assertTrue(box.isGreaterThan(Long.MAX_VALUE - 1));
+        assertFalse(box.isGreaterThan(Long.MAX_VALUE));
+
+        NumberBox<Number> misto = new NumberBox<>();
+        misto.set(2.5);
+        assertTrue(misto.isGreaterThan(2));
+    }
+}
@@ -0,0 +1,168 @@
+package com.avanade.curso.nio;
+
+import com.avanade.curso.carga.MedicaoCarga;
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes;
+import com.avanade.curso.oop.abstracao.GerenciadorNotificacoes.Canal;
+import com.avanade.curso.oop.abstracao.NotificacaoSms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+
+/**
+ * Testes do servidor NIO de notificações via loopback
+ */
+class ServidorNotificacoesTest {
+
+    private ServidorNotificacoes servidor;
+    private InetSocketAddress endereco;
+    private PrintStream saidaOriginal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // O template method de ServicoNotificacao registra log por envio:
+        // o gerador de carga produziria milhares de linhas no relatório
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        GerenciadorNotificacoes gerenciador = new GerenciadorNotificacoes();
+        NotificacaoSms sms = new NotificacaoSms();
+        sms.configurar(Map.of("apiKey", "test-api-key"));
+        // QUALQUER usa o primeiro serviço ativo: o silencioso aceita qualquer destinatário
+        gerenciador.adicionarServico(new GeradorCargaNotificacoes.ServicoSilencioso());
+        gerenciador.adicionarServico(sms);
+
+        servidor = new ServidorNotificacoes(gerenciador, new InetSocketAddress("127.0.0.1", 0), 2, 4096);
+        servidor.iniciar();
+        endereco = new InetSocketAddress("127.0.0.1", servidor.getPorta());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try {
+            servidor.close();
+        } finally {
+            System.setOut(saidaOriginal);
+        }
+    }
+
+    private static byte[] lerRespostas(SocketChannel canal, int quantidade) throws IOException {
+        ByteBuffer resposta = ByteBuffer.allocate(quantidade);
+        while (resposta.hasRemaining()) {
+            if (canal.read(resposta) < 0) {
+                break;
+            }
+        }
+        return resposta.array();
+    }
+
+    @Test
+    @DisplayName("Requisição única deve ser despachada ao gerenciador")
+    void requisicaoUnica() throws IOException {
+        try (SocketChannel canal = SocketChannel.open(endereco)) {
+            ByteBuffer envio = ByteBuffer.allocate(256);
+            ProtocoloNotificacao.codificar(envio, Canal.SMS, "11999999999", "Olá");
+            canal.write(envio.flip());
+
+            assertArrayEquals(new byte[] {ProtocoloNotificacao.STATUS_SUCESSO}, lerRespostas(canal, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Requisições pipelined devem ser respondidas em ordem")
+    void pipelining() throws IOException {
+        try (SocketChannel canal = SocketChannel.open(endereco)) {
+            ByteBuffer envio = ByteBuffer.allocate(1024);
+            ProtocoloNotificacao.codificar(envio, Canal.SMS, "11999999999", "ok");
+            ProtocoloNotificacao.codificar(envio, Canal.SMS, "123", "número inválido");
+            ProtocoloNotificacao.codificar(envio, Canal.EMAIL, "a@b.com", "sem serviço de email");
+            ProtocoloNotificacao.codificar(envio, Canal.QUALQUER, "x", "qualquer canal");
+            canal.write(envio.flip());
+
+            assertArrayEquals(new byte[] {
+                ProtocoloNotificacao.STATUS_SUCESSO,
+                ProtocoloNotificacao.STATUS_FALHA,
+                ProtocoloNotificacao.STATUS_FALHA,
+                ProtocoloNotificacao.STATUS_SUCESSO
+            }, lerRespostas(canal, 4));
+        }
+    }
+
+    @Test
+    @DisplayName("Frame fragmentado em vários writes deve ser remontado")
+    void frameFragmentado() throws IOException, InterruptedException {
+        try (SocketChannel canal = SocketChannel.open(endereco)) {
+            ByteBuffer envio = ByteBuffer.allocate(256);
+            ProtocoloNotificacao.codificar(envio, Canal.QUALQUER, "destino", "mensagem fragmentada");
+            envio.flip();
+            int limite = envio.limit();
+            for (int i = 0; i < limite; i += 3) {
+                envio.limit(Math.min(limite, i + 3));
+                canal.write(envio);
+                Thread.sleep(1);
+            }
+
+            assertArrayEquals(new byte[] {ProtocoloNotificacao.STATUS_SUCESSO}, lerRespostas(canal, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Canal desconhecido deve retornar status inválido")
+    void canalInvalido() throws IOException {
+        try (SocketChannel canal = SocketChannel.open(endereco)) {
+            ByteBuffer envio = ByteBuffer.allocate(64);
+            envio.putInt(3 + 1 + 1).put((byte) 99).putShort((short) 1).put((byte) 'x').put((byte) 'y');
+            canal.write(envio.flip());
+
+            assertArrayEquals(new byte[] {ProtocoloNotificacao.STATUS_INVALIDO}, lerRespostas(canal, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Frame maior que o buffer deve encerrar a conexão")
+    void frameGrandeDemais() throws IOException {
+        try (SocketChannel canal = SocketChannel.open(endereco)) {
+            canal.write(ByteBuffer.allocate(4).putInt(1_000_000).flip());
+
+            assertEquals(-1, canal.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Gerador de carga deve medir vazão e latência")
+    void geradorCarga() throws Exception {
+        MedicaoCarga.ResultadoCarga resultado =
+            new GeradorCargaNotificacoes(endereco, 4, 500, 32).executar();
+
+        assertEquals(2_000, resultado.requisicoes());
+        assertEquals(2_000, resultado.sucessos());
+        assertTrue(resultado.requisicoesPorSegundo() > 0);
+        assertTrue(resultado.p50Micros() <= resultado.p99Micros());
+        assertEquals(2_000, servidor.getRequisicoesProcessadas());
+    }
+
+    @Test
+    @DisplayName("Pool deve reutilizar buffers devolvidos")
+    void poolReutiliza() {
+        PoolBuffers pool = new PoolBuffers(1024, 2);
+        ByteBuffer a = pool.adquirir();
+        a.put((byte) 1);
+        pool.liberar(a);
+        ByteBuffer b = pool.adquirir();
+
+        assertSame(a, b);
+        assertEquals(0, b.position());
+        assertEquals(1, pool.getAlocados());
+        assertEquals(1, pool.getReutilizados());
+    }
+}